@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
 import lombok.Setter;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.json.SecondsDateTimeSerializer;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
@@ -19,9 +21,11 @@ public class BookingDto {
     private UserDto booker;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = SecondsDateTimeSerializer.class)
     private LocalDateTime start;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = SecondsDateTimeSerializer.class)
     private LocalDateTime end;
 
     private BookingStatus status;
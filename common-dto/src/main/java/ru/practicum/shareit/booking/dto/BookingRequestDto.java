@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
 import lombok.Setter;
+import ru.practicum.shareit.json.SecondsDateTimeSerializer;
 
 import javax.validation.constraints.FutureOrPresent;
 import javax.validation.constraints.NotNull;
@@ -17,10 +19,12 @@ public class BookingRequestDto {
     @NotNull
     @FutureOrPresent
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = SecondsDateTimeSerializer.class)
     private LocalDateTime start;
 
     @NotNull
     @FutureOrPresent
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = SecondsDateTimeSerializer.class)
     private LocalDateTime end;
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BookingStateSummaryDto {
+    private long count;
+
+    private List<BookingDto> bookings;
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
 import lombok.Setter;
+import ru.practicum.shareit.json.SecondsDateTimeSerializer;
 
 import javax.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
@@ -18,5 +20,6 @@ public class CommentDto {
     private String text;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = SecondsDateTimeSerializer.class)
     private LocalDateTime created;
 }
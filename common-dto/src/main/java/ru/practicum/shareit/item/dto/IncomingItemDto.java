@@ -5,6 +5,7 @@ import lombok.Setter;
 import ru.practicum.shareit.item.validation.CreateItemValidationGroup;
 import ru.practicum.shareit.item.validation.UpdateItemValidationGroup;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
@@ -28,4 +29,7 @@ public class IncomingItemDto {
 
     @Positive(groups = {CreateItemValidationGroup.class, UpdateItemValidationGroup.class})
     private Long requestId;
+
+    @Valid
+    private LocationDto location;
 }
@@ -19,5 +19,9 @@ public class ItemDto {
 
     private Collection<CommentDto> comments;
 
+    private long commentsCount;
+
     private Long requestId;
+
+    private LocationDto location;
 }
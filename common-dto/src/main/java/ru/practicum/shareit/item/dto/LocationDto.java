@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.item.validation.CreateItemValidationGroup;
+import ru.practicum.shareit.item.validation.UpdateItemValidationGroup;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationDto {
+    @NotNull(groups = {CreateItemValidationGroup.class, UpdateItemValidationGroup.class})
+    @DecimalMin(value = "-90", groups = {CreateItemValidationGroup.class, UpdateItemValidationGroup.class})
+    @DecimalMax(value = "90", groups = {CreateItemValidationGroup.class, UpdateItemValidationGroup.class})
+    private Double latitude;
+
+    @NotNull(groups = {CreateItemValidationGroup.class, UpdateItemValidationGroup.class})
+    @DecimalMin(value = "-180", groups = {CreateItemValidationGroup.class, UpdateItemValidationGroup.class})
+    @DecimalMax(value = "180", groups = {CreateItemValidationGroup.class, UpdateItemValidationGroup.class})
+    private Double longitude;
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes LocalDateTime as yyyy-MM-dd'T'HH:mm:ss, the same text as the @JsonFormat pattern of the DTOs, but
+ * straight into a char buffer instead of going through DateTimeFormatter. yyyy is the year of era, so years before
+ * 1 and after 9999 are left to the formatter.
+ */
+public class SecondsDateTimeSerializer extends StdSerializer<LocalDateTime> {
+    private static final DateTimeFormatter FALLBACK_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final int LENGTH = 19;
+
+    public SecondsDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        var year = value.getYear();
+
+        if (year < 1 || year > 9999) {
+            generator.writeString(FALLBACK_FORMATTER.format(value));
+            return;
+        }
+
+        var buffer = new char[LENGTH];
+
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+        generator.writeString(buffer, 0, LENGTH);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.requests.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
 import lombok.Setter;
+import ru.practicum.shareit.json.SecondsDateTimeSerializer;
 
 import javax.validation.constraints.NotEmpty;
 import java.time.LocalDateTime;
@@ -17,6 +19,7 @@ public class ItemRequestDto {
     private String description;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = SecondsDateTimeSerializer.class)
     private LocalDateTime created;
 
     private List<ItemDtoForRequest> items;
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.BookingInfoDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BookingPages {
+    static final int PAGE_SIZE = 20;
+
+    private BookingPages() {
+    }
+
+    static List<BookingDto> createPage() {
+        var start = LocalDateTime.of(2022, 9, 1, 10, 0);
+        var page = new ArrayList<BookingDto>(PAGE_SIZE);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            var booking = new BookingDto();
+
+            booking.setId(1000L + i);
+            booking.setItem(createItem(i));
+            booking.setBooker(createUser(i));
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i + 2));
+            booking.setStatus(BookingStatus.values()[i % BookingStatus.values().length]);
+            page.add(booking);
+        }
+        return page;
+    }
+
+    private static ItemDto createItem(int index) {
+        var item = new ItemDto();
+        var comments = new ArrayList<CommentDto>();
+
+        for (int i = 0; i < 3; i++) {
+            var comment = new CommentDto();
+
+            comment.setId(index * 10L + i);
+            comment.setAuthorName("Автор " + i);
+            comment.setText("Отличная вещь, всё работает, брал на выходные");
+            comment.setCreated(LocalDateTime.of(2022, 8, 1 + i, 12, 30));
+            comments.add(comment);
+        }
+        item.setId(index);
+        item.setName("Дрель " + index);
+        item.setDescription("Дрель ударная, два аккумулятора и набор свёрл");
+        item.setAvailable(true);
+        item.setLastBooking(new BookingInfoDto(index * 2L, index + 1L));
+        item.setNextBooking(new BookingInfoDto(index * 2L + 1, index + 2L));
+        item.setComments(comments);
+        item.setRequestId(index % 2 == 0 ? null : (long) index);
+        return item;
+    }
+
+    private static UserDto createUser(int index) {
+        var user = new UserDto();
+
+        user.setId(index + 1L);
+        user.setName("Пользователь " + index);
+        user.setEmail("user" + index + "@example.com");
+        return user;
+    }
+}
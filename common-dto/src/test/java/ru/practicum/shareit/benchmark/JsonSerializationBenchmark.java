@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of one page of bookings as the server writes it to the response stream. "reflective" is the
+ * previous setup (plain bean serializers, dates formatted from the @JsonFormat pattern), "optimized" uses Blackbird
+ * and SecondsDateTimeSerializer. Run with
+ * {@code mvn -pl common-dto test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main JsonSerializationBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"reflective", "optimized"})
+    private String serialization;
+
+    private ObjectMapper mapper;
+    private List<BookingDto> page;
+    private OutputStream responseStream;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper();
+        mapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        mapper.registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("optimized".equals(serialization)) {
+            mapper.registerModule(new BlackbirdModule());
+        } else {
+            mapper.addMixIn(BookingDto.class, FormattedBookingDates.class);
+            mapper.addMixIn(CommentDto.class, FormattedCommentDates.class);
+        }
+        page = BookingPages.createPage();
+        responseStream = OutputStream.nullOutputStream();
+    }
+
+    @Benchmark
+    public void writePage() throws IOException {
+        mapper.writeValue(responseStream, page);
+    }
+
+    abstract static class FormattedBookingDates {
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        @JsonSerialize(using = LocalDateTimeSerializer.class)
+        private LocalDateTime start;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        @JsonSerialize(using = LocalDateTimeSerializer.class)
+        private LocalDateTime end;
+    }
+
+    abstract static class FormattedCommentDates {
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        @JsonSerialize(using = LocalDateTimeSerializer.class)
+        private LocalDateTime created;
+    }
+}
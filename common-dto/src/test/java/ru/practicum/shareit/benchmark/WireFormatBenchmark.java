@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one page of bookings on the gateway-to-server hop: the server writes it, the gateway reads it into
+ * untyped maps. Run with
+ * {@code mvn -pl common-dto test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main WireFormatBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"json", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private List<BookingDto> page;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "smile".equals(format) ? new ObjectMapper(new SmileFactory()) : new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        page = BookingPages.createPage();
+        encodedPage = mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writePage(PageSize pageSize) throws IOException {
+        var encoded = mapper.writeValueAsBytes(page);
+
+        if (pageSize.recording) {
+            pageSize.bytes = encoded.length;
+        }
+        return encoded;
+    }
+
+    @Benchmark
+    public Object readPage() throws IOException {
+        return mapper.readValue(encodedPage, Object.class);
+    }
+
+    /**
+     * Reports the encoded size of the page next to the writePage score. JMH adds event counters up over the
+     * measurement iterations, so the size is recorded in the first of them only.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PageSize {
+        public long bytes;
+        private boolean recording;
+        private boolean recorded;
+
+        @Setup(Level.Iteration)
+        public void setUp(IterationParams iteration) {
+            bytes = 0;
+            recording = iteration.getType() == IterationType.MEASUREMENT && !recorded;
+            recorded |= recording;
+        }
+    }
+}
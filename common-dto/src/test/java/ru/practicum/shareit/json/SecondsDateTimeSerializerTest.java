@@ -0,0 +1,105 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondsDateTimeSerializerTest {
+    private final List<ObjectMapper> mappers = List.of(createMapper(new ObjectMapper()),
+            createMapper(new SmileMapper()));
+
+    @Test
+    void serializeWriteSameTextAsJsonFormatPattern() {
+        assertSameBytes(LocalDateTime.of(2022, 8, 15, 13, 5, 9));
+        assertSameBytes(LocalDateTime.of(9999, 12, 31, 23, 59, 59));
+        assertEquals("\"2022-08-15T13:05:09\"", writeJson(LocalDateTime.of(2022, 8, 15, 13, 5, 9)));
+    }
+
+    @Test
+    void serializeWriteSameTextAsJsonFormatPatternAtMidnight() {
+        assertSameBytes(LocalDateTime.of(2022, 1, 1, 0, 0));
+        assertEquals("\"2022-01-01T00:00:00\"", writeJson(LocalDateTime.of(2022, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void serializeTruncateNanosLikeJsonFormatPattern() {
+        assertSameBytes(LocalDateTime.of(2022, 8, 15, 13, 5, 9, 1));
+        assertSameBytes(LocalDateTime.of(2022, 8, 15, 13, 5, 9, 999_999_999));
+        assertEquals("\"2022-08-15T13:05:09\"", writeJson(LocalDateTime.of(2022, 8, 15, 13, 5, 9, 999_999_999)));
+    }
+
+    @Test
+    void serializeWriteSameTextAsJsonFormatPatternForYearsBelow1000() {
+        assertSameBytes(LocalDateTime.of(1, 2, 3, 4, 5, 6));
+        assertSameBytes(LocalDateTime.of(999, 12, 31, 23, 59, 59));
+        assertEquals("\"0999-12-31T23:59:59\"", writeJson(LocalDateTime.of(999, 12, 31, 23, 59, 59)));
+    }
+
+    @Test
+    void serializeWriteSameTextAsJsonFormatPatternForYearsAbove9999() {
+        assertSameBytes(LocalDateTime.of(10000, 1, 1, 0, 0));
+        assertSameBytes(LocalDateTime.of(LocalDateTime.MAX.getYear(), 12, 31, 23, 59, 59));
+    }
+
+    @Test
+    void serializeWriteSameTextAsJsonFormatPatternForYearZeroAndNegativeYears() {
+        assertSameBytes(LocalDateTime.of(0, 6, 15, 12, 0));
+        assertSameBytes(LocalDateTime.of(-1, 6, 15, 12, 0));
+        assertSameBytes(LocalDateTime.of(-10000, 6, 15, 12, 0));
+        assertSameBytes(LocalDateTime.of(LocalDateTime.MIN.getYear(), 1, 1, 0, 0));
+    }
+
+    private void assertSameBytes(LocalDateTime value) {
+        for (ObjectMapper mapper : mappers) {
+            assertArrayEquals(write(mapper, new PatternDate(value)), write(mapper, new SecondsDate(value)),
+                    () -> String.format("%s через %s", value, mapper.getFactory().getFormatName()));
+        }
+    }
+
+    private String writeJson(LocalDateTime value) {
+        var json = new String(write(mappers.get(0), new SecondsDate(value)), StandardCharsets.UTF_8);
+
+        return json.substring("{\"v\":".length(), json.length() - 1);
+    }
+
+    private static byte[] write(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ObjectMapper createMapper(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static class PatternDate {
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        public final LocalDateTime v;
+
+        PatternDate(LocalDateTime v) {
+            this.v = v;
+        }
+    }
+
+    private static class SecondsDate {
+        @JsonSerialize(using = SecondsDateTimeSerializer.class)
+        public final LocalDateTime v;
+
+        SecondsDate(LocalDateTime v) {
+            this.v = v;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.execution-mode", havingValue = "virtual")
+public class VirtualThreadExecutionConfiguration {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer() {
+        return protocolHandler -> createVirtualThreadExecutor().ifPresent(protocolHandler::setExecutor);
+    }
+
+    static Optional<ExecutorService> createVirtualThreadExecutor() {
+        try {
+            var factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+            return Optional.of((ExecutorService) factoryMethod.invoke(null));
+        } catch (ReflectiveOperationException ex) {
+            log.warn("Виртуальные потоки недоступны в JVM {}, запросы обслуживает пул платформенных потоков",
+                    Runtime.version());
+            return Optional.empty();
+        }
+    }
+}
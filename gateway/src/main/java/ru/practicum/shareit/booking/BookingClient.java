@@ -9,7 +9,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientIsolation;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,11 +19,13 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientIsolation clientIsolation) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .additionalInterceptors(clientIsolation.interceptor("bookings"))
                         .build()
         );
     }
@@ -40,14 +44,24 @@ public class BookingClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getAllBookingsByUserAndState(long userId, BookingState bookingState, long from,
-                                                               int size) {
-        return get("?state={stateVal}&from={fromVal}&size={sizeVal}", userId, Map.of("stateVal", bookingState,
-                "fromVal", from, "sizeVal", size));
+                                                               int size, String fields, String embed) {
+        var parameters = new HashMap<String, Object>(Map.of("stateVal", bookingState, "fromVal", from,
+                "sizeVal", size));
+
+        return get(withFieldset("?state={stateVal}&from={fromVal}&size={sizeVal}", parameters, fields, embed),
+                userId, parameters);
     }
 
     public ResponseEntity<Object> getAllBookingsByOwnerAndState(long ownerId, BookingState bookingState, long from,
-                                                                int size) {
-        return get("/owner?state={stateVal}&from={fromVal}&size={sizeVal}", ownerId, Map.of("stateVal", bookingState,
-                "fromVal", from, "sizeVal", size));
+                                                                int size, String fields, String embed) {
+        var parameters = new HashMap<String, Object>(Map.of("stateVal", bookingState, "fromVal", from,
+                "sizeVal", size));
+
+        return get(withFieldset("/owner?state={stateVal}&from={fromVal}&size={sizeVal}", parameters, fields, embed),
+                ownerId, parameters);
+    }
+
+    public ResponseEntity<Object> getOwnerBookingsSummary(long ownerId, int size) {
+        return get("/owner/summary?size={sizeVal}", ownerId, Map.of("sizeVal", size));
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +14,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -25,6 +28,7 @@ import javax.validation.constraints.PositiveOrZero;
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
+    private final BookingEventsClient bookingEventsClient;
 
     @PostMapping
     public ResponseEntity<Object> createNewBooking(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -50,8 +54,10 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL") BookingState bookingState,
             @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero long from,
-            @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
-        return bookingClient.getAllBookingsByUserAndState(userId, bookingState, from, size);
+            @RequestParam(name = "size", defaultValue = "10") @Positive int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed) {
+        return bookingClient.getAllBookingsByUserAndState(userId, bookingState, from, size, fields, embed);
     }
 
     @GetMapping("/owner")
@@ -59,7 +65,23 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long ownerId,
             @RequestParam(name = "state", defaultValue = "ALL") BookingState bookingState,
             @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero long from,
-            @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
-        return bookingClient.getAllBookingsByOwnerAndState(ownerId, bookingState, from, size);
+            @RequestParam(name = "size", defaultValue = "10") @Positive int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed) {
+        return bookingClient.getAllBookingsByOwnerAndState(ownerId, bookingState, from, size, fields, embed);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerBookingsSummary(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestParam(name = "size", defaultValue = "5") @Positive int size) {
+        return bookingClient.getOwnerBookingsSummary(ownerId, size);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> subscribeToBookingEvents(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) throws IOException {
+        return bookingEventsClient.subscribe(userId, lastEventId);
     }
 }
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.client.LoadBalancingInterceptor;
+import ru.practicum.shareit.client.UnknownUserInterceptor;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays the booking event stream of the server chunk by chunk. The stream goes through the unknown-user cache and
+ * the balancer, which picks the server instance; any instance serves it, since the servers relay booking events to
+ * each other and replay missed ones from the database. The other interceptors of BookingClient are left out: they
+ * buffer whole responses and would hold a bulkhead permit while the stream is open.
+ */
+@Slf4j
+@Service
+public class BookingEventsClient {
+    private static final int BUFFER_SIZE = 4096;
+
+    private final URI eventsUri;
+    private final ClientHttpRequestFactory requestFactory;
+    private final Executor streams;
+    private final Duration timeout;
+
+    @Autowired
+    public BookingEventsClient(@Value("${shareit-server.url}") String serverUrl,
+                               @Value("${shareit-server.events.timeout:30m}") Duration timeout,
+                               @Value("${shareit-server.events.read-timeout:60s}") Duration readTimeout,
+                               @Value("${shareit-server.events.max-streams:200}") int maxStreams,
+                               UnknownUserInterceptor unknownUserInterceptor,
+                               ObjectProvider<LoadBalancingInterceptor> loadBalancingInterceptor) {
+        this(URI.create(serverUrl + "/bookings/events"),
+                createRequestFactory(readTimeout, unknownUserInterceptor, loadBalancingInterceptor.getIfAvailable()),
+                new ThreadPoolExecutor(0, maxStreams, 60, TimeUnit.SECONDS, new SynchronousQueue<>()), timeout);
+    }
+
+    BookingEventsClient(URI eventsUri, ClientHttpRequestFactory requestFactory, Executor streams, Duration timeout) {
+        this.eventsUri = eventsUri;
+        this.requestFactory = requestFactory;
+        this.streams = streams;
+        this.timeout = timeout;
+    }
+
+    public ResponseEntity<ResponseBodyEmitter> subscribe(long userId, @Nullable String lastEventId)
+            throws IOException {
+        var request = requestFactory.createRequest(eventsUri, HttpMethod.GET);
+
+        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        if (lastEventId != null) {
+            request.getHeaders().set("Last-Event-ID", lastEventId);
+        }
+
+        var response = request.execute();
+        var emitter = new ResponseBodyEmitter(timeout.toMillis());
+
+        if (response.getRawStatusCode() != HttpStatus.OK.value()) {
+            return relayError(response, emitter);
+        }
+        try {
+            streams.execute(() -> relayStream(response, emitter));
+        } catch (RejectedExecutionException ex) {
+            response.close();
+            log.warn("Превышено число открытых потоков событий бронирований");
+            return rejected(emitter);
+        }
+        emitter.onCompletion(response::close);
+        emitter.onTimeout(response::close);
+        emitter.onError(ex -> response.close());
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (streams instanceof ExecutorService) {
+            ((ExecutorService) streams).shutdownNow();
+        }
+    }
+
+    private static void relayStream(ClientHttpResponse response, ResponseBodyEmitter emitter) {
+        var buffer = new byte[BUFFER_SIZE];
+
+        try (response; var body = response.getBody()) {
+            int read;
+
+            while ((read = body.read(buffer)) != -1) {
+                emitter.send(Arrays.copyOf(buffer, read), MediaType.TEXT_EVENT_STREAM);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Поток событий бронирований закрыт: {}", ex.getMessage());
+        } finally {
+            emitter.complete();
+        }
+    }
+
+    private static ResponseEntity<ResponseBodyEmitter> relayError(ClientHttpResponse response,
+                                                                  ResponseBodyEmitter emitter) throws IOException {
+        try (response) {
+            var contentType = response.getHeaders().getContentType();
+            var body = StreamUtils.copyToByteArray(response.getBody());
+
+            emitter.send(body, contentType);
+            emitter.complete();
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .contentType(contentType != null ? contentType : MediaType.APPLICATION_JSON)
+                    .body(emitter);
+        }
+    }
+
+    private static ResponseEntity<ResponseBodyEmitter> rejected(ResponseBodyEmitter emitter) throws IOException {
+        emitter.send("{\"error\":\"Too many open event streams\"}".getBytes(StandardCharsets.UTF_8),
+                MediaType.APPLICATION_JSON);
+        emitter.complete();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(emitter);
+    }
+
+    private static ClientHttpRequestFactory createRequestFactory(Duration readTimeout,
+                                                                 UnknownUserInterceptor unknownUserInterceptor,
+                                                                 @Nullable LoadBalancingInterceptor balancer) {
+        var requestFactory = new HttpComponentsClientHttpRequestFactory();
+        var interceptors = new ArrayList<ClientHttpRequestInterceptor>(List.of(unknownUserInterceptor));
+
+        requestFactory.setReadTimeout((int) readTimeout.toMillis());
+        if (balancer != null) {
+            interceptors.add(balancer);
+        }
+        return new InterceptingClientHttpRequestFactory(requestFactory, interceptors);
+    }
+}
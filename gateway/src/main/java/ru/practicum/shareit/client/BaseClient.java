@@ -1,21 +1,55 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
-@RequiredArgsConstructor
 public class BaseClient {
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
     protected final RestTemplate rest;
+    private final MediaType wireFormat;
+    private final ObjectMapper smileMapper;
+
+    public BaseClient(RestTemplate rest) {
+        this.rest = rest;
+        this.smileMapper = rest.getMessageConverters().stream()
+                .filter(MappingJackson2SmileHttpMessageConverter.class::isInstance)
+                .map(converter -> ((MappingJackson2SmileHttpMessageConverter) converter).getObjectMapper())
+                .findFirst()
+                .orElse(null);
+        this.wireFormat = smileMapper != null ? SMILE : MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Appends the optional fields= and embed= parameters of sparse list responses to a path which already has a
+     * query string.
+     */
+    protected static String withFieldset(String path, Map<String, Object> parameters, @Nullable String fields,
+                                         @Nullable String embed) {
+        var pathWithFieldset = new StringBuilder(path);
+
+        if (fields != null) {
+            pathWithFieldset.append("&fields={fieldsVal}");
+            parameters.put("fieldsVal", fields);
+        }
+        if (embed != null) {
+            pathWithFieldset.append("&embed={embedVal}");
+            parameters.put("embedVal", embed);
+        }
+        return pathWithFieldset.toString();
+    }
 
     protected ResponseEntity<Object> get(String path) {
         return get(path, null, null);
@@ -64,21 +98,34 @@ public class BaseClient {
                 shareItServerResponse = rest.exchange(path, method, requestEntity, Object.class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode()).body(readErrorBody(e));
         }
         return prepareGatewayResponse(shareItServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(wireFormat);
+        headers.setAccept(List.of(wireFormat));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
         return headers;
     }
 
+    private Object readErrorBody(HttpStatusCodeException e) {
+        var contentType = e.getResponseHeaders() != null ? e.getResponseHeaders().getContentType() : null;
+
+        if (smileMapper != null && SMILE.isCompatibleWith(contentType)) {
+            try {
+                return smileMapper.readValue(e.getResponseBodyAsByteArray(), Object.class);
+            } catch (IOException ex) {
+                return e.getResponseBodyAsByteArray();
+            }
+        }
+        return e.getResponseBodyAsByteArray();
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
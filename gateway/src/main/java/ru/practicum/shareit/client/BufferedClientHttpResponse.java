@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fully read copy of a server response which can be handed to several callers.
+ */
+public class BufferedClientHttpResponse implements ClientHttpResponse {
+    private final int rawStatusCode;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public BufferedClientHttpResponse(int rawStatusCode, String statusText, HttpHeaders headers, byte[] body) {
+        this.rawStatusCode = rawStatusCode;
+        this.statusText = statusText;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+    }
+
+    public static BufferedClientHttpResponse of(@NonNull ClientHttpResponse response) throws IOException {
+        try (response) {
+            var headers = new HttpHeaders();
+
+            headers.putAll(response.getHeaders());
+            return new BufferedClientHttpResponse(response.getRawStatusCode(), response.getStatusText(), headers,
+                    StreamUtils.copyToByteArray(response.getBody()));
+        }
+    }
+
+    @Override
+    @NonNull
+    public HttpStatus getStatusCode() {
+        return HttpStatus.valueOf(rawStatusCode);
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return rawStatusCode;
+    }
+
+    @Override
+    @NonNull
+    public String getStatusText() {
+        return statusText;
+    }
+
+    @Override
+    @NonNull
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @NonNull
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ClientIsolation {
+    private final BulkheadRegistry bulkheadRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public ClientHttpRequestInterceptor interceptor(String clientName) {
+        return new ClientIsolationInterceptor(bulkheadRegistry.bulkhead(clientName),
+                circuitBreakerRegistry.circuitBreaker(clientName));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the calls of one client through its own bulkhead and circuit breaker, so that a slow part of the server
+ * can only exhaust the permits of the client which uses it. Rejected calls are answered with 503 without
+ * reaching the server.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ClientIsolationInterceptor implements ClientHttpRequestInterceptor {
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        if (!bulkhead.tryAcquirePermission()) {
+            log.warn("Превышено число одновременных запросов к серверу для {}", bulkhead.getName());
+            return createRejectedResponse("Too many concurrent requests");
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return createRejectedResponse("Service temporarily unavailable");
+            }
+            return executeAndRecord(request, body, execution);
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private ClientHttpResponse executeAndRecord(HttpRequest request, byte[] body,
+                                                ClientHttpRequestExecution execution) throws IOException {
+        var start = circuitBreaker.getCurrentTimestamp();
+
+        try {
+            var response = execution.execute(request, body);
+            var duration = circuitBreaker.getCurrentTimestamp() - start;
+
+            if (response.getRawStatusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                        new IOException("Сервер ответил со статусом " + response.getRawStatusCode()));
+            } else {
+                circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+            }
+            return response;
+        } catch (IOException | RuntimeException ex) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(),
+                    ex);
+            throw ex;
+        }
+    }
+
+    private ClientHttpResponse createRejectedResponse(String error) {
+        var headers = new HttpHeaders();
+        var waitSeconds = TimeUnit.MILLISECONDS.toSeconds(
+                circuitBreaker.getCircuitBreakerConfig().getWaitDurationInOpenState().toMillis());
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, waitSeconds)));
+        return new BufferedClientHttpResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), headers,
+                ("{\"error\":\"" + error + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+}
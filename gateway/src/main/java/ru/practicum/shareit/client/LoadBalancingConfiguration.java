@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancingProperties.class)
+@ConditionalOnProperty(name = "shareit-server.load-balancing.enabled", havingValue = "true")
+public class LoadBalancingConfiguration {
+    @Bean
+    public LoadBalancingInterceptor loadBalancingInterceptor(LoadBalancingProperties properties) {
+        return new LoadBalancingInterceptor(properties);
+    }
+
+    /**
+     * Customizers run after the interceptors given to the builder, so the balancer comes last in every client.
+     */
+    @Bean
+    public RestTemplateCustomizer loadBalancingCustomizer(LoadBalancingInterceptor interceptor) {
+        return restTemplate -> restTemplate.getInterceptors().add(interceptor);
+    }
+}
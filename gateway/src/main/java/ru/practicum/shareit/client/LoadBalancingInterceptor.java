@@ -0,0 +1,259 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads the calls over several server instances: each call goes to the less busy of two instances picked at
+ * random among those not ejected, or among all of them when every instance is ejected. A GET still running after
+ * the hedging delay is also sent to another instance, and the first good response wins; hedged calls are capped at
+ * maxRatio of the GETs so that an overloaded server does not get twice the load. Event streams are never hedged,
+ * since a hedged response is buffered whole. It must be the last interceptor: a hedged call executes the rest of
+ * the chain twice.
+ */
+@Slf4j
+public class LoadBalancingInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+    private final List<ServerEndpoint> endpoints;
+    private final ExecutorService hedgingExecutor;
+    private final long hedgeDelayNanos;
+    private final double maxHedgeRatio;
+    private final LongSupplier nanoClock;
+    private final AtomicLong gets = new AtomicLong();
+    private final AtomicLong hedgedGets = new AtomicLong();
+
+    public LoadBalancingInterceptor(LoadBalancingProperties properties) {
+        this(properties.getEndpoints().stream().map(URI::create).collect(Collectors.toList()),
+                properties.getFailuresToEject(), properties.getEjectionTime(),
+                properties.getHedging().isEnabled() ? createHedgingExecutor(properties.getHedging()) : null,
+                properties.getHedging().getDelay(), properties.getHedging().getMaxRatio(), System::nanoTime);
+    }
+
+    LoadBalancingInterceptor(List<URI> endpoints, int failuresToEject, Duration ejectionTime,
+                             @Nullable ExecutorService hedgingExecutor, Duration hedgeDelay, double maxHedgeRatio,
+                             LongSupplier nanoClock) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Не заданы адреса экземпляров сервера");
+        }
+        this.endpoints = endpoints.stream()
+                .map(uri -> new ServerEndpoint(uri, failuresToEject, ejectionTime.toNanos()))
+                .collect(Collectors.toList());
+        this.hedgingExecutor = hedgingExecutor;
+        this.hedgeDelayNanos = hedgeDelay.toNanos();
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() == HttpMethod.GET && hedgingExecutor != null && endpoints.size() > 1
+                && !request.getHeaders().getAccept().contains(MediaType.TEXT_EVENT_STREAM)) {
+            return executeHedged(request, body, execution);
+        }
+        return execute(chooseEndpoint(null), request, body, execution);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        for (ServerEndpoint endpoint : endpoints) {
+            Gauge.builder("shareit.gateway.balancer.outstanding", endpoint, ServerEndpoint::getOutstanding)
+                    .tag("endpoint", endpoint.getName())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.balancer.ejected", endpoint,
+                            e -> e.isEjected(nanoClock.getAsLong()) ? 1 : 0)
+                    .tag("endpoint", endpoint.getName())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("shareit.gateway.balancer.hedged", hedgedGets, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    public void close() {
+        if (hedgingExecutor != null) {
+            hedgingExecutor.shutdownNow();
+        }
+    }
+
+    ServerEndpoint chooseEndpoint(@Nullable ServerEndpoint excluded) {
+        var now = nanoClock.getAsLong();
+        var candidates = endpoints.stream()
+                .filter(endpoint -> endpoint != excluded && endpoint.isAvailable(now))
+                .collect(Collectors.toList());
+
+        if (candidates.isEmpty()) {
+            candidates = endpoints.stream()
+                    .filter(endpoint -> endpoint != excluded)
+                    .collect(Collectors.toList());
+        }
+        if (candidates.isEmpty()) {
+            return excluded;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        var random = ThreadLocalRandom.current();
+        var first = random.nextInt(candidates.size());
+        var second = random.nextInt(candidates.size() - 1);
+
+        if (second >= first) {
+            second++;
+        }
+
+        var firstEndpoint = candidates.get(first);
+        var secondEndpoint = candidates.get(second);
+
+        return secondEndpoint.getOutstanding() < firstEndpoint.getOutstanding() ? secondEndpoint : firstEndpoint;
+    }
+
+    private ClientHttpResponse execute(ServerEndpoint endpoint, HttpRequest request, byte[] body,
+                                       ClientHttpRequestExecution execution) throws IOException {
+        var endpointUri = endpoint.resolve(request.getURI());
+        var endpointRequest = new HttpRequestWrapper(request) {
+            @Override
+            @NonNull
+            public URI getURI() {
+                return endpointUri;
+            }
+        };
+
+        endpoint.onStart();
+        try {
+            var response = execution.execute(endpointRequest, body);
+
+            if (response.getRawStatusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                endpoint.onFailure(nanoClock.getAsLong());
+            } else {
+                endpoint.onSuccess();
+            }
+            return response;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ошибка вызова экземпляра сервера {}: {}", endpoint.getName(), ex.getMessage());
+            endpoint.onFailure(nanoClock.getAsLong());
+            throw ex;
+        } finally {
+            endpoint.onEnd();
+        }
+    }
+
+    private ClientHttpResponse executeHedged(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        var completion = new ExecutorCompletionService<BufferedClientHttpResponse>(hedgingExecutor);
+        var primary = chooseEndpoint(null);
+
+        gets.incrementAndGet();
+        try {
+            completion.submit(() -> BufferedClientHttpResponse.of(execute(primary, request, body, execution)));
+        } catch (RejectedExecutionException ex) {
+            return execute(primary, request, body, execution);
+        }
+
+        var attempts = 1;
+        var done = poll(completion, hedgeDelayNanos);
+
+        if (done == null && hedgedGets.get() < gets.get() * maxHedgeRatio) {
+            var hedge = chooseEndpoint(primary);
+
+            if (hedge != primary) {
+                try {
+                    completion.submit(() -> BufferedClientHttpResponse.of(execute(hedge, request, body, execution)));
+                    hedgedGets.incrementAndGet();
+                    attempts++;
+                } catch (RejectedExecutionException ex) {
+                    log.debug("Нет свободных потоков для дублирующего запроса к серверу");
+                }
+            }
+        }
+
+        BufferedClientHttpResponse failedResponse = null;
+
+        for (var remaining = attempts; remaining > 0; remaining--) {
+            var attempt = done != null ? done : poll(completion, -1);
+
+            done = null;
+            try {
+                var response = getResponse(attempt);
+
+                if (response.getRawStatusCode() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                    return response;
+                }
+                failedResponse = response;
+            } catch (IOException | RuntimeException ex) {
+                if (remaining == 1 && failedResponse == null) {
+                    throw ex;
+                }
+            }
+        }
+        return failedResponse;
+    }
+
+    @Nullable
+    private static Future<BufferedClientHttpResponse> poll(
+            ExecutorCompletionService<BufferedClientHttpResponse> completion, long timeoutNanos) throws IOException {
+        try {
+            return timeoutNanos < 0 ? completion.take() : completion.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Прерывание во время ожидания ответа сервера", ex);
+        }
+    }
+
+    private static BufferedClientHttpResponse getResponse(Future<BufferedClientHttpResponse> attempt)
+            throws IOException {
+        try {
+            return attempt.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Прерывание во время ожидания ответа сервера", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    private static ExecutorService createHedgingExecutor(LoadBalancingProperties.Hedging hedging) {
+        return new ThreadPoolExecutor(0, hedging.getMaxThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    var thread = new Thread(runnable, "server-hedging");
+
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.load-balancing")
+public class LoadBalancingProperties {
+    private boolean enabled;
+
+    /**
+     * Base URLs of the server instances: their scheme, host and port replace those of shareit-server.url.
+     */
+    private List<String> endpoints = new ArrayList<>();
+
+    private int failuresToEject = 3;
+
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    private Hedging hedging = new Hedging();
+
+    @Getter
+    @Setter
+    public static class Hedging {
+        private boolean enabled;
+
+        private Duration delay = Duration.ofMillis(100);
+
+        private double maxRatio = 0.1;
+
+        private int maxThreads = 50;
+    }
+}
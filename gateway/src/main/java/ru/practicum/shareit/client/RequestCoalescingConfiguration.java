@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCoalescingConfiguration {
+    @Bean
+    public RequestCoalescingInterceptor requestCoalescingInterceptor() {
+        return new RequestCoalescingInterceptor();
+    }
+
+    @Bean
+    public RestTemplateCustomizer requestCoalescingCustomizer(RequestCoalescingInterceptor interceptor) {
+        return restTemplate -> restTemplate.getInterceptors().add(0, interceptor);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Lets identical concurrent GET requests share one call to the server: the first caller executes the request,
+ * the others wait for its buffered response.
+ */
+public class RequestCoalescingInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final Map<String, CompletableFuture<BufferedClientHttpResponse>> inFlightRequests =
+            new ConcurrentHashMap<>();
+    private Counter executedRequests;
+    private Counter coalescedRequests;
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+
+        var key = getRequestKey(request);
+        var call = new CompletableFuture<BufferedClientHttpResponse>();
+        var inFlightCall = inFlightRequests.putIfAbsent(key, call);
+
+        if (inFlightCall != null) {
+            increment(coalescedRequests);
+            return awaitResponse(inFlightCall);
+        }
+
+        increment(executedRequests);
+        try {
+            var response = BufferedClientHttpResponse.of(execution.execute(request, body));
+
+            call.complete(response);
+            return response;
+        } catch (IOException | RuntimeException ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightRequests.remove(key, call);
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        executedRequests = Counter.builder("shareit.gateway.coalescing.requests")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        coalescedRequests = Counter.builder("shareit.gateway.coalescing.requests")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    private static String getRequestKey(HttpRequest request) {
+        var headers = request.getHeaders();
+
+        return request.getURI() + "|" + headers.getFirst(USER_ID_HEADER) + "|" + headers.getFirst(HttpHeaders.ACCEPT);
+    }
+
+    private static ClientHttpResponse awaitResponse(CompletableFuture<BufferedClientHttpResponse> call)
+            throws IOException {
+        try {
+            return call.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Прерывание во время ожидания ответа сервера", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server instance with its calls in flight and passive health: after failuresToEject consecutive failed calls it
+ * is ejected for the ejection time, then gets calls again and is ejected anew on its next failure.
+ */
+class ServerEndpoint {
+    private final URI baseUri;
+    private final int failuresToEject;
+    private final long ejectionNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+
+    ServerEndpoint(URI baseUri, int failuresToEject, long ejectionNanos) {
+        this.baseUri = baseUri;
+        this.failuresToEject = failuresToEject;
+        this.ejectionNanos = ejectionNanos;
+    }
+
+    String getName() {
+        return baseUri.getAuthority();
+    }
+
+    URI resolve(URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .scheme(baseUri.getScheme())
+                .host(baseUri.getHost())
+                .port(baseUri.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    void onEnd() {
+        outstanding.decrementAndGet();
+    }
+
+    boolean isAvailable(long now) {
+        return !ejected || now - ejectedUntil >= 0;
+    }
+
+    boolean isEjected(long now) {
+        return !isAvailable(now);
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        ejected = false;
+    }
+
+    void onFailure(long now) {
+        if (consecutiveFailures.incrementAndGet() >= failuresToEject) {
+            ejectedUntil = now + ejectionNanos;
+            ejected = true;
+        }
+    }
+}
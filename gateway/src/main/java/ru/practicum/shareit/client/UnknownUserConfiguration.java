@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.unknown-users.enabled", havingValue = "true")
+public class UnknownUserConfiguration {
+    @Bean
+    public RestTemplateCustomizer unknownUserCustomizer(UnknownUserInterceptor interceptor) {
+        return restTemplate -> restTemplate.getInterceptors().add(0, interceptor);
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the X-Sharer-User-Id values which the server reported as unknown users: further requests of
+ * such users are answered with 404 without reaching the server. Entries expire after ttl, and creating a user
+ * through this gateway drops its id at once; a 404 received while a user was being created is not cached, since it
+ * may predate that user. Other gateway instances only see the new user once their entry expires.
+ */
+@Component
+public class UnknownUserInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+    static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    static final String UNKNOWN_USER_ID_HEADER = "X-Unknown-User-Id";
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<Long, Long> expiryByUserId = new LinkedHashMap<>();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+    private long version;
+
+    @Autowired
+    public UnknownUserInterceptor(@Value("${shareit-server.unknown-users.enabled:false}") boolean enabled,
+                                  @Value("${shareit-server.unknown-users.max-entries:100000}") int maxEntries,
+                                  @Value("${shareit-server.unknown-users.ttl:5m}") Duration ttl) {
+        this(enabled, maxEntries, ttl, System::nanoTime);
+    }
+
+    UnknownUserInterceptor(boolean enabled, int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        var userId = getUserId(request);
+
+        if (!enabled || userId == null) {
+            return execution.execute(request, body);
+        }
+        if (isUnknown(userId)) {
+            rejectedRequests.incrementAndGet();
+            return createNotFoundResponse(userId);
+        }
+
+        var readVersion = getVersion();
+        var response = execution.execute(request, body);
+
+        if (response.getRawStatusCode() == HttpStatus.NOT_FOUND.value()
+                && userId.toString().equals(response.getHeaders().getFirst(UNKNOWN_USER_ID_HEADER))) {
+            add(userId, readVersion);
+        }
+        return response;
+    }
+
+    public synchronized void onUserCreated(long userId) {
+        version++;
+        expiryByUserId.remove(userId);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        FunctionCounter.builder("shareit.gateway.unknown-users.rejected", rejectedRequests, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.unknown-users.size", this, UnknownUserInterceptor::getEntriesCount)
+                .register(meterRegistry);
+    }
+
+    synchronized int getEntriesCount() {
+        return expiryByUserId.size();
+    }
+
+    private synchronized long getVersion() {
+        return version;
+    }
+
+    private synchronized boolean isUnknown(long userId) {
+        var expiry = expiryByUserId.get(userId);
+
+        if (expiry == null) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - expiry >= 0) {
+            expiryByUserId.remove(userId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Entries are kept in insertion order, which is also their expiry order, so the eldest go first.
+     */
+    private synchronized void add(long userId, long readVersion) {
+        if (readVersion != version) {
+            return;
+        }
+
+        var now = nanoClock.getAsLong();
+
+        expiryByUserId.remove(userId);
+        expiryByUserId.put(userId, now + ttlNanos);
+
+        var iterator = expiryByUserId.values().iterator();
+
+        while (iterator.hasNext()) {
+            var expiry = iterator.next();
+
+            if (expiryByUserId.size() <= maxEntries && now - expiry < 0) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static Long getUserId(HttpRequest request) {
+        var userId = request.getHeaders().getFirst(USER_ID_HEADER);
+
+        try {
+            return userId == null ? null : Long.valueOf(userId);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static ClientHttpResponse createNotFoundResponse(long userId) {
+        var headers = new HttpHeaders();
+        var error = String.format("Пользователь с id = %d не найден", userId);
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(UNKNOWN_USER_ID_HEADER, String.valueOf(userId));
+        return new BufferedClientHttpResponse(HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND.getReasonPhrase(),
+                headers, ("{\"error\":\"" + error + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+}
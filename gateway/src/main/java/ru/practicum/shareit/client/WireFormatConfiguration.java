@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Switches the requests to the server to Smile (binary JSON). Responses to the gateway clients stay JSON.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.wire-format", havingValue = "smile", matchIfMissing = true)
+public class WireFormatConfiguration {
+    @Bean
+    public RestTemplateCustomizer smileWireFormatCustomizer(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        var converter = new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build());
+
+        return restTemplate -> restTemplate.getMessageConverters().add(converter);
+    }
+}
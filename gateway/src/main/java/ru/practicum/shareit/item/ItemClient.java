@@ -8,19 +8,28 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientIsolation;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class ItemClient extends BaseClient {
     private static final String ITEM_ENDPOINT = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String url, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String url, RestTemplateBuilder builder,
+                      ClientIsolation clientIsolation) {
         super(builder.requestFactory(HttpComponentsClientHttpRequestFactory::new)
                 .uriTemplateHandler(new DefaultUriBuilderFactory(url + ITEM_ENDPOINT))
+                .additionalInterceptors(clientIsolation.interceptor("items"))
                 .build()
         );
     }
@@ -29,8 +38,10 @@ public class ItemClient extends BaseClient {
         return get("/{itemId}", userId, Map.of("itemId", itemId));
     }
 
-    public ResponseEntity<Object> getAllItemsForUser(long userId, long from, int size) {
-        return get("?from={fromVal}&size={sizeVal}", userId, Map.of("fromVal", from, "sizeVal", size));
+    public ResponseEntity<Object> getAllItemsForUser(long userId, long from, int size, String fields, String embed) {
+        var parameters = new HashMap<String, Object>(Map.of("fromVal", from, "sizeVal", size));
+
+        return get(withFieldset("?from={fromVal}&size={sizeVal}", parameters, fields, embed), userId, parameters);
     }
 
     public ResponseEntity<Object> createNewItem(long ownerId, IncomingItemDto itemDto) {
@@ -41,12 +52,50 @@ public class ItemClient extends BaseClient {
         return patch("/{itemId}", ownerId, Map.of("itemId", itemDto.getId()), itemDto);
     }
 
-    public ResponseEntity<Object> findItemsByNameAndDescription(String text, long from, int size) {
-        return get("/search?text={textVal}&from={fromVal}&size={sizeVal}", null, Map.of("textVal", text, "fromVal", from,
-                "sizeVal", size));
+    public ResponseEntity<Object> findItemsByNameAndDescription(String text, long from, int size, String fields,
+                                                                String embed, LocalDateTime start, LocalDateTime end,
+                                                                List<Double> near, Double radius) {
+        var parameters = new HashMap<String, Object>(Map.of("textVal", text, "fromVal", from, "sizeVal", size));
+        var path = "/search?text={textVal}&from={fromVal}&size={sizeVal}";
+
+        if (start != null && end != null) {
+            parameters.put("startVal", start);
+            parameters.put("endVal", end);
+            path += "&start={startVal}&end={endVal}";
+        }
+        if (near != null && radius != null) {
+            parameters.put("nearVal", near.get(0) + "," + near.get(1));
+            parameters.put("radiusVal", radius);
+            path += "&near={nearVal}&radius={radiusVal}";
+        }
+        return get(withFieldset(path, parameters, fields, embed), null, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, int size) {
+        return get("/suggest?prefix={prefixVal}&size={sizeVal}", null, Map.of("prefixVal", prefix, "sizeVal", size));
+    }
+
+    public ResponseEntity<Object> getItemCalendar(long itemId, LocalDate from, LocalDate to) {
+        return get("/{itemId}/calendar?from={fromVal}&to={toVal}", null, Map.of("itemId", itemId, "fromVal", from,
+                "toVal", to));
+    }
+
+    public ResponseEntity<Object> getItemsCalendars(Collection<Long> itemIds, LocalDate from, LocalDate to) {
+        var ids = itemIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        return get("/calendar?ids={idsVal}&from={fromVal}&to={toVal}", null, Map.of("idsVal", ids, "fromVal", from,
+                "toVal", to));
     }
 
     public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/{itemId}/comment", userId, Map.of("itemId", itemId), commentDto);
     }
+
+    public ResponseEntity<Object> getItemComments(long itemId, Long before, int size) {
+        if (before == null) {
+            return get("/{itemId}/comments?size={sizeVal}", null, Map.of("itemId", itemId, "sizeVal", size));
+        }
+        return get("/{itemId}/comments?before={beforeVal}&size={sizeVal}", null, Map.of("itemId", itemId,
+                "beforeVal", before, "sizeVal", size));
+    }
 }
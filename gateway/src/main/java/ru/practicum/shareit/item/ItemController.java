@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,15 +19,29 @@ import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.validation.CreateItemValidationGroup;
 import ru.practicum.shareit.item.validation.UpdateItemValidationGroup;
 
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 @Validated
 public class ItemController {
+    private static final int MAX_CALENDAR_DAYS = 366;
+    private static final int MAX_SEARCH_LATITUDE = 85;
+    private static final long MAX_SEARCH_RADIUS_KM = 50;
+
     private final ItemClient itemClient;
 
     @GetMapping("/{itemId}")
@@ -38,8 +53,10 @@ public class ItemController {
     public ResponseEntity<Object> getItemsByUserId(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero long from,
-            @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
-        return itemClient.getAllItemsForUser(userId, from, size);
+            @RequestParam(name = "size", defaultValue = "10") @Positive int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed) {
+        return itemClient.getAllItemsForUser(userId, from, size, fields, embed);
     }
 
     @PostMapping
@@ -59,8 +76,49 @@ public class ItemController {
     public ResponseEntity<Object> findItemsByNameAndDescription(
             @RequestParam(name = "text") String text,
             @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero long from,
-            @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
-        return itemClient.findItemsByNameAndDescription(text, from, size);
+            @RequestParam(name = "size", defaultValue = "10") @Positive int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime end,
+            @RequestParam(name = "near", required = false) @Size(min = 2, max = 2) List<Double> near,
+            @RequestParam(name = "radius", required = false) @Positive @Max(MAX_SEARCH_RADIUS_KM) Double radius) {
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            throw new ConstraintViolationException("Parameters start and end should be set together and start " +
+                    "should be before end", Set.of());
+        }
+        if ((near == null) != (radius == null) || (near != null && (Math.abs(near.get(0)) > MAX_SEARCH_LATITUDE
+                || Math.abs(near.get(1)) > 180))) {
+            throw new ConstraintViolationException(String.format("Parameters near and radius should be set together " +
+                    "and near should be latitude within %d degrees and longitude", MAX_SEARCH_LATITUDE), Set.of());
+        }
+        return itemClient.findItemsByNameAndDescription(text, from, size, fields, embed, start, end, near, radius);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam(name = "prefix") String prefix,
+                                          @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
+        return itemClient.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/calendar")
+    public ResponseEntity<Object> getItemCalendar(
+            @PathVariable("itemId") long itemId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @FutureOrPresent LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkCalendarRange(from, to);
+        return itemClient.getItemCalendar(itemId, from, to);
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<Object> getItemsCalendars(
+            @RequestParam(name = "ids") @NotEmpty @Size(max = 100) List<@Positive Long> itemIds,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @FutureOrPresent LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkCalendarRange(from, to);
+        return itemClient.getItemsCalendars(itemIds, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -68,4 +126,19 @@ public class ItemController {
                                                 @Valid @RequestBody CommentDto commentDto) {
         return itemClient.createComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getItemComments(
+            @PathVariable("itemId") long itemId,
+            @RequestParam(name = "before", required = false) @Positive Long before,
+            @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
+        return itemClient.getItemComments(itemId, before, size);
+    }
+
+    private void checkCalendarRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new ConstraintViolationException(String.format("Parameter to should not be before from and the " +
+                    "range should not exceed %d days", MAX_CALENDAR_DAYS), Set.of());
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws IOException {
+        var waitNanos = rateLimiter.tryAcquire(getClientKey(request), getRoute(request));
+
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        var retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+        return false;
+    }
+
+    private static String getClientKey(HttpServletRequest request) {
+        var userId = request.getHeader(USER_ID_HEADER);
+
+        return userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Requests matching no handler share one route: keying them by URI would let a client create buckets at will.
+     */
+    private static String getRoute(HttpServletRequest request) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        return pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+    }
+}
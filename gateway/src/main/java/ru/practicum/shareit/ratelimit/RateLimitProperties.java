@@ -0,0 +1,36 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled;
+
+    private Limit defaultLimit = new Limit();
+
+    private Map<String, Limit> routes = new HashMap<>();
+
+    private int maxBuckets = 100_000;
+
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    public Limit getLimit(String route) {
+        return routes.getOrDefault(route, defaultLimit);
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity = 20;
+
+        private double refillPerSecond = 10;
+    }
+}
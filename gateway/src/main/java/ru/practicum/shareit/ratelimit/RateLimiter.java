@@ -0,0 +1,86 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client and route. At most maxBuckets of them are kept, and idle ones are evicted by the
+ * scheduled sweep only: once the map is full, clients without a bucket share one overflow bucket per route, so
+ * rotating client keys cannot lift the limit nor make a request scan the map.
+ */
+public class RateLimiter implements MeterBinder {
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+    private Counter rejectedRequests;
+    private Counter overflowRequests;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns 0 when the request is allowed, otherwise the number of nanoseconds the client should wait.
+     */
+    public long tryAcquire(@NonNull String clientKey, @NonNull String route) {
+        var now = nanoClock.getAsLong();
+        var bucketKey = clientKey + ' ' + route;
+        var bucket = buckets.get(bucketKey);
+
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxBuckets()) {
+                increment(overflowRequests);
+                bucket = overflowBuckets.computeIfAbsent(route,
+                        key -> new TokenBucket(properties.getLimit(route), now));
+            } else {
+                bucket = buckets.computeIfAbsent(bucketKey,
+                        key -> new TokenBucket(properties.getLimit(route), now));
+            }
+        }
+
+        var waitNanos = bucket.tryAcquire(now);
+
+        if (waitNanos > 0) {
+            increment(rejectedRequests);
+        }
+        return waitNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        var idleSince = nanoClock.getAsLong() - properties.getIdleTimeout().toNanos();
+
+        buckets.values().removeIf(bucket -> bucket.isIdleSince(idleSince));
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        rejectedRequests = Counter.builder("shareit.rate-limit.rejected").register(meterRegistry);
+        overflowRequests = Counter.builder("shareit.rate-limit.overflow").register(meterRegistry);
+        Gauge.builder("shareit.rate-limit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    int getBucketsCount() {
+        return buckets.size();
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single "theoretical arrival time" (GCRA): the moment when the bucket would be full again.
+ * Taking a token moves it one refill interval forward, so the whole state is updated with one CAS.
+ */
+class TokenBucket {
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAtNanos;
+
+    TokenBucket(RateLimitProperties.Limit limit, long nowNanos) {
+        refillIntervalNanos = (long) (1_000_000_000L / limit.getRefillPerSecond());
+        burstNanos = refillIntervalNanos * limit.getCapacity();
+        fullAtNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Returns 0 when a token was taken, otherwise the number of nanoseconds to wait for the next token.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            var fullAt = fullAtNanos.get();
+            var newFullAt = Math.max(fullAt, nowNanos) + refillIntervalNanos;
+            var waitNanos = newFullAt - nowNanos - burstNanos;
+
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAtNanos.compareAndSet(fullAt, newFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isIdleSince(long refNanos) {
+        return fullAtNanos.get() - refNanos <= 0;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientIsolation;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -15,9 +16,11 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
     private static final String REQUESTS_ENDPOINT = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String url, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String url, RestTemplateBuilder builder,
+                             ClientIsolation clientIsolation) {
         super(builder.requestFactory(HttpComponentsClientHttpRequestFactory::new)
                 .uriTemplateHandler(new DefaultUriBuilderFactory(url + REQUESTS_ENDPOINT))
+                .additionalInterceptors(clientIsolation.interceptor("requests"))
                 .build()
         );
     }
@@ -7,6 +7,8 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientIsolation;
+import ru.practicum.shareit.client.UnknownUserInterceptor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Map;
@@ -15,11 +17,16 @@ import java.util.Map;
 public class UserClient extends BaseClient {
     private static final String BASE_USER_ENDPOINT = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String baseURI, RestTemplateBuilder builder) {
+    private final UnknownUserInterceptor unknownUsers;
+
+    public UserClient(@Value("${shareit-server.url}") String baseURI, RestTemplateBuilder builder,
+                      ClientIsolation clientIsolation, UnknownUserInterceptor unknownUsers) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(baseURI + BASE_USER_ENDPOINT))
                 .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .additionalInterceptors(clientIsolation.interceptor("users"))
                 .build());
+        this.unknownUsers = unknownUsers;
     }
 
     public ResponseEntity<Object> getAllUsers() {
@@ -31,7 +38,16 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> createNewUser(UserDto userDto) {
-        return post("", userDto);
+        var response = post("", userDto);
+
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() instanceof Map) {
+            var userId = ((Map<?, ?>) response.getBody()).get("id");
+
+            if (userId instanceof Number) {
+                unknownUsers.onUserCreated(((Number) userId).longValue());
+            }
+        }
+        return response;
     }
 
     public ResponseEntity<Object> updateUser(UserDto userDto) {
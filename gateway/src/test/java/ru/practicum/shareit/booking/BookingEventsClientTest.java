@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingEventsClientTest {
+    private static final URI EVENTS_URI = URI.create("http://localhost:9090/bookings/events");
+
+    private final List<MockClientHttpRequest> requests = new ArrayList<>();
+    private final List<Runnable> streams = new ArrayList<>();
+
+    @Test
+    void subscribeForwardUserIdAndLastEventIdAndStartRelay() throws Exception {
+        var client = createClient(HttpStatus.OK, MediaType.TEXT_EVENT_STREAM, "id:1\n\n", streams::add);
+
+        var response = client.subscribe(1, "5");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.TEXT_EVENT_STREAM, response.getHeaders().getContentType());
+        assertEquals(1, streams.size());
+        assertEquals(HttpMethod.GET, requests.get(0).getMethod());
+        assertEquals("1", requests.get(0).getHeaders().getFirst("X-Sharer-User-Id"));
+        assertEquals("5", requests.get(0).getHeaders().getFirst("Last-Event-ID"));
+    }
+
+    @Test
+    void subscribeDoNotSendLastEventIdWhenItIsMissing() throws Exception {
+        var client = createClient(HttpStatus.OK, MediaType.TEXT_EVENT_STREAM, "", streams::add);
+
+        client.subscribe(1, null);
+
+        assertFalse(requests.get(0).getHeaders().containsKey("Last-Event-ID"));
+    }
+
+    @Test
+    void subscribeReturnServerStatusWithoutRelayWhenServerRejectsStream() throws Exception {
+        var client = createClient(HttpStatus.NOT_FOUND, MediaType.APPLICATION_JSON,
+                "{\"error\":\"Пользователь с id = 1 не найден\"}", streams::add);
+
+        var response = client.subscribe(1, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertTrue(streams.isEmpty());
+    }
+
+    @Test
+    void subscribeReturnStatus503WhenTooManyStreamsAreOpen() throws Exception {
+        var client = createClient(HttpStatus.OK, MediaType.TEXT_EVENT_STREAM, "", command -> {
+            throw new RejectedExecutionException();
+        });
+
+        var response = client.subscribe(1, null);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    private BookingEventsClient createClient(HttpStatus status, MediaType contentType, String body,
+                                             Executor executor) {
+        ClientHttpRequestFactory requestFactory = (uri, method) -> {
+            var request = new MockClientHttpRequest(method, uri);
+            var response = new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), status);
+
+            response.getHeaders().setContentType(contentType);
+            request.setResponse(response);
+            requests.add(request);
+            return request;
+        };
+
+        return new BookingEventsClient(EVENTS_URI, requestFactory, executor, Duration.ofMinutes(1));
+    }
+}
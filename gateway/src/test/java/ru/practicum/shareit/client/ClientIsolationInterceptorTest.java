@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientIsolationInterceptorTest {
+    private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+            URI.create("http://localhost/bookings/1"));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void interceptRejectCallsWhileCircuitIsOpenAndProbeAfterWait() throws Exception {
+        var circuitBreaker = CircuitBreaker.of("bookings", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenState(Duration.ofMillis(50))
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build());
+        var interceptor = new ClientIsolationInterceptor(Bulkhead.ofDefaults("bookings"), circuitBreaker);
+
+        interceptor.intercept(request, new byte[0], respondWith(HttpStatus.INTERNAL_SERVER_ERROR));
+        interceptor.intercept(request, new byte[0], respondWith(HttpStatus.BAD_GATEWAY));
+        var rejected = interceptor.intercept(request, new byte[0], respondWith(HttpStatus.OK));
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertNotNull(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, calls.get());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfNotPermittedCalls());
+
+        Thread.sleep(100);
+        var probe = interceptor.intercept(request, new byte[0], respondWith(HttpStatus.OK));
+
+        assertEquals(HttpStatus.OK, probe.getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void interceptRejectCallsWhenBulkheadIsFull() throws Exception {
+        var bulkhead = Bulkhead.of("items", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        var interceptor = new ClientIsolationInterceptor(bulkhead, CircuitBreaker.ofDefaults("items"));
+
+        var response = interceptor.intercept(request, new byte[0], (request, body) -> {
+            var nested = interceptor.intercept(request, body, respondWith(HttpStatus.OK));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, nested.getStatusCode());
+            return respondWith(HttpStatus.OK).execute(request, body);
+        });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, calls.get());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void interceptNotCountClientErrorsAsFailures() throws Exception {
+        var circuitBreaker = CircuitBreaker.ofDefaults("users");
+        var interceptor = new ClientIsolationInterceptor(Bulkhead.ofDefaults("users"), circuitBreaker);
+
+        interceptor.intercept(request, new byte[0], respondWith(HttpStatus.NOT_FOUND));
+
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    private ClientHttpRequestExecution respondWith(HttpStatus status) {
+        return (request, body) -> {
+            calls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancingInterceptorTest {
+    private static final List<URI> ENDPOINTS = List.of(URI.create("http://server-1:9090"),
+            URI.create("http://server-2:9090"));
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void interceptSendRequestToEndpointKeepingPathAndQuery() throws IOException {
+        var interceptor = createInterceptor(List.of(URI.create("http://server-1:9090")), 3, null);
+        var uris = new CopyOnWriteArrayList<URI>();
+
+        interceptor.intercept(createRequest(HttpMethod.POST), new byte[0], respond(uris, HttpStatus.OK));
+
+        assertEquals(List.of(URI.create("http://server-1:9090/items/1?from=0&size=10")), uris);
+    }
+
+    @Test
+    void chooseEndpointPreferEndpointWithLessOutstandingCalls() {
+        var interceptor = createInterceptor(ENDPOINTS, 3, null);
+        var busy = interceptor.chooseEndpoint(null);
+
+        busy.onStart();
+
+        for (int i = 0; i < 10; i++) {
+            assertNotSame(busy, interceptor.chooseEndpoint(null));
+        }
+    }
+
+    @Test
+    void interceptEjectEndpointAfterConsecutiveFailuresUntilEjectionTimePasses() throws IOException {
+        var interceptor = createInterceptor(ENDPOINTS, 2, null);
+        var failing = interceptor.chooseEndpoint(null);
+        var uris = new CopyOnWriteArrayList<URI>();
+
+        failing.onFailure(now.get());
+        failing.onFailure(now.get());
+        for (int i = 0; i < 10; i++) {
+            interceptor.intercept(createRequest(HttpMethod.POST), new byte[0], respond(uris, HttpStatus.OK));
+        }
+
+        assertTrue(uris.stream().noneMatch(uri -> uri.getAuthority().equals(failing.getName())));
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertTrue(failing.isAvailable(now.get()));
+    }
+
+    @Test
+    void chooseEndpointUseEjectedEndpointsWhenAllAreEjected() {
+        var interceptor = createInterceptor(List.of(URI.create("http://server-1:9090")), 1, null);
+        var endpoint = interceptor.chooseEndpoint(null);
+
+        endpoint.onFailure(now.get());
+
+        assertSame(endpoint, interceptor.chooseEndpoint(null));
+    }
+
+    @Test
+    void interceptReturnHedgedResponseWhenFirstEndpointIsSlow() throws Exception {
+        var executor = Executors.newCachedThreadPool();
+        var interceptor = createInterceptor(ENDPOINTS, 3, executor);
+        var fastEndpoint = interceptor.chooseEndpoint(null);
+        var release = new CountDownLatch(1);
+        ClientHttpRequestExecution execution = (request, body) -> {
+            if (request.getURI().getAuthority().equals(fastEndpoint.getName())) {
+                return new MockClientHttpResponse("fast".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+            }
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse("slow".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        };
+
+        fastEndpoint.onStart();
+        try {
+            var response = interceptor.intercept(createRequest(HttpMethod.GET), new byte[0], execution);
+
+            assertEquals("fast", StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void interceptNotHedgeRequestsOtherThanGet() throws IOException {
+        assertEquals(1, interceptSlowly(createRequest(HttpMethod.POST)).size());
+    }
+
+    @Test
+    void interceptNotHedgeEventStreams() throws IOException {
+        var request = createRequest(HttpMethod.GET);
+
+        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+
+        assertEquals(1, interceptSlowly(request).size());
+    }
+
+    private List<URI> interceptSlowly(MockClientHttpRequest slowRequest) throws IOException {
+        var executor = Executors.newCachedThreadPool();
+        var interceptor = createInterceptor(ENDPOINTS, 3, executor);
+        var uris = new CopyOnWriteArrayList<URI>();
+
+        try {
+            interceptor.intercept(slowRequest, new byte[0], (request, body) -> {
+                uris.add(request.getURI());
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+        return uris;
+    }
+
+    private LoadBalancingInterceptor createInterceptor(List<URI> endpoints, int failuresToEject,
+                                                       ExecutorService hedgingExecutor) {
+        return new LoadBalancingInterceptor(endpoints, failuresToEject, Duration.ofSeconds(30), hedgingExecutor,
+                Duration.ofMillis(20), 1.0, now::get);
+    }
+
+    private static ClientHttpRequestExecution respond(List<URI> uris, HttpStatus status) {
+        return (request, body) -> {
+            uris.add(request.getURI());
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+    }
+
+    private static MockClientHttpRequest createRequest(HttpMethod method) {
+        return new MockClientHttpRequest(method, URI.create("http://localhost:9090/items/1?from=0&size=10"));
+    }
+}
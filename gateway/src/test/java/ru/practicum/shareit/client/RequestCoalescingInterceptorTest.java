@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescingInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescingInterceptor interceptor = new RequestCoalescingInterceptor();
+
+    @Test
+    void interceptShareOneCallBetweenConcurrentIdenticalRequests() throws Exception {
+        interceptor.bindTo(meterRegistry);
+        var calls = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        ClientHttpRequestExecution execution = (request, body) -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse("{\"id\":1}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        };
+        var executor = Executors.newFixedThreadPool(4);
+        var responses = new ArrayList<Future<String>>();
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                responses.add(executor.submit(() -> StreamUtils.copyToString(
+                        interceptor.intercept(createRequest(HttpMethod.GET, "1"), new byte[0], execution).getBody(),
+                        StandardCharsets.UTF_8)));
+            }
+            while (coalescedCount() + calls.get() < 4) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (var response : responses) {
+                assertEquals("{\"id\":1}", response.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(3.0, coalescedCount());
+    }
+
+    @Test
+    void interceptNotShareCallBetweenDifferentUsersAndNotGetRequests() throws Exception {
+        interceptor.bindTo(meterRegistry);
+        var calls = new AtomicInteger();
+        ClientHttpRequestExecution execution = (request, body) -> {
+            calls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+
+        interceptor.intercept(createRequest(HttpMethod.GET, "1"), new byte[0], execution);
+        interceptor.intercept(createRequest(HttpMethod.GET, "2"), new byte[0], execution);
+        interceptor.intercept(createRequest(HttpMethod.POST, "1"), new byte[0], execution);
+
+        assertEquals(3, calls.get());
+        assertEquals(0.0, coalescedCount());
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.get("shareit.gateway.coalescing.requests").tag("result", "coalesced").counter().count();
+    }
+
+    private static MockClientHttpRequest createRequest(HttpMethod method, String userId) {
+        var request = new MockClientHttpRequest(method, URI.create("http://localhost/items/1"));
+
+        request.getHeaders().add("X-Sharer-User-Id", userId);
+        request.getHeaders().add(HttpHeaders.ACCEPT, "application/json");
+        return request;
+    }
+}
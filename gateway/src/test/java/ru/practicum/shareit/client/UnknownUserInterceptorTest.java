@@ -0,0 +1,109 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnknownUserInterceptorTest {
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final UnknownUserInterceptor interceptor = new UnknownUserInterceptor(true, 2, Duration.ofMinutes(5),
+            now::get);
+
+    @Test
+    void interceptRejectUserReportedUnknownWithoutCallingServer() throws IOException {
+        var meterRegistry = new SimpleMeterRegistry();
+
+        interceptor.bindTo(meterRegistry);
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+        var response = interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("10", response.getHeaders().getFirst(UnknownUserInterceptor.UNKNOWN_USER_ID_HEADER));
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.unknown-users.rejected").functionCounter().count());
+    }
+
+    @Test
+    void interceptNotCacheOtherNotFoundResponses() throws IOException {
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("20"));
+        interceptor.intercept(createRequest("10"), new byte[0], (request, body) -> {
+            calls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND);
+        });
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void interceptCallServerAgainOnceEntryExpires() throws IOException {
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void onUserCreatedDropEntryAndIgnoreResponsesReadBefore() throws IOException {
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+        interceptor.onUserCreated(10);
+        interceptor.intercept(createRequest("11"), new byte[0], (request, body) -> {
+            interceptor.onUserCreated(11);
+            return respondUnknownUser("11").execute(request, body);
+        });
+
+        assertEquals(0, interceptor.getEntriesCount());
+    }
+
+    @Test
+    void interceptKeepAtMostMaxEntries() throws IOException {
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+        interceptor.intercept(createRequest("11"), new byte[0], respondUnknownUser("11"));
+        interceptor.intercept(createRequest("12"), new byte[0], respondUnknownUser("12"));
+        interceptor.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+
+        assertEquals(2, interceptor.getEntriesCount());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void interceptPassRequestsThroughWhenDisabled() throws IOException {
+        var disabled = new UnknownUserInterceptor(false, 2, Duration.ofMinutes(5), now::get);
+
+        disabled.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+        disabled.intercept(createRequest("10"), new byte[0], respondUnknownUser("10"));
+
+        assertEquals(2, calls.get());
+    }
+
+    private ClientHttpRequestExecution respondUnknownUser(String userId) {
+        return (request, body) -> {
+            var response = new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND);
+
+            calls.incrementAndGet();
+            response.getHeaders().set(UnknownUserInterceptor.UNKNOWN_USER_ID_HEADER, userId);
+            return response;
+        };
+    }
+
+    private static MockClientHttpRequest createRequest(String userId) {
+        var request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost/items"));
+
+        request.getHeaders().add(UnknownUserInterceptor.USER_ID_HEADER, userId);
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryAcquireUseRouteLimitAndSeparateBucketsPerUser() {
+        var rateLimiter = createRateLimiter(10);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:1", "/bookings/owner"));
+        assertTrue(rateLimiter.tryAcquire("user:1", "/bookings/owner") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("user:2", "/bookings/owner"));
+        assertEquals(0, rateLimiter.tryAcquire("user:1", "/items"));
+        assertEquals(0, rateLimiter.tryAcquire("user:1", "/items"));
+        assertEquals(1.0, meterRegistry.get("shareit.rate-limit.rejected").counter().count());
+    }
+
+    @Test
+    void evictIdleBucketsRemoveOnlyFullBuckets() {
+        var rateLimiter = createRateLimiter(10);
+
+        rateLimiter.tryAcquire("user:1", "/items");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        rateLimiter.tryAcquire("user:2", "/items");
+        rateLimiter.evictIdleBuckets();
+
+        assertEquals(1, rateLimiter.getBucketsCount());
+    }
+
+    @Test
+    void tryAcquireShareOverflowBucketWhenBucketsAreFull() {
+        var rateLimiter = createRateLimiter(1);
+
+        rateLimiter.tryAcquire("user:1", "/bookings/owner");
+
+        assertEquals(0, rateLimiter.tryAcquire("user:2", "/bookings/owner"));
+        assertTrue(rateLimiter.tryAcquire("user:3", "/bookings/owner") > 0);
+        assertEquals(1, rateLimiter.getBucketsCount());
+        assertEquals(2.0, meterRegistry.get("shareit.rate-limit.overflow").counter().count());
+    }
+
+    @Test
+    void tryAcquireNotEvictIdleBucketsWhenBucketsAreFull() {
+        var rateLimiter = createRateLimiter(1);
+
+        rateLimiter.tryAcquire("user:1", "/items");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        rateLimiter.tryAcquire("user:2", "/items");
+
+        assertEquals(1, rateLimiter.getBucketsCount());
+        assertEquals(1.0, meterRegistry.get("shareit.rate-limit.overflow").counter().count());
+    }
+
+    @Test
+    void preHandleUseOneRouteForRequestsMatchingNoHandler() throws Exception {
+        var rateLimiter = createRateLimiter(10);
+        var interceptor = new RateLimitInterceptor(rateLimiter);
+        var request = new MockHttpServletRequest("GET", "/unknown/1");
+        var otherRequest = new MockHttpServletRequest("GET", "/unknown/2");
+
+        request.addHeader("X-Sharer-User-Id", "1");
+        otherRequest.addHeader("X-Sharer-User-Id", "1");
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        interceptor.preHandle(otherRequest, new MockHttpServletResponse(), new Object());
+
+        assertEquals(1, rateLimiter.getBucketsCount());
+    }
+
+    @Test
+    void preHandleReturnTooManyRequestsWithRetryAfter() throws Exception {
+        var interceptor = new RateLimitInterceptor(createRateLimiter(10));
+        var request = new MockHttpServletRequest("GET", "/bookings/owner");
+
+        request.addHeader("X-Sharer-User-Id", "1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/bookings/owner");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        var response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, new Object()));
+        assertEquals(429, response.getStatus());
+        assertEquals("10", response.getHeader("Retry-After"));
+    }
+
+    private RateLimiter createRateLimiter(int maxBuckets) {
+        var properties = new RateLimitProperties();
+        var ownerLimit = new RateLimitProperties.Limit();
+
+        ownerLimit.setCapacity(1);
+        ownerLimit.setRefillPerSecond(0.1);
+        properties.setRoutes(Map.of("/bookings/owner", ownerLimit));
+        properties.setMaxBuckets(maxBuckets);
+        properties.setIdleTimeout(Duration.ofSeconds(10));
+
+        var rateLimiter = new RateLimiter(properties, clock::get);
+
+        rateLimiter.bindTo(meterRegistry);
+        return rateLimiter;
+    }
+}
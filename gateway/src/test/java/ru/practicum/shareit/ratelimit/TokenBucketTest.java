@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquireAllowBurstUpToCapacity() {
+        var bucket = new TokenBucket(createLimit(3, 1), 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void tryAcquireRefillTokensOverTime() {
+        var bucket = new TokenBucket(createLimit(1, 2), 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND / 2, bucket.tryAcquire(0));
+        assertEquals(SECOND / 4, bucket.tryAcquire(SECOND / 4));
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void isIdleSinceReturnTrueOnlyWhenBucketIsFull() {
+        var bucket = new TokenBucket(createLimit(2, 1), 0);
+
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdleSince(SECOND / 2));
+        assertTrue(bucket.isIdleSince(SECOND));
+    }
+
+    private RateLimitProperties.Limit createLimit(int capacity, double refillPerSecond) {
+        var limit = new RateLimitProperties.Limit();
+
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
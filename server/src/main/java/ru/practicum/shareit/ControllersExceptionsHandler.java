@@ -2,6 +2,7 @@ package ru.practicum.shareit;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,6 +12,7 @@ import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.booking.exceptions.BookingTimeConflictsException;
 import ru.practicum.shareit.booking.exceptions.IllegalBookingApproveException;
 import ru.practicum.shareit.booking.exceptions.ItemBookedByItsOwnerException;
+import ru.practicum.shareit.fieldset.InvalidFieldsetException;
 import ru.practicum.shareit.item.exceptions.BookingToCreateCommentNotFoundException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.exceptions.UserIsNotItemOwnerException;
@@ -22,7 +24,24 @@ import java.util.Map;
 @RestControllerAdvice
 @Slf4j
 public class ControllersExceptionsHandler {
-    @ExceptionHandler({UserNotFoundException.class, ItemNotFoundException.class, UserIsNotItemOwnerException.class,
+    static final String UNKNOWN_USER_ID_HEADER = "X-Unknown-User-Id";
+
+    /**
+     * The X-Unknown-User-Id header names the missing user, so that the gateway can tell an unknown sharer from
+     * another missing entity.
+     */
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> handleUserNotFoundException(UserNotFoundException ex) {
+        var headers = new HttpHeaders();
+
+        logWarn(ex);
+        if (ex.getUserId() != null) {
+            headers.set(UNKNOWN_USER_ID_HEADER, String.valueOf(ex.getUserId()));
+        }
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), headers, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler({ItemNotFoundException.class, UserIsNotItemOwnerException.class,
                        ItemBookedByItsOwnerException.class, BookingNotFoundException.class,
                        RequestNotFoundException.class})
     public ResponseEntity<Map<String, String>> handleNotFoundExceptions(RuntimeException ex) {
@@ -37,7 +56,8 @@ public class ControllersExceptionsHandler {
     }
 
     @ExceptionHandler({BookingToCreateCommentNotFoundException.class, IllegalBookingApproveException.class,
-                       BookingTimeConflictsException.class, BookingNotAvailableItemException.class})
+                       BookingTimeConflictsException.class, BookingNotAvailableItemException.class,
+                       InvalidFieldsetException.class})
     public ResponseEntity<Map<String, String>> handleOtherBadRequestExceptions(RuntimeException ex) {
         logWarn(ex);
         return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
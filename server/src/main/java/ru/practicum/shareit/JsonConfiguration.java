@@ -0,0 +1,14 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfiguration {
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit;
+
+import lombok.NonNull;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionCallbacks {
+    /**
+     * Runs the action after the current transaction commits, and right away outside of a transaction. A rolled
+     * back transaction drops the action.
+     */
+    public static void runAfterCommit(@NonNull Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.execution-mode", havingValue = "virtual")
+public class VirtualThreadExecutionConfiguration {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer() {
+        return protocolHandler -> createVirtualThreadExecutor().ifPresent(protocolHandler::setExecutor);
+    }
+
+    /**
+     * Tomcat no longer caps the number of concurrent requests, so the pool of each Hikari data source bean does:
+     * it is resized and a request waits for a connection for connectionTimeout at most.
+     */
+    @Bean
+    public static BeanPostProcessor virtualExecutionHikariCustomizer(
+            @Value("${shareit.virtual-execution.hikari.maximum-pool-size:20}") int maximumPoolSize,
+            @Value("${shareit.virtual-execution.hikari.connection-timeout:3000}") long connectionTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    ((HikariDataSource) bean).setMaximumPoolSize(maximumPoolSize);
+                    ((HikariDataSource) bean).setConnectionTimeout(connectionTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static Optional<ExecutorService> createVirtualThreadExecutor() {
+        try {
+            var factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+            return Optional.of((ExecutorService) factoryMethod.invoke(null));
+        } catch (ReflectiveOperationException ex) {
+            log.warn("Виртуальные потоки недоступны в JVM {}, запросы обслуживает пул платформенных потоков",
+                    Runtime.version());
+            return Optional.empty();
+        }
+    }
+}
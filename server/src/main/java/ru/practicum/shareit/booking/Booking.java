@@ -14,6 +14,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -46,6 +47,15 @@ public class Booking {
     @Column(name = "status", nullable = false, length = 10)
     private BookingStatus status = BookingStatus.WAITING;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false, length = 10)
+    private BookingPhase phase = BookingPhase.FUTURE;
+
+    @PrePersist
+    void initPhase() {
+        phase = BookingPhase.of(startTime, endTime, LocalDateTime.now());
+    }
+
     @Override
     public int hashCode() {
         return Objects.hashCode(id);
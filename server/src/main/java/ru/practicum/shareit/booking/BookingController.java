@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,16 +13,18 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
-
-import java.util.Collection;
+import ru.practicum.shareit.fieldset.Fieldset;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class BookingController {
+    private static final Fieldset SUMMARY_FIELDSET = BookingFieldset.parse(null, "item,booker");
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -43,20 +47,43 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingDto> getBookingsByUserAndState(
+    public MappingJacksonValue getBookingsByUserAndState(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state") BookingState bookingState,
             @RequestParam(name = "from") long from,
-            @RequestParam(name = "size") int size) {
-        return bookingService.getAllBookingsByUserAndState(userId, bookingState, from, size);
+            @RequestParam(name = "size") int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed) {
+        var fieldset = BookingFieldset.parse(fields, embed);
+
+        return BookingFieldset.toJson(bookingService.getAllBookingsByUserAndState(userId, bookingState, from, size,
+                fieldset), fieldset);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getBookingsByOwnerAndState(
+    public MappingJacksonValue getBookingsByOwnerAndState(
             @RequestHeader("X-Sharer-User-Id") long ownerId,
             @RequestParam(name = "state") BookingState bookingState,
             @RequestParam(name = "from") long from,
-            @RequestParam(name = "size") int size) {
-        return bookingService.getAllBookingsByOwnerAndState(ownerId, bookingState, from, size);
+            @RequestParam(name = "size") int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed) {
+        var fieldset = BookingFieldset.parse(fields, embed);
+
+        return BookingFieldset.toJson(bookingService.getAllBookingsByOwnerAndState(ownerId, bookingState, from,
+                size, fieldset), fieldset);
+    }
+
+    @GetMapping("/owner/summary")
+    public MappingJacksonValue getOwnerBookingsSummary(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                       @RequestParam(name = "size") int size) {
+        return BookingFieldset.toJson(bookingService.getOwnerBookingsSummary(ownerId, size), SUMMARY_FIELDSET);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToBookingEvents(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return bookingService.subscribeToBookingEvents(userId, lastEventId);
     }
 }
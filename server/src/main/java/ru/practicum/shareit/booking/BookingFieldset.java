@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.BookingViewSelection.Depth;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.fieldset.FieldsetConfiguration;
+import ru.practicum.shareit.fieldset.FieldsetFilters;
+
+import java.util.Set;
+
+/**
+ * Fields and relations of booking list responses. A relation which is requested in fields= but not in embed= is
+ * written as {"id": ...}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingFieldset {
+    public static final String ITEM = "item";
+    public static final String BOOKER = "booker";
+    public static final String ITEM_COMMENTS = "item.comments";
+
+    private static final Set<String> FIELDS = Set.of("id", "start", "end", "status", ITEM, BOOKER);
+    private static final Set<String> EMBEDS = Set.of(ITEM, BOOKER, ITEM_COMMENTS);
+
+    public static Fieldset parse(@Nullable String fields, @Nullable String embed) {
+        return Fieldset.parse(fields, embed, FIELDS, EMBEDS);
+    }
+
+    public static BookingViewSelection getSelection(@NonNull Fieldset fieldset) {
+        return new BookingViewSelection(getDepth(fieldset, ITEM), getDepth(fieldset, BOOKER));
+    }
+
+    public static boolean embedsItemComments(@NonNull Fieldset fieldset) {
+        return getDepth(fieldset, ITEM) == Depth.DETAILS && fieldset.embeds(ITEM_COMMENTS);
+    }
+
+    public static MappingJacksonValue toJson(@NonNull Object body, @NonNull Fieldset fieldset) {
+        var filters = new FieldsetFilters();
+
+        if (fieldset.isAll()) {
+            return filters.apply(body);
+        }
+        filters.only(FieldsetConfiguration.BOOKING_FILTER, fieldset.getFields(FIELDS));
+        if (getDepth(fieldset, ITEM) == Depth.DETAILS) {
+            filters.except(FieldsetConfiguration.ITEM_FILTER, embedsItemComments(fieldset)
+                    ? Set.of("lastBooking", "nextBooking")
+                    : Set.of("lastBooking", "nextBooking", "comments", "commentsCount"));
+        } else {
+            filters.only(FieldsetConfiguration.ITEM_FILTER, Set.of("id"));
+        }
+        if (getDepth(fieldset, BOOKER) != Depth.DETAILS) {
+            filters.only(FieldsetConfiguration.USER_FILTER, Set.of("id"));
+        }
+        return filters.apply(body);
+    }
+
+    private static Depth getDepth(Fieldset fieldset, String relation) {
+        if (!fieldset.includes(relation)) {
+            return Depth.NONE;
+        }
+        return fieldset.embeds(relation) ? Depth.DETAILS : Depth.ID;
+    }
+}
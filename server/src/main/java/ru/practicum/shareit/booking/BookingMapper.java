@@ -4,13 +4,20 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -39,6 +46,72 @@ public class BookingMapper {
         return bookings.stream().map(BookingMapper::mapBookingToDto).collect(Collectors.toList());
     }
 
+    public static BookingDto mapBookingViewToDto(BookingView booking, List<CommentDto> itemComments,
+                                                  long itemCommentsCount) {
+        if (booking == null) {
+            return null;
+        }
+
+        var bookingDto = new BookingDto();
+
+        if (booking.getItemId() != null) {
+            var itemDto = new ItemDto();
+
+            itemDto.setId(booking.getItemId());
+            itemDto.setName(booking.getItemName());
+            itemDto.setDescription(booking.getItemDescription());
+            itemDto.setAvailable(booking.getItemAvailable());
+            itemDto.setComments(itemComments);
+            itemDto.setCommentsCount(itemCommentsCount);
+            itemDto.setRequestId(booking.getItemRequestId());
+            bookingDto.setItem(itemDto);
+        }
+        if (booking.getBookerId() != null) {
+            var bookerDto = new UserDto();
+
+            bookerDto.setId(booking.getBookerId());
+            bookerDto.setName(booking.getBookerName());
+            bookerDto.setEmail(booking.getBookerEmail());
+            bookingDto.setBooker(bookerDto);
+        }
+        bookingDto.setId(booking.getId());
+        bookingDto.setStart(booking.getStartTime());
+        bookingDto.setEnd(booking.getEndTime());
+        bookingDto.setStatus(booking.getStatus());
+        return bookingDto;
+    }
+
+    public static List<BookingDto> mapBookingViewsToDto(Collection<BookingView> bookings,
+                                                        Map<Long, List<CommentDto>> commentsByItemId,
+                                                        Map<Long, Long> commentsCountByItemId) {
+        if (bookings == null) {
+            return null;
+        }
+        return bookings.stream()
+                .map(booking -> mapBookingViewToDto(booking,
+                        commentsByItemId.getOrDefault(booking.getItemId(), new ArrayList<>()),
+                        commentsCountByItemId.getOrDefault(booking.getItemId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    public static Map<BookingState, BookingStateSummaryDto> mapOwnerSummaryToDto(OwnerBookingsSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        var summaryDto = new EnumMap<BookingState, BookingStateSummaryDto>(BookingState.class);
+
+        for (BookingState state : BookingState.values()) {
+            var stateSummaryDto = new BookingStateSummaryDto();
+
+            stateSummaryDto.setCount(summary.getCounts().getOrDefault(state, 0L));
+            stateSummaryDto.setBookings(mapBookingViewsToDto(summary.getBookings().getOrDefault(state, List.of()),
+                    Map.of(), Map.of()));
+            summaryDto.put(state, stateSummaryDto);
+        }
+        return summaryDto;
+    }
+
     public static Booking mapDtoToBooking(BookingRequestDto bookingDto, Item item, User user) {
         if (bookingDto == null) {
             return null;
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingPeriod {
+    private final Long itemId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import lombok.NonNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position of a booking on the time line, stored in bookings.phase. It is set on insert and advanced by
+ * BookingPhaseScheduler, so it may lag behind the clock by up to one scheduler run.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(@NonNull LocalDateTime start, @NonNull LocalDateTime end,
+                                  @NonNull LocalDateTime refTime) {
+        if (start.isAfter(refTime)) {
+            return FUTURE;
+        }
+        return end.isBefore(refTime) ? PAST : CURRENT;
+    }
+}
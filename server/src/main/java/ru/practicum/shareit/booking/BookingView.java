@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the booking list queries: the booking with its item and booker columns, selected in one query
+ * without loading managed entities.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingView {
+    private final Long id;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final BookingStatus status;
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final Boolean itemAvailable;
+    private final Long itemRequestId;
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+}
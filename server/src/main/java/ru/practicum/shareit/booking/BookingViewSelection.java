@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Which item and booker columns a booking list query selects. Relations which are not selected are not joined.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class BookingViewSelection {
+    public static final BookingViewSelection ALL = new BookingViewSelection(Depth.DETAILS, Depth.DETAILS);
+
+    @NonNull
+    private final Depth item;
+    @NonNull
+    private final Depth booker;
+
+    public enum Depth {
+        NONE,
+        ID,
+        DETAILS
+    }
+}
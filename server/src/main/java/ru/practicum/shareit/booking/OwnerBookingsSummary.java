@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts and the latest bookings of every state of an owner's bookings. A booking is listed under each state it
+ * belongs to.
+ */
+@Getter
+@AllArgsConstructor
+public class OwnerBookingsSummary {
+    private final Map<BookingState, Long> counts;
+    private final Map<BookingState, List<BookingView>> bookings;
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.TransactionCallbacks;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-process index of the active bookings of each item. It is only used to reject conflicting bookings early:
+ * "no conflict" answers still have to be confirmed by the database.
+ */
+@Component
+public class BookingAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final int maxItems;
+    private final Map<Long, ItemSchedule> schedules = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingAvailabilityIndex(BookingRepository bookingRepository,
+                                    @Value("${shareit.booking.availability-index.enabled:false}") boolean enabled,
+                                    @Value("${shareit.booking.availability-index.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.maxItems = maxItems;
+    }
+
+    public boolean hasConflicts(@NonNull Item item, @NonNull LocalDateTime start, @NonNull LocalDateTime end) {
+        if (!enabled) {
+            return false;
+        }
+
+        var schedule = schedules.get(item.getId());
+
+        if (schedule == null) {
+            if (schedules.size() >= maxItems) {
+                return false;
+            }
+            var loadedSchedule = loadSchedule(item);
+            var presentSchedule = schedules.putIfAbsent(item.getId(), loadedSchedule);
+
+            schedule = presentSchedule == null ? loadedSchedule : presentSchedule;
+        }
+        return schedule.hasConflicts(start, end);
+    }
+
+    public void registerBooking(@NonNull Booking booking) {
+        if (enabled) {
+            TransactionCallbacks.runAfterCommit(() -> addToSchedule(booking));
+        }
+    }
+
+    public void invalidateItem(long itemId) {
+        TransactionCallbacks.runAfterCommit(() -> schedules.remove(itemId));
+    }
+
+    public void invalidateAll() {
+        TransactionCallbacks.runAfterCommit(schedules::clear);
+    }
+
+    int getIndexedItemsCount() {
+        return schedules.size();
+    }
+
+    private void addToSchedule(Booking booking) {
+        var interval = BookingInterval.of(booking);
+        var refTime = LocalDateTime.now();
+
+        schedules.computeIfPresent(booking.getItem().getId(),
+                (itemId, schedule) -> schedule.with(interval).withoutFinishedBefore(refTime));
+    }
+
+    private ItemSchedule loadSchedule(Item item) {
+        var bookings = bookingRepository.findAllByItemAndEndTimeGreaterThanEqual(item, LocalDateTime.now());
+
+        return ItemSchedule.of(bookings.stream().map(BookingInterval::of).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+class BookingInterval {
+    private final long bookingId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getStartTime(), booking.getEndTime());
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.NonNull;
+import ru.practicum.shareit.booking.BookingPeriod;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of days that keeps only its non-empty 64-day words, indexed by epoch day, so an item booked a few
+ * weeks a year takes a few words whatever the span of its bookings. Instances are replaced on update.
+ */
+class DayBitmap {
+    static final DayBitmap EMPTY = new DayBitmap(new long[0], new long[0]);
+
+    private static final int WORD_SHIFT = 6;
+    private static final long BIT_MASK = Long.SIZE - 1;
+
+    private final long[] wordIndexes;
+    private final long[] words;
+
+    private DayBitmap(long[] wordIndexes, long[] words) {
+        this.wordIndexes = wordIndexes;
+        this.words = words;
+    }
+
+    /**
+     * Days touched by the periods, from the start day to the end day inclusive.
+     */
+    static DayBitmap of(@NonNull Collection<BookingPeriod> periods) {
+        var words = new TreeMap<Long, Long>();
+
+        for (BookingPeriod period : periods) {
+            addDays(words, period.getStartTime().toLocalDate(), period.getEndTime().toLocalDate());
+        }
+        return of(words);
+    }
+
+    DayBitmap withDays(@NonNull LocalDate first, @NonNull LocalDate last) {
+        var words = toMap();
+
+        addDays(words, first, last);
+        return of(words);
+    }
+
+    DayBitmap withoutDaysBefore(@NonNull LocalDate day) {
+        var firstWordIndex = day.toEpochDay() >> WORD_SHIFT;
+        var firstWordMask = -1L << (day.toEpochDay() & BIT_MASK);
+        var kept = new TreeMap<Long, Long>();
+        var changed = false;
+
+        for (int i = 0; i < wordIndexes.length; i++) {
+            var word = wordIndexes[i] > firstWordIndex ? words[i]
+                    : wordIndexes[i] == firstWordIndex ? words[i] & firstWordMask : 0;
+
+            if (word != 0) {
+                kept.put(wordIndexes[i], word);
+            }
+            changed |= word != words[i];
+        }
+        return changed ? of(kept) : this;
+    }
+
+    boolean contains(@NonNull LocalDate day) {
+        var index = Arrays.binarySearch(wordIndexes, day.toEpochDay() >> WORD_SHIFT);
+
+        return index >= 0 && (words[index] & (1L << (day.toEpochDay() & BIT_MASK))) != 0;
+    }
+
+    /**
+     * First day of the set not before the given one, or null when there is none.
+     */
+    LocalDate nextSetDay(@NonNull LocalDate from) {
+        var day = from.toEpochDay();
+        var index = Arrays.binarySearch(wordIndexes, day >> WORD_SHIFT);
+
+        if (index >= 0) {
+            var word = words[index] & (-1L << (day & BIT_MASK));
+
+            if (word != 0) {
+                return toDay(wordIndexes[index], word);
+            }
+            index++;
+        } else {
+            index = -index - 1;
+        }
+        return index < words.length ? toDay(wordIndexes[index], words[index]) : null;
+    }
+
+    /**
+     * First day out of the set not before the given one.
+     */
+    LocalDate nextClearDay(@NonNull LocalDate from) {
+        var day = from.toEpochDay();
+
+        while (true) {
+            var index = Arrays.binarySearch(wordIndexes, day >> WORD_SHIFT);
+
+            if (index < 0) {
+                return LocalDate.ofEpochDay(day);
+            }
+
+            var word = ~words[index] & (-1L << (day & BIT_MASK));
+
+            if (word != 0) {
+                return toDay(wordIndexes[index], word);
+            }
+            day = (wordIndexes[index] + 1) << WORD_SHIFT;
+        }
+    }
+
+    int getWordsCount() {
+        return words.length;
+    }
+
+    private Map<Long, Long> toMap() {
+        var map = new TreeMap<Long, Long>();
+
+        for (int i = 0; i < wordIndexes.length; i++) {
+            map.put(wordIndexes[i], words[i]);
+        }
+        return map;
+    }
+
+    private static void addDays(Map<Long, Long> words, LocalDate first, LocalDate last) {
+        var firstDay = first.toEpochDay();
+        var lastDay = last.toEpochDay();
+
+        for (long wordIndex = firstDay >> WORD_SHIFT; wordIndex <= lastDay >> WORD_SHIFT; wordIndex++) {
+            var low = wordIndex == firstDay >> WORD_SHIFT ? firstDay & BIT_MASK : 0;
+            var high = wordIndex == lastDay >> WORD_SHIFT ? lastDay & BIT_MASK : BIT_MASK;
+
+            words.merge(wordIndex, (-1L << low) & (-1L >>> (BIT_MASK - high)), (left, right) -> left | right);
+        }
+    }
+
+    private static DayBitmap of(Map<Long, Long> words) {
+        var entries = List.copyOf(words.entrySet());
+        var wordIndexes = new long[entries.size()];
+        var values = new long[entries.size()];
+
+        for (int i = 0; i < entries.size(); i++) {
+            wordIndexes[i] = entries.get(i).getKey();
+            values[i] = entries.get(i).getValue();
+        }
+        return new DayBitmap(wordIndexes, values);
+    }
+
+    private static LocalDate toDay(long wordIndex, long word) {
+        return LocalDate.ofEpochDay((wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word));
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.TransactionCallbacks;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPeriod;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CalendarSlotDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-process per-item bitmaps of the days, from today on, touched by a booking of any status: booking creation
+ * rejects any overlap whatever the status, so such days cannot be booked. Bitmaps are loaded on first use, at most
+ * maxItems of them are kept, and the kept ones are updated after each committed booking.
+ */
+@Component
+public class ItemOccupancyIndex {
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final int maxItems;
+    private final Map<Long, DayBitmap> bitmaps = new ConcurrentHashMap<>();
+    private long version;
+
+    @Autowired
+    public ItemOccupancyIndex(BookingRepository bookingRepository,
+                              @Value("${shareit.booking.occupancy-index.enabled:false}") boolean enabled,
+                              @Value("${shareit.booking.occupancy-index.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Free and busy runs of days between from and to inclusive for each item, in the order of the ids. Days before
+     * today are not tracked and reported free.
+     */
+    public Map<Long, List<CalendarSlotDto>> getCalendars(@NonNull Collection<Long> itemIds, @NonNull LocalDate from,
+                                                         @NonNull LocalDate to) {
+        var itemBitmaps = new HashMap<Long, DayBitmap>();
+        var missingItemIds = new ArrayList<Long>();
+
+        for (Long itemId : itemIds) {
+            var bitmap = enabled ? bitmaps.get(itemId) : null;
+
+            if (bitmap == null) {
+                missingItemIds.add(itemId);
+            } else {
+                itemBitmaps.put(itemId, bitmap);
+            }
+        }
+        if (!missingItemIds.isEmpty()) {
+            itemBitmaps.putAll(loadBitmaps(missingItemIds));
+        }
+
+        var calendars = new LinkedHashMap<Long, List<CalendarSlotDto>>();
+        var today = LocalDate.now();
+
+        for (Long itemId : itemIds) {
+            calendars.put(itemId, toSlots(itemBitmaps.get(itemId), from, to, today));
+        }
+        return calendars;
+    }
+
+    public void registerBooking(@NonNull Booking booking) {
+        if (enabled) {
+            var itemId = booking.getItem().getId();
+            var first = booking.getStartTime().toLocalDate();
+            var last = booking.getEndTime().toLocalDate();
+
+            TransactionCallbacks.runAfterCommit(() -> addToBitmap(itemId, first, last));
+        }
+    }
+
+    public void invalidateItem(long itemId) {
+        TransactionCallbacks.runAfterCommit(() -> remove(itemId));
+    }
+
+    public void invalidateAll() {
+        TransactionCallbacks.runAfterCommit(this::clear);
+    }
+
+    int getIndexedItemsCount() {
+        return bitmaps.size();
+    }
+
+    /**
+     * Bitmaps read while a booking was committed may miss it, so they are only kept when no booking was
+     * registered since the read started.
+     */
+    private Map<Long, DayBitmap> loadBitmaps(List<Long> itemIds) {
+        long readVersion;
+
+        synchronized (this) {
+            readVersion = version;
+        }
+
+        var today = LocalDate.now();
+        var periods = bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(itemIds, today.atStartOfDay())
+                .stream()
+                .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+        var loaded = new HashMap<Long, DayBitmap>();
+
+        for (Long itemId : itemIds) {
+            loaded.put(itemId, DayBitmap.of(periods.getOrDefault(itemId, List.of())).withoutDaysBefore(today));
+        }
+        if (enabled) {
+            synchronized (this) {
+                if (readVersion == version) {
+                    loaded.forEach((itemId, bitmap) -> {
+                        if (bitmaps.size() < maxItems) {
+                            bitmaps.putIfAbsent(itemId, bitmap);
+                        }
+                    });
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void addToBitmap(long itemId, LocalDate first, LocalDate last) {
+        var today = LocalDate.now();
+
+        version++;
+        bitmaps.computeIfPresent(itemId, (id, bitmap) -> bitmap.withDays(first, last).withoutDaysBefore(today));
+    }
+
+    private synchronized void remove(long itemId) {
+        version++;
+        bitmaps.remove(itemId);
+    }
+
+    private synchronized void clear() {
+        version++;
+        bitmaps.clear();
+    }
+
+    /**
+     * A kept bitmap is trimmed to the day it was loaded or last updated on, so the days it still holds before
+     * today are reported free here.
+     */
+    static List<CalendarSlotDto> toSlots(DayBitmap bitmap, LocalDate from, LocalDate to, LocalDate today) {
+        var slots = new ArrayList<CalendarSlotDto>();
+        var day = from;
+
+        while (!day.isAfter(to)) {
+            var free = day.isBefore(today) || !bitmap.contains(day);
+            var next = free ? bitmap.nextSetDay(day.isBefore(today) ? today : day) : bitmap.nextClearDay(day);
+            var last = next == null || next.isAfter(to) ? to : next.minusDays(1);
+
+            slots.add(new CalendarSlotDto(day, last, free));
+            day = last.plusDays(1);
+        }
+        return slots;
+    }
+}
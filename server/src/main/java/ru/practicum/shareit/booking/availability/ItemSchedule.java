@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.NonNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Booking intervals of one item sorted by start, with a running maximum of the end time, so that checking whether
+ * a point is covered by any interval is a single binary search. Instances are immutable and replaced on update.
+ */
+class ItemSchedule {
+    private final long[] ids;
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+    private final LocalDateTime[] maxEnds;
+
+    private ItemSchedule(long[] ids, LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new LocalDateTime[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = (i == 0 || ends[i].isAfter(maxEnds[i - 1])) ? ends[i] : maxEnds[i - 1];
+        }
+    }
+
+    static ItemSchedule of(@NonNull Collection<BookingInterval> intervals) {
+        var sorted = intervals.stream()
+                .sorted((first, second) -> first.getStart().compareTo(second.getStart()))
+                .toArray(BookingInterval[]::new);
+        var ids = new long[sorted.length];
+        var starts = new LocalDateTime[sorted.length];
+        var ends = new LocalDateTime[sorted.length];
+
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getBookingId();
+            starts[i] = sorted[i].getStart();
+            ends[i] = sorted[i].getEnd();
+        }
+        return new ItemSchedule(ids, starts, ends);
+    }
+
+    /**
+     * Mirrors BookingRepository.findAllByItemAndTimeConflicts: the request conflicts when its start or its end
+     * falls into an existing interval, bounds included.
+     */
+    boolean hasConflicts(@NonNull LocalDateTime start, @NonNull LocalDateTime end) {
+        return isCovered(start) || isCovered(end);
+    }
+
+    ItemSchedule with(@NonNull BookingInterval interval) {
+        var intervals = new ArrayList<BookingInterval>(ids.length + 1);
+
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != interval.getBookingId()) {
+                intervals.add(new BookingInterval(ids[i], starts[i], ends[i]));
+            }
+        }
+        intervals.add(interval);
+        return of(intervals);
+    }
+
+    ItemSchedule withoutFinishedBefore(@NonNull LocalDateTime refTime) {
+        var intervals = new ArrayList<BookingInterval>(ids.length);
+
+        for (int i = 0; i < ids.length; i++) {
+            if (!ends[i].isBefore(refTime)) {
+                intervals.add(new BookingInterval(ids[i], starts[i], ends[i]));
+            }
+        }
+        return intervals.size() == ids.length ? this : of(intervals);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    private boolean isCovered(LocalDateTime point) {
+        var index = lastStartNotAfter(point);
+
+        return index >= 0 && !maxEnds[index].isBefore(point);
+    }
+
+    private int lastStartNotAfter(LocalDateTime point) {
+        var index = Arrays.binarySearch(starts, point);
+
+        if (index >= 0) {
+            while (index + 1 < starts.length && starts[index + 1].equals(point)) {
+                index++;
+            }
+            return index;
+        }
+        return -index - 2;
+    }
+}
@@ -0,0 +1,304 @@
+package ru.practicum.shareit.booking.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.TransactionCallbacks;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.invalidation.InvalidationConfiguration;
+import ru.practicum.shareit.invalidation.InvalidationTransport;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans booking events out to the open streams of the booker and the item owner. Events are stored in
+ * booking_events, which gives them their ids and keeps the latest historySize of them, so that a client
+ * reconnecting with Last-Event-ID to any node receives what it has missed. Committed events are relayed to the
+ * other nodes through the booking event transport; whenever it may have lost some, the streams are closed and the
+ * clients catch up by reconnecting.
+ */
+@Slf4j
+@Component
+public class BookingEventHub {
+    private final BookingEventRepository eventRepository;
+    private final InvalidationTransport transport;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Duration timeout;
+    private final int queueCapacity;
+    private final int historySize;
+    private final Executor dispatcher;
+    private final ScheduledExecutorService heartbeats;
+    private final Map<Long, Set<BookingEventSubscriber>> subscribers = new HashMap<>();
+    private final Map<BookingEventSubscriber, List<BookingEvent>> replaying = new HashMap<>();
+
+    @Autowired
+    public BookingEventHub(BookingEventRepository eventRepository,
+                           @Qualifier(InvalidationConfiguration.BOOKING_EVENT_TRANSPORT)
+                           ObjectProvider<InvalidationTransport> transport,
+                           @Value("${shareit.booking.events.timeout:30m}") Duration timeout,
+                           @Value("${shareit.booking.events.queue-capacity:32}") int queueCapacity,
+                           @Value("${shareit.booking.events.history-size:1000}") int historySize,
+                           @Value("${shareit.booking.events.dispatch-threads:4}") int dispatchThreads,
+                           @Value("${shareit.booking.events.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this(eventRepository, transport.getIfAvailable(), timeout, queueCapacity, historySize,
+                Executors.newFixedThreadPool(dispatchThreads), heartbeatInterval);
+    }
+
+    BookingEventHub(BookingEventRepository eventRepository, @Nullable InvalidationTransport transport,
+                    Duration timeout, int queueCapacity, int historySize, Executor dispatcher,
+                    Duration heartbeatInterval) {
+        this.eventRepository = eventRepository;
+        this.transport = transport;
+        this.timeout = timeout;
+        this.queueCapacity = queueCapacity;
+        this.historySize = historySize;
+        this.dispatcher = dispatcher;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor();
+        heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribeToTransport() {
+        if (transport != null) {
+            transport.subscribe(this::receive, this::closeAll);
+        }
+    }
+
+    /**
+     * Opens a stream of the user's events. The missed events are read from the database after the stream is
+     * registered; events delivered meanwhile are held back and follow them, so that none falls in between.
+     */
+    public SseEmitter subscribe(long userId, @Nullable Long lastSeenEventId) {
+        var emitter = new SseEmitter(timeout.toMillis());
+        var subscriber = new BookingEventSubscriber(userId, emitter,
+                lastSeenEventId != null ? queueCapacity + historySize : queueCapacity, dispatcher);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+        synchronized (subscribers) {
+            subscribers.computeIfAbsent(userId, id -> new HashSet<>()).add(subscriber);
+            if (lastSeenEventId != null) {
+                replaying.put(subscriber, new ArrayList<>());
+            }
+        }
+        if (lastSeenEventId != null) {
+            replay(subscriber, lastSeenEventId);
+        }
+        return emitter;
+    }
+
+    /**
+     * Stores the current state of the booking in the current transaction and delivers it once the transaction
+     * commits, so that subscribers never see a change which has been rolled back.
+     */
+    public void publish(@NonNull Booking booking, @NonNull BookingEventType type) {
+        var event = eventRepository.save(new BookingEvent(null, type, booking.getId(), booking.getItem().getId(),
+                booking.getUser().getId(), booking.getItem().getOwner().getId(), booking.getStatus()));
+
+        TransactionCallbacks.runAfterCommit(() -> {
+            deliver(event);
+            send(event);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.events.prune-interval:60000}")
+    public void pruneHistory() {
+        var pruned = eventRepository.deleteAllButLatest(historySize);
+
+        if (pruned > 0) {
+            log.debug("Удалено {} старых событий бронирований", pruned);
+        }
+    }
+
+    int getSubscribersCount() {
+        synchronized (subscribers) {
+            return subscribers.values().stream().mapToInt(Set::size).sum();
+        }
+    }
+
+    int getPendingEventsCount(long userId) {
+        synchronized (subscribers) {
+            return subscribers.getOrDefault(userId, Set.of()).stream()
+                    .mapToInt(BookingEventSubscriber::getPendingEventsCount)
+                    .sum();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        closeAll();
+        if (dispatcher instanceof ExecutorService) {
+            ((ExecutorService) dispatcher).shutdown();
+        }
+    }
+
+    void receive(String payload) {
+        BookingEventMessage message;
+
+        try {
+            message = objectMapper.readValue(payload, BookingEventMessage.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Не удалось прочитать событие бронирования: {}", ex.getMessage());
+            closeAll();
+            return;
+        }
+        if (!nodeId.equals(message.getOrigin())) {
+            deliver(message.getEvent());
+        }
+    }
+
+    private void replay(BookingEventSubscriber subscriber, long lastSeenEventId) {
+        List<BookingEvent> missedEvents;
+
+        try {
+            missedEvents = new ArrayList<>(eventRepository.findLatestAfter(subscriber.getUserId(), lastSeenEventId,
+                    PageRequest.of(0, historySize)));
+        } catch (RuntimeException ex) {
+            unsubscribe(subscriber);
+            subscriber.close();
+            throw ex;
+        }
+        Collections.reverse(missedEvents);
+
+        synchronized (subscribers) {
+            var heldEvents = replaying.remove(subscriber);
+
+            if (heldEvents == null) {
+                return;
+            }
+
+            var replayedIds = new HashSet<Long>();
+
+            for (BookingEvent event : missedEvents) {
+                subscriber.offer(toSseEvent(event));
+                replayedIds.add(event.getId());
+            }
+            heldEvents.stream()
+                    .filter(event -> !replayedIds.contains(event.getId()))
+                    .forEach(event -> offer(subscriber, event));
+        }
+    }
+
+    private void deliver(BookingEvent event) {
+        synchronized (subscribers) {
+            deliver(event, event.getBookerId());
+            if (event.getOwnerId() != event.getBookerId()) {
+                deliver(event, event.getOwnerId());
+            }
+        }
+    }
+
+    private void deliver(BookingEvent event, long userId) {
+        var userSubscribers = subscribers.get(userId);
+
+        if (userSubscribers == null) {
+            return;
+        }
+        for (BookingEventSubscriber subscriber : List.copyOf(userSubscribers)) {
+            var heldEvents = replaying.get(subscriber);
+
+            if (heldEvents != null) {
+                heldEvents.add(event);
+            } else {
+                offer(subscriber, event);
+            }
+        }
+    }
+
+    private void offer(BookingEventSubscriber subscriber, BookingEvent event) {
+        var userSubscribers = subscribers.get(subscriber.getUserId());
+
+        if (!subscriber.offer(toSseEvent(event))) {
+            log.warn("Очередь событий пользователя с id = {} переполнена, поток закрыт", subscriber.getUserId());
+            subscriber.close();
+            if (userSubscribers != null) {
+                userSubscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private void send(BookingEvent event) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.send(objectMapper.writeValueAsString(new BookingEventMessage(nodeId, event)));
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Не удалось отправить событие бронирования с id = {}: {}", event.getId(), ex.getMessage());
+        }
+    }
+
+    private void closeAll() {
+        synchronized (subscribers) {
+            subscribers.values().stream()
+                    .flatMap(Set::stream)
+                    .forEach(BookingEventSubscriber::close);
+            subscribers.clear();
+            replaying.clear();
+        }
+    }
+
+    private void sendHeartbeats() {
+        synchronized (subscribers) {
+            subscribers.values().forEach(userSubscribers -> {
+                userSubscribers.removeIf(BookingEventSubscriber::isClosed);
+                userSubscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat")));
+            });
+            subscribers.values().removeIf(Set::isEmpty);
+        }
+    }
+
+    private void unsubscribe(BookingEventSubscriber subscriber) {
+        synchronized (subscribers) {
+            replaying.remove(subscriber);
+
+            var userSubscribers = subscribers.get(subscriber.getUserId());
+
+            if (userSubscribers != null) {
+                userSubscribers.remove(subscriber);
+                if (userSubscribers.isEmpty()) {
+                    subscribers.remove(subscriber.getUserId());
+                }
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(BookingEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+}
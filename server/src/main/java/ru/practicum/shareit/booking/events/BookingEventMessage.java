@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEventMessage {
+    private String origin;
+
+    private BookingEvent event;
+}
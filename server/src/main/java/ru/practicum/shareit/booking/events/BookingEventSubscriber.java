@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.events;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open stream. Events are queued without blocking the publisher and written to the emitter by the dispatch
+ * executor; a subscriber whose queue is full is closed, and the client catches up by reconnecting with
+ * Last-Event-ID.
+ */
+class BookingEventSubscriber {
+    private final long userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    BookingEventSubscriber(long userId, SseEmitter emitter, int queueCapacity, Executor executor) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = executor;
+    }
+
+    long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    int getPendingEventsCount() {
+        return queue.size();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        if (closed || !queue.offer(event)) {
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    void close() {
+        if (!closed) {
+            closed = true;
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                draining.set(false);
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+
+            while (!closed && (event = queue.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            closed = true;
+            queue.clear();
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.events.BookingEvent;
+
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    @Query("SELECT e FROM BookingEvent e WHERE e.id > :lastSeenId AND (e.bookerId = :userId OR e.ownerId = :userId) " +
+            "ORDER BY e.id DESC")
+    List<BookingEvent> findLatestAfter(@Param("userId") long userId, @Param("lastSeenId") long lastSeenId,
+                                       Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM booking_events WHERE id <= (SELECT MAX(id) FROM booking_events) - :kept",
+            nativeQuery = true)
+    int deleteAllButLatest(@Param("kept") int kept);
+}
@@ -2,43 +2,63 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingView;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByUser(User user, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingViewRepository {
+    String BOOKING_VIEW_QUERY = "SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.startTime, b.endTime, " +
+            "b.status, i.id, i.name, i.description, i.available, r.id, u.id, u.name, u.email) " +
+            "FROM Booking b JOIN b.item i JOIN b.user u LEFT JOIN i.request r ";
+    String BY_BOOKER = "WHERE b.user = :user ";
+    String BY_OWNER = "WHERE i.owner = :owner ";
+    String IS_CURRENT = "AND b.phase = ru.practicum.shareit.booking.BookingPhase.CURRENT ";
+    String IS_PAST = "AND b.phase = ru.practicum.shareit.booking.BookingPhase.PAST ";
+    String IS_FUTURE = "AND b.phase = ru.practicum.shareit.booking.BookingPhase.FUTURE ";
+    String HAS_STATUS = "AND b.status = :status ";
 
-    @Query("SELECT b FROM Booking b WHERE b.user = :user AND CURRENT_TIMESTAMP BETWEEN b.startTime AND b.endTime")
-    List<Booking> findAllByUserAndStateIsCurrent(@Param("user") User user, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_BOOKER)
+    List<BookingView> findAllByUser(@Param("user") User user, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.user = :user AND b.endTime < CURRENT_TIMESTAMP")
-    List<Booking> findAllByUserAndStateIsPast(@Param("user") User user, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_BOOKER + IS_CURRENT)
+    List<BookingView> findAllByUserAndStateIsCurrent(@Param("user") User user, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.user = :user AND b.startTime > CURRENT_TIMESTAMP")
-    List<Booking> findAllByUserAndStateIsFuture(@Param("user") User user, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_BOOKER + IS_PAST)
+    List<BookingView> findAllByUserAndStateIsPast(@Param("user") User user, Pageable pageable);
 
-    List<Booking> findAllByUserAndStatus(User user, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_BOOKER + IS_FUTURE)
+    List<BookingView> findAllByUserAndStateIsFuture(@Param("user") User user, Pageable pageable);
 
-    List<Booking> findAllByItemOwner(User itemOwner, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_BOOKER + HAS_STATUS)
+    List<BookingView> findAllByUserAndStatus(@Param("user") User user, @Param("status") BookingStatus status,
+                                             Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner = :owner AND CURRENT_TIMESTAMP BETWEEN b.startTime AND b.endTime")
-    List<Booking> findAllByOwnerAndStateIsCurrent(@Param("owner") User itemOwner, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_OWNER)
+    List<BookingView> findAllByItemOwner(@Param("owner") User itemOwner, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner = :owner AND b.endTime < CURRENT_TIMESTAMP")
-    List<Booking> findAllByOwnerAndStateIsPast(@Param("owner") User itemOwner, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_OWNER + IS_CURRENT)
+    List<BookingView> findAllByOwnerAndStateIsCurrent(@Param("owner") User itemOwner, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner = :owner AND b.startTime > CURRENT_TIMESTAMP")
-    List<Booking> findAllByOwnerAndStateIsFuture(@Param("owner") User itemOwner, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_OWNER + IS_PAST)
+    List<BookingView> findAllByOwnerAndStateIsPast(@Param("owner") User itemOwner, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerAndStatus(User itemOwner, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_VIEW_QUERY + BY_OWNER + IS_FUTURE)
+    List<BookingView> findAllByOwnerAndStateIsFuture(@Param("owner") User itemOwner, Pageable pageable);
+
+    @Query(BOOKING_VIEW_QUERY + BY_OWNER + HAS_STATUS)
+    List<BookingView> findAllByItemOwnerAndStatus(@Param("owner") User itemOwner,
+                                                  @Param("status") BookingStatus status, Pageable pageable);
 
     @Query("SELECT b FROM Booking b WHERE b.id = :bookingId AND (b.user= :user OR b.item.owner = :user)")
     Optional<Booking> findByIdAndUserOrOwner(@Param("bookingId") long bookingId, @Param("user") User user);
@@ -52,5 +72,50 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findAllByItem(Item item);
 
+    List<Booking> findAllByItemAndEndTimeGreaterThanEqual(Item item, LocalDateTime refTime);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingPeriod(b.item.id, b.startTime, b.endTime) FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.endTime >= :refTime")
+    List<BookingPeriod> findAllPeriodsByItemIdsAndEndTimeNotBefore(@Param("itemIds") Collection<Long> itemIds,
+                                                                   @Param("refTime") LocalDateTime refTime);
+
+    Optional<Booking> findFirstByItemIdAndEndTimeBeforeOrderByEndTimeDescIdDesc(long itemId, LocalDateTime refTime);
+
+    Optional<Booking> findFirstByItemIdAndStartTimeAfterOrderByStartTimeAscIdAsc(long itemId, LocalDateTime refTime);
+
+    @Query("SELECT MIN(b.endTime) FROM Booking b WHERE b.item.id = :itemId AND b.endTime >= :refTime")
+    Optional<LocalDateTime> findEarliestEndTimeNotBefore(@Param("itemId") long itemId,
+                                                         @Param("refTime") LocalDateTime refTime);
+
     Optional<Booking> findByItemAndUserAndEndTimeBefore(Item item, User user, LocalDateTime refTime);
+
+    @Query(value = "SELECT COUNT(*) FROM bookings_archive WHERE item_id = :itemId AND user_id = :userId " +
+            "AND end_time < :refTime", nativeQuery = true)
+    long countArchivedByItemAndUserAndEndTimeBefore(@Param("itemId") long itemId, @Param("userId") long userId,
+                                                    @Param("refTime") LocalDateTime refTime);
+
+    @Query(value = "SELECT id FROM bookings WHERE end_time < :horizon ORDER BY end_time LIMIT :limit",
+            nativeQuery = true)
+    List<Number> findIdsFinishedBefore(@Param("horizon") LocalDateTime horizon, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, item_id, user_id, start_time, end_time, status) " +
+            "SELECT id, item_id, user_id, start_time, end_time, status FROM bookings WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN (:ids)")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE bookings SET phase = 'CURRENT' WHERE id IN (SELECT id FROM bookings " +
+            "WHERE phase = 'FUTURE' AND start_time <= :refTime AND end_time >= :refTime LIMIT :limit)",
+            nativeQuery = true)
+    int advanceStartedBookings(@Param("refTime") LocalDateTime refTime, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE bookings SET phase = 'PAST' WHERE id IN (SELECT id FROM bookings " +
+            "WHERE phase IN ('FUTURE', 'CURRENT') AND end_time < :refTime LIMIT :limit)", nativeQuery = true)
+    int advanceFinishedBookings(@Param("refTime") LocalDateTime refTime, @Param("limit") int limit);
 }
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.booking.BookingViewSelection;
+import ru.practicum.shareit.booking.OwnerBookingsSummary;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingViewRepository {
+    List<BookingView> findAllViews(User user, boolean asOwner, BookingState state, BookingViewSelection selection,
+                                   Pageable pageable);
+
+    OwnerBookingsSummary findOwnerSummary(User owner, int limit);
+
+    List<BookingView> findAllViewsWithArchive(User user, boolean asOwner, BookingState state, Pageable pageable);
+
+    Optional<BookingView> findArchivedViewByIdAndUserOrOwner(long bookingId, User user);
+
+    Optional<BookingView> findLastArchivedViewByItemId(long itemId, LocalDateTime refTime);
+
+    Optional<LocalDateTime> findArchivedUntil();
+
+    Optional<LocalDateTime> findOldestOverduePhaseChange(LocalDateTime refTime);
+}
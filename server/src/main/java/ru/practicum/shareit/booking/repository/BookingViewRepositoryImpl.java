@@ -0,0 +1,408 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.NonNull;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.LocalDateTimeType;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.booking.BookingViewSelection;
+import ru.practicum.shareit.booking.BookingViewSelection.Depth;
+import ru.practicum.shareit.booking.OwnerBookingsSummary;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Booking list query with a select list built from the requested selection. The predicates are the ones of the
+ * fixed queries in {@link BookingRepository}.
+ */
+public class BookingViewRepositoryImpl implements BookingViewRepository {
+    private static final Map<BookingState, String> STATE_CONDITIONS = new EnumMap<>(Map.of(
+            BookingState.ALL, "TRUE",
+            BookingState.CURRENT, "b.phase = 'CURRENT'",
+            BookingState.PAST, "b.phase = 'PAST'",
+            BookingState.FUTURE, "b.phase = 'FUTURE'",
+            BookingState.WAITING, "b.status = 'WAITING'",
+            BookingState.REJECTED, "b.status = 'REJECTED'"));
+    private static final String VIEW_COLUMNS = "b.id, b.start_time, b.end_time, b.status, i.id AS item_id, " +
+            "i.name AS item_name, i.description AS item_description, i.is_available AS item_available, " +
+            "i.request_id AS item_request_id, u.id AS booker_id, u.name AS booker_name, u.email AS booker_email";
+    private static final String VIEW_JOINS = " JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.user_id";
+    private static final String LIVE_AND_ARCHIVED_BOOKINGS = "(SELECT id, item_id, user_id, start_time, end_time, " +
+            "status, phase FROM bookings UNION ALL SELECT id, item_id, user_id, start_time, end_time, status, " +
+            "'PAST' AS phase FROM bookings_archive) b";
+    private static final Map<BookingState, String> ARCHIVED_STATE_CONDITIONS = new EnumMap<>(Map.of(
+            BookingState.ALL, "TRUE",
+            BookingState.PAST, "TRUE",
+            BookingState.WAITING, STATE_CONDITIONS.get(BookingState.WAITING),
+            BookingState.REJECTED, STATE_CONDITIONS.get(BookingState.REJECTED)));
+    private static final Comparator<BookingView> LATEST_FIRST = Comparator.comparing(BookingView::getStartTime)
+            .thenComparing(BookingView::getId)
+            .reversed();
+    private static final String OWNER_SUMMARY_QUERY = buildOwnerSummaryQuery();
+    private static final String ARCHIVED_OWNER_COUNTS_QUERY = buildArchivedOwnerCountsQuery();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findAllViews(@NonNull User user, boolean asOwner, @NonNull BookingState state,
+                                          @NonNull BookingViewSelection selection, @NonNull Pageable pageable) {
+        var select = new StringBuilder("SELECT b.id, b.startTime, b.endTime, b.status");
+        var from = new StringBuilder(" FROM Booking b");
+        var itemJoined = asOwner || selection.getItem() == Depth.DETAILS;
+
+        if (itemJoined) {
+            from.append(" JOIN b.item i");
+        }
+        if (selection.getItem() == Depth.ID) {
+            select.append(itemJoined ? ", i.id" : ", b.item.id");
+        } else if (selection.getItem() == Depth.DETAILS) {
+            select.append(", i.id, i.name, i.description, i.available, r.id");
+            from.append(" LEFT JOIN i.request r");
+        }
+        if (selection.getBooker() == Depth.ID) {
+            select.append(", b.user.id");
+        } else if (selection.getBooker() == Depth.DETAILS) {
+            select.append(", u.id, u.name, u.email");
+            from.append(" JOIN b.user u");
+        }
+
+        var status = getStatus(state);
+        var jpql = QueryUtils.applySorting(select.append(from).append(' ')
+                .append(asOwner ? BookingRepository.BY_OWNER : BookingRepository.BY_BOOKER)
+                .append(getStatePredicate(state)).toString(), pageable.getSort(), "b");
+        var query = entityManager.createQuery(jpql, Object[].class)
+                .setParameter(asOwner ? "owner" : "user", user)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+
+        var rows = query.getResultList();
+        var views = new ArrayList<BookingView>(rows.size());
+
+        for (Object[] row : rows) {
+            views.add(mapRowToView(row, selection));
+        }
+        return views;
+    }
+
+    /**
+     * Counts and the latest {@code limit} bookings of every state in one pass over the owner's live bookings: the
+     * counts are filtered window aggregates over all rows, and the running filtered count of a state is the row's
+     * rank within that state. Archived bookings are all past and all started before {@link #findArchivedUntil()}:
+     * they are added to the counts by one aggregate, and read only for the states whose live list is short or
+     * reaches back past that time.
+     */
+    @Override
+    public OwnerBookingsSummary findOwnerSummary(@NonNull User owner, int limit) {
+        var summary = findLiveOwnerSummary(owner, limit);
+        var archivedUntil = findArchivedUntil();
+
+        if (archivedUntil.isEmpty()) {
+            return summary;
+        }
+        addArchivedCounts(owner, summary.getCounts());
+
+        var archivedViews = new HashMap<String, List<BookingView>>();
+
+        for (Map.Entry<BookingState, String> stateCondition : ARCHIVED_STATE_CONDITIONS.entrySet()) {
+            var views = summary.getBookings().get(stateCondition.getKey());
+
+            if (views.size() == limit && !views.get(limit - 1).getStartTime().isBefore(archivedUntil.get())) {
+                continue;
+            }
+
+            var archived = archivedViews.computeIfAbsent(stateCondition.getValue(),
+                    condition -> findArchivedOwnerViews(owner, condition, limit));
+
+            summary.getBookings().put(stateCondition.getKey(), Stream.concat(views.stream(), archived.stream())
+                    .sorted(LATEST_FIRST)
+                    .limit(limit)
+                    .collect(Collectors.toList()));
+        }
+        return summary;
+    }
+
+    /**
+     * Same as the fixed list queries, but over the live and the archived bookings together. Only needed when the
+     * requested page reaches past the bookings started after {@link #findArchivedUntil()}.
+     */
+    @Override
+    public List<BookingView> findAllViewsWithArchive(@NonNull User user, boolean asOwner, @NonNull BookingState state,
+                                                     @NonNull Pageable pageable) {
+        var sql = "SELECT " + VIEW_COLUMNS + " FROM " + LIVE_AND_ARCHIVED_BOOKINGS + VIEW_JOINS + " WHERE " +
+                (asOwner ? "i.owner_id" : "b.user_id") + " = :userId AND " + STATE_CONDITIONS.get(state) +
+                " ORDER BY b.start_time DESC, b.id DESC";
+        List<?> rows = addViewScalars(entityManager.createNativeQuery(sql)
+                .setParameter("userId", user.getId())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .unwrap(NativeQuery.class))
+                .getResultList();
+
+        return rows.stream().map(row -> mapNativeRowToView((Object[]) row)).collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<BookingView> findArchivedViewByIdAndUserOrOwner(long bookingId, @NonNull User user) {
+        var sql = "SELECT " + VIEW_COLUMNS + " FROM bookings_archive b" + VIEW_JOINS +
+                " WHERE b.id = :bookingId AND (b.user_id = :userId OR i.owner_id = :userId)";
+        List<?> rows = addViewScalars(entityManager.createNativeQuery(sql)
+                .setParameter("bookingId", bookingId)
+                .setParameter("userId", user.getId())
+                .unwrap(NativeQuery.class))
+                .getResultList();
+
+        return rows.stream().findFirst().map(row -> mapNativeRowToView((Object[]) row));
+    }
+
+    /**
+     * The archived booking of the item which finished last before refTime, by the same order as the live one.
+     */
+    @Override
+    public Optional<BookingView> findLastArchivedViewByItemId(long itemId, @NonNull LocalDateTime refTime) {
+        var sql = "SELECT " + VIEW_COLUMNS + " FROM bookings_archive b" + VIEW_JOINS +
+                " WHERE b.item_id = :itemId AND b.end_time < :refTime ORDER BY b.end_time DESC, b.id DESC";
+        List<?> rows = addViewScalars(entityManager.createNativeQuery(sql)
+                .setParameter("itemId", itemId)
+                .setParameter("refTime", refTime)
+                .setMaxResults(1)
+                .unwrap(NativeQuery.class))
+                .getResultList();
+
+        return rows.stream().findFirst().map(row -> mapNativeRowToView((Object[]) row));
+    }
+
+    /**
+     * The latest end time among the archived bookings: every archived booking started before it.
+     */
+    @Override
+    public Optional<LocalDateTime> findArchivedUntil() {
+        var archivedUntil = entityManager.createNativeQuery("SELECT MAX(end_time) AS archived_until " +
+                        "FROM bookings_archive")
+                .unwrap(NativeQuery.class)
+                .addScalar("archived_until", LocalDateTimeType.INSTANCE)
+                .getSingleResult();
+
+        return Optional.ofNullable((LocalDateTime) archivedUntil);
+    }
+
+    /**
+     * The earliest moment at which a booking should have moved to its next phase but has not been moved yet.
+     */
+    @Override
+    public Optional<LocalDateTime> findOldestOverduePhaseChange(@NonNull LocalDateTime refTime) {
+        var overdueSince = entityManager.createNativeQuery("SELECT MIN(overdue_since) AS overdue_since FROM (" +
+                        "SELECT MIN(start_time) AS overdue_since FROM bookings WHERE phase = 'FUTURE' " +
+                        "AND start_time <= :refTime UNION ALL SELECT MIN(end_time) FROM bookings " +
+                        "WHERE phase IN ('FUTURE', 'CURRENT') AND end_time < :refTime) overdue")
+                .setParameter("refTime", refTime)
+                .unwrap(NativeQuery.class)
+                .addScalar("overdue_since", LocalDateTimeType.INSTANCE)
+                .getSingleResult();
+
+        return Optional.ofNullable((LocalDateTime) overdueSince);
+    }
+
+    private OwnerBookingsSummary findLiveOwnerSummary(User owner, int limit) {
+        var query = addViewScalars(entityManager.createNativeQuery(OWNER_SUMMARY_QUERY)
+                .setParameter("ownerId", owner.getId())
+                .setParameter("limit", limit)
+                .unwrap(NativeQuery.class));
+
+        for (BookingState state : BookingState.values()) {
+            query.addScalar(getColumnPrefix(state) + "_count", StandardBasicTypes.LONG)
+                    .addScalar(getColumnPrefix(state) + "_rank", StandardBasicTypes.LONG)
+                    .addScalar(getColumnPrefix(state) + "_match", StandardBasicTypes.INTEGER);
+        }
+
+        List<?> rows = query.getResultList();
+        var counts = new EnumMap<BookingState, Long>(BookingState.class);
+        var bookings = new EnumMap<BookingState, List<BookingView>>(BookingState.class);
+
+        for (BookingState state : BookingState.values()) {
+            counts.put(state, 0L);
+            bookings.put(state, new ArrayList<>());
+        }
+        for (Object result : rows) {
+            var row = (Object[]) result;
+            var view = mapNativeRowToView(row);
+            var column = 12;
+
+            for (BookingState state : BookingState.values()) {
+                var count = (Long) row[column++];
+                var rank = (Long) row[column++];
+                var match = (Integer) row[column++];
+
+                counts.put(state, count);
+                if (match == 1 && rank <= limit) {
+                    bookings.get(state).add(view);
+                }
+            }
+        }
+        return new OwnerBookingsSummary(counts, bookings);
+    }
+
+    private void addArchivedCounts(User owner, Map<BookingState, Long> counts) {
+        var query = entityManager.createNativeQuery(ARCHIVED_OWNER_COUNTS_QUERY)
+                .setParameter("ownerId", owner.getId())
+                .unwrap(NativeQuery.class);
+
+        ARCHIVED_STATE_CONDITIONS.keySet()
+                .forEach(state -> query.addScalar(getColumnPrefix(state) + "_count", StandardBasicTypes.LONG));
+
+        var row = (Object[]) query.getSingleResult();
+        var column = 0;
+
+        for (BookingState state : ARCHIVED_STATE_CONDITIONS.keySet()) {
+            counts.merge(state, (Long) row[column++], Long::sum);
+        }
+    }
+
+    private List<BookingView> findArchivedOwnerViews(User owner, String condition, int limit) {
+        var sql = "SELECT " + VIEW_COLUMNS + " FROM bookings_archive b" + VIEW_JOINS +
+                " WHERE i.owner_id = :ownerId AND " + condition + " ORDER BY b.start_time DESC, b.id DESC";
+        List<?> rows = addViewScalars(entityManager.createNativeQuery(sql)
+                .setParameter("ownerId", owner.getId())
+                .setMaxResults(limit)
+                .unwrap(NativeQuery.class))
+                .getResultList();
+
+        return rows.stream().map(row -> mapNativeRowToView((Object[]) row)).collect(Collectors.toList());
+    }
+
+    private BookingView mapRowToView(Object[] row, BookingViewSelection selection) {
+        var column = 4;
+        Long itemId = null;
+        String itemName = null;
+        String itemDescription = null;
+        Boolean itemAvailable = null;
+        Long itemRequestId = null;
+        Long bookerId = null;
+        String bookerName = null;
+        String bookerEmail = null;
+
+        if (selection.getItem() != Depth.NONE) {
+            itemId = (Long) row[column++];
+        }
+        if (selection.getItem() == Depth.DETAILS) {
+            itemName = (String) row[column++];
+            itemDescription = (String) row[column++];
+            itemAvailable = (Boolean) row[column++];
+            itemRequestId = (Long) row[column++];
+        }
+        if (selection.getBooker() != Depth.NONE) {
+            bookerId = (Long) row[column++];
+        }
+        if (selection.getBooker() == Depth.DETAILS) {
+            bookerName = (String) row[column++];
+            bookerEmail = (String) row[column];
+        }
+        return new BookingView((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2], (BookingStatus) row[3],
+                itemId, itemName, itemDescription, itemAvailable, itemRequestId, bookerId, bookerName, bookerEmail);
+    }
+
+    private static NativeQuery<?> addViewScalars(NativeQuery<?> query) {
+        return query.addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("start_time", LocalDateTimeType.INSTANCE)
+                .addScalar("end_time", LocalDateTimeType.INSTANCE)
+                .addScalar("status", StandardBasicTypes.STRING)
+                .addScalar("item_id", StandardBasicTypes.LONG)
+                .addScalar("item_name", StandardBasicTypes.STRING)
+                .addScalar("item_description", StandardBasicTypes.STRING)
+                .addScalar("item_available", StandardBasicTypes.BOOLEAN)
+                .addScalar("item_request_id", StandardBasicTypes.LONG)
+                .addScalar("booker_id", StandardBasicTypes.LONG)
+                .addScalar("booker_name", StandardBasicTypes.STRING)
+                .addScalar("booker_email", StandardBasicTypes.STRING);
+    }
+
+    private static BookingView mapNativeRowToView(Object[] row) {
+        return new BookingView((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2],
+                BookingStatus.valueOf((String) row[3]), (Long) row[4], (String) row[5], (String) row[6],
+                (Boolean) row[7], (Long) row[8], (Long) row[9], (String) row[10], (String) row[11]);
+    }
+
+    private static String buildOwnerSummaryQuery() {
+        var columns = new StringBuilder();
+        var filter = new StringJoiner(" OR ");
+
+        for (BookingState state : BookingState.values()) {
+            var condition = STATE_CONDITIONS.get(state);
+            var prefix = getColumnPrefix(state);
+
+            columns.append(String.format(", COUNT(*) FILTER (WHERE %1$s) OVER () AS %2$s_count, " +
+                    "COUNT(*) FILTER (WHERE %1$s) OVER (ORDER BY b.start_time DESC, b.id DESC) AS %2$s_rank, " +
+                    "CASE WHEN %1$s THEN 1 ELSE 0 END AS %2$s_match", condition, prefix));
+            filter.add(String.format("(%1$s_match = 1 AND %1$s_rank <= :limit)", prefix));
+        }
+        return "SELECT * FROM (SELECT " + VIEW_COLUMNS + columns + " FROM bookings b" + VIEW_JOINS +
+                " WHERE i.owner_id = :ownerId) ranked WHERE " + filter + " ORDER BY start_time DESC, id DESC";
+    }
+
+    private static String buildArchivedOwnerCountsQuery() {
+        var columns = new StringJoiner(", ");
+
+        ARCHIVED_STATE_CONDITIONS.forEach((state, condition) -> columns.add(String.format(
+                "COUNT(*) FILTER (WHERE %s) AS %s_count", condition, getColumnPrefix(state))));
+        return "SELECT " + columns + " FROM bookings_archive b JOIN items i ON i.id = b.item_id " +
+                "WHERE i.owner_id = :ownerId";
+    }
+
+    private static String getColumnPrefix(BookingState state) {
+        return state.name().toLowerCase();
+    }
+
+    private String getStatePredicate(BookingState state) {
+        switch (state) {
+            case CURRENT:
+                return BookingRepository.IS_CURRENT;
+
+            case PAST:
+                return BookingRepository.IS_PAST;
+
+            case FUTURE:
+                return BookingRepository.IS_FUTURE;
+
+            case WAITING:
+            case REJECTED:
+                return BookingRepository.HAS_STATUS;
+
+            default:
+                return "";
+        }
+    }
+
+    private BookingStatus getStatus(BookingState state) {
+        switch (state) {
+            case WAITING:
+                return BookingStatus.WAITING;
+
+            case REJECTED:
+                return BookingStatus.REJECTED;
+
+            default:
+                return null;
+        }
+    }
+}
@@ -1,20 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.NonNull;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
+import ru.practicum.shareit.fieldset.Fieldset;
 
 import java.util.Collection;
+import java.util.Map;
 
 public interface BookingService {
     BookingDto getBookingById(long userId, long bookingId);
 
     Collection<BookingDto> getAllBookingsByUserAndState(long userId, @NonNull BookingState bookingState,
-                                                        long from, int size);
+                                                        long from, int size, @NonNull Fieldset fieldset);
 
     Collection<BookingDto> getAllBookingsByOwnerAndState(long ownerId, @NonNull BookingState bookingState,
-                                                         long from, int size);
+                                                         long from, int size, @NonNull Fieldset fieldset);
+
+    Map<BookingState, BookingStateSummaryDto> getOwnerBookingsSummary(long ownerId, int size);
+
+    SseEmitter subscribeToBookingEvents(long userId, Long lastEventId);
 
     BookingDto createBooking(long userId, @NonNull BookingRequestDto bookingDto);
 
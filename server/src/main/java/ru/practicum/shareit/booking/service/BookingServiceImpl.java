@@ -3,31 +3,50 @@ package ru.practicum.shareit.booking.service;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.PageableByOffsetAndSize;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingFieldset;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.booking.BookingViewSelection;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
+import ru.practicum.shareit.booking.events.BookingEventHub;
+import ru.practicum.shareit.booking.events.BookingEventType;
 import ru.practicum.shareit.booking.exceptions.BookingNotAvailableItemException;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.booking.exceptions.BookingTimeConflictsException;
 import ru.practicum.shareit.booking.exceptions.IllegalBookingApproveException;
 import ru.practicum.shareit.booking.exceptions.ItemBookedByItsOwnerException;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationEvent;
+import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.item.service.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.service.ItemCommentsLoader;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.repository.UserDao;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -36,48 +55,68 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemDao itemDao;
     private final UserDao userDao;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemOccupancyIndex occupancyIndex;
+    private final ItemCommentsLoader commentsLoader;
+    private final BookingEventHub eventHub;
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final InvalidationBus invalidationBus;
 
     @Override
     public BookingDto getBookingById(long userId, long bookingId) {
         var user = getUserById(userId);
-        var booking = bookingRepository.findByIdAndUserOrOwner(bookingId, user).orElseThrow(() ->
+        var booking = bookingRepository.findByIdAndUserOrOwner(bookingId, user);
+
+        if (booking.isPresent()) {
+            return mapBookingToDto(booking.get());
+        }
+
+        var archivedBooking = bookingRepository.findArchivedViewByIdAndUserOrOwner(bookingId, user).orElseThrow(() ->
                 new BookingNotFoundException(String.format("Бронирование с id = %d для пользователя с id = %d " +
                         "не найдено.", bookingId, user.getId())));
 
-        return BookingMapper.mapBookingToDto(booking);
+        return mapBookingViewsToDto(List.of(archivedBooking), Fieldset.ALL).get(0);
     }
 
     @Override
     public Collection<BookingDto> getAllBookingsByUserAndState(long userId,
                                                                @NonNull BookingState bookingState,
                                                                long from,
-                                                               int size) {
+                                                               int size,
+                                                               @NonNull Fieldset fieldset) {
         var user = getUserById(userId);
         var pageable = new PageableByOffsetAndSize(from, size, Sort.by(Sort.Direction.DESC, "startTime"));
+        var selection = BookingFieldset.getSelection(fieldset);
+
+        if (!selection.equals(BookingViewSelection.ALL)) {
+            return mapBookingViewsToDto(withArchive(bookingRepository.findAllViews(user, false, bookingState,
+                    selection, pageable), user, false, bookingState, pageable), fieldset);
+        }
 
         switch (bookingState) {
             case ALL:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByUser(user, pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByUser(user, pageable), user,
+                        false, bookingState, pageable), fieldset);
 
             case PAST:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByUserAndStateIsPast(user,
-                        pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByUserAndStateIsPast(user,
+                        pageable), user, false, bookingState, pageable), fieldset);
 
             case FUTURE:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByUserAndStateIsFuture(user,
-                        pageable));
+                return mapBookingViewsToDto(bookingRepository.findAllByUserAndStateIsFuture(user, pageable),
+                        fieldset);
 
             case CURRENT:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByUserAndStateIsCurrent(user,
-                        pageable));
+                return mapBookingViewsToDto(bookingRepository.findAllByUserAndStateIsCurrent(user, pageable),
+                        fieldset);
 
             case WAITING:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByUserAndStatus(user,
-                        BookingStatus.WAITING, pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByUserAndStatus(user,
+                        BookingStatus.WAITING, pageable), user, false, bookingState, pageable), fieldset);
 
             case REJECTED:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByUserAndStatus(user,
-                        BookingStatus.REJECTED, pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByUserAndStatus(user,
+                        BookingStatus.REJECTED, pageable), user, false, bookingState, pageable), fieldset);
 
             default:
                 return new ArrayList<>();
@@ -87,39 +126,61 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public Collection<BookingDto> getAllBookingsByOwnerAndState(long ownerId,
                                                                 @NonNull BookingState bookingState,
-                                                                long from, int size) {
+                                                                long from, int size,
+                                                                @NonNull Fieldset fieldset) {
         var owner = getUserById(ownerId);
         var pageable = new PageableByOffsetAndSize(from, size, Sort.by(Sort.Direction.DESC, "startTime"));
+        var selection = BookingFieldset.getSelection(fieldset);
+
+        if (!selection.equals(BookingViewSelection.ALL)) {
+            return mapBookingViewsToDto(withArchive(bookingRepository.findAllViews(owner, true, bookingState,
+                    selection, pageable), owner, true, bookingState, pageable), fieldset);
+        }
 
         switch (bookingState) {
             case ALL:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByItemOwner(owner, pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByItemOwner(owner, pageable), owner,
+                        true, bookingState, pageable), fieldset);
 
             case PAST:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByOwnerAndStateIsPast(owner,
-                        pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByOwnerAndStateIsPast(owner,
+                        pageable), owner, true, bookingState, pageable), fieldset);
 
             case FUTURE:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByOwnerAndStateIsFuture(owner,
-                        pageable));
+                return mapBookingViewsToDto(bookingRepository.findAllByOwnerAndStateIsFuture(owner, pageable),
+                        fieldset);
 
             case CURRENT:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByOwnerAndStateIsCurrent(owner,
-                        pageable));
+                return mapBookingViewsToDto(bookingRepository.findAllByOwnerAndStateIsCurrent(owner, pageable),
+                        fieldset);
 
             case WAITING:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByItemOwnerAndStatus(owner,
-                        BookingStatus.WAITING, pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByItemOwnerAndStatus(owner,
+                        BookingStatus.WAITING, pageable), owner, true, bookingState, pageable), fieldset);
 
             case REJECTED:
-                return BookingMapper.mapBookingCollectionToDto(bookingRepository.findAllByItemOwnerAndStatus(owner,
-                        BookingStatus.REJECTED, pageable));
+                return mapBookingViewsToDto(withArchive(bookingRepository.findAllByItemOwnerAndStatus(owner,
+                        BookingStatus.REJECTED, pageable), owner, true, bookingState, pageable), fieldset);
 
             default:
                 return new ArrayList<>();
         }
     }
 
+    @Override
+    public Map<BookingState, BookingStateSummaryDto> getOwnerBookingsSummary(long ownerId, int size) {
+        var owner = getUserById(ownerId);
+
+        return BookingMapper.mapOwnerSummaryToDto(bookingRepository.findOwnerSummary(owner, size));
+    }
+
+    @Override
+    public SseEmitter subscribeToBookingEvents(long userId, Long lastEventId) {
+        var user = getUserById(userId);
+
+        return eventHub.subscribe(user.getId(), lastEventId);
+    }
+
     @Override
     @Transactional
     public BookingDto createBooking(long userId, @NonNull BookingRequestDto bookingDto) {
@@ -139,7 +200,13 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingTimeConflictsException(String.format("Конфликт времени начала/окончания для " +
                     "элемента с id = %d", booking.getItem().getId()));
         }
-        return BookingMapper.mapBookingToDto(bookingRepository.save(booking));
+        booking = bookingRepository.save(booking);
+        summaryUpdater.refresh(item.getId());
+        availabilityIndex.registerBooking(booking);
+        occupancyIndex.registerBooking(booking);
+        invalidationBus.publish(InvalidationEvent.itemBooked(item.getId()));
+        eventHub.publish(booking, BookingEventType.CREATED);
+        return mapBookingToDto(booking);
     }
 
     @Override
@@ -159,17 +226,62 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
+        availabilityIndex.registerBooking(booking);
+        invalidationBus.publish(InvalidationEvent.itemBooked(booking.getItem().getId()));
+        eventHub.publish(booking, BookingEventType.STATUS_CHANGED);
+        return mapBookingToDto(booking);
+    }
+
+    /**
+     * Archived bookings all started before the archive horizon, so they can only appear on a page whose live rows
+     * do not fill it or reach back past the horizon. Only such pages are read again over both tables.
+     */
+    private List<BookingView> withArchive(List<BookingView> page, User user, boolean asOwner, BookingState state,
+                                          Pageable pageable) {
+        if (state == BookingState.CURRENT || state == BookingState.FUTURE) {
+            return page;
+        }
+
+        var archivedUntil = bookingRepository.findArchivedUntil();
+
+        if (archivedUntil.isEmpty() || (page.size() == pageable.getPageSize()
+                && !page.get(page.size() - 1).getStartTime().isBefore(archivedUntil.get()))) {
+            return page;
+        }
+        return bookingRepository.findAllViewsWithArchive(user, asOwner, state, pageable);
+    }
+
+    private BookingDto mapBookingToDto(Booking booking) {
+        commentsLoader.addLatestComments(List.of(booking.getItem()));
         return BookingMapper.mapBookingToDto(booking);
     }
 
+    private List<BookingDto> mapBookingViewsToDto(List<BookingView> bookings, Fieldset fieldset) {
+        if (!BookingFieldset.embedsItemComments(fieldset)) {
+            return BookingMapper.mapBookingViewsToDto(bookings, Map.of(), Map.of());
+        }
+
+        var itemIds = bookings.stream().map(BookingView::getItemId).collect(Collectors.toSet());
+        var comments = commentsLoader.findLatestComments(itemIds).values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+
+        return BookingMapper.mapBookingViewsToDto(bookings, CommentMapper.mapCommentViewsToDtoByItemId(comments),
+                commentsLoader.countComments(itemIds));
+    }
+
     private boolean checkBookingTimeConflicts(Booking booking) {
+        if (availabilityIndex.hasConflicts(booking.getItem(), booking.getStartTime(), booking.getEndTime())) {
+            return true;
+        }
         return bookingRepository.findAllByItemAndTimeConflicts(booking.getItem(), booking.getStartTime(),
                 booking.getEndTime()).size() != 0;
     }
 
     private User getUserById(long userId) {
         return userDao.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId)));
+                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId),
+                        userId));
     }
 
     private Item getItemById(long itemId) {
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+/**
+ * Moves the bookings which finished more than the horizon ago from bookings to bookings_archive. Every batch is
+ * copied and deleted in its own transaction, so a run never holds locks on more than one batch.
+ */
+@Slf4j
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository, TransactionTemplate transactionTemplate,
+                           Duration horizon, int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.storage.archive.interval:3600000}",
+            initialDelayString = "${shareit.booking.storage.archive.initial-delay:60000}")
+    public void archiveFinishedBookings() {
+        var finishedBefore = LocalDateTime.now().minus(horizon);
+        var archived = 0;
+        Integer moved;
+
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(finishedBefore));
+            archived += moved != null ? moved : 0;
+        } while (moved != null && moved == batchSize);
+
+        if (archived > 0) {
+            log.info("В архив перенесено {} бронирований, завершённых до {}", archived, finishedBefore);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime finishedBefore) {
+        var ids = bookingRepository.findIdsFinishedBefore(finishedBefore, batchSize).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.copyToArchive(ids);
+        bookingRepository.deleteAllByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps bookings range-partitioned by start_time on PostgreSQL, one partition per month. On the first run the
+ * plain table created by schema.sql becomes the default partition of a new partitioned bookings table; after that
+ * partitions are created for the current month and the configured number of months ahead. Bookings which already
+ * fell into the default partition are moved into the partition created for them.
+ */
+@Slf4j
+public class BookingPartitionManager {
+    static final String DEFAULT_PARTITION = "bookings_default";
+
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put("idx_bookings_end_time", "end_time");
+        INDEXES.put("idx_bookings_user_id_phase_start_time", "user_id, phase, start_time");
+        INDEXES.put("idx_bookings_item_id_phase_start_time", "item_id, phase, start_time");
+        INDEXES.put("idx_bookings_phase_start_time", "phase, start_time");
+        INDEXES.put("idx_bookings_phase_end_time", "phase, end_time");
+        INDEXES.put("idx_bookings_item_id_start_time", "item_id, start_time");
+        INDEXES.put("idx_bookings_item_id_end_time", "item_id, end_time");
+    }
+
+    private static final List<String> CONVERT_TO_PARTITIONED = buildConversion();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.storage.partitioning.check-interval:21600000}")
+    public void maintainPartitions() {
+        maintainPartitions(YearMonth.now());
+    }
+
+    void maintainPartitions(YearMonth currentMonth) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!isPartitioned()) {
+                log.info("Таблица bookings преобразуется в секционированную по start_time");
+                CONVERT_TO_PARTITIONED.forEach(this::executeStatement);
+            }
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartitionIfMissing(currentMonth.plusMonths(i));
+            }
+        });
+    }
+
+    static String getPartitionName(YearMonth month) {
+        return String.format("bookings_p%d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private boolean isPartitioned() {
+        var kind = jdbcTemplate.queryForObject("SELECT relkind FROM pg_class WHERE oid = to_regclass('bookings')",
+                String.class);
+
+        return "p".equals(kind);
+    }
+
+    private void createPartitionIfMissing(YearMonth month) {
+        var name = getPartitionName(month);
+        var exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        var from = String.format("'%s-01 00:00:00'", month);
+        var to = String.format("'%s-01 00:00:00'", month.plusMonths(1));
+        var range = String.format("start_time >= %s AND start_time < %s", from, to);
+
+        executeStatement("CREATE TABLE " + name + " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        executeStatement("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_range CHECK (" + range + ")");
+        executeStatement("INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION + " WHERE " + range);
+        executeStatement("DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range);
+        executeStatement("ALTER TABLE bookings ATTACH PARTITION " + name + " FOR VALUES FROM (" + from + ") TO (" +
+                to + ")");
+        executeStatement("ALTER TABLE " + name + " DROP CONSTRAINT " + name + "_range");
+        log.info("Создана секция {} таблицы bookings", name);
+    }
+
+    /**
+     * The indexes of the plain table are renamed out of the way; the indexes created on the partitioned table take
+     * their names and adopt them as the indexes of the default partition.
+     */
+    private static List<String> buildConversion() {
+        var statements = new ArrayList<String>();
+
+        statements.add("LOCK TABLE bookings IN ACCESS EXCLUSIVE MODE");
+        statements.add("ALTER TABLE bookings RENAME TO " + DEFAULT_PARTITION);
+        INDEXES.keySet().forEach(name -> statements.add("ALTER INDEX IF EXISTS " + name + " RENAME TO " +
+                name.replace("idx_bookings_", "idx_" + DEFAULT_PARTITION + "_")));
+        statements.add("ALTER TABLE " + DEFAULT_PARTITION + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        statements.add("ALTER TABLE " + DEFAULT_PARTITION + " DROP CONSTRAINT IF EXISTS fk_bookings_items_id");
+        statements.add("ALTER TABLE " + DEFAULT_PARTITION + " DROP CONSTRAINT IF EXISTS fk_bookings_users_id");
+        statements.add("CREATE SEQUENCE IF NOT EXISTS bookings_id_seq");
+        statements.add("SELECT setval('bookings_id_seq', COALESCE((SELECT MAX(id) FROM " + DEFAULT_PARTITION +
+                "), 0) + 1, false)");
+        statements.add("CREATE TABLE bookings(" +
+                "id BIGINT NOT NULL DEFAULT nextval('bookings_id_seq'), " +
+                "item_id BIGINT NOT NULL, " +
+                "user_id BIGINT NOT NULL, " +
+                "start_time TIMESTAMP WITH TIME ZONE NOT NULL CHECK (start_time < end_time), " +
+                "end_time TIMESTAMP WITH TIME ZONE NOT NULL CHECK (start_time < end_time), " +
+                "status VARCHAR(10) NOT NULL, " +
+                "phase VARCHAR(10) DEFAULT 'FUTURE' NOT NULL, " +
+                "CONSTRAINT pk_bookings_id_start_time PRIMARY KEY (id, start_time), " +
+                "CONSTRAINT fk_bookings_items_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE, " +
+                "CONSTRAINT fk_bookings_users_id FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE" +
+                ") PARTITION BY RANGE (start_time)");
+        statements.add("ALTER SEQUENCE bookings_id_seq OWNED BY bookings.id");
+        statements.add("ALTER TABLE bookings ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        INDEXES.forEach((name, columns) -> statements.add("CREATE INDEX IF NOT EXISTS " + name + " ON bookings (" +
+                columns + ")"));
+        return List.copyOf(statements);
+    }
+
+    private void executeStatement(String sql) {
+        jdbcTemplate.execute(sql);
+    }
+}
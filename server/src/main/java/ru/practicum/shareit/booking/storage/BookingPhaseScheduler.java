@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Advances bookings.phase as bookings start and finish. Updates are done in batches, each in its own transaction.
+ * The lag gauge is the age of the oldest phase change still pending when the last run started.
+ */
+@Slf4j
+public class BookingPhaseScheduler implements MeterBinder {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private volatile double lagSeconds;
+    private Counter startedBookings;
+    private Counter finishedBookings;
+
+    public BookingPhaseScheduler(BookingRepository bookingRepository, TransactionTemplate transactionTemplate,
+                                 int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        Gauge.builder("shareit.booking.phase.lag", this, BookingPhaseScheduler::getLagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        startedBookings = Counter.builder("shareit.booking.phase.transitions")
+                .tag("phase", BookingPhase.CURRENT.name())
+                .register(meterRegistry);
+        finishedBookings = Counter.builder("shareit.booking.phase.transitions")
+                .tag("phase", BookingPhase.PAST.name())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.storage.phase.interval:5000}")
+    public void advancePhases() {
+        var refTime = LocalDateTime.now();
+
+        lagSeconds = bookingRepository.findOldestOverduePhaseChange(refTime)
+                .map(overdueSince -> Duration.between(overdueSince, refTime).toMillis() / 1000.0)
+                .orElse(0.0);
+
+        var finished = advanceInBatches(() -> bookingRepository.advanceFinishedBookings(refTime, batchSize));
+        var started = advanceInBatches(() -> bookingRepository.advanceStartedBookings(refTime, batchSize));
+
+        increment(finishedBookings, finished);
+        increment(startedBookings, started);
+        if (finished + started > 0) {
+            log.debug("Фаза обновлена у {} начавшихся и {} завершившихся бронирований", started, finished);
+        }
+    }
+
+    double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    private int advanceInBatches(IntSupplier batch) {
+        var advanced = 0;
+        Integer updated;
+
+        do {
+            updated = transactionTemplate.execute(status -> batch.getAsInt());
+            advanced += updated != null ? updated : 0;
+        } while (updated != null && updated == batchSize);
+        return advanced;
+    }
+
+    private static void increment(Counter counter, int amount) {
+        if (counter != null) {
+            counter.increment(amount);
+        }
+    }
+}
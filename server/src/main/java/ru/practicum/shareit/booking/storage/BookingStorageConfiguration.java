@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryUpdater;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(BookingStorageProperties.class)
+public class BookingStorageConfiguration {
+    @Bean
+    @ConditionalOnProperty(name = "shareit.booking.storage.partitioning.enabled", havingValue = "true")
+    public BookingPartitionManager bookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                                           PlatformTransactionManager transactionManager,
+                                                           BookingStorageProperties properties) {
+        return new BookingPartitionManager(jdbcTemplate, new TransactionTemplate(transactionManager),
+                properties.getPartitioning().getMonthsAhead());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.booking.storage.archive.enabled", havingValue = "true")
+    public BookingArchiver bookingArchiver(BookingRepository bookingRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           BookingStorageProperties properties) {
+        return new BookingArchiver(bookingRepository, new TransactionTemplate(transactionManager),
+                properties.getArchive().getHorizon(), properties.getArchive().getBatchSize());
+    }
+
+    /**
+     * Not optional: the CURRENT, PAST and FUTURE booking queries filter on bookings.phase alone.
+     */
+    @Bean
+    public BookingPhaseScheduler bookingPhaseScheduler(BookingRepository bookingRepository,
+                                                       PlatformTransactionManager transactionManager,
+                                                       BookingStorageProperties properties) {
+        return new BookingPhaseScheduler(bookingRepository, new TransactionTemplate(transactionManager),
+                properties.getPhase().getBatchSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.booking.storage.summary.enabled", havingValue = "true")
+    public ItemBookingSummaryScheduler itemBookingSummaryScheduler(ItemBookingSummaryUpdater summaryUpdater,
+                                                                   PlatformTransactionManager transactionManager,
+                                                                   BookingStorageProperties properties) {
+        return new ItemBookingSummaryScheduler(summaryUpdater, new TransactionTemplate(transactionManager),
+                properties.getSummary().getBatchSize());
+    }
+}
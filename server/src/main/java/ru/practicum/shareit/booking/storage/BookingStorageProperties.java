@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.storage")
+public class BookingStorageProperties {
+    private Partitioning partitioning = new Partitioning();
+
+    private Archive archive = new Archive();
+
+    private Phase phase = new Phase();
+
+    private Summary summary = new Summary();
+
+    @Getter
+    @Setter
+    public static class Partitioning {
+        private boolean enabled;
+
+        private int monthsAhead = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+        private boolean enabled;
+
+        private Duration horizon = Duration.ofDays(365);
+
+        private int batchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Phase {
+        private int batchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Summary {
+        private boolean enabled;
+
+        private int batchSize = 1000;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.service.ItemBookingSummaryUpdater;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rolls item booking summaries forward as bookings start and finish, and creates the missing ones. Summaries are
+ * refreshed in batches, each in its own transaction.
+ */
+@Slf4j
+public class ItemBookingSummaryScheduler {
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ItemBookingSummaryScheduler(ItemBookingSummaryUpdater summaryUpdater,
+                                       TransactionTemplate transactionTemplate, int batchSize) {
+        this.summaryUpdater = summaryUpdater;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.storage.summary.interval:5000}")
+    public void refreshExpiredSummaries() {
+        var refTime = LocalDateTime.now();
+        var refreshed = 0;
+        Integer updated;
+
+        do {
+            updated = transactionTemplate.execute(status -> summaryUpdater.refreshExpired(refTime, batchSize));
+            refreshed += updated != null ? updated : 0;
+        } while (updated != null && updated == batchSize);
+        if (refreshed > 0) {
+            log.debug("Обновлены сводки бронирований {} вещей", refreshed);
+        }
+    }
+}
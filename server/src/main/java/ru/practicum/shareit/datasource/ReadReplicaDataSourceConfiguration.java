@@ -0,0 +1,66 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(name = "shareit.datasource.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfiguration {
+    /**
+     * Primary pool, bound to spring.datasource.hikari.* like the pool Spring Boot creates when replicas are off.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        var primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+
+        primary.setPoolName(ReadReplicaRoutingDataSource.PRIMARY_POOL_NAME);
+        return primary;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                     ReadReplicaProperties properties) {
+        var replicas = new ArrayList<ReplicaPool>();
+
+        for (int i = 0; i < properties.getPools().size(); i++) {
+            var pool = properties.getPools().get(i);
+            var replica = new HikariDataSource();
+            var name = "replica-" + (i + 1);
+
+            replica.setPoolName(name);
+            replica.setJdbcUrl(pool.getUrl());
+            replica.setUsername(pool.getUsername());
+            replica.setPassword(pool.getPassword());
+            replica.setMaximumPoolSize(pool.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replicas.add(new ReplicaPool(name, replica));
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReadReplicaRoutingDataSource readReplicaRoutingDataSource,
+                                                     ReadReplicaProperties properties) {
+        return new ReplicaHealthChecker(readReplicaRoutingDataSource.getReplicas(), properties);
+    }
+}
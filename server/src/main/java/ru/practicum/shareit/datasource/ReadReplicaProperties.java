@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.read-replicas")
+public class ReadReplicaProperties {
+    private boolean enabled;
+
+    private List<Pool> pools = new ArrayList<>();
+
+    private Duration maxReplicationLag = Duration.ofSeconds(5);
+
+    private String replicationLagQuery = "SELECT COALESCE(EXTRACT(EPOCH FROM (now() - " +
+            "pg_last_xact_replay_timestamp())), 0)";
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
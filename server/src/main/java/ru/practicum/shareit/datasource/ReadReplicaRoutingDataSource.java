@@ -0,0 +1,119 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections of read-only transactions to a healthy replica (round-robin) and everything else to the
+ * primary. Must be wrapped into a LazyConnectionDataSourceProxy: the read-only flag of a transaction is known
+ * only after the transaction manager has asked for a connection.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+    static final String PRIMARY_POOL_NAME = "primary";
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, LongAdder> routedConnections = new HashMap<>();
+
+    public ReadReplicaRoutingDataSource(@NonNull DataSource primary, @NonNull List<ReplicaPool> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        routedConnections.put(PRIMARY_POOL_NAME, new LongAdder());
+        for (ReplicaPool replica : this.replicas) {
+            routedConnections.put(replica.getName(), new LongAdder());
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            var replica = nextHealthyReplica();
+
+            if (replica != null) {
+                try {
+                    var connection = replica.getDataSource().getConnection();
+
+                    routedConnections.get(replica.getName()).increment();
+                    return connection;
+                } catch (SQLException ex) {
+                    log.warn("Реплика {} недоступна, запрос направлен в основную БД: {}", replica.getName(),
+                            ex.getMessage());
+                    replica.markUnhealthy();
+                }
+            }
+        }
+        routedConnections.get(PRIMARY_POOL_NAME).increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        routedConnections.get(PRIMARY_POOL_NAME).increment();
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        var metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        routedConnections.forEach((poolName, counter) -> FunctionCounter
+                .builder("shareit.datasource.routed.connections", counter, LongAdder::doubleValue)
+                .tag("pool", poolName)
+                .register(meterRegistry));
+        if (primary instanceof HikariDataSource) {
+            ((HikariDataSource) primary).setMetricsTrackerFactory(metricsTrackerFactory);
+        }
+        for (ReplicaPool replica : replicas) {
+            if (replica.getDataSource() instanceof HikariDataSource) {
+                ((HikariDataSource) replica.getDataSource()).setMetricsTrackerFactory(metricsTrackerFactory);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (ReplicaPool replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable) {
+                ((AutoCloseable) replica.getDataSource()).close();
+            }
+        }
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    private ReplicaPool nextHealthyReplica() {
+        var replicasCount = replicas.size();
+
+        for (int i = 0; i < replicasCount; i++) {
+            var replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicasCount));
+
+            if (replica.isHealthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+}
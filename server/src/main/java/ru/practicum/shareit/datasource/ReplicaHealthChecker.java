@@ -0,0 +1,58 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.SQLException;
+import java.util.List;
+
+@Slf4j
+public class ReplicaHealthChecker implements MeterBinder {
+    private final List<ReplicaPool> replicas;
+    private final ReadReplicaProperties properties;
+
+    public ReplicaHealthChecker(List<ReplicaPool> replicas, ReadReplicaProperties properties) {
+        this.replicas = List.copyOf(replicas);
+        this.properties = properties;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        for (ReplicaPool replica : this.replicas) {
+            Gauge.builder("shareit.datasource.replica.lag", replica, ReplicaPool::getReplicationLagSeconds)
+                    .tag("pool", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("shareit.datasource.replica.healthy", replica, pool -> pool.isHealthy() ? 1 : 0)
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.read-replicas.health-check-interval:5000}")
+    public void checkReplicas() {
+        var maxLagSeconds = properties.getMaxReplicationLag().toMillis() / 1000.0;
+
+        for (ReplicaPool replica : replicas) {
+            try (var connection = replica.getDataSource().getConnection();
+                 var statement = connection.createStatement();
+                 var resultSet = statement.executeQuery(properties.getReplicationLagQuery())) {
+                var lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+
+                if (lagSeconds > maxLagSeconds) {
+                    log.warn("Отставание реплики {} {} с превышает допустимое", replica.getName(), lagSeconds);
+                    replica.markUnhealthy();
+                } else {
+                    replica.markHealthy(lagSeconds);
+                }
+            } catch (SQLException ex) {
+                log.warn("Проверка реплики {} завершилась ошибкой: {}", replica.getName(), ex.getMessage());
+                replica.markUnhealthy();
+            }
+        }
+    }
+}
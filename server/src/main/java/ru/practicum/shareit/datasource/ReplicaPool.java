@@ -0,0 +1,30 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+
+@Getter
+@RequiredArgsConstructor
+public class ReplicaPool {
+    @NonNull
+    private final String name;
+
+    @NonNull
+    private final DataSource dataSource;
+
+    private volatile boolean healthy = true;
+
+    private volatile double replicationLagSeconds;
+
+    void markHealthy(double replicationLagSeconds) {
+        this.replicationLagSeconds = replicationLagSeconds;
+        healthy = true;
+    }
+
+    void markUnhealthy() {
+        healthy = false;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.fieldset;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Response shape requested with the fields= and embed= query parameters. A missing parameter means "everything",
+ * so the default shape is the full DTO.
+ */
+@EqualsAndHashCode
+public class Fieldset {
+    public static final Fieldset ALL = new Fieldset(null, null);
+
+    private final Set<String> fields;
+    private final Set<String> embeds;
+
+    private Fieldset(Set<String> fields, Set<String> embeds) {
+        this.fields = fields;
+        this.embeds = embeds;
+    }
+
+    public static Fieldset parse(@Nullable String fields, @Nullable String embed, @NonNull Set<String> knownFields,
+                                 @NonNull Set<String> knownEmbeds) {
+        if (fields == null && embed == null) {
+            return ALL;
+        }
+        return new Fieldset(parseNames("fields", fields, knownFields), parseNames("embed", embed, knownEmbeds));
+    }
+
+    public boolean isAll() {
+        return fields == null && embeds == null;
+    }
+
+    public boolean includes(@NonNull String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean embeds(@NonNull String relation) {
+        return embeds == null || embeds.contains(relation);
+    }
+
+    public Set<String> getFields(@NonNull Set<String> allFields) {
+        return fields == null ? allFields : fields;
+    }
+
+    private static Set<String> parseNames(String parameter, String value, Set<String> knownNames) {
+        if (value == null) {
+            return null;
+        }
+
+        var names = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+
+        for (String name : names) {
+            if (!knownNames.contains(name)) {
+                throw new InvalidFieldsetException(String.format("Недопустимое значение параметра %s: %s",
+                        parameter, name));
+            }
+        }
+        return names;
+    }
+}
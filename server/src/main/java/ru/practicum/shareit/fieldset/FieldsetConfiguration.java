@@ -0,0 +1,42 @@
+package ru.practicum.shareit.fieldset;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * Attaches Jackson filter ids to the response DTOs through mix-ins, so the DTOs shared with the gateway stay
+ * unannotated. Without per-request filters (see {@link FieldsetFilters}) every property is written.
+ */
+@Configuration
+public class FieldsetConfiguration {
+    public static final String BOOKING_FILTER = "bookingFieldset";
+    public static final String ITEM_FILTER = "itemFieldset";
+    public static final String USER_FILTER = "userFieldset";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsetCustomizer() {
+        return builder -> builder
+                .mixIn(BookingDto.class, BookingFieldsetMixIn.class)
+                .mixIn(ItemDto.class, ItemFieldsetMixIn.class)
+                .mixIn(UserDto.class, UserFieldsetMixIn.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @JsonFilter(BOOKING_FILTER)
+    private abstract static class BookingFieldsetMixIn {
+    }
+
+    @JsonFilter(ITEM_FILTER)
+    private abstract static class ItemFieldsetMixIn {
+    }
+
+    @JsonFilter(USER_FILTER)
+    private abstract static class UserFieldsetMixIn {
+    }
+}
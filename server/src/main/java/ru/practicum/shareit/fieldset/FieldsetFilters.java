@@ -0,0 +1,36 @@
+package ru.practicum.shareit.fieldset;
+
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import lombok.NonNull;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Set;
+
+/**
+ * Builds the per-request Jackson filters of a response. Filters which are not set serialize every property.
+ */
+public class FieldsetFilters {
+    private final SimpleFilterProvider filterProvider = new SimpleFilterProvider().setFailOnUnknownId(false);
+
+    public FieldsetFilters only(@NonNull String filterId, @NonNull Set<String> properties) {
+        return with(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(properties));
+    }
+
+    public FieldsetFilters except(@NonNull String filterId, @NonNull Set<String> properties) {
+        return with(filterId, SimpleBeanPropertyFilter.serializeAllExcept(properties));
+    }
+
+    public MappingJacksonValue apply(@NonNull Object body) {
+        var value = new MappingJacksonValue(body);
+
+        value.setFilters(filterProvider);
+        return value;
+    }
+
+    private FieldsetFilters with(String filterId, PropertyFilter filter) {
+        filterProvider.addFilter(filterId, filter);
+        return this;
+    }
+}
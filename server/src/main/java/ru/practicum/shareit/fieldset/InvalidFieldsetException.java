@@ -0,0 +1,7 @@
+package ru.practicum.shareit.fieldset;
+
+public class InvalidFieldsetException extends RuntimeException {
+    public InvalidFieldsetException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.invalidation;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies the events received from other nodes to the in-process caches of this one. Events arrive on the
+ * transport's listening thread, so the suggest index, which a reset reloads from the database, is rebuilt on a
+ * thread of its own; resets received while a rebuild is queued are covered by it.
+ */
+@Slf4j
+@Component
+public class InvalidationApplier {
+    private final ItemSearchCache searchCache;
+    private final ItemSuggestIndex suggestIndex;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemOccupancyIndex occupancyIndex;
+    private final Executor rebuilder;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    @Autowired
+    public InvalidationApplier(ItemSearchCache searchCache, ItemSuggestIndex suggestIndex,
+                               BookingAvailabilityIndex availabilityIndex, ItemOccupancyIndex occupancyIndex) {
+        this(searchCache, suggestIndex, availabilityIndex, occupancyIndex, Executors.newSingleThreadExecutor());
+    }
+
+    InvalidationApplier(ItemSearchCache searchCache, ItemSuggestIndex suggestIndex,
+                        BookingAvailabilityIndex availabilityIndex, ItemOccupancyIndex occupancyIndex,
+                        Executor rebuilder) {
+        this.searchCache = searchCache;
+        this.suggestIndex = suggestIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyIndex = occupancyIndex;
+        this.rebuilder = rebuilder;
+    }
+
+    public void apply(@NonNull InvalidationEvent event) {
+        switch (event.getType()) {
+            case ITEM_CHANGED:
+                searchCache.evictMatching(event.getContents());
+                suggestIndex.update(event.getId(), event.getIndexedText());
+                break;
+            case ITEM_BOOKED:
+                availabilityIndex.invalidateItem(event.getId());
+                occupancyIndex.invalidateItem(event.getId());
+                break;
+            case USER_DELETED:
+                searchCache.evictAll();
+                if (event.getItemIds() != null) {
+                    suggestIndex.remove(event.getItemIds());
+                } else {
+                    rebuildSuggestIndex();
+                }
+                availabilityIndex.invalidateAll();
+                occupancyIndex.invalidateAll();
+                break;
+            case ALL:
+                searchCache.evictAll();
+                availabilityIndex.invalidateAll();
+                occupancyIndex.invalidateAll();
+                rebuildSuggestIndex();
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный тип события инвалидации: " + event.getType());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuilder instanceof ExecutorService) {
+            ((ExecutorService) rebuilder).shutdownNow();
+        }
+    }
+
+    private void rebuildSuggestIndex() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    suggestIndex.rebuild();
+                } catch (RuntimeException ex) {
+                    log.warn("Не удалось перестроить индекс подсказок: {}", ex.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.TransactionCallbacks;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broadcasts committed changes to the in-process caches of the other nodes. Events are queued after commit,
+ * coalesced by type and id, and flushed periodically in messages of at most maxMessageSize bytes, so a change
+ * reaches the other nodes within the flush interval plus the transport latency. When the queue overflows, an
+ * event does not fit in a message, or a received message cannot be read, the caches are reset altogether.
+ * Without a transport, events are dropped: a single node has nothing to notify.
+ * <p>
+ * Flushes run on a thread of the bus, not on the shared scheduler, so a slow scheduled job elsewhere does not
+ * delay them.
+ */
+@Slf4j
+@Component
+public class InvalidationBus implements MeterBinder {
+    private static final Key ALL_KEY = new Key(InvalidationEventType.ALL, 0);
+
+    private final InvalidationTransport transport;
+    private final InvalidationApplier applier;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Duration flushInterval;
+    private final int maxMessageSize;
+    private final int maxPendingEvents;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+    private final Map<Key, InvalidationEvent> pending = new LinkedHashMap<>();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong receivedMessages = new AtomicLong();
+
+    @Autowired
+    public InvalidationBus(ObjectProvider<InvalidationTransport> transport, InvalidationApplier applier,
+                           InvalidationProperties properties) {
+        this.transport = transport.getIfAvailable();
+        this.applier = applier;
+        this.flushInterval = properties.getFlushInterval();
+        this.maxMessageSize = properties.getMaxMessageSize();
+        this.maxPendingEvents = properties.getMaxPendingEvents();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        if (transport != null) {
+            transport.subscribe(this::receive, () -> applier.apply(InvalidationEvent.all()));
+            flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * Queues the event after the current transaction commits.
+     */
+    public void publish(@NonNull InvalidationEvent event) {
+        if (transport != null) {
+            TransactionCallbacks.runAfterCommit(() -> enqueue(event));
+        }
+    }
+
+    public void flush() {
+        List<InvalidationEvent> events;
+
+        synchronized (this) {
+            if (transport == null || pending.isEmpty()) {
+                return;
+            }
+            events = List.copyOf(pending.values());
+            pending.clear();
+        }
+
+        try {
+            for (String message : toMessages(events)) {
+                transport.send(message);
+                sentMessages.incrementAndGet();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Не удалось отправить события инвалидации: {}", ex.getMessage());
+            events.forEach(this::enqueue);
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        FunctionCounter.builder("shareit.invalidation.messages", sentMessages, AtomicLong::get)
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.invalidation.messages", receivedMessages, AtomicLong::get)
+                .tag("direction", "received")
+                .register(meterRegistry);
+    }
+
+    void receive(String payload) {
+        InvalidationMessage message;
+
+        try {
+            message = objectMapper.readValue(payload, InvalidationMessage.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Не удалось прочитать сообщение инвалидации: {}", ex.getMessage());
+            applier.apply(InvalidationEvent.all());
+            return;
+        }
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        receivedMessages.incrementAndGet();
+        message.getEvents().forEach(applier::apply);
+    }
+
+    synchronized List<InvalidationEvent> getPendingEvents() {
+        return List.copyOf(pending.values());
+    }
+
+    private synchronized void enqueue(InvalidationEvent event) {
+        if (pending.containsKey(ALL_KEY)) {
+            return;
+        }
+        if (event.getType() == InvalidationEventType.ALL || pending.size() >= maxPendingEvents) {
+            pending.clear();
+            pending.put(ALL_KEY, InvalidationEvent.all());
+            return;
+        }
+        pending.merge(new Key(event.getType(), event.getId()), event, InvalidationBus::merge);
+    }
+
+    private List<String> toMessages(List<InvalidationEvent> events) {
+        var messages = new ArrayList<String>();
+        var batch = new ArrayList<InvalidationEvent>();
+        var emptyMessageSize = getSize(new InvalidationMessage(nodeId, List.of()));
+        var batchSize = emptyMessageSize;
+
+        for (InvalidationEvent event : events) {
+            var eventSize = getSize(event) + 1;
+
+            if (emptyMessageSize + eventSize > maxMessageSize) {
+                return List.of(toJson(new InvalidationMessage(nodeId, List.of(InvalidationEvent.all()))));
+            }
+            if (batchSize + eventSize > maxMessageSize) {
+                messages.add(toJson(new InvalidationMessage(nodeId, batch)));
+                batch = new ArrayList<>();
+                batchSize = emptyMessageSize;
+            }
+            batch.add(event);
+            batchSize += eventSize;
+        }
+        if (!batch.isEmpty()) {
+            messages.add(toJson(new InvalidationMessage(nodeId, batch)));
+        }
+        return messages;
+    }
+
+    private int getSize(Object value) {
+        return toJson(value).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static InvalidationEvent merge(InvalidationEvent older, InvalidationEvent newer) {
+        if (older.getType() != InvalidationEventType.ITEM_CHANGED) {
+            return older;
+        }
+
+        var contents = new LinkedHashSet<>(older.getContents());
+
+        contents.addAll(newer.getContents());
+        return InvalidationEvent.itemChanged(newer.getId(), contents, newer.getIndexedText());
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final InvalidationEventType type;
+        private final long id;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class InvalidationConfiguration {
+    public static final String BOOKING_EVENT_TRANSPORT = "bookingEventTransport";
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "shareit.invalidation.transport", havingValue = "postgres")
+    public InvalidationTransport postgresInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                                               DataSourceProperties dataSourceProperties,
+                                                               InvalidationProperties properties) {
+        return new PostgresInvalidationTransport(jdbcTemplate, dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+                properties.getPostgres().getChannel(), properties.getPostgres());
+    }
+
+    /**
+     * Booking events go on a channel of their own, so that they are neither coalesced nor delayed by the flushes
+     * of the invalidation bus.
+     */
+    @Bean(name = BOOKING_EVENT_TRANSPORT)
+    @ConditionalOnProperty(name = "shareit.invalidation.transport", havingValue = "postgres")
+    public InvalidationTransport bookingEventTransport(JdbcTemplate jdbcTemplate,
+                                                       DataSourceProperties dataSourceProperties,
+                                                       InvalidationProperties properties) {
+        return new PostgresInvalidationTransport(jdbcTemplate, dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+                properties.getPostgres().getBookingEventsChannel(), properties.getPostgres());
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.invalidation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Change committed on one node which the in-process caches of the other nodes must follow. ITEM_CHANGED carries
+ * the old and new searched contents of the item and the text its suggestion tokens are now taken from, USER_DELETED
+ * the ids of the items deleted with the user.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidationEvent {
+    private InvalidationEventType type;
+
+    private long id;
+
+    private List<String> contents;
+
+    private String indexedText;
+
+    private List<Long> itemIds;
+
+    public static InvalidationEvent itemChanged(long itemId, @NonNull Collection<String> contents,
+                                                @NonNull String indexedText) {
+        return new InvalidationEvent(InvalidationEventType.ITEM_CHANGED, itemId, List.copyOf(contents), indexedText,
+                null);
+    }
+
+    public static InvalidationEvent itemBooked(long itemId) {
+        return new InvalidationEvent(InvalidationEventType.ITEM_BOOKED, itemId, null, null, null);
+    }
+
+    public static InvalidationEvent userDeleted(long userId, @NonNull Collection<Long> itemIds) {
+        return new InvalidationEvent(InvalidationEventType.USER_DELETED, userId, null, null, List.copyOf(itemIds));
+    }
+
+    public static InvalidationEvent all() {
+        return new InvalidationEvent(InvalidationEventType.ALL, 0, null, null, null);
+    }
+}
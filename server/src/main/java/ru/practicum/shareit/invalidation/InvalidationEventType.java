@@ -0,0 +1,8 @@
+package ru.practicum.shareit.invalidation;
+
+public enum InvalidationEventType {
+    ITEM_CHANGED,
+    ITEM_BOOKED,
+    USER_DELETED,
+    ALL
+}
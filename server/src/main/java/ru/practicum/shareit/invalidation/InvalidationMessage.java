@@ -0,0 +1,18 @@
+package ru.practicum.shareit.invalidation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidationMessage {
+    private String origin;
+
+    private List<InvalidationEvent> events;
+}
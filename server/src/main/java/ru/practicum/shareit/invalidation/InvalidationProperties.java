@@ -0,0 +1,40 @@
+package ru.practicum.shareit.invalidation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.invalidation")
+public class InvalidationProperties {
+    /**
+     * none | postgres.
+     */
+    private String transport = "none";
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    private int maxMessageSize = 7900;
+
+    private int maxPendingEvents = 1000;
+
+    private Postgres postgres = new Postgres();
+
+    @Getter
+    @Setter
+    public static class Postgres {
+        private String channel = "shareit_invalidation";
+
+        /**
+         * Channel of the booking events, which the nodes relay to the event streams they hold.
+         */
+        private String bookingEventsChannel = "shareit_booking_events";
+
+        private Duration pollTimeout = Duration.ofSeconds(1);
+
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcast channel between the nodes. Delivery is best effort: whenever messages may have been lost, the transport
+ * must call onReset once it delivers again.
+ */
+public interface InvalidationTransport {
+    /**
+     * Sends the message to every subscribed node, the sending one included.
+     */
+    void send(String message);
+
+    void subscribe(Consumer<String> onMessage, Runnable onReset);
+
+    void close();
+}
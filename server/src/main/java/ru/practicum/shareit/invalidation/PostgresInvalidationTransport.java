@@ -0,0 +1,108 @@
+package ru.practicum.shareit.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Sends messages with pg_notify through the application pool and receives them with LISTEN on a dedicated
+ * connection, outside the pool, polled by a daemon thread. Notifications sent while that connection is down are
+ * lost, so the listener reports a reset each time it listens again.
+ */
+@Slf4j
+public class PostgresInvalidationTransport implements InvalidationTransport {
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(JdbcTemplate jdbcTemplate, String url, String username, String password,
+                                         String channel, InvalidationProperties.Postgres properties) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Недопустимое имя канала: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollTimeout = properties.getPollTimeout();
+        this.reconnectDelay = properties.getReconnectDelay();
+    }
+
+    @Override
+    public void send(String message) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, message);
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String> onMessage, Runnable onReset) {
+        running = true;
+        listener = new Thread(() -> listen(onMessage, onReset), channel + "-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+
+    private void listen(Consumer<String> onMessage, Runnable onReset) {
+        var disconnected = false;
+
+        while (running) {
+            try (var connection = DriverManager.getConnection(url, username, password);
+                 var statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                if (disconnected) {
+                    log.info("Канал {} восстановлен, пропущенные сообщения сбрасываются", channel);
+                    onReset.run();
+                    disconnected = false;
+                }
+
+                var pgConnection = connection.unwrap(PGConnection.class);
+
+                while (running) {
+                    var notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onMessage.accept(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Канал {} недоступен: {}", channel, ex.getMessage());
+                disconnected = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -2,15 +2,21 @@ package ru.practicum.shareit.item;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.item.dto.BookingInfoDto;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class BookingInfoMapper {
-    public static BookingInfoDto mapBookingToBookingInfoDto(Booking bookingInfo) {
-        if (bookingInfo == null) {
+    public static BookingInfoDto mapLastBookingToBookingInfoDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
             return null;
         }
-        return new BookingInfoDto(bookingInfo.getId(), bookingInfo.getUser().getId());
+        return new BookingInfoDto(summary.getLastBookingId(), summary.getLastBookerId());
+    }
+
+    public static BookingInfoDto mapNextBookingToBookingInfoDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingInfoDto(summary.getNextBookingId(), summary.getNextBookerId());
     }
 }
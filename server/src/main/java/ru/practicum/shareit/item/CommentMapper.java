@@ -7,6 +7,7 @@ import ru.practicum.shareit.user.User;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -25,6 +26,35 @@ public class CommentMapper {
         return commentDto;
     }
 
+    public static CommentDto mapCommentViewToDto(CommentView comment) {
+        if (comment == null) {
+            return null;
+        }
+
+        var commentDto = new CommentDto();
+
+        commentDto.setId(comment.getId());
+        commentDto.setAuthorName(comment.getAuthorName());
+        commentDto.setCreated(comment.getCreationDate());
+        commentDto.setText(comment.getText());
+        return commentDto;
+    }
+
+    public static List<CommentDto> mapCommentViewsToDto(Collection<CommentView> comments) {
+        if (comments == null) {
+            return null;
+        }
+        return comments.stream().map(CommentMapper::mapCommentViewToDto).collect(Collectors.toList());
+    }
+
+    public static Map<Long, List<CommentDto>> mapCommentViewsToDtoByItemId(Collection<CommentView> comments) {
+        if (comments == null) {
+            return null;
+        }
+        return comments.stream().collect(Collectors.groupingBy(CommentView::getItemId,
+                Collectors.mapping(CommentMapper::mapCommentViewToDto, Collectors.toList())));
+    }
+
     public static List<CommentDto> mapCommentsToDto(Collection<Comment> comments) {
         if (comments == null) {
             return null;
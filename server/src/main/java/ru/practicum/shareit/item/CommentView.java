@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CommentView {
+    private final Long itemId;
+    private final Long id;
+    private final String authorName;
+    private final LocalDateTime creationDate;
+    private final String text;
+}
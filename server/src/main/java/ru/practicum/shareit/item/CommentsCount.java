@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CommentsCount {
+    private final Long itemId;
+    private final long count;
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search area of a near query. Items are stored with the cell of a fixed 0.1 degree grid they fall into, so the
+ * query first narrows the items down to the indexed cells covering the circle and then compares distances. The
+ * distance is the equirectangular approximation, accurate within a fraction of a percent at search radii, and
+ * the circle is not wrapped across the antimeridian.
+ */
+@Getter
+public class GeoCircle {
+    public static final double KM_PER_DEGREE = 111.195;
+
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LATITUDE_CELLS = 1800;
+    private static final int LONGITUDE_CELLS = 3600;
+
+    private final double latitude;
+    private final double longitude;
+    private final double radiusKm;
+    private final double longitudeScale;
+    private final double radiusSquare;
+    private final List<Long> cells;
+
+    public GeoCircle(double latitude, double longitude, double radiusKm) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radiusKm = radiusKm;
+        this.longitudeScale = Math.pow(Math.cos(Math.toRadians(latitude)), 2);
+        this.radiusSquare = Math.pow(radiusKm / KM_PER_DEGREE, 2);
+        this.cells = coveringCells(latitude, longitude, radiusKm);
+    }
+
+    public static long cellOf(double latitude, double longitude) {
+        return (long) latitudeIndex(latitude) * LONGITUDE_CELLS + Math.floorMod(longitudeIndex(longitude),
+                LONGITUDE_CELLS);
+    }
+
+    private static List<Long> coveringCells(double latitude, double longitude, double radiusKm) {
+        var latitudeDelta = radiusKm / KM_PER_DEGREE;
+        var widestCos = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeDelta)));
+        var longitudeDelta = widestCos <= 0 ? 180 : Math.min(180, latitudeDelta / widestCos);
+        var firstLongitudeIndex = longitudeIndex(longitude - longitudeDelta);
+        var longitudeCellsCount = Math.min(LONGITUDE_CELLS,
+                longitudeIndex(longitude + longitudeDelta) - firstLongitudeIndex + 1);
+        var cells = new ArrayList<Long>();
+
+        for (int latitudeIndex = latitudeIndex(Math.max(-90, latitude - latitudeDelta));
+             latitudeIndex <= latitudeIndex(Math.min(90, latitude + latitudeDelta)); latitudeIndex++) {
+            for (int i = 0; i < longitudeCellsCount; i++) {
+                cells.add((long) latitudeIndex * LONGITUDE_CELLS + Math.floorMod(firstLongitudeIndex + i,
+                        LONGITUDE_CELLS));
+            }
+        }
+        return cells;
+    }
+
+    private static int latitudeIndex(double latitude) {
+        return Math.min((int) Math.floor((latitude + 90) / CELL_DEGREES), LATITUDE_CELLS - 1);
+    }
+
+    private static int longitudeIndex(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+}
@@ -2,7 +2,6 @@ package ru.practicum.shareit.item;
 
 import lombok.Getter;
 import lombok.Setter;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.user.User;
 
@@ -15,6 +14,8 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import java.util.List;
@@ -47,15 +48,37 @@ public class Item {
     private List<Comment> comments;
 
     @Transient
-    private Booking lastBooking;
+    private ItemBookingSummary bookingSummary;
 
     @Transient
-    private Booking nextBooking;
+    private List<CommentView> latestComments;
+
+    /**
+     * Maintained by ItemDao.incrementCommentsCount and ItemDao.decrementCommentsCountsByAuthor only, so that saving
+     * an item never overwrites a newer count.
+     */
+    @Column(name = "comments_count", insertable = false, updatable = false)
+    private long commentsCount;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
+    @PrePersist
+    @PreUpdate
+    void initGeoCell() {
+        geoCell = latitude == null || longitude == null ? null : GeoCircle.cellOf(latitude, longitude);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hashCode(id);
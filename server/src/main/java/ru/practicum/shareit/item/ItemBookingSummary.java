@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingView;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Last and next booking of an item as of the time it was computed. The summary stays correct until validUntil,
+ * the earliest moment a booking of the item starts or finishes; a null validUntil means it never expires.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start_time")
+    private LocalDateTime lastStartTime;
+
+    @Column(name = "last_end_time")
+    private LocalDateTime lastEndTime;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start_time")
+    private LocalDateTime nextStartTime;
+
+    @Column(name = "next_end_time")
+    private LocalDateTime nextEndTime;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    public static ItemBookingSummary of(long itemId, Booking lastBooking, Booking nextBooking,
+                                        LocalDateTime validUntil) {
+        var summary = new ItemBookingSummary();
+
+        summary.setItemId(itemId);
+        if (lastBooking != null) {
+            summary.setLastBookingId(lastBooking.getId());
+            summary.setLastBookerId(lastBooking.getUser().getId());
+            summary.setLastStartTime(lastBooking.getStartTime());
+            summary.setLastEndTime(lastBooking.getEndTime());
+        }
+        if (nextBooking != null) {
+            summary.setNextBookingId(nextBooking.getId());
+            summary.setNextBookerId(nextBooking.getUser().getId());
+            summary.setNextStartTime(nextBooking.getStartTime());
+            summary.setNextEndTime(nextBooking.getEndTime());
+        }
+        summary.setValidUntil(validUntil);
+        return summary;
+    }
+
+    public void setLastBooking(@NonNull BookingView lastBooking) {
+        lastBookingId = lastBooking.getId();
+        lastBookerId = lastBooking.getBookerId();
+        lastStartTime = lastBooking.getStartTime();
+        lastEndTime = lastBooking.getEndTime();
+    }
+
+    public boolean isValidAt(@NonNull LocalDateTime refTime) {
+        return validUntil == null || refTime.isBefore(validUntil);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(itemId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || itemId == null || this.getClass() != obj.getClass()) {
+            return false;
+        }
+        return itemId.equals(((ItemBookingSummary) obj).itemId);
+    }
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,10 +15,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -30,11 +36,15 @@ public class ItemController {
     }
 
     @GetMapping
-    public Collection<ItemDto> getItemsByUserId(
+    public MappingJacksonValue getItemsByUserId(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "from") long from,
-            @RequestParam(name = "size") int size) {
-        return itemService.getAllItemsForUser(userId, from, size);
+            @RequestParam(name = "size") int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed) {
+        var fieldset = ItemFieldset.parse(fields, embed);
+
+        return ItemFieldset.toJson(itemService.getAllItemsForUser(userId, from, size, fieldset), fieldset);
     }
 
     @PostMapping
@@ -51,11 +61,51 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> findItemsByNameAndDescription(
+    public MappingJacksonValue findItemsByNameAndDescription(
             @RequestParam(name = "text") String text,
             @RequestParam(name = "from") long from,
-            @RequestParam(name = "size") int size) {
-        return itemService.findItemsByNameAndDescription(text, from, size);
+            @RequestParam(name = "size") int size,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "embed", required = false) String embed,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(name = "near", required = false) List<Double> near,
+            @RequestParam(name = "radius", required = false) Double radius) {
+        var fieldset = ItemFieldset.parse(fields, embed);
+
+        if (near != null && radius != null) {
+            return ItemFieldset.toJson(itemService.findItemsByNameAndDescriptionNear(text,
+                    new GeoCircle(near.get(0), near.get(1), radius), start, end, from, size, fieldset), fieldset);
+        }
+        if (start != null && end != null) {
+            return ItemFieldset.toJson(itemService.findFreeItemsByNameAndDescription(text, start, end, from, size,
+                    fieldset), fieldset);
+        }
+        return ItemFieldset.toJson(itemService.findItemsByNameAndDescription(text, from, size, fieldset), fieldset);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam(name = "prefix") String prefix,
+                                @RequestParam(name = "size") int size) {
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/calendar")
+    public ItemCalendarDto getItemCalendar(
+            @PathVariable("itemId") long itemId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemService.getItemCalendar(itemId, from, to);
+    }
+
+    @GetMapping("/calendar")
+    public List<ItemCalendarDto> getItemsCalendars(
+            @RequestParam(name = "ids") List<Long> itemIds,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemService.getItemsCalendars(itemIds, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -63,4 +113,11 @@ public class ItemController {
                                     @RequestBody CommentDto commentDto) {
         return itemService.createComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public Collection<CommentDto> getItemComments(@PathVariable("itemId") long itemId,
+                                                  @RequestParam(name = "before", required = false) Long before,
+                                                  @RequestParam(name = "size") int size) {
+        return itemService.getItemComments(itemId, before, size);
+    }
 }
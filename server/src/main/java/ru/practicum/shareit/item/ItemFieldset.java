@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.fieldset.FieldsetConfiguration;
+import ru.practicum.shareit.fieldset.FieldsetFilters;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Fields and relations of item list responses. The comments and bookings relations cost extra queries, so they
+ * are loaded only when one of their fields is requested and the relation is embedded.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemFieldset {
+    public static final String COMMENTS = "comments";
+    public static final String BOOKINGS = "bookings";
+
+    private static final Set<String> FIELDS = Set.of("id", "name", "description", "available", "lastBooking",
+            "nextBooking", "comments", "commentsCount", "requestId", "location");
+    private static final Set<String> COMMENTS_FIELDS = Set.of("comments", "commentsCount");
+    private static final Set<String> BOOKINGS_FIELDS = Set.of("lastBooking", "nextBooking");
+    private static final Set<String> EMBEDS = Set.of(COMMENTS, BOOKINGS);
+
+    public static Fieldset parse(@Nullable String fields, @Nullable String embed) {
+        return Fieldset.parse(fields, embed, FIELDS, EMBEDS);
+    }
+
+    public static boolean loadsComments(@NonNull Fieldset fieldset) {
+        return loads(fieldset, COMMENTS, COMMENTS_FIELDS);
+    }
+
+    public static boolean loadsBookings(@NonNull Fieldset fieldset) {
+        return loads(fieldset, BOOKINGS, BOOKINGS_FIELDS);
+    }
+
+    public static MappingJacksonValue toJson(@NonNull Object body, @NonNull Fieldset fieldset) {
+        var filters = new FieldsetFilters();
+
+        if (fieldset.isAll()) {
+            return filters.apply(body);
+        }
+
+        var fields = new HashSet<>(fieldset.getFields(FIELDS));
+
+        if (!loadsComments(fieldset)) {
+            fields.removeAll(COMMENTS_FIELDS);
+        }
+        if (!loadsBookings(fieldset)) {
+            fields.removeAll(BOOKINGS_FIELDS);
+        }
+        return filters.only(FieldsetConfiguration.ITEM_FILTER, fields).apply(body);
+    }
+
+    private static boolean loads(Fieldset fieldset, String relation, Set<String> relationFields) {
+        return fieldset.embeds(relation) && relationFields.stream().anyMatch(fieldset::includes);
+    }
+}
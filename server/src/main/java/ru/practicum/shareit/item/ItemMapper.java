@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.LocationDto;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.user.User;
 
@@ -24,12 +25,16 @@ public class ItemMapper {
         itemDto.setName(item.getName());
         itemDto.setDescription(item.getDescription());
         itemDto.setAvailable(item.getAvailable());
-        itemDto.setLastBooking(BookingInfoMapper.mapBookingToBookingInfoDto(item.getLastBooking()));
-        itemDto.setNextBooking(BookingInfoMapper.mapBookingToBookingInfoDto(item.getNextBooking()));
-        itemDto.setComments(CommentMapper.mapCommentsToDto(item.getComments()));
+        itemDto.setLastBooking(BookingInfoMapper.mapLastBookingToBookingInfoDto(item.getBookingSummary()));
+        itemDto.setNextBooking(BookingInfoMapper.mapNextBookingToBookingInfoDto(item.getBookingSummary()));
+        itemDto.setComments(CommentMapper.mapCommentViewsToDto(item.getLatestComments()));
+        itemDto.setCommentsCount(item.getCommentsCount());
         if (item.getRequest() != null) {
             itemDto.setRequestId(item.getRequest().getId());
         }
+        if (item.getLatitude() != null && item.getLongitude() != null) {
+            itemDto.setLocation(new LocationDto(item.getLatitude(), item.getLongitude()));
+        }
         return itemDto;
     }
 
@@ -45,6 +50,10 @@ public class ItemMapper {
         item.setDescription(itemDto.getDescription());
         item.setAvailable(itemDto.getAvailable());
         item.setOwner(user);
+        if (itemDto.getLocation() != null) {
+            item.setLatitude(itemDto.getLocation().getLatitude());
+            item.setLongitude(itemDto.getLocation().getLongitude());
+        }
         return item;
     }
 
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemText {
+    private final Long id;
+    private final String name;
+    private final String description;
+}
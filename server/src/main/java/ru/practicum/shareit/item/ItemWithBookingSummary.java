@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemWithBookingSummary {
+    private final Item item;
+    private final ItemBookingSummary bookingSummary;
+}
@@ -1,7 +1,26 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentView;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query(value = "SELECT id FROM (SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.id DESC) AS rn " +
+            "FROM comments c WHERE c.item_id IN (:itemIds)) latest WHERE rn <= :limit", nativeQuery = true)
+    List<Number> findLatestIdsByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("SELECT new ru.practicum.shareit.item.CommentView(c.item.id, c.id, u.name, c.creationDate, c.text) " +
+            "FROM Comment c JOIN c.user u WHERE c.id IN :ids ORDER BY c.id")
+    List<CommentView> findAllViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.item.CommentView(c.item.id, c.id, u.name, c.creationDate, c.text) " +
+            "FROM Comment c JOIN c.user u WHERE c.item.id = :itemId AND c.id < :beforeId ORDER BY c.id DESC")
+    List<CommentView> findAllViewsByItemIdBefore(@Param("itemId") long itemId, @Param("beforeId") long beforeId,
+                                                 Pageable pageable);
 }
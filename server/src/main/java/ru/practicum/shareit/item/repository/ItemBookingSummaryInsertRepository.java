@@ -0,0 +1,5 @@
+package ru.practicum.shareit.item.repository;
+
+public interface ItemBookingSummaryInsertRepository {
+    int insertIfAbsent(long itemId);
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.dialect.PostgreSQL95Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Inserts an empty summary row unless the item already has one. PostgreSQL skips the conflicting row instead of
+ * failing on the primary key, also when another transaction inserted it concurrently; H2, used by the tests, has
+ * no ON CONFLICT and merges by the key instead.
+ */
+public class ItemBookingSummaryInsertRepositoryImpl implements ItemBookingSummaryInsertRepository {
+    private static final String POSTGRES_INSERT = "INSERT INTO item_booking_summary (item_id) VALUES (:itemId) " +
+            "ON CONFLICT DO NOTHING";
+    private static final String H2_INSERT = "MERGE INTO item_booking_summary (item_id) KEY (item_id) " +
+            "VALUES (:itemId)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertIfAbsent(long itemId) {
+        var dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+
+        return entityManager.createNativeQuery(dialect instanceof PostgreSQL95Dialect ? POSTGRES_INSERT : H2_INSERT)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+    }
+}
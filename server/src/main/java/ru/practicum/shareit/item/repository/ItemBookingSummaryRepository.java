@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long>,
+        ItemBookingSummaryInsertRepository {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId = :itemId")
+    Optional<ItemBookingSummary> findForUpdateByItemId(@Param("itemId") long itemId);
+
+    /**
+     * Every item has a summary row: it is created with the item, and schema.sql backfills the missing ones as
+     * already expired. So the expired rows are found by the valid_until index alone.
+     */
+    @Query(value = "SELECT item_id FROM item_booking_summary WHERE valid_until < :refTime LIMIT :limit",
+            nativeQuery = true)
+    List<Number> findItemIdsExpiredBefore(@Param("refTime") LocalDateTime refTime, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE item_booking_summary SET valid_until = :refTime " +
+            "WHERE last_booker_id = :userId OR next_booker_id = :userId", nativeQuery = true)
+    int expireBookedBy(@Param("userId") long userId, @Param("refTime") LocalDateTime refTime);
+}
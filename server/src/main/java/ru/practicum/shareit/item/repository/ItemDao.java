@@ -2,17 +2,90 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.CommentsCount;
+import ru.practicum.shareit.item.GeoCircle;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemText;
+import ru.practicum.shareit.item.ItemWithBookingSummary;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemDao extends JpaRepository<Item, Long> {
-    @Query("SELECT i FROM Item i WHERE (LOWER(i.name) LIKE CONCAT('%', LOWER(:text), '%') OR LOWER(i.description) LIKE " +
-            "CONCAT('%', LOWER(:text), '%')) AND i.available=TRUE")
+    String ITEM_WITH_BOOKING_SUMMARY_QUERY = "SELECT new ru.practicum.shareit.item.ItemWithBookingSummary(i, s) " +
+            "FROM Item i LEFT JOIN ItemBookingSummary s ON s.itemId = i.id ";
+
+    String AVAILABLE_ITEMS_MATCHING_TEXT_QUERY = "SELECT i FROM Item i WHERE (LOWER(i.name) LIKE " +
+            "CONCAT('%', LOWER(:text), '%') OR LOWER(i.description) LIKE CONCAT('%', LOWER(:text), '%')) " +
+            "AND i.available=TRUE ";
+    String FREE_BETWEEN_CONDITION = "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item = i " +
+            "AND b.startTime <= :end AND b.endTime >= :start) ";
+    String SQUARED_DISTANCE = "((i.latitude - :#{#near.latitude}) * (i.latitude - :#{#near.latitude}) + " +
+            "(i.longitude - :#{#near.longitude}) * (i.longitude - :#{#near.longitude}) * :#{#near.longitudeScale})";
+    String NEAR_CONDITION = "AND i.geoCell IN :#{#near.cells} AND " + SQUARED_DISTANCE + " <= :#{#near.radiusSquare} ";
+    String NEAREST_FIRST_ORDER = "ORDER BY " + SQUARED_DISTANCE + ", i.id";
+
+    @Query(AVAILABLE_ITEMS_MATCHING_TEXT_QUERY)
     List<Item> findByNameOrDescriptionLikeAndIsAvailableTrue(@Param("text") String text, Pageable pageable);
 
+    /**
+     * Same match as findByNameOrDescriptionLikeAndIsAvailableTrue, without the items having a booking of any status
+     * that overlaps the window, bounds included.
+     */
+    @Query(AVAILABLE_ITEMS_MATCHING_TEXT_QUERY + FREE_BETWEEN_CONDITION)
+    List<Item> findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetween(@Param("text") String text,
+                                                                           @Param("start") LocalDateTime start,
+                                                                           @Param("end") LocalDateTime end,
+                                                                           Pageable pageable);
+
+    @Query(AVAILABLE_ITEMS_MATCHING_TEXT_QUERY + NEAR_CONDITION + NEAREST_FIRST_ORDER)
+    List<Item> findByNameOrDescriptionLikeAndIsAvailableTrueAndNear(@Param("text") String text,
+                                                                    @Param("near") GeoCircle near,
+                                                                    Pageable pageable);
+
+    @Query(AVAILABLE_ITEMS_MATCHING_TEXT_QUERY + FREE_BETWEEN_CONDITION + NEAR_CONDITION + NEAREST_FIRST_ORDER)
+    List<Item> findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetweenAndNear(@Param("text") String text,
+                                                                                  @Param("start") LocalDateTime start,
+                                                                                  @Param("end") LocalDateTime end,
+                                                                                  @Param("near") GeoCircle near,
+                                                                                  Pageable pageable);
+
     List<Item> findAllByOwner(User user, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") long ownerId);
+
+    @Query(ITEM_WITH_BOOKING_SUMMARY_QUERY + "WHERE i.owner = :owner")
+    List<ItemWithBookingSummary> findAllWithBookingSummaryByOwner(@Param("owner") User owner, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.ItemText(i.id, i.name, i.description) FROM Item i " +
+            "WHERE i.available = TRUE AND i.id > :afterId ORDER BY i.id")
+    List<ItemText> findAvailableTextsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(ITEM_WITH_BOOKING_SUMMARY_QUERY + "WHERE i.id = :itemId")
+    Optional<ItemWithBookingSummary> findWithBookingSummaryById(@Param("itemId") long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.CommentsCount(i.id, i.commentsCount) FROM Item i " +
+            "WHERE i.id IN :itemIds")
+    List<CommentsCount> findCommentsCountsByIds(@Param("itemIds") Collection<Long> itemIds);
+
+    @Modifying
+    @Query(value = "UPDATE items SET comments_count = comments_count + 1 WHERE id = :itemId", nativeQuery = true)
+    int incrementCommentsCount(@Param("itemId") long itemId);
+
+    /**
+     * Takes the comments of the user off the counts of the commented items; must run before the user is deleted,
+     * as the comments go with the user by cascade.
+     */
+    @Modifying
+    @Query(value = "UPDATE items SET comments_count = comments_count - " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id AND c.user_id = :userId) " +
+            "WHERE id IN (SELECT c.item_id FROM comments c WHERE c.user_id = :userId)", nativeQuery = true)
+    int decrementCommentsCountsByAuthor(@Param("userId") long userId);
 }
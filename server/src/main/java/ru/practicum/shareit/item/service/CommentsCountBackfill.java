@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Fills items.comments_count from the comments once per database, before the server takes requests. The run is
+ * recorded in data_migrations in the same transaction, so a node starting later, or racing this one, skips it.
+ */
+@Slf4j
+@Component
+public class CommentsCountBackfill {
+    static final String MIGRATION_NAME = "comments_count_backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CommentsCountBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager));
+    }
+
+    CommentsCountBackfill(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        try {
+            var updated = transactionTemplate.execute(status -> {
+                var claimed = jdbcTemplate.update("INSERT INTO data_migrations (name, applied_at) " +
+                        "SELECT ?, CURRENT_TIMESTAMP WHERE NOT EXISTS (SELECT 1 FROM data_migrations WHERE name = ?)",
+                        MIGRATION_NAME, MIGRATION_NAME);
+
+                if (claimed == 0) {
+                    return null;
+                }
+                return jdbcTemplate.update("UPDATE items SET comments_count = " +
+                        "(SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id) " +
+                        "WHERE comments_count <> (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id)");
+            });
+
+            if (updated != null) {
+                log.info("Пересчитано количество комментариев у {} вещей", updated);
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.info("Пересчёт количества комментариев уже выполнен другим узлом");
+        }
+    }
+}
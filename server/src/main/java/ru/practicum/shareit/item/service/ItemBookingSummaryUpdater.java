@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maintains item_booking_summary. A refresh locks the summary row first, so concurrent bookings of one item
+ * are applied one after another and the last writer sees the other's booking. A missing row is inserted before
+ * it is locked, so concurrent refreshes never race to insert it. The last booking is looked up in bookings_archive
+ * only when no live booking has finished.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ItemBookingSummaryUpdater {
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    public ItemBookingSummary compute(long itemId, @NonNull LocalDateTime refTime) {
+        var lastBooking = bookingRepository.findFirstByItemIdAndEndTimeBeforeOrderByEndTimeDescIdDesc(itemId,
+                refTime);
+        var nextBooking = bookingRepository.findFirstByItemIdAndStartTimeAfterOrderByStartTimeAscIdAsc(itemId,
+                refTime);
+        var validUntil = bookingRepository.findEarliestEndTimeNotBefore(itemId, refTime)
+                .map(end -> nextBooking.isPresent() && nextBooking.get().getStartTime().isBefore(end)
+                        ? nextBooking.get().getStartTime() : end)
+                .orElse(null);
+
+        var summary = ItemBookingSummary.of(itemId, lastBooking.orElse(null), nextBooking.orElse(null), validUntil);
+
+        if (lastBooking.isEmpty()) {
+            bookingRepository.findLastArchivedViewByItemId(itemId, refTime).ifPresent(summary::setLastBooking);
+        }
+        return summary;
+    }
+
+    @Transactional
+    public void create(long itemId) {
+        summaryRepository.save(ItemBookingSummary.of(itemId, null, null, null));
+    }
+
+    @Transactional
+    public void refresh(long itemId) {
+        summaryRepository.insertIfAbsent(itemId);
+        summaryRepository.findForUpdateByItemId(itemId);
+        summaryRepository.save(compute(itemId, LocalDateTime.now()));
+    }
+
+    /**
+     * Deleting a user deletes their bookings, so the summaries naming them as last or next booker expire at once;
+     * booker ids carry no foreign key, and the rows are recomputed on read and by the scheduler.
+     */
+    @Transactional
+    public void expireBookedBy(long userId) {
+        summaryRepository.expireBookedBy(userId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public int refreshExpired(@NonNull LocalDateTime refTime, int limit) {
+        var itemIds = summaryRepository.findItemIdsExpiredBefore(refTime, limit);
+
+        for (Number itemId : itemIds) {
+            summaryRepository.findForUpdateByItemId(itemId.longValue());
+            summaryRepository.save(compute(itemId.longValue(), refTime));
+        }
+        return itemIds.size();
+    }
+}
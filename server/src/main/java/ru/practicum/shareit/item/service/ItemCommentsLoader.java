@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.CommentView;
+import ru.practicum.shareit.item.CommentsCount;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemDao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the comment count and the latest comments of a page of items. Both queries are bounded by the number of
+ * items and the limit, not by the number of comments: the count is kept in items.comments_count.
+ */
+@Component
+public class ItemCommentsLoader {
+    private final CommentRepository commentRepository;
+    private final ItemDao itemDao;
+    private final int latestCommentsLimit;
+
+    @Autowired
+    public ItemCommentsLoader(CommentRepository commentRepository, ItemDao itemDao,
+                              @Value("${shareit.item.latest-comments-limit:10}") int latestCommentsLimit) {
+        this.commentRepository = commentRepository;
+        this.itemDao = itemDao;
+        this.latestCommentsLimit = latestCommentsLimit;
+    }
+
+    public void addLatestComments(@NonNull Collection<Item> items) {
+        var itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+        var latestComments = findLatestComments(itemIds);
+
+        for (Item item : items) {
+            item.setLatestComments(latestComments.getOrDefault(item.getId(), List.of()));
+        }
+    }
+
+    public Map<Long, List<CommentView>> findLatestComments(@NonNull Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        var commentIds = commentRepository.findLatestIdsByItemIds(itemIds, latestCommentsLimit).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+
+        if (commentIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findAllViewsByIds(commentIds).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId));
+    }
+
+    public Map<Long, Long> countComments(@NonNull Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemDao.findCommentsCountsByIds(itemIds).stream()
+                .collect(Collectors.toMap(CommentsCount::getItemId, CommentsCount::getCount));
+    }
+}
@@ -0,0 +1,290 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.TransactionCallbacks;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * LRU cache of /items/search result pages, holding item ids only. Entries are grouped by search text, and a write
+ * evicts every page of the texts that occur in the old or new name or description of the item, the same substring
+ * test the search query does. Size is bounded both by the entry count and by the estimated memory of the entries.
+ * <p>
+ * Cached texts are indexed by their first {@link #PREFIX_LENGTH} characters. A text occurs in a content only if
+ * its prefix does, so a write tests just the texts whose prefix is one of the short substrings of its contents,
+ * and its cost depends on the length of the contents, not on the number of cached texts.
+ */
+@Component
+public class ItemSearchCache implements MeterBinder {
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+    private static final long BYTES_PER_CHAR = 2;
+    private static final long BYTES_PER_ID = Long.BYTES;
+    private static final int PREFIX_LENGTH = 3;
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, long[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByText = new HashMap<>();
+    private final Map<String, Set<String>> textsByPrefix = new HashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long usedBytes;
+    private Counter capacityEvictions;
+    private Counter invalidations;
+
+    @Autowired
+    public ItemSearchCache(@Value("${shareit.item.search-cache.enabled:false}") boolean enabled,
+                           @Value("${shareit.item.search-cache.max-entries:10000}") int maxEntries,
+                           @Value("${shareit.item.search-cache.max-size:16MB}") DataSize maxSize) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * Version to pass to put: a page read before an eviction must not be cached after it.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public Optional<List<Long>> get(@NonNull String text, long from, int size) {
+        if (!isCacheable(text)) {
+            return Optional.empty();
+        }
+
+        long[] itemIds;
+
+        synchronized (this) {
+            itemIds = entries.get(new Key(normalize(text), from, size));
+        }
+        if (itemIds == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(Arrays.stream(itemIds).boxed().collect(Collectors.toList()));
+    }
+
+    public void put(@NonNull String text, long from, int size, @NonNull Collection<Long> itemIds, long readVersion) {
+        if (!isCacheable(text)) {
+            return;
+        }
+
+        var key = new Key(normalize(text), from, size);
+        var value = itemIds.stream().mapToLong(Long::longValue).toArray();
+
+        synchronized (this) {
+            if (readVersion != version.get()) {
+                return;
+            }
+            remove(key);
+            entries.put(key, value);
+            if (!keysByText.containsKey(key.text)) {
+                indexText(key.text);
+            }
+            keysByText.computeIfAbsent(key.text, t -> new HashSet<>()).add(key);
+            usedBytes += getWeight(key, value);
+            evictOverCapacity();
+        }
+    }
+
+    /**
+     * Evicts, after the current transaction commits, the pages of every cached text found in the given contents.
+     */
+    public void evictMatching(@NonNull Collection<String> contents) {
+        if (!enabled || contents.isEmpty()) {
+            return;
+        }
+
+        var normalizedContents = contents.stream().map(ItemSearchCache::normalize).collect(Collectors.toList());
+
+        TransactionCallbacks.runAfterCommit(() -> evictTexts(normalizedContents));
+    }
+
+    /**
+     * Evicts every page, after the current transaction commits.
+     */
+    public void evictAll() {
+        if (enabled) {
+            TransactionCallbacks.runAfterCommit(this::evictAllEntries);
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        FunctionCounter.builder("shareit.item.search.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.item.search.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.hit.ratio", this, ItemSearchCache::getHitRatio)
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.size", this, ItemSearchCache::getEntriesCount)
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.memory", this, ItemSearchCache::getUsedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        capacityEvictions = Counter.builder("shareit.item.search.cache.evictions")
+                .tag("cause", "capacity")
+                .register(meterRegistry);
+        invalidations = Counter.builder("shareit.item.search.cache.evictions")
+                .tag("cause", "invalidation")
+                .register(meterRegistry);
+    }
+
+    double getHitRatio() {
+        var hitsCount = hits.get();
+        var requestsCount = hitsCount + misses.get();
+
+        return requestsCount == 0 ? 0.0 : (double) hitsCount / requestsCount;
+    }
+
+    synchronized int getEntriesCount() {
+        return entries.size();
+    }
+
+    synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * The search query treats % and _ as LIKE wildcards, which the substring test of evictMatching does not, so
+     * such texts are never cached.
+     */
+    private boolean isCacheable(String text) {
+        return enabled && !text.isEmpty() && text.indexOf('%') < 0 && text.indexOf('_') < 0;
+    }
+
+    private synchronized void evictTexts(Collection<String> contents) {
+        version.incrementAndGet();
+
+        var evictedTexts = new HashSet<String>();
+
+        for (String content : contents) {
+            for (int start = 0; start < content.length(); start++) {
+                for (int end = start + 1; end <= Math.min(start + PREFIX_LENGTH, content.length()); end++) {
+                    var candidates = textsByPrefix.get(content.substring(start, end));
+
+                    if (candidates != null) {
+                        candidates.stream().filter(content::contains).forEach(evictedTexts::add);
+                    }
+                }
+            }
+        }
+        for (String text : evictedTexts) {
+            for (Key key : List.copyOf(keysByText.get(text))) {
+                remove(key);
+                increment(invalidations);
+            }
+        }
+    }
+
+    private synchronized void evictAllEntries() {
+        version.incrementAndGet();
+        for (Key key : List.copyOf(entries.keySet())) {
+            remove(key);
+            increment(invalidations);
+        }
+    }
+
+    private void evictOverCapacity() {
+        var iterator = entries.entrySet().iterator();
+
+        while ((entries.size() > maxEntries || usedBytes > maxBytes) && iterator.hasNext()) {
+            var eldest = iterator.next();
+
+            iterator.remove();
+            forget(eldest.getKey(), eldest.getValue());
+            increment(capacityEvictions);
+        }
+    }
+
+    private void remove(Key key) {
+        var value = entries.remove(key);
+
+        if (value != null) {
+            forget(key, value);
+        }
+    }
+
+    private void forget(Key key, long[] value) {
+        var textKeys = keysByText.get(key.text);
+
+        if (textKeys != null) {
+            textKeys.remove(key);
+            if (textKeys.isEmpty()) {
+                keysByText.remove(key.text);
+                unindexText(key.text);
+            }
+        }
+        usedBytes -= getWeight(key, value);
+    }
+
+    private void indexText(String text) {
+        textsByPrefix.computeIfAbsent(getPrefix(text), p -> new HashSet<>()).add(text);
+    }
+
+    private void unindexText(String text) {
+        var prefix = getPrefix(text);
+        var texts = textsByPrefix.get(prefix);
+
+        if (texts != null) {
+            texts.remove(text);
+            if (texts.isEmpty()) {
+                textsByPrefix.remove(prefix);
+            }
+        }
+    }
+
+    private static long getWeight(Key key, long[] value) {
+        return ENTRY_OVERHEAD_BYTES + key.text.length() * BYTES_PER_CHAR + value.length * BYTES_PER_ID;
+    }
+
+    private static String getPrefix(String text) {
+        return text.substring(0, Math.min(PREFIX_LENGTH, text.length()));
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String text;
+        private final long from;
+        private final int size;
+    }
+}
@@ -1,21 +1,41 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.item.GeoCircle;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
-    Collection<ItemDto> getAllItemsForUser(long userId, long from, int size);
+    Collection<ItemDto> getAllItemsForUser(long userId, long from, int size, Fieldset fieldset);
 
     ItemDto createNewItem(long ownerId, IncomingItemDto itemDto);
 
     ItemDto updateItem(IncomingItemDto itemDto, long userId);
 
-    Collection<ItemDto> findItemsByNameAndDescription(String text, long from, int size);
+    Collection<ItemDto> findItemsByNameAndDescription(String text, long from, int size, Fieldset fieldset);
+
+    Collection<ItemDto> findFreeItemsByNameAndDescription(String text, LocalDateTime start, LocalDateTime end,
+                                                          long from, int size, Fieldset fieldset);
+
+    Collection<ItemDto> findItemsByNameAndDescriptionNear(String text, GeoCircle near, LocalDateTime start,
+                                                          LocalDateTime end, long from, int size, Fieldset fieldset);
+
+    List<String> suggest(String prefix, int size);
+
+    ItemCalendarDto getItemCalendar(long itemId, LocalDate from, LocalDate to);
+
+    List<ItemCalendarDto> getItemsCalendars(Collection<Long> itemIds, LocalDate from, LocalDate to);
 
     ItemDto getItemByIdAndUser(long userId, long itemId);
 
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
+
+    Collection<CommentDto> getItemComments(long itemId, Long beforeId, int size);
 }
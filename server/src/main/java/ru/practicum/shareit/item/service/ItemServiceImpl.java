@@ -7,19 +7,27 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.PageableByOffsetAndSize;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationEvent;
 import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.GeoCircle;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemFieldset;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemWithBookingSummary;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exceptions.BookingToCreateCommentNotFoundException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.exceptions.UserIsNotItemOwnerException;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.requests.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.requests.repository.ItemRequestRepository;
@@ -27,10 +35,14 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.repository.UserDao;
 
-import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -41,18 +53,31 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final UserDao userDao;
     private final ItemRequestRepository requestRepository;
+    private final ItemCommentsLoader commentsLoader;
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final ItemSearchCache searchCache;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemOccupancyIndex occupancyIndex;
+    private final InvalidationBus invalidationBus;
 
     @Override
-    public Collection<ItemDto> getAllItemsForUser(long userId, long from, int size) {
+    public Collection<ItemDto> getAllItemsForUser(long userId, long from, int size, @NonNull Fieldset fieldset) {
         var user = getUserById(userId);
         var pageable = new PageableByOffsetAndSize(from, size, Sort.by(Sort.Direction.ASC, "id"));
-        var items = itemDao.findAllByOwner(user, pageable);
-        var refTime = LocalDateTime.now();
+        List<Item> items;
 
-        for (Item currentItem : items) {
-            addBookingInfo(currentItem, refTime);
-        }
+        if (ItemFieldset.loadsBookings(fieldset)) {
+            var refTime = LocalDateTime.now();
 
+            items = itemDao.findAllWithBookingSummaryByOwner(user, pageable).stream()
+                    .map(itemWithSummary -> addBookingSummary(itemWithSummary, refTime))
+                    .collect(Collectors.toList());
+        } else {
+            items = itemDao.findAllByOwner(user, pageable);
+        }
+        if (ItemFieldset.loadsComments(fieldset)) {
+            commentsLoader.addLatestComments(items);
+        }
         return ItemMapper.mapItemsCollectionToItemDto(items);
     }
 
@@ -69,7 +94,13 @@ public class ItemServiceImpl implements ItemService {
 
             item = ItemMapper.mapItemDtoToItem(itemDto, owner, request);
         }
-        return ItemMapper.mapItemToItemDto(itemDao.save(item));
+        item = itemDao.save(item);
+        summaryUpdater.create(item.getId());
+        searchCache.evictMatching(List.of(item.getName(), item.getDescription()));
+        suggestIndex.update(item);
+        invalidationBus.publish(InvalidationEvent.itemChanged(item.getId(),
+                List.of(item.getName(), item.getDescription()), ItemSuggestIndex.getIndexedText(item)));
+        return ItemMapper.mapItemToItemDto(item);
     }
 
     @Override
@@ -82,6 +113,8 @@ public class ItemServiceImpl implements ItemService {
                     userId, updatedItem.getId()));
         }
 
+        var searchedContents = new ArrayList<>(List.of(updatedItem.getName(), updatedItem.getDescription()));
+
         if (itemDto.getName() != null) {
             updatedItem.setName(itemDto.getName());
         }
@@ -91,31 +124,137 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             updatedItem.setAvailable(itemDto.getAvailable());
         }
-
+        if (itemDto.getLocation() != null) {
+            updatedItem.setLatitude(itemDto.getLocation().getLatitude());
+            updatedItem.setLongitude(itemDto.getLocation().getLongitude());
+        }
+        if (itemDto.getName() != null || itemDto.getDescription() != null || itemDto.getAvailable() != null) {
+            searchedContents.add(updatedItem.getName());
+            searchedContents.add(updatedItem.getDescription());
+            searchCache.evictMatching(searchedContents);
+            suggestIndex.update(updatedItem);
+            invalidationBus.publish(InvalidationEvent.itemChanged(updatedItem.getId(), searchedContents,
+                    ItemSuggestIndex.getIndexedText(updatedItem)));
+        }
+        commentsLoader.addLatestComments(List.of(updatedItem));
         return ItemMapper.mapItemToItemDto(updatedItem);
     }
 
     @Override
-    public Collection<ItemDto> findItemsByNameAndDescription(String text, long from, int size) {
+    public Collection<ItemDto> findItemsByNameAndDescription(String text, long from, int size,
+                                                             @NonNull Fieldset fieldset) {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        return ItemMapper.mapItemsCollectionToItemDto(itemDao
-                .findByNameOrDescriptionLikeAndIsAvailableTrue(text,
-                        new PageableByOffsetAndSize(from, size, Sort.unsorted())
-                ));
+
+        var items = searchCache.get(text, from, size)
+                .flatMap(this::findItemsByIds)
+                .orElseGet(() -> searchItems(text, from, size));
+
+        if (ItemFieldset.loadsComments(fieldset)) {
+            commentsLoader.addLatestComments(items);
+        }
+        return ItemMapper.mapItemsCollectionToItemDto(items);
     }
 
+    /**
+     * Not cached: the result depends on the bookings, which do not evict search pages.
+     */
     @Override
-    public ItemDto getItemByIdAndUser(long userId, long itemId) {
+    public Collection<ItemDto> findFreeItemsByNameAndDescription(String text, @NonNull LocalDateTime start,
+                                                                 @NonNull LocalDateTime end, long from, int size,
+                                                                 @NonNull Fieldset fieldset) {
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        var items = itemDao.findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetween(text, start, end,
+                new PageableByOffsetAndSize(from, size, Sort.unsorted()));
+
+        if (ItemFieldset.loadsComments(fieldset)) {
+            commentsLoader.addLatestComments(items);
+        }
+        return ItemMapper.mapItemsCollectionToItemDto(items);
+    }
+
+    /**
+     * Nearest items first, optionally only those free in the window when both its bounds are set. Not cached,
+     * like the other filtered searches.
+     */
+    @Override
+    public Collection<ItemDto> findItemsByNameAndDescriptionNear(String text, @NonNull GeoCircle near,
+                                                                 LocalDateTime start, LocalDateTime end, long from,
+                                                                 int size, @NonNull Fieldset fieldset) {
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        var pageable = new PageableByOffsetAndSize(from, size, Sort.unsorted());
+        var items = start != null && end != null
+                ? itemDao.findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetweenAndNear(text, start, end, near,
+                        pageable)
+                : itemDao.findByNameOrDescriptionLikeAndIsAvailableTrueAndNear(text, near, pageable);
+
+        if (ItemFieldset.loadsComments(fieldset)) {
+            commentsLoader.addLatestComments(items);
+        }
+        return ItemMapper.mapItemsCollectionToItemDto(items);
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int size) {
+        return suggestIndex.complete(prefix, size);
+    }
+
+    @Override
+    public ItemCalendarDto getItemCalendar(long itemId, @NonNull LocalDate from, @NonNull LocalDate to) {
         var item = getItemById(itemId);
 
+        return new ItemCalendarDto(item.getId(), occupancyIndex.getCalendars(List.of(item.getId()), from, to)
+                .get(item.getId()));
+    }
+
+    /**
+     * Unknown ids are skipped.
+     */
+    @Override
+    public List<ItemCalendarDto> getItemsCalendars(@NonNull Collection<Long> itemIds, @NonNull LocalDate from,
+                                                   @NonNull LocalDate to) {
+        var existingItemIds = itemDao.findAllById(itemIds).stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        var calendarItemIds = itemIds.stream()
+                .distinct()
+                .filter(existingItemIds::contains)
+                .collect(Collectors.toList());
+
+        return occupancyIndex.getCalendars(calendarItemIds, from, to).entrySet().stream()
+                .map(calendar -> new ItemCalendarDto(calendar.getKey(), calendar.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ItemDto getItemByIdAndUser(long userId, long itemId) {
+        var itemWithSummary = itemDao.findWithBookingSummaryById(itemId).orElseThrow(
+                () -> new ItemNotFoundException(String.format("Элемент с id = %d не найден", itemId)));
+        var item = itemWithSummary.getItem();
+
         if (item.getOwner().getId() == userId) {
-            addBookingInfo(item, LocalDateTime.now());
+            addBookingSummary(itemWithSummary, LocalDateTime.now());
         }
+        commentsLoader.addLatestComments(List.of(item));
         return ItemMapper.mapItemToItemDto(item);
     }
 
+    @Override
+    public Collection<CommentDto> getItemComments(long itemId, Long beforeId, int size) {
+        var item = getItemById(itemId);
+        var pageable = new PageableByOffsetAndSize(0, size, Sort.unsorted());
+
+        return CommentMapper.mapCommentViewsToDto(commentRepository.findAllViewsByItemIdBefore(item.getId(),
+                beforeId == null ? Long.MAX_VALUE : beforeId, pageable));
+    }
+
     @Override
     @Transactional
     public CommentDto createComment(long userId, long itemId, CommentDto commentDto) {
@@ -125,51 +264,60 @@ public class ItemServiceImpl implements ItemService {
         var wrappedBooking = bookingRepository.findByItemAndUserAndEndTimeBefore(item, user,
                 comment.getCreationDate());
 
-        if (wrappedBooking.isEmpty()) {
+        if (wrappedBooking.isEmpty() && bookingRepository.countArchivedByItemAndUserAndEndTimeBefore(item.getId(),
+                user.getId(), comment.getCreationDate()) == 0) {
             throw new BookingToCreateCommentNotFoundException(String.format("Бронирование с параметрами userId = %d, " +
                     "itemId = %d, endTime < %3$tFT%3$tT не найдено", user.getId(), item.getId(),
                     comment.getCreationDate()));
         }
-        return CommentMapper.mapCommentToDto(commentRepository.save(comment));
+        comment = commentRepository.save(comment);
+        itemDao.incrementCommentsCount(item.getId());
+        return CommentMapper.mapCommentToDto(comment);
     }
 
-    private void addBookingInfo(@NonNull Item item, @NonNull LocalDateTime referenceTime) {
-        Collection<Booking> bookings = bookingRepository.findAllByItem(item);
-        var bookingInfo = getLastNextBooking(bookings, referenceTime);
+    private List<Item> searchItems(String text, long from, int size) {
+        var cacheVersion = searchCache.getVersion();
+        var items = itemDao.findByNameOrDescriptionLikeAndIsAvailableTrue(text,
+                new PageableByOffsetAndSize(from, size, Sort.unsorted()));
 
-        item.setLastBooking(bookingInfo.getLastBooking());
-        item.setNextBooking(bookingInfo.getNextBooking());
+        searchCache.put(text, from, size, items.stream().map(Item::getId).collect(Collectors.toList()),
+                cacheVersion);
+        return items;
     }
 
-    private BookingInfo getLastNextBooking(@NonNull Collection<Booking> bookings,
-                                           @NonNull LocalDateTime referenceTime) {
-        var bookingInfo = new BookingInfo();
-        Duration nextBookingMinDiff = Duration.between(referenceTime, LocalDateTime.MAX);
-        Duration lastBookingMinDiff = Duration.between(LocalDateTime.MIN, referenceTime);
+    /**
+     * Items of a cached search page in the page order, or empty when some of them were deleted since.
+     */
+    private Optional<List<Item>> findItemsByIds(List<Long> itemIds) {
+        var itemsById = itemDao.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        if (itemsById.size() != itemIds.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(itemIds.stream().map(itemsById::get).collect(Collectors.toList()));
+    }
 
-        for (Booking currentBooking : bookings) {
-            Duration diff;
+    /**
+     * The stored summary is used while it is still valid; a missing or expired one, not yet refreshed by
+     * the scheduler, is computed from the bookings instead.
+     */
+    private Item addBookingSummary(@NonNull ItemWithBookingSummary itemWithSummary,
+                                   @NonNull LocalDateTime referenceTime) {
+        var item = itemWithSummary.getItem();
+        var summary = itemWithSummary.getBookingSummary();
 
-            if (currentBooking.getEndTime().isBefore(referenceTime)) {
-                diff = Duration.between(currentBooking.getEndTime(), referenceTime);
-                if (diff.compareTo(lastBookingMinDiff) < 0) {
-                    lastBookingMinDiff = diff;
-                    bookingInfo.setLastBooking(currentBooking);
-                }
-            } else if (currentBooking.getStartTime().isAfter(referenceTime)) {
-                diff = Duration.between(referenceTime, currentBooking.getStartTime());
-                if (diff.compareTo(nextBookingMinDiff) < 0) {
-                    nextBookingMinDiff = diff;
-                    bookingInfo.setNextBooking(currentBooking);
-                }
-            }
+        if (summary == null || !summary.isValidAt(referenceTime)) {
+            summary = summaryUpdater.compute(item.getId(), referenceTime);
         }
-        return bookingInfo;
+        item.setBookingSummary(summary);
+        return item;
     }
 
     private User getUserById(long userId) {
         return userDao.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId)));
+                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId),
+                        userId));
     }
 
     private Item getItemById(long itemId) {
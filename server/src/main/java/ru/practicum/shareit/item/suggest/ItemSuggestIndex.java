@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.TransactionCallbacks;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemText;
+import ru.practicum.shareit.item.repository.ItemDao;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-process index of the tokens of available item names and descriptions, weighted by the number of items
+ * containing them. It is rebuilt from the database at startup and periodically, and updated after each committed
+ * item change in between.
+ */
+@Slf4j
+@Component
+public class ItemSuggestIndex {
+    private static final Pattern TOKEN_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private final ItemDao itemDao;
+    private final int maxSuggestions;
+    private final int batchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TokenTrie trie;
+    private Map<Long, Set<String>> tokensByItemId = new HashMap<>();
+    private Map<Long, Set<String>> updatesDuringRebuild;
+
+    @Autowired
+    public ItemSuggestIndex(ItemDao itemDao,
+                            @Value("${shareit.item.suggest.max-size:10}") int maxSuggestions,
+                            @Value("${shareit.item.suggest.batch-size:1000}") int batchSize) {
+        this.itemDao = itemDao;
+        this.maxSuggestions = maxSuggestions;
+        this.batchSize = batchSize;
+        this.trie = new TokenTrie(maxSuggestions);
+    }
+
+    /**
+     * Completes the last, possibly partial, token of the prefix.
+     */
+    public List<String> complete(@NonNull String prefix, int size) {
+        var normalizedPrefix = prefix.toLowerCase(Locale.ROOT);
+        var tokenStart = normalizedPrefix.length();
+
+        while (tokenStart > 0 && Character.isLetterOrDigit(normalizedPrefix.charAt(tokenStart - 1))) {
+            tokenStart--;
+        }
+        if (tokenStart == normalizedPrefix.length()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.complete(normalizedPrefix.substring(tokenStart), Math.min(size, maxSuggestions));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void update(@NonNull Item item) {
+        update(item.getId(), getIndexedText(item));
+    }
+
+    /**
+     * Replaces the tokens of the item with those of the text, as returned by getIndexedText.
+     */
+    public void update(long itemId, @NonNull String indexedText) {
+        setTokensAfterCommit(Map.of(itemId, Set.copyOf(tokenize(indexedText))));
+    }
+
+    /**
+     * Drops the tokens of the items, as for deleted items.
+     */
+    public void remove(@NonNull Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            setTokensAfterCommit(itemIds.stream().distinct()
+                    .collect(Collectors.toMap(Function.identity(), itemId -> Set.<String>of())));
+        }
+    }
+
+    /**
+     * Builds a new index from the available items, replays the updates committed meanwhile and swaps it in.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item.suggest.rebuild-interval:3600000}")
+    public synchronized void rebuild() {
+        var newTrie = new TokenTrie(maxSuggestions);
+        var newTokensByItemId = new HashMap<Long, Set<String>>();
+        List<ItemText> batch;
+        long lastId = 0;
+
+        lock.writeLock().lock();
+        try {
+            updatesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            do {
+                batch = itemDao.findAvailableTextsAfter(lastId, PageRequest.ofSize(batchSize));
+                for (ItemText item : batch) {
+                    setItemTokens(newTrie, newTokensByItemId, item.getId(),
+                            Set.copyOf(tokenize(item.getName() + " " + item.getDescription())), false);
+                    lastId = item.getId();
+                }
+            } while (batch.size() == batchSize);
+            newTrie.rankAll();
+
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild.forEach((itemId, tokens) ->
+                        setItemTokens(newTrie, newTokensByItemId, itemId, tokens, true));
+                trie = newTrie;
+                tokensByItemId = newTokensByItemId;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Индекс подсказок перестроен: {} вещей, {} токенов", newTokensByItemId.size(),
+                    newTrie.getTokensCount());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    int getTokensCount() {
+        lock.readLock().lock();
+        try {
+            return trie.getTokensCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Text the tokens of the item are taken from: its name and description while it is available, none otherwise.
+     */
+    public static String getIndexedText(@NonNull Item item) {
+        return Boolean.TRUE.equals(item.getAvailable()) ? item.getName() + " " + item.getDescription() : "";
+    }
+
+    static List<String> tokenize(String text) {
+        return Arrays.stream(TOKEN_DELIMITER.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> token.length() >= MIN_TOKEN_LENGTH)
+                .collect(Collectors.toList());
+    }
+
+    private void setTokensAfterCommit(Map<Long, Set<String>> tokensByItem) {
+        TransactionCallbacks.runAfterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                tokensByItem.forEach((itemId, tokens) -> setItemTokens(trie, tokensByItemId, itemId, tokens, true));
+                if (updatesDuringRebuild != null) {
+                    updatesDuringRebuild.putAll(tokensByItem);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void setItemTokens(TokenTrie trie, Map<Long, Set<String>> tokensByItemId, long itemId,
+                                      Set<String> tokens, boolean ranked) {
+        var oldTokens = tokens.isEmpty() ? tokensByItemId.remove(itemId) : tokensByItemId.put(itemId, tokens);
+
+        if (oldTokens != null) {
+            oldTokens.stream()
+                    .filter(token -> !tokens.contains(token))
+                    .forEach(token -> addToken(trie, token, -1, ranked));
+        }
+        tokens.stream()
+                .filter(token -> oldTokens == null || !oldTokens.contains(token))
+                .forEach(token -> addToken(trie, token, 1, ranked));
+    }
+
+    private static void addToken(TokenTrie trie, String token, int delta, boolean ranked) {
+        if (ranked) {
+            trie.add(token, delta);
+        } else {
+            trie.addUnranked(token, delta);
+        }
+    }
+}
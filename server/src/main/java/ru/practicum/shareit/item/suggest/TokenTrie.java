@@ -0,0 +1,273 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compressed trie of weighted tokens: chains of nodes with a single child and no weight are folded into one edge.
+ * Every branching node caches the topSize heaviest tokens below it, so a completion is a walk down the prefix and a
+ * copy of that list. Weight changes rebuild the cached lists along the path of the token only. Not thread-safe.
+ * <p>
+ * n tokens take at most 2n nodes. An edge label is a slice of a token which passes through the edge, children are
+ * kept in sorted parallel arrays and a leaf has no cached list, so with compressed oops a token costs at most about
+ * 140 + 4 * topSize bytes besides its string, whatever its length.
+ */
+class TokenTrie {
+    private static final Comparator<Node> BY_WEIGHT = Comparator.<Node>comparingInt(node -> node.weight).reversed()
+            .thenComparing(node -> node.source);
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final int topSize;
+    private final Node root = new Node("", 0, 0);
+    private int tokensCount;
+
+    TokenTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    void add(@NonNull String token, int delta) {
+        var path = addWeight(token, delta);
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            compactChildren(path.get(i));
+            rank(path.get(i));
+        }
+    }
+
+    /**
+     * Changes the weight without updating the cached lists; call rankAll once after a batch of such changes.
+     */
+    void addUnranked(@NonNull String token, int delta) {
+        addWeight(token, delta);
+    }
+
+    void rankAll() {
+        var stack = new ArrayDeque<Node>();
+        var postOrder = new ArrayList<Node>();
+
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            var node = stack.pop();
+
+            postOrder.add(node);
+            Arrays.stream(node.children).forEach(stack::push);
+        }
+        for (int i = postOrder.size() - 1; i >= 0; i--) {
+            compactChildren(postOrder.get(i));
+            rank(postOrder.get(i));
+        }
+    }
+
+    List<String> complete(@NonNull String prefix, int limit) {
+        var node = root;
+        var depth = 0;
+
+        while (depth < prefix.length()) {
+            var index = node.indexOf(prefix.charAt(depth));
+
+            if (index < 0) {
+                return List.of();
+            }
+            node = node.children[index];
+
+            var matched = node.matchLabel(prefix, depth);
+
+            if (matched < node.getLabelLength() && depth + matched < prefix.length()) {
+                return List.of();
+            }
+            depth += matched;
+        }
+        return getTop(node).stream().limit(limit).map(top -> top.source).collect(Collectors.toList());
+    }
+
+    int getTokensCount() {
+        return tokensCount;
+    }
+
+    /**
+     * Returns the path to the node of the token, creating the node if needed; a token which is not in the trie is
+     * not added for a negative delta, and the path is empty then.
+     */
+    private List<Node> addWeight(String token, int delta) {
+        var path = new ArrayList<Node>();
+        var node = root;
+        var depth = 0;
+
+        path.add(node);
+        while (depth < token.length()) {
+            var index = node.indexOf(token.charAt(depth));
+
+            if (index < 0) {
+                if (delta <= 0) {
+                    return List.of();
+                }
+
+                var leaf = new Node(token, depth, token.length());
+
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+            } else {
+                var child = node.children[index];
+                var matched = child.matchLabel(token, depth);
+
+                if (matched < child.getLabelLength()) {
+                    if (delta <= 0) {
+                        return List.of();
+                    }
+                    child = node.splitChild(index, matched);
+                }
+                node = child;
+            }
+            depth = node.end;
+            path.add(node);
+        }
+
+        var oldWeight = node.weight;
+
+        node.source = token;
+        node.weight = Math.max(0, node.weight + delta);
+        if (oldWeight == 0 && node.weight > 0) {
+            tokensCount++;
+        } else if (oldWeight > 0 && node.weight == 0) {
+            tokensCount--;
+        }
+        return path;
+    }
+
+    /**
+     * Drops the children left without tokens and folds those left with a single child into it.
+     */
+    private static void compactChildren(Node node) {
+        for (int i = node.children.length - 1; i >= 0; i--) {
+            var child = node.children[i];
+
+            if (child.weight > 0) {
+                continue;
+            }
+            if (child.children.length == 0) {
+                node.removeChild(i);
+            } else if (child.children.length == 1) {
+                var grandchild = child.children[0];
+
+                grandchild.start = child.start;
+                node.children[i] = grandchild;
+            }
+        }
+    }
+
+    private void rank(Node node) {
+        if (node.children.length == 0) {
+            node.top = null;
+            return;
+        }
+
+        var candidates = new ArrayList<Node>();
+
+        if (node.weight > 0) {
+            candidates.add(node);
+        }
+        for (Node child : node.children) {
+            candidates.addAll(getTop(child));
+        }
+        candidates.sort(BY_WEIGHT);
+        node.top = candidates.subList(0, Math.min(topSize, candidates.size())).toArray(NO_NODES);
+    }
+
+    private static List<Node> getTop(Node node) {
+        if (node.top != null) {
+            return Arrays.asList(node.top);
+        }
+        return node.children.length == 0 && node.weight > 0 ? List.of(node) : List.of();
+    }
+
+    /**
+     * The label of the edge into the node is source[start, end); source is the token of the node when it has weight,
+     * otherwise any token below it. keys[i] is the first character of the label of children[i].
+     */
+    private static class Node {
+        private String source;
+        private int start;
+        private final int end;
+        private int weight;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        private Node[] top;
+
+        Node(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        int getLabelLength() {
+            return end - start;
+        }
+
+        int matchLabel(String text, int from) {
+            var length = Math.min(getLabelLength(), text.length() - from);
+            var matched = 0;
+
+            while (matched < length && source.charAt(start + matched) == text.charAt(from + matched)) {
+                matched++;
+            }
+            return matched;
+        }
+
+        int indexOf(char key) {
+            return Arrays.binarySearch(keys, key);
+        }
+
+        void insertChild(int index, Node child) {
+            var newKeys = new char[keys.length + 1];
+            var newChildren = new Node[children.length + 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = child.source.charAt(child.start);
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void removeChild(int index) {
+            if (children.length == 1) {
+                keys = NO_KEYS;
+                children = NO_NODES;
+                return;
+            }
+
+            var newKeys = new char[keys.length - 1];
+            var newChildren = new Node[children.length - 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Puts a node without weight on the first labelLength characters of the edge to the child and returns it.
+         */
+        Node splitChild(int index, int labelLength) {
+            var child = children[index];
+            var middle = new Node(child.source, child.start, child.start + labelLength);
+
+            child.start += labelLength;
+            middle.keys = new char[]{child.source.charAt(child.start)};
+            middle.children = new Node[]{child};
+            children[index] = middle;
+            return middle;
+        }
+    }
+}
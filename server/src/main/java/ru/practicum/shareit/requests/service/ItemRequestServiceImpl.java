@@ -57,7 +57,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private User getUserById(long userId) {
         return userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId))
+                () -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId), userId)
         );
     }
 }
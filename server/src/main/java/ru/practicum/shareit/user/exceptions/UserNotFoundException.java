@@ -1,7 +1,18 @@
 package ru.practicum.shareit.user.exceptions;
 
 public class UserNotFoundException extends RuntimeException {
+    private final Long userId;
+
     public UserNotFoundException(String msg) {
+        this(msg, null);
+    }
+
+    public UserNotFoundException(String msg, Long userId) {
         super(msg);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
     }
 }
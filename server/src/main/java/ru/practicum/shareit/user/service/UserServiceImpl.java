@@ -4,6 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationEvent;
+import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.item.service.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -17,11 +25,19 @@ import java.util.Collection;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class UserServiceImpl implements UserService {
     private final UserDao userDao;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemOccupancyIndex occupancyIndex;
+    private final InvalidationBus invalidationBus;
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final ItemDao itemDao;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemSearchCache searchCache;
 
     @Override
     public UserDto getUserById(long userId) {
         return UserMapper.mapUserToUserDto(userDao.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId))));
+                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id = %d не найден", userId),
+                        userId)));
     }
 
     @Override
@@ -36,7 +52,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto updateUser(UserDto userDto) {
         User updatedUser = userDao.findById(userDto.getId()).orElseThrow(() -> new UserNotFoundException(
-                String.format("Пользователь с id = %d не найден", userDto.getId())));
+                String.format("Пользователь с id = %d не найден", userDto.getId()), userDto.getId()));
 
         if (userDto.getName() != null) {
             updatedUser.setName(userDto.getName());
@@ -52,8 +68,17 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(long userId) {
         var user = userDao.findById(userId).orElseThrow(() -> new UserNotFoundException(
-                        String.format("Пользователь с id = %d не найден", userId)));
+                        String.format("Пользователь с id = %d не найден", userId), userId));
+        var itemIds = itemDao.findIdsByOwnerId(userId);
+
+        summaryUpdater.expireBookedBy(userId);
+        itemDao.decrementCommentsCountsByAuthor(userId);
         userDao.delete(user);
+        suggestIndex.remove(itemIds);
+        searchCache.evictAll();
+        availabilityIndex.invalidateAll();
+        occupancyIndex.invalidateAll();
+        invalidationBus.publish(InvalidationEvent.userDeleted(userId, itemIds));
     }
 
     @Override
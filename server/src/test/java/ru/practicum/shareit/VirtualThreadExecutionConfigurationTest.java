@@ -0,0 +1,45 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadExecutionConfigurationTest {
+    private final boolean virtualThreadsSupported = Runtime.version().feature() >= 21;
+
+    @Test
+    void createVirtualThreadExecutorReturnExecutorOnlyWhenJvmSupportsVirtualThreads() {
+        var executor = VirtualThreadExecutionConfiguration.createVirtualThreadExecutor();
+
+        assertEquals(virtualThreadsSupported, executor.isPresent());
+        executor.ifPresent(ExecutorService::shutdown);
+    }
+
+    @Test
+    void virtualThreadExecutorCustomizerKeepPlatformExecutorWhenVirtualThreadsAreNotSupported() {
+        var protocolHandler = Mockito.mock(ProtocolHandler.class);
+
+        new VirtualThreadExecutionConfiguration().virtualThreadExecutorCustomizer().customize(protocolHandler);
+
+        Mockito.verify(protocolHandler, Mockito.times(virtualThreadsSupported ? 1 : 0))
+                .setExecutor(Mockito.any(Executor.class));
+    }
+
+    @Test
+    void virtualExecutionHikariCustomizerResizeHikariDataSourcesOnly() {
+        var customizer = VirtualThreadExecutionConfiguration.virtualExecutionHikariCustomizer(20, 3000);
+        var dataSource = new HikariDataSource();
+        var otherBean = new Object();
+
+        assertSame(dataSource, customizer.postProcessAfterInitialization(dataSource, "dataSource"));
+        assertSame(otherBean, customizer.postProcessAfterInitialization(otherBean, "otherBean"));
+        assertEquals(20, dataSource.getMaximumPoolSize());
+        assertEquals(3000, dataSource.getConnectionTimeout());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Latency distribution of GET /items/{itemId} served by a running server in each shareit.execution-mode, with
+ * more concurrent clients than Tomcat's 200 platform threads. The server runs on the test configuration (H2), and
+ * JMH reports the p99 and p999 of the samples. The virtual mode needs a JDK 21+ runtime. Run with
+ * {@code mvn -pl server test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main ExecutionModeBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class ExecutionModeBenchmark {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest getItem;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        if ("virtual".equals(mode) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Режим virtual требует JDK 21+, запущена JVM " + Runtime.version());
+        }
+
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .properties("server.port=0", "shareit.execution-mode=" + mode, "logging.level.root=warn")
+                .run();
+        client = HttpClient.newHttpClient();
+
+        var baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        var ownerId = post(URI.create(baseUri + "/users"), null,
+                "{\"name\":\"owner\",\"email\":\"owner@email.ru\"}");
+        var itemId = post(URI.create(baseUri + "/items"), ownerId,
+                "{\"name\":\"drill\",\"description\":\"cordless drill\",\"available\":true}");
+
+        getItem = HttpRequest.newBuilder(URI.create(baseUri + "/items/" + itemId))
+                .header("X-Sharer-User-Id", ownerId)
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getItem() throws IOException, InterruptedException {
+        var response = client.send(getItem, HttpResponse.BodyHandlers.ofByteArray());
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Ответ " + response.statusCode() + " на " + getItem.uri());
+        }
+        return response.body().length;
+    }
+
+    private String post(URI uri, String userId, String body) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", userId);
+        }
+
+        var response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        var id = ID.matcher(response.body());
+
+        if (response.statusCode() != 200 || !id.find()) {
+            throw new IllegalStateException("Ответ " + response.statusCode() + " на " + uri + ": " + response.body());
+        }
+        return id.group(1);
+    }
+}
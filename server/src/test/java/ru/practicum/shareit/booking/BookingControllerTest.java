@@ -8,15 +8,20 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.booking.exceptions.BookingTimeConflictsException;
 import ru.practicum.shareit.booking.exceptions.IllegalBookingApproveException;
 import ru.practicum.shareit.booking.exceptions.ItemBookedByItsOwnerException;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.fieldset.FieldsetConfiguration;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.user.User;
@@ -27,9 +32,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
 import java.util.List;
 
 @WebMvcTest(BookingController.class)
+@Import(FieldsetConfiguration.class)
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 class BookingControllerTest {
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
@@ -280,7 +287,7 @@ class BookingControllerTest {
         var creatingTime = LocalDateTime.now().plusHours(1);
         var outgoingBookingDto = createOutgoingBookingDto(bookingAuthor, item, creatingTime);
 
-        Mockito.when(bookingService.getAllBookingsByUserAndState(1, BookingState.WAITING, 0, 2))
+        Mockito.when(bookingService.getAllBookingsByUserAndState(1, BookingState.WAITING, 0, 2, Fieldset.ALL))
                 .thenReturn(List.of(outgoingBookingDto));
 
         mvc.perform(get("/bookings?state=WAITING&from=0&size=2")
@@ -318,7 +325,7 @@ class BookingControllerTest {
         var creatingTime = LocalDateTime.now().plusHours(1);
         var outgoingBookingDto = createOutgoingBookingDto(bookingAuthor, item, creatingTime);
 
-        Mockito.when(bookingService.getAllBookingsByOwnerAndState(1, BookingState.WAITING, 0, 2))
+        Mockito.when(bookingService.getAllBookingsByOwnerAndState(1, BookingState.WAITING, 0, 2, Fieldset.ALL))
                 .thenReturn(List.of(outgoingBookingDto));
 
         mvc.perform(get("/bookings/owner?state=WAITING&from=0&size=2")
@@ -348,6 +355,90 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status").value(outgoingBookingDto.getStatus().toString()));
     }
 
+    @Test
+    void getBookingsByUserAndStateReturnOnlyRequestedFields() throws Exception {
+        var itemOwner = createUser();
+        var item = createItem(itemOwner);
+        var bookingAuthor = createUser();
+        var outgoingBookingDto = createOutgoingBookingDto(bookingAuthor, item, LocalDateTime.now().plusHours(1));
+        var fieldset = BookingFieldset.parse("id,start,item,booker", "booker");
+
+        Mockito.when(bookingService.getAllBookingsByUserAndState(1, BookingState.ALL, 0, 2, fieldset))
+                .thenReturn(List.of(outgoingBookingDto));
+
+        mvc.perform(get("/bookings?state=ALL&from=0&size=2&fields=id,start,item,booker&embed=booker")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(outgoingBookingDto.getId()))
+                .andExpect(jsonPath("$[0].start").value(outgoingBookingDto.getStart().format(DATE_TIME_FORMATTER)))
+                .andExpect(jsonPath("$[0].end").doesNotExist())
+                .andExpect(jsonPath("$[0].status").doesNotExist())
+                .andExpect(jsonPath("$[0].item.id").value(outgoingBookingDto.getItem().getId()))
+                .andExpect(jsonPath("$[0].item.name").doesNotExist())
+                .andExpect(jsonPath("$[0].booker.id").value(outgoingBookingDto.getBooker().getId()))
+                .andExpect(jsonPath("$[0].booker.name").value(outgoingBookingDto.getBooker().getName()));
+    }
+
+    @Test
+    void getBookingsByOwnerAndStateReturnStatus400WhenFieldIsUnknown() throws Exception {
+        mvc.perform(get("/bookings/owner?state=ALL&from=0&size=2&fields=id,owner")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Недопустимое значение параметра fields: owner"));
+    }
+
+    @Test
+    void getOwnerBookingsSummaryReturnStatus200AndSummary() throws Exception {
+        var outgoingBookingDto = createOutgoingBookingDto(createUser(), createItem(createUser()),
+                LocalDateTime.now().plusHours(1));
+        var summary = new EnumMap<BookingState, BookingStateSummaryDto>(BookingState.class);
+        var waitingSummary = new BookingStateSummaryDto();
+
+        waitingSummary.setCount(3);
+        waitingSummary.setBookings(List.of(outgoingBookingDto));
+        summary.put(BookingState.WAITING, waitingSummary);
+
+        Mockito.when(bookingService.getOwnerBookingsSummary(1, 2))
+                .thenReturn(summary);
+
+        mvc.perform(get("/bookings/owner/summary?size=2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.WAITING.count").value(3))
+                .andExpect(jsonPath("$.WAITING.bookings[0].id").value(outgoingBookingDto.getId()))
+                .andExpect(jsonPath("$.WAITING.bookings[0].item.name").value(outgoingBookingDto.getItem().getName()))
+                .andExpect(jsonPath("$.WAITING.bookings[0].item.comments").doesNotExist())
+                .andExpect(jsonPath("$.WAITING.bookings[0].booker.id").value(outgoingBookingDto.getBooker().getId()));
+    }
+
+    @Test
+    void subscribeToBookingEventsStartStreamWithLastEventId() throws Exception {
+        Mockito.when(bookingService.subscribeToBookingEvents(1, 5L))
+                .thenReturn(new SseEmitter());
+
+        mvc.perform(get("/bookings/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("X-Sharer-User-Id", 1)
+                        .header("Last-Event-ID", 5))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void subscribeToBookingEventsReturnStatus404WhenUserIsNotFound() throws Exception {
+        Mockito.when(bookingService.subscribeToBookingEvents(1, null))
+                .thenThrow(new UserNotFoundException("Пользователь с id = 1 не найден"));
+
+        mvc.perform(get("/bookings/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Пользователь с id = 1 не найден"));
+    }
+
     private long getNextId() {
         return nextId++;
     }
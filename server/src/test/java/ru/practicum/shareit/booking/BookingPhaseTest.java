@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingPhaseTest {
+    @Test
+    void ofReturnPhaseOfIntervalAtReferenceTime() {
+        var refTime = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+        assertEquals(BookingPhase.FUTURE, BookingPhase.of(refTime.plusSeconds(1), refTime.plusDays(1), refTime));
+        assertEquals(BookingPhase.CURRENT, BookingPhase.of(refTime, refTime.plusDays(1), refTime));
+        assertEquals(BookingPhase.CURRENT, BookingPhase.of(refTime.minusDays(1), refTime, refTime));
+        assertEquals(BookingPhase.PAST, BookingPhase.of(refTime.minusDays(1), refTime.minusSeconds(1), refTime));
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+    private long nextId = 1;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void hasConflictsReturnFalseAndDoNotQueryRepositoryWhenIndexIsDisabled() {
+        var index = new BookingAvailabilityIndex(bookingRepository, false, 10);
+        var item = createItem();
+        var start = LocalDateTime.now().plusDays(1);
+
+        assertFalse(index.hasConflicts(item, start, start.plusDays(1)));
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void hasConflictsLoadScheduleOnceAndDetectConflict() {
+        var index = new BookingAvailabilityIndex(bookingRepository, true, 10);
+        var item = createItem();
+        var start = LocalDateTime.now().plusDays(1);
+        var booking = createBooking(item, start);
+
+        Mockito.when(bookingRepository.findAllByItemAndEndTimeGreaterThanEqual(Mockito.eq(item),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
+
+        assertTrue(index.hasConflicts(item, start.plusHours(1), start.plusDays(3)));
+        assertFalse(index.hasConflicts(item, start.plusDays(2), start.plusDays(3)));
+        Mockito.verify(bookingRepository, Mockito.times(1)).findAllByItemAndEndTimeGreaterThanEqual(
+                Mockito.eq(item), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void registerBookingAddBookingToLoadedSchedule() {
+        var index = new BookingAvailabilityIndex(bookingRepository, true, 10);
+        var item = createItem();
+        var start = LocalDateTime.now().plusDays(1);
+
+        Mockito.when(bookingRepository.findAllByItemAndEndTimeGreaterThanEqual(Mockito.eq(item),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        assertFalse(index.hasConflicts(item, start, start.plusDays(1)));
+        index.registerBooking(createBooking(item, start));
+        assertTrue(index.hasConflicts(item, start, start.plusDays(1)));
+    }
+
+    @Test
+    void registerBookingIgnoreItemWithoutLoadedSchedule() {
+        var index = new BookingAvailabilityIndex(bookingRepository, true, 10);
+        var item = createItem();
+
+        index.registerBooking(createBooking(item, LocalDateTime.now().plusDays(1)));
+
+        assertEquals(0, index.getIndexedItemsCount());
+    }
+
+    @Test
+    void hasConflictsReturnFalseWithoutLoadingWhenIndexIsFull() {
+        var index = new BookingAvailabilityIndex(bookingRepository, true, 1);
+        var itemOne = createItem();
+        var itemTwo = createItem();
+        var start = LocalDateTime.now().plusDays(1);
+
+        Mockito.when(bookingRepository.findAllByItemAndEndTimeGreaterThanEqual(Mockito.eq(itemOne),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        index.hasConflicts(itemOne, start, start.plusDays(1));
+
+        assertFalse(index.hasConflicts(itemTwo, start, start.plusDays(1)));
+        assertEquals(1, index.getIndexedItemsCount());
+    }
+
+    @Test
+    void invalidateAllClearIndex() {
+        var index = new BookingAvailabilityIndex(bookingRepository, true, 10);
+        var item = createItem();
+        var start = LocalDateTime.now().plusDays(1);
+
+        Mockito.when(bookingRepository.findAllByItemAndEndTimeGreaterThanEqual(Mockito.eq(item),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        index.hasConflicts(item, start, start.plusDays(1));
+        index.invalidateAll();
+
+        assertEquals(0, index.getIndexedItemsCount());
+    }
+
+    private Item createItem() {
+        var item = new Item();
+
+        item.setId(nextId++);
+        item.setName("Item " + item.getId());
+        item.setDescription("Item description " + item.getId());
+        item.setAvailable(true);
+        return item;
+    }
+
+    private Booking createBooking(Item item, LocalDateTime start) {
+        var booking = new Booking();
+
+        booking.setId(nextId++);
+        booking.setItem(item);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusDays(1));
+        return booking;
+    }
+}
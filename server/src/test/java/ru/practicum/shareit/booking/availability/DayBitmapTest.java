@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayBitmapTest {
+    private final LocalDate refDay = LocalDate.of(2030, 1, 10);
+
+    @Test
+    void containsReturnFalseWhenBitmapIsEmpty() {
+        assertFalse(DayBitmap.EMPTY.contains(refDay));
+        assertNull(DayBitmap.EMPTY.nextSetDay(refDay));
+        assertEquals(refDay, DayBitmap.EMPTY.nextClearDay(refDay));
+    }
+
+    @Test
+    void ofContainDaysFromStartDayToEndDayInclusive() {
+        var bitmap = DayBitmap.of(List.of(new BookingPeriod(1L, refDay.atTime(23, 0),
+                refDay.plusDays(2).atTime(1, 0))));
+
+        assertFalse(bitmap.contains(refDay.minusDays(1)));
+        assertTrue(bitmap.contains(refDay));
+        assertTrue(bitmap.contains(refDay.plusDays(1)));
+        assertTrue(bitmap.contains(refDay.plusDays(2)));
+        assertFalse(bitmap.contains(refDay.plusDays(3)));
+    }
+
+    @Test
+    void withDaysSpanSeveralWordsAndKeepOnlyNonEmptyWords() {
+        var bitmap = DayBitmap.EMPTY
+                .withDays(refDay, refDay.plusDays(130))
+                .withDays(refDay.plusYears(3), refDay.plusYears(3));
+
+        assertTrue(bitmap.contains(refDay.plusDays(64)));
+        assertTrue(bitmap.contains(refDay.plusDays(130)));
+        assertFalse(bitmap.contains(refDay.plusDays(131)));
+        assertTrue(bitmap.contains(refDay.plusYears(3)));
+        assertTrue(bitmap.getWordsCount() <= 4);
+    }
+
+    @Test
+    void nextSetDayAndNextClearDayFindRunBounds() {
+        var bitmap = DayBitmap.EMPTY
+                .withDays(refDay, refDay.plusDays(99))
+                .withDays(refDay.plusDays(200), refDay.plusDays(201));
+
+        assertEquals(refDay.plusDays(100), bitmap.nextClearDay(refDay));
+        assertEquals(refDay.plusDays(200), bitmap.nextSetDay(refDay.plusDays(100)));
+        assertEquals(refDay.plusDays(201), bitmap.nextSetDay(refDay.plusDays(201)));
+        assertNull(bitmap.nextSetDay(refDay.plusDays(202)));
+    }
+
+    @Test
+    void withoutDaysBeforeDropEarlierDaysOnly() {
+        var bitmap = DayBitmap.EMPTY.withDays(refDay.minusDays(100), refDay.plusDays(1));
+        var trimmed = bitmap.withoutDaysBefore(refDay);
+
+        assertFalse(trimmed.contains(refDay.minusDays(1)));
+        assertTrue(trimmed.contains(refDay));
+        assertTrue(trimmed.contains(refDay.plusDays(1)));
+        assertSame(trimmed, trimmed.withoutDaysBefore(refDay));
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPeriod;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.CalendarSlotDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemOccupancyIndexTest {
+    private final LocalDate today = LocalDate.now();
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void getCalendarsReturnFreeAndBusySlotsOfEachItem() {
+        var index = new ItemOccupancyIndex(bookingRepository, true, 10);
+
+        Mockito.when(bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(List.of(1L, 2L),
+                        today.atStartOfDay()))
+                .thenReturn(List.of(createPeriod(1L, today.plusDays(2), today.plusDays(3))));
+
+        var calendars = index.getCalendars(List.of(1L, 2L), today, today.plusDays(9));
+
+        assertEquals(List.of(1L, 2L), List.copyOf(calendars.keySet()));
+        assertEquals(List.of("0-1 free", "2-3 busy", "4-9 free"), describe(calendars.get(1L)));
+        assertEquals(List.of("0-9 free"), describe(calendars.get(2L)));
+    }
+
+    @Test
+    void toSlotsReportDaysBeforeTodayFreeWhenBitmapWasKeptSinceEarlier() {
+        var bitmap = DayBitmap.of(List.of(createPeriod(1L, today.minusDays(3), today.minusDays(1)),
+                createPeriod(1L, today.plusDays(1), today.plusDays(2))));
+
+        assertEquals(List.of("-4-0 free", "1-2 busy", "3-5 free"),
+                describe(ItemOccupancyIndex.toSlots(bitmap, today.minusDays(4), today.plusDays(5), today)));
+        assertEquals(List.of("-2--1 busy", "0-0 free", "1-1 busy"), describe(ItemOccupancyIndex.toSlots(bitmap,
+                today.minusDays(2), today.plusDays(1), today.minusDays(2))));
+    }
+
+    @Test
+    void getCalendarsLoadBitmapsOnceWhenIndexIsEnabled() {
+        var index = new ItemOccupancyIndex(bookingRepository, true, 10);
+
+        Mockito.when(bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(Mockito.eq(List.of(1L)),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        index.getCalendars(List.of(1L), today, today.plusDays(1));
+        index.getCalendars(List.of(1L), today, today.plusDays(1));
+
+        Mockito.verify(bookingRepository, Mockito.times(1)).findAllPeriodsByItemIdsAndEndTimeNotBefore(
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+        assertEquals(1, index.getIndexedItemsCount());
+    }
+
+    @Test
+    void getCalendarsLoadBitmapsEachTimeWhenIndexIsDisabled() {
+        var index = new ItemOccupancyIndex(bookingRepository, false, 10);
+
+        Mockito.when(bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(Mockito.eq(List.of(1L)),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        index.getCalendars(List.of(1L), today, today.plusDays(1));
+        index.getCalendars(List.of(1L), today, today.plusDays(1));
+
+        Mockito.verify(bookingRepository, Mockito.times(2)).findAllPeriodsByItemIdsAndEndTimeNotBefore(
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+        assertEquals(0, index.getIndexedItemsCount());
+    }
+
+    @Test
+    void registerBookingAddDaysToLoadedBitmap() {
+        var index = new ItemOccupancyIndex(bookingRepository, true, 10);
+
+        Mockito.when(bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(Mockito.eq(List.of(1L)),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        index.getCalendars(List.of(1L), today, today.plusDays(4));
+        index.registerBooking(createBooking(1L, today.plusDays(1), today.plusDays(2)));
+
+        assertEquals(List.of("0-0 free", "1-2 busy", "3-4 free"),
+                describe(index.getCalendars(List.of(1L), today, today.plusDays(4)).get(1L)));
+    }
+
+    @Test
+    void getCalendarsDoNotKeepMoreThanMaxItems() {
+        var index = new ItemOccupancyIndex(bookingRepository, true, 1);
+
+        Mockito.when(bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(Mockito.eq(List.of(1L, 2L)),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        index.getCalendars(List.of(1L, 2L), today, today.plusDays(1));
+
+        assertEquals(1, index.getIndexedItemsCount());
+    }
+
+    @Test
+    void invalidateAllClearIndex() {
+        var index = new ItemOccupancyIndex(bookingRepository, true, 10);
+
+        Mockito.when(bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(Mockito.eq(List.of(1L)),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        index.getCalendars(List.of(1L), today, today.plusDays(1));
+        index.invalidateAll();
+
+        assertEquals(0, index.getIndexedItemsCount());
+    }
+
+    private List<String> describe(List<CalendarSlotDto> slots) {
+        return slots.stream()
+                .map(slot -> String.format("%d-%d %s", slot.getStart().toEpochDay() - today.toEpochDay(),
+                        slot.getEnd().toEpochDay() - today.toEpochDay(), slot.isFree() ? "free" : "busy"))
+                .collect(Collectors.toList());
+    }
+
+    private BookingPeriod createPeriod(long itemId, LocalDate first, LocalDate last) {
+        return new BookingPeriod(itemId, first.atTime(10, 0), last.atTime(18, 0));
+    }
+
+    private Booking createBooking(long itemId, LocalDate first, LocalDate last) {
+        var item = new Item();
+        var booking = new Booking();
+
+        item.setId(itemId);
+        booking.setItem(item);
+        booking.setStartTime(first.atTime(10, 0));
+        booking.setEndTime(last.atTime(18, 0));
+        return booking;
+    }
+}
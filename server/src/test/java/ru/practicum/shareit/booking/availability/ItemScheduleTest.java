@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemScheduleTest {
+    private final LocalDateTime refTime = LocalDateTime.of(2030, 1, 10, 12, 0, 0);
+
+    @Test
+    void hasConflictsReturnFalseWhenScheduleIsEmpty() {
+        var schedule = ItemSchedule.of(List.of());
+
+        assertFalse(schedule.hasConflicts(refTime, refTime.plusDays(1)));
+    }
+
+    @Test
+    void hasConflictsReturnTrueWhenStartIsInsideBooking() {
+        var schedule = ItemSchedule.of(List.of(new BookingInterval(1, refTime, refTime.plusDays(2))));
+
+        assertTrue(schedule.hasConflicts(refTime.plusDays(1), refTime.plusDays(5)));
+    }
+
+    @Test
+    void hasConflictsReturnTrueWhenEndIsInsideBooking() {
+        var schedule = ItemSchedule.of(List.of(new BookingInterval(1, refTime, refTime.plusDays(2))));
+
+        assertTrue(schedule.hasConflicts(refTime.minusDays(1), refTime.plusDays(1)));
+    }
+
+    @Test
+    void hasConflictsReturnTrueWhenBoundsAreEqual() {
+        var schedule = ItemSchedule.of(List.of(new BookingInterval(1, refTime, refTime.plusDays(2))));
+
+        assertTrue(schedule.hasConflicts(refTime.minusDays(1), refTime));
+        assertTrue(schedule.hasConflicts(refTime.plusDays(2), refTime.plusDays(3)));
+    }
+
+    @Test
+    void hasConflictsReturnFalseWhenBookingIsBetweenStartAndEnd() {
+        var schedule = ItemSchedule.of(List.of(new BookingInterval(1, refTime, refTime.plusDays(2))));
+
+        assertFalse(schedule.hasConflicts(refTime.minusDays(1), refTime.plusDays(3)));
+    }
+
+    @Test
+    void hasConflictsUseLongBookingCoveringLaterShortOnes() {
+        var schedule = ItemSchedule.of(List.of(
+                new BookingInterval(1, refTime.plusDays(3), refTime.plusDays(4)),
+                new BookingInterval(2, refTime, refTime.plusDays(10)),
+                new BookingInterval(3, refTime.plusDays(5), refTime.plusDays(6))));
+
+        assertTrue(schedule.hasConflicts(refTime.plusDays(8), refTime.plusDays(12)));
+        assertFalse(schedule.hasConflicts(refTime.plusDays(11), refTime.plusDays(12)));
+        assertFalse(schedule.hasConflicts(refTime.minusDays(2), refTime.minusDays(1)));
+    }
+
+    @Test
+    void withReplaceBookingWithSameId() {
+        var schedule = ItemSchedule.of(List.of(new BookingInterval(1, refTime, refTime.plusDays(2))))
+                .with(new BookingInterval(1, refTime.plusDays(5), refTime.plusDays(6)));
+
+        assertEquals(1, schedule.size());
+        assertFalse(schedule.hasConflicts(refTime.plusDays(1), refTime.plusDays(1)));
+        assertTrue(schedule.hasConflicts(refTime.plusDays(5), refTime.plusDays(7)));
+    }
+
+    @Test
+    void withoutFinishedBeforeRemoveFinishedBookings() {
+        var schedule = ItemSchedule.of(List.of(
+                new BookingInterval(1, refTime.minusDays(3), refTime.minusDays(2)),
+                new BookingInterval(2, refTime.plusDays(1), refTime.plusDays(2))));
+
+        var result = schedule.withoutFinishedBefore(refTime);
+
+        assertEquals(1, result.size());
+        assertSame(result, result.withoutFinishedBefore(refTime));
+    }
+}
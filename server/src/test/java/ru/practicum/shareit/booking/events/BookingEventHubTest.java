@@ -0,0 +1,224 @@
+package ru.practicum.shareit.booking.events;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.invalidation.InvalidationTransport;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class BookingEventHubTest {
+    private long nextId = 1;
+    private final List<Runnable> dispatchTasks = new ArrayList<>();
+    private final InMemoryTransport transport = new InMemoryTransport();
+    private final List<BookingEventHub> eventHubs = new ArrayList<>();
+    private final BookingEventRepository eventRepository;
+    private BookingEventHub eventHub;
+
+    @AfterEach
+    void shutdownEventHubs() {
+        eventHubs.forEach(BookingEventHub::shutdown);
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    void publishDeliverEventToBookerAndItemOwnerOnly() {
+        eventHub = createEventHub(10, 100);
+        var booker = createUser();
+        var owner = createUser();
+        var stranger = createUser();
+
+        eventHub.subscribe(booker.getId(), null);
+        eventHub.subscribe(owner.getId(), null);
+        eventHub.subscribe(owner.getId(), null);
+        eventHub.subscribe(stranger.getId(), null);
+        eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+
+        assertEquals(1, eventHub.getPendingEventsCount(booker.getId()));
+        assertEquals(2, eventHub.getPendingEventsCount(owner.getId()));
+        assertEquals(0, eventHub.getPendingEventsCount(stranger.getId()));
+    }
+
+    @Test
+    void subscribeWithLastEventIdReplayMissedEventsOfUser() {
+        eventHub = createEventHub(10, 100);
+        var booker = createUser();
+        var owner = createUser();
+
+        eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+        eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+        eventHub.publish(createBooking(createUser(), createUser()), BookingEventType.CREATED);
+        eventHub.publish(createBooking(booker, owner), BookingEventType.STATUS_CHANGED);
+
+        var firstEventId = eventRepository.findAll(Sort.by("id")).get(0).getId();
+
+        eventHub.subscribe(booker.getId(), firstEventId);
+        eventHub.subscribe(owner.getId(), null);
+
+        assertEquals(2, eventHub.getPendingEventsCount(booker.getId()));
+        assertEquals(0, eventHub.getPendingEventsCount(owner.getId()));
+    }
+
+    @Test
+    void subscribeReplayOnlyLatestEventsOfHistorySize() {
+        eventHub = createEventHub(10, 2);
+        var booker = createUser();
+        var owner = createUser();
+
+        for (int i = 0; i < 5; i++) {
+            eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+        }
+        eventHub.subscribe(booker.getId(), 0L);
+
+        assertEquals(2, eventHub.getPendingEventsCount(booker.getId()));
+    }
+
+    @Test
+    void pruneHistoryKeepLatestEventsOfHistorySize() {
+        eventHub = createEventHub(10, 2);
+        var booker = createUser();
+        var owner = createUser();
+
+        for (int i = 0; i < 5; i++) {
+            eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+        }
+        eventHub.pruneHistory();
+
+        var events = eventRepository.findAll(Sort.by("id"));
+
+        assertEquals(2, events.size());
+        assertEquals(events.get(0).getId() + 1, events.get(1).getId());
+    }
+
+    @Test
+    void publishDeliverEventOnOtherNodesThroughTransport() {
+        eventHub = createEventHub(10, 100);
+        var otherNodeHub = createEventHub(10, 100);
+        var booker = createUser();
+        var owner = createUser();
+
+        eventHub.subscribe(booker.getId(), null);
+        otherNodeHub.subscribe(owner.getId(), null);
+        eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+
+        assertEquals(1, transport.sentMessages.size());
+        assertEquals(1, eventHub.getPendingEventsCount(booker.getId()));
+        assertEquals(1, otherNodeHub.getPendingEventsCount(owner.getId()));
+    }
+
+    @Test
+    void transportResetAndUnreadableMessageCloseStreams() {
+        eventHub = createEventHub(10, 100);
+
+        eventHub.subscribe(createUser().getId(), null);
+        transport.reset();
+
+        assertEquals(0, eventHub.getSubscribersCount());
+
+        eventHub.subscribe(createUser().getId(), null);
+        eventHub.receive("not json");
+
+        assertEquals(0, eventHub.getSubscribersCount());
+    }
+
+    @Test
+    void publishCloseSubscriberWhenItsQueueIsFull() {
+        eventHub = createEventHub(2, 100);
+        var booker = createUser();
+        var owner = createUser();
+
+        eventHub.subscribe(booker.getId(), null);
+        eventHub.subscribe(owner.getId(), null);
+        eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+        eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+
+        assertEquals(2, eventHub.getSubscribersCount());
+
+        eventHub.publish(createBooking(booker, owner), BookingEventType.CREATED);
+
+        assertEquals(0, eventHub.getSubscribersCount());
+        assertFalse(dispatchTasks.isEmpty());
+    }
+
+    private BookingEventHub createEventHub(int queueCapacity, int historySize) {
+        var hub = new BookingEventHub(eventRepository, transport, Duration.ofMinutes(1), queueCapacity, historySize,
+                dispatchTasks::add, Duration.ofHours(1));
+
+        hub.subscribeToTransport();
+        eventHubs.add(hub);
+        return hub;
+    }
+
+    private Booking createBooking(User booker, User owner) {
+        var item = new Item();
+        var booking = new Booking();
+
+        item.setId(nextId++);
+        item.setName("name");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        booking.setId(nextId++);
+        booking.setItem(item);
+        booking.setUser(booker);
+        booking.setStartTime(LocalDateTime.now().plusDays(1));
+        booking.setEndTime(LocalDateTime.now().plusDays(2));
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private User createUser() {
+        var user = new User();
+
+        user.setId(nextId++);
+        user.setName("user");
+        user.setEmail(String.format("user%d@email.ru", user.getId()));
+        return user;
+    }
+
+    private static class InMemoryTransport implements InvalidationTransport {
+        private final List<Consumer<String>> subscribers = new ArrayList<>();
+        private final List<Runnable> resets = new ArrayList<>();
+        private final List<String> sentMessages = new ArrayList<>();
+
+        @Override
+        public void send(String message) {
+            sentMessages.add(message);
+            subscribers.forEach(subscriber -> subscriber.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> onMessage, Runnable onReset) {
+            subscribers.add(onMessage);
+            resets.add(onReset);
+        }
+
+        @Override
+        public void close() {
+            subscribers.clear();
+        }
+
+        void reset() {
+            resets.forEach(Runnable::run);
+        }
+    }
+}
@@ -7,13 +7,19 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.PageableByOffsetAndSize;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.booking.BookingViewSelection;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.repository.ItemDao;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserDao;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,8 +48,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
@@ -67,8 +73,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingThree.getId(), result.get(0).getId());
-        assertEquals(bookingThree.getItem(), result.get(0).getItem());
-        assertEquals(bookingThree.getUser(), result.get(0).getUser());
+        assertEquals(bookingThree.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingThree.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingThree.getStatus(), result.get(0).getStatus());
         assertEquals(bookingThree.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingThree.getEndTime(), result.get(0).getEndTime());
@@ -92,14 +98,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
         assertEquals(bookingThree.getId(), result.get(1).getId());
-        assertEquals(bookingThree.getItem(), result.get(1).getItem());
-        assertEquals(bookingThree.getUser(), result.get(1).getUser());
+        assertEquals(bookingThree.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingThree.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingThree.getStatus(), result.get(1).getStatus());
         assertEquals(bookingThree.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingThree.getEndTime(), result.get(1).getEndTime());
@@ -124,8 +130,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
@@ -152,8 +158,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -181,14 +187,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(1).getId());
-        assertEquals(bookingOne.getItem(), result.get(1).getItem());
-        assertEquals(bookingOne.getUser(), result.get(1).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(1).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(1).getEndTime());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -216,14 +222,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
         assertEquals(bookingTwo.getId(), result.get(1).getId());
-        assertEquals(bookingTwo.getItem(), result.get(1).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(1).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(1).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(1).getEndTime());
@@ -248,8 +254,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
@@ -276,8 +282,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -304,14 +310,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(1).getId());
-        assertEquals(bookingOne.getItem(), result.get(1).getItem());
-        assertEquals(bookingOne.getUser(), result.get(1).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(1).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(1).getEndTime());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -336,8 +342,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
@@ -363,8 +369,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -400,15 +406,15 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(BookingStatus.APPROVED, result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
         assertEquals(bookingThree.getId(), result.get(1).getId());
-        assertEquals(bookingThree.getItem(), result.get(1).getItem());
-        assertEquals(bookingThree.getUser(), result.get(1).getUser());
+        assertEquals(bookingThree.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingThree.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingThree.getStatus(), result.get(1).getStatus());
         assertEquals(BookingStatus.APPROVED, result.get(1).getStatus());
         assertEquals(bookingThree.getStartTime(), result.get(1).getStartTime());
@@ -445,8 +451,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(BookingStatus.REJECTED, result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
@@ -484,8 +490,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
-        assertEquals(booking.getItem(), result.get(0).getItem());
-        assertEquals(booking.getUser(), result.get(0).getUser());
+        assertEquals(booking.getItem().getId(), result.get(0).getItemId());
+        assertEquals(booking.getUser().getId(), result.get(0).getBookerId());
         assertEquals(booking.getStatus(), result.get(0).getStatus());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
         assertEquals(booking.getStartTime(), result.get(0).getStartTime());
@@ -515,20 +521,20 @@ class BookingRepositoryTest {
 
         assertEquals(3, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
         assertEquals(bookingThree.getId(), result.get(1).getId());
-        assertEquals(bookingThree.getItem(), result.get(1).getItem());
-        assertEquals(bookingThree.getUser(), result.get(1).getUser());
+        assertEquals(bookingThree.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingThree.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingThree.getStatus(), result.get(1).getStatus());
         assertEquals(bookingThree.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingThree.getEndTime(), result.get(1).getEndTime());
         assertEquals(bookingOne.getId(), result.get(2).getId());
-        assertEquals(bookingOne.getItem(), result.get(2).getItem());
-        assertEquals(bookingOne.getUser(), result.get(2).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(2).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(2).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(2).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(2).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(2).getEndTime());
@@ -556,8 +562,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -585,14 +591,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingThree.getId(), result.get(0).getId());
-        assertEquals(bookingThree.getItem(), result.get(0).getItem());
-        assertEquals(bookingThree.getUser(), result.get(0).getUser());
+        assertEquals(bookingThree.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingThree.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingThree.getStatus(), result.get(0).getStatus());
         assertEquals(bookingThree.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingThree.getEndTime(), result.get(0).getEndTime());
         assertEquals(bookingOne.getId(), result.get(1).getId());
-        assertEquals(bookingOne.getItem(), result.get(1).getItem());
-        assertEquals(bookingOne.getUser(), result.get(1).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(1).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(1).getEndTime());
@@ -619,14 +625,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(1).getId());
-        assertEquals(bookingOne.getItem(), result.get(1).getItem());
-        assertEquals(bookingOne.getUser(), result.get(1).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(1).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(1).getEndTime());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -654,8 +660,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -681,8 +687,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
@@ -709,14 +715,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(1).getId());
-        assertEquals(bookingOne.getItem(), result.get(1).getItem());
-        assertEquals(bookingOne.getUser(), result.get(1).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(1).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(1).getEndTime());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -744,8 +750,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -771,8 +777,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
@@ -799,14 +805,14 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(1).getId());
-        assertEquals(bookingOne.getItem(), result.get(1).getItem());
-        assertEquals(bookingOne.getUser(), result.get(1).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(1).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(1).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(1).getEndTime());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingTwo.getEndTime(), result.get(0).getEndTime());
@@ -832,8 +838,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
@@ -870,15 +876,15 @@ class BookingRepositoryTest {
 
         assertEquals(2, result.size());
         assertEquals(bookingOne.getId(), result.get(0).getId());
-        assertEquals(bookingOne.getItem(), result.get(0).getItem());
-        assertEquals(bookingOne.getUser(), result.get(0).getUser());
+        assertEquals(bookingOne.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingOne.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingOne.getStatus(), result.get(0).getStatus());
         assertEquals(BookingStatus.APPROVED, result.get(0).getStatus());
         assertEquals(bookingOne.getStartTime(), result.get(0).getStartTime());
         assertEquals(bookingOne.getEndTime(), result.get(0).getEndTime());
         assertEquals(bookingThree.getId(), result.get(1).getId());
-        assertEquals(bookingThree.getItem(), result.get(1).getItem());
-        assertEquals(bookingThree.getUser(), result.get(1).getUser());
+        assertEquals(bookingThree.getItem().getId(), result.get(1).getItemId());
+        assertEquals(bookingThree.getUser().getId(), result.get(1).getBookerId());
         assertEquals(bookingThree.getStatus(), result.get(1).getStatus());
         assertEquals(BookingStatus.APPROVED, result.get(1).getStatus());
         assertEquals(bookingThree.getStartTime(), result.get(1).getStartTime());
@@ -916,8 +922,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingThree.getId(), result.get(0).getId());
-        assertEquals(bookingThree.getItem(), result.get(0).getItem());
-        assertEquals(bookingThree.getUser(), result.get(0).getUser());
+        assertEquals(bookingThree.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingThree.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingThree.getStatus(), result.get(0).getStatus());
         assertEquals(BookingStatus.APPROVED, result.get(0).getStatus());
         assertEquals(bookingThree.getStartTime(), result.get(0).getStartTime());
@@ -955,8 +961,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(bookingTwo.getId(), result.get(0).getId());
-        assertEquals(bookingTwo.getItem(), result.get(0).getItem());
-        assertEquals(bookingTwo.getUser(), result.get(0).getUser());
+        assertEquals(bookingTwo.getItem().getId(), result.get(0).getItemId());
+        assertEquals(bookingTwo.getUser().getId(), result.get(0).getBookerId());
         assertEquals(bookingTwo.getStatus(), result.get(0).getStatus());
         assertEquals(BookingStatus.REJECTED, result.get(0).getStatus());
         assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
@@ -995,8 +1001,8 @@ class BookingRepositoryTest {
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
-        assertEquals(booking.getItem(), result.get(0).getItem());
-        assertEquals(booking.getUser(), result.get(0).getUser());
+        assertEquals(booking.getItem().getId(), result.get(0).getItemId());
+        assertEquals(booking.getUser().getId(), result.get(0).getBookerId());
         assertEquals(booking.getStatus(), result.get(0).getStatus());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
         assertEquals(booking.getStartTime(), result.get(0).getStartTime());
@@ -1278,6 +1284,304 @@ class BookingRepositoryTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void findAllViewsSelectOnlyIdsWhenRelationsAreNotEmbedded() {
+        var bookingAuthor = userRepository.save(createUser());
+        var itemOwner = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(itemOwner));
+        var pageable = new PageableByOffsetAndSize(0, 3, Sort.by(Sort.Direction.DESC, "startTime"));
+        var selection = new BookingViewSelection(BookingViewSelection.Depth.ID, BookingViewSelection.Depth.NONE);
+        var bookingOne = bookingRepository.save(createBooking(bookingAuthor, item, LocalDateTime.now().plusDays(2)));
+        var bookingTwo = bookingRepository.save(createBooking(bookingAuthor, item, LocalDateTime.now().plusDays(5)));
+
+        bookingRepository.save(createBooking(bookingAuthor, item, LocalDateTime.now().minusDays(5)));
+
+        var result = bookingRepository.findAllViews(bookingAuthor, false, BookingState.FUTURE, selection, pageable);
+
+        assertEquals(2, result.size());
+        assertEquals(bookingTwo.getId(), result.get(0).getId());
+        assertEquals(bookingTwo.getStartTime(), result.get(0).getStartTime());
+        assertEquals(item.getId(), result.get(0).getItemId());
+        assertNull(result.get(0).getItemName());
+        assertNull(result.get(0).getBookerId());
+        assertEquals(bookingOne.getId(), result.get(1).getId());
+    }
+
+    @Test
+    void findAllViewsReturnOwnerBookingsWithStatus() {
+        var bookingAuthor = userRepository.save(createUser());
+        var itemOwnerOne = userRepository.save(createUser());
+        var itemOwnerTwo = userRepository.save(createUser());
+        var itemOne = itemRepository.save(createItem(itemOwnerOne));
+        var itemTwo = itemRepository.save(createItem(itemOwnerTwo));
+        var pageable = new PageableByOffsetAndSize(0, 3, Sort.by(Sort.Direction.DESC, "startTime"));
+        var selection = new BookingViewSelection(BookingViewSelection.Depth.DETAILS, BookingViewSelection.Depth.ID);
+        var booking = createBooking(bookingAuthor, itemOne, LocalDateTime.now().plusDays(2));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        booking = bookingRepository.save(booking);
+        bookingRepository.save(createBooking(bookingAuthor, itemOne, LocalDateTime.now().plusDays(3)));
+
+        var bookingOfOtherOwner = createBooking(bookingAuthor, itemTwo, LocalDateTime.now().plusDays(4));
+
+        bookingOfOtherOwner.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(bookingOfOtherOwner);
+
+        var result = bookingRepository.findAllViews(itemOwnerOne, true, BookingState.REJECTED, selection, pageable);
+
+        assertEquals(1, result.size());
+        assertEquals(booking.getId(), result.get(0).getId());
+        assertEquals(BookingStatus.REJECTED, result.get(0).getStatus());
+        assertEquals(itemOne.getId(), result.get(0).getItemId());
+        assertEquals(itemOne.getName(), result.get(0).getItemName());
+        assertEquals(itemOne.getDescription(), result.get(0).getItemDescription());
+        assertEquals(bookingAuthor.getId(), result.get(0).getBookerId());
+        assertNull(result.get(0).getBookerName());
+    }
+
+    @Test
+    void findOwnerSummaryReturnCountsAndLatestBookingsOfEachState() {
+        var bookingAuthor = userRepository.save(createUser());
+        var itemOwner = userRepository.save(createUser());
+        var otherOwner = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(itemOwner));
+        var otherItem = itemRepository.save(createItem(otherOwner));
+        var pastBooking = createBooking(bookingAuthor, item, LocalDateTime.now().minusDays(5));
+
+        pastBooking.setStatus(BookingStatus.APPROVED);
+        pastBooking = bookingRepository.save(pastBooking);
+
+        var currentBooking = bookingRepository.save(createBooking(bookingAuthor, item,
+                LocalDateTime.now().minusHours(2)));
+        var futureBookingOne = bookingRepository.save(createBooking(bookingAuthor, item,
+                LocalDateTime.now().plusDays(2)));
+        var futureBookingTwo = createBooking(bookingAuthor, item, LocalDateTime.now().plusDays(4));
+
+        futureBookingTwo.setStatus(BookingStatus.REJECTED);
+        futureBookingTwo = bookingRepository.save(futureBookingTwo);
+        bookingRepository.save(createBooking(bookingAuthor, otherItem, LocalDateTime.now().plusDays(3)));
+
+        var summary = bookingRepository.findOwnerSummary(itemOwner, 1);
+
+        assertEquals(4L, summary.getCounts().get(BookingState.ALL));
+        assertEquals(1L, summary.getCounts().get(BookingState.CURRENT));
+        assertEquals(1L, summary.getCounts().get(BookingState.PAST));
+        assertEquals(2L, summary.getCounts().get(BookingState.FUTURE));
+        assertEquals(2L, summary.getCounts().get(BookingState.WAITING));
+        assertEquals(1L, summary.getCounts().get(BookingState.REJECTED));
+        assertEquals(List.of(futureBookingTwo.getId()), getIds(summary.getBookings().get(BookingState.ALL)));
+        assertEquals(List.of(currentBooking.getId()), getIds(summary.getBookings().get(BookingState.CURRENT)));
+        assertEquals(List.of(pastBooking.getId()), getIds(summary.getBookings().get(BookingState.PAST)));
+        assertEquals(List.of(futureBookingTwo.getId()), getIds(summary.getBookings().get(BookingState.FUTURE)));
+        assertEquals(List.of(futureBookingOne.getId()), getIds(summary.getBookings().get(BookingState.WAITING)));
+        assertEquals(List.of(futureBookingTwo.getId()), getIds(summary.getBookings().get(BookingState.REJECTED)));
+        assertEquals(item.getName(), summary.getBookings().get(BookingState.PAST).get(0).getItemName());
+        assertEquals(bookingAuthor.getEmail(), summary.getBookings().get(BookingState.PAST).get(0).getBookerEmail());
+        assertEquals(pastBooking.getStartTime(), summary.getBookings().get(BookingState.PAST).get(0).getStartTime());
+    }
+
+    @Test
+    void findOwnerSummaryReturnZeroCountsWhenOwnerHasNoBookings() {
+        var itemOwner = userRepository.save(createUser());
+
+        itemRepository.save(createItem(itemOwner));
+
+        var summary = bookingRepository.findOwnerSummary(itemOwner, 3);
+
+        for (BookingState state : BookingState.values()) {
+            assertEquals(0L, summary.getCounts().get(state));
+            assertTrue(summary.getBookings().get(state).isEmpty());
+        }
+    }
+
+    @Test
+    void findOwnerSummaryCountArchivedBookingsAsPast() {
+        var bookingAuthor = userRepository.save(createUser());
+        var itemOwner = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(itemOwner));
+        var now = LocalDateTime.now();
+        var futureBooking = bookingRepository.save(createBooking(bookingAuthor, item, now.plusDays(2)));
+        var archivedBooking = bookingRepository.save(createBooking(bookingAuthor, item, now.minusDays(30)));
+
+        bookingRepository.copyToArchive(List.of(archivedBooking.getId()));
+        bookingRepository.deleteAllByIdIn(List.of(archivedBooking.getId()));
+
+        var summary = bookingRepository.findOwnerSummary(itemOwner, 3);
+
+        assertEquals(2L, summary.getCounts().get(BookingState.ALL));
+        assertEquals(1L, summary.getCounts().get(BookingState.PAST));
+        assertEquals(1L, summary.getCounts().get(BookingState.FUTURE));
+        assertEquals(2L, summary.getCounts().get(BookingState.WAITING));
+        assertEquals(List.of(futureBooking.getId(), archivedBooking.getId()),
+                getIds(summary.getBookings().get(BookingState.ALL)));
+        assertEquals(List.of(archivedBooking.getId()), getIds(summary.getBookings().get(BookingState.PAST)));
+    }
+
+    @Test
+    void findOwnerSummaryListArchivedBookingsOnlyAfterNewerLiveOnes() {
+        var bookingAuthor = userRepository.save(createUser());
+        var itemOwner = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(itemOwner));
+        var now = LocalDateTime.now();
+        var pastBooking = createBooking(bookingAuthor, item, now.minusDays(5));
+
+        pastBooking.setStatus(BookingStatus.APPROVED);
+        pastBooking = bookingRepository.save(pastBooking);
+
+        var archivedBooking = bookingRepository.save(createBooking(bookingAuthor, item, now.minusDays(30)));
+        var rejectedBooking = createBooking(bookingAuthor, item, now.minusDays(40));
+
+        rejectedBooking.setStatus(BookingStatus.REJECTED);
+        rejectedBooking = bookingRepository.save(rejectedBooking);
+
+        var archivedIds = List.of(archivedBooking.getId(), rejectedBooking.getId());
+
+        bookingRepository.copyToArchive(archivedIds);
+        bookingRepository.deleteAllByIdIn(archivedIds);
+
+        var summary = bookingRepository.findOwnerSummary(itemOwner, 1);
+
+        assertEquals(3L, summary.getCounts().get(BookingState.ALL));
+        assertEquals(3L, summary.getCounts().get(BookingState.PAST));
+        assertEquals(1L, summary.getCounts().get(BookingState.WAITING));
+        assertEquals(1L, summary.getCounts().get(BookingState.REJECTED));
+        assertEquals(List.of(pastBooking.getId()), getIds(summary.getBookings().get(BookingState.ALL)));
+        assertEquals(List.of(pastBooking.getId()), getIds(summary.getBookings().get(BookingState.PAST)));
+        assertEquals(List.of(archivedBooking.getId()), getIds(summary.getBookings().get(BookingState.WAITING)));
+        assertEquals(List.of(rejectedBooking.getId()), getIds(summary.getBookings().get(BookingState.REJECTED)));
+        assertEquals(List.of(), getIds(summary.getBookings().get(BookingState.CURRENT)));
+    }
+
+    @Test
+    void archivedBookingsAreMovedAndReadTogetherWithLiveBookings() {
+        var booker = userRepository.save(createUser());
+        var itemOwner = userRepository.save(createUser());
+        var stranger = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(itemOwner));
+        var now = LocalDateTime.now();
+        var recentBooking = bookingRepository.save(createBooking(booker, item, now.minusDays(5)));
+        var oldBooking = bookingRepository.save(createBooking(booker, item, now.minusDays(30)));
+        var olderBooking = bookingRepository.save(createBooking(booker, item, now.minusDays(40)));
+        var longBooking = createBooking(booker, item, now.minusDays(50));
+
+        longBooking.setEndTime(now.minusDays(2).truncatedTo(ChronoUnit.MICROS));
+        bookingRepository.save(longBooking);
+
+        var ids = bookingRepository.findIdsFinishedBefore(now.minusDays(10), 10).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(olderBooking.getId(), oldBooking.getId()), ids);
+        assertEquals(2, bookingRepository.copyToArchive(ids));
+        assertEquals(2, bookingRepository.deleteAllByIdIn(ids));
+
+        assertTrue(bookingRepository.findById(oldBooking.getId()).isEmpty());
+        assertEquals(oldBooking.getEndTime(), bookingRepository.findArchivedUntil().orElseThrow());
+        assertEquals(List.of(recentBooking.getId(), oldBooking.getId(), olderBooking.getId(), longBooking.getId()),
+                getIds(bookingRepository.findAllViewsWithArchive(booker, false, BookingState.PAST,
+                        new PageableByOffsetAndSize(0, 10, Sort.unsorted()))));
+        assertEquals(List.of(oldBooking.getId(), olderBooking.getId()),
+                getIds(bookingRepository.findAllViewsWithArchive(itemOwner, true, BookingState.ALL,
+                        new PageableByOffsetAndSize(1, 2, Sort.unsorted()))));
+        assertTrue(bookingRepository.findAllViewsWithArchive(booker, false, BookingState.REJECTED,
+                new PageableByOffsetAndSize(0, 10, Sort.unsorted())).isEmpty());
+
+        var archivedView = bookingRepository.findArchivedViewByIdAndUserOrOwner(oldBooking.getId(), itemOwner);
+
+        assertTrue(archivedView.isPresent());
+        assertEquals(item.getName(), archivedView.get().getItemName());
+        assertEquals(booker.getEmail(), archivedView.get().getBookerEmail());
+        assertEquals(BookingStatus.WAITING, archivedView.get().getStatus());
+        assertTrue(bookingRepository.findArchivedViewByIdAndUserOrOwner(oldBooking.getId(), stranger).isEmpty());
+        assertEquals(1, bookingRepository.countArchivedByItemAndUserAndEndTimeBefore(item.getId(), booker.getId(),
+                now.minusDays(35)));
+        assertEquals(0, bookingRepository.countArchivedByItemAndUserAndEndTimeBefore(item.getId(), stranger.getId(),
+                now));
+    }
+
+    @Test
+    void findArchivedUntilReturnEmptyWhenArchiveIsEmpty() {
+        assertTrue(bookingRepository.findArchivedUntil().isEmpty());
+    }
+
+    @Test
+    void advancePhasesMoveStartedAndFinishedBookingsAndClearOverdueChanges() {
+        var booker = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(userRepository.save(createUser())));
+        var now = LocalDateTime.now();
+        var startedBooking = bookingRepository.save(createBooking(booker, item, now.plusDays(1)));
+        var finishedBooking = bookingRepository.save(createBooking(booker, item, now.plusDays(3)));
+        var futureBooking = bookingRepository.save(createBooking(booker, item, now.plusDays(5)));
+        var pageable = new PageableByOffsetAndSize(0, 10, Sort.unsorted());
+
+        startedBooking.setStartTime(now.minusHours(1).truncatedTo(ChronoUnit.MICROS));
+        finishedBooking.setStartTime(now.minusDays(3).truncatedTo(ChronoUnit.MICROS));
+        finishedBooking.setEndTime(now.minusDays(2).truncatedTo(ChronoUnit.MICROS));
+        bookingRepository.saveAllAndFlush(List.of(startedBooking, finishedBooking));
+
+        assertEquals(3, bookingRepository.findAllByUserAndStateIsFuture(booker, pageable).size());
+        assertEquals(finishedBooking.getStartTime(), bookingRepository.findOldestOverduePhaseChange(now).orElseThrow());
+
+        assertEquals(1, bookingRepository.advanceFinishedBookings(now, 10));
+        assertEquals(1, bookingRepository.advanceStartedBookings(now, 10));
+
+        assertEquals(List.of(futureBooking.getId()),
+                getIds(bookingRepository.findAllByUserAndStateIsFuture(booker, pageable)));
+        assertEquals(List.of(startedBooking.getId()),
+                getIds(bookingRepository.findAllByUserAndStateIsCurrent(booker, pageable)));
+        assertEquals(List.of(finishedBooking.getId()),
+                getIds(bookingRepository.findAllByUserAndStateIsPast(booker, pageable)));
+        assertTrue(bookingRepository.findOldestOverduePhaseChange(now).isEmpty());
+    }
+
+    @Test
+    void advancePhasesUpdateAtMostLimitBookings() {
+        var booker = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(userRepository.save(createUser())));
+        var now = LocalDateTime.now();
+
+        for (int i = 0; i < 3; i++) {
+            var booking = bookingRepository.save(createBooking(booker, item, now.plusDays(i + 1)));
+
+            booking.setStartTime(now.minusDays(10 + i).truncatedTo(ChronoUnit.MICROS));
+            booking.setEndTime(now.minusDays(9 + i).truncatedTo(ChronoUnit.MICROS));
+            bookingRepository.saveAndFlush(booking);
+        }
+
+        assertEquals(2, bookingRepository.advanceFinishedBookings(now, 2));
+        assertEquals(1, bookingRepository.advanceFinishedBookings(now, 2));
+        assertEquals(0, bookingRepository.advanceFinishedBookings(now, 2));
+    }
+
+    private List<Long> getIds(List<BookingView> bookings) {
+        return bookings.stream().map(BookingView::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void findAllPeriodsByItemIdsAndEndTimeNotBeforeReturnPeriodsOfRequestedItemsEndingAfterRefTime() {
+        var owner = userRepository.save(createUser());
+        var booker = userRepository.save(createUser());
+        var itemOne = itemRepository.save(createItem(owner));
+        var itemTwo = itemRepository.save(createItem(owner));
+        var otherItem = itemRepository.save(createItem(owner));
+        var refTime = LocalDateTime.now();
+        var currentBooking = bookingRepository.save(createBooking(booker, itemOne, refTime.minusHours(1)));
+        var futureBooking = bookingRepository.save(createBooking(booker, itemTwo, refTime.plusDays(3)));
+
+        bookingRepository.save(createBooking(booker, itemOne, refTime.minusDays(5)));
+        bookingRepository.save(createBooking(booker, otherItem, refTime.plusDays(1)));
+
+        var periods = bookingRepository.findAllPeriodsByItemIdsAndEndTimeNotBefore(
+                List.of(itemOne.getId(), itemTwo.getId()), refTime);
+
+        assertEquals(2, periods.size());
+        assertTrue(periods.stream().anyMatch(period -> period.getItemId().equals(itemOne.getId())
+                && period.getStartTime().equals(currentBooking.getStartTime())
+                && period.getEndTime().equals(currentBooking.getEndTime())));
+        assertTrue(periods.stream().anyMatch(period -> period.getItemId().equals(itemTwo.getId())
+                && period.getStartTime().equals(futureBooking.getStartTime())));
+    }
+
     private long getNextNum() {
         return nextNum++;
     }
@@ -1304,12 +1608,13 @@ class BookingRepositoryTest {
 
     private Booking createBooking(User author, Item item, LocalDateTime start) {
         var booking = new Booking();
+        var startTime = start.truncatedTo(ChronoUnit.MICROS);
 
         booking.setItem(item);
         booking.setUser(author);
         booking.setStatus(BookingStatus.WAITING);
-        booking.setStartTime(start);
-        booking.setEndTime(start.plusDays(1));
+        booking.setStartTime(startTime);
+        booking.setEndTime(startTime.plusDays(1));
         return booking;
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.fieldset.Fieldset;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.repository.ItemDao;
 import ru.practicum.shareit.user.User;
@@ -81,7 +82,7 @@ class BookingServiceImplTest {
         bookingRepository.save(createBooking(bookingAuthorOne, itemOne, LocalDateTime.now().plusDays(5)));
 
         var result = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthorOne.getId(),
-                BookingState.CURRENT, 0, 3).toArray(new BookingDto[1]));
+                BookingState.CURRENT, 0, 3, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(2, result.length);
         assertEquals(bookingTwo.getId(), result[0].getId());
@@ -125,7 +126,7 @@ class BookingServiceImplTest {
         bookingRepository.save(createBooking(bookingAuthorOne, itemOne, LocalDateTime.now().plusDays(5)));
 
         var result = assertDoesNotThrow(() -> bookingService.getAllBookingsByOwnerAndState(itemOwnerOne.getId(),
-                BookingState.CURRENT, 0, 4).toArray(new BookingDto[1]));
+                BookingState.CURRENT, 0, 4, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(2, result.length);
         assertEquals(bookingTwo.getId(), result[0].getId());
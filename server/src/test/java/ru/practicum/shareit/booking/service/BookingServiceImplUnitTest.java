@@ -10,7 +10,15 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingFieldset;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.booking.BookingViewSelection;
+import ru.practicum.shareit.booking.OwnerBookingsSummary;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.events.BookingEventHub;
+import ru.practicum.shareit.booking.events.BookingEventType;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.exceptions.BookingNotAvailableItemException;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
@@ -18,16 +26,23 @@ import ru.practicum.shareit.booking.exceptions.BookingTimeConflictsException;
 import ru.practicum.shareit.booking.exceptions.IllegalBookingApproveException;
 import ru.practicum.shareit.booking.exceptions.ItemBookedByItsOwnerException;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.invalidation.InvalidationBus;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.item.service.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.service.ItemCommentsLoader;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.repository.UserDao;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +59,24 @@ class BookingServiceImplUnitTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemOccupancyIndex occupancyIndex;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private ItemCommentsLoader commentsLoader;
+
+    @Mock
+    private BookingEventHub eventHub;
+
+    @Mock
+    private ItemBookingSummaryUpdater summaryUpdater;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -127,10 +160,10 @@ class BookingServiceImplUnitTest {
                 .thenReturn(Optional.of(bookingAuthor));
 
         Mockito.when(bookingRepository.findAllByUser(Mockito.eq(bookingAuthor), Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(),
-                BookingState.ALL, 0, 2).toArray(new BookingDto[1]));
+                BookingState.ALL, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -139,7 +172,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -151,6 +184,135 @@ class BookingServiceImplUnitTest {
                 Mockito.any(Pageable.class));
     }
 
+    @Test
+    void getAllBookingsByUserAndStateSelectOnlyRequestedColumns() {
+        var bookingAuthor = createUser();
+        var booking = createBooking(bookingAuthor, createItem(createUser()), LocalDateTime.now());
+        var fieldset = BookingFieldset.parse("id,start,item", null);
+        var selection = new BookingViewSelection(BookingViewSelection.Depth.DETAILS, BookingViewSelection.Depth.NONE);
+        var view = new BookingView(booking.getId(), booking.getStartTime(), booking.getEndTime(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                booking.getItem().getAvailable(), null, null, null, null);
+
+        Mockito.when(userRepository.findById(bookingAuthor.getId()))
+                .thenReturn(Optional.of(bookingAuthor));
+
+        Mockito.when(bookingRepository.findAllViews(Mockito.eq(bookingAuthor), Mockito.eq(false),
+                        Mockito.eq(BookingState.PAST), Mockito.eq(selection), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(view));
+
+        var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(),
+                BookingState.PAST, 0, 2, fieldset).toArray(new BookingDto[1]));
+
+        assertEquals(booking.getId(), bookingDto[0].getId());
+        assertEquals(booking.getItem().getName(), bookingDto[0].getItem().getName());
+        assertNull(bookingDto[0].getBooker());
+        Mockito.verify(bookingRepository, Mockito.never()).findAllByUserAndStateIsPast(Mockito.any(),
+                Mockito.any(Pageable.class));
+        Mockito.verify(commentsLoader, Mockito.times(1)).findLatestComments(Set.of(booking.getItem().getId()));
+    }
+
+    @Test
+    void getOwnerBookingsSummaryReturnSummaryOfEachState() {
+        var itemOwner = createUser();
+        var booking = createBooking(createUser(), createItem(itemOwner), LocalDateTime.now());
+        var counts = new EnumMap<BookingState, Long>(BookingState.class);
+
+        counts.put(BookingState.ALL, 7L);
+        counts.put(BookingState.WAITING, 1L);
+
+        Mockito.when(userRepository.findById(itemOwner.getId()))
+                .thenReturn(Optional.of(itemOwner));
+
+        Mockito.when(bookingRepository.findOwnerSummary(itemOwner, 3))
+                .thenReturn(new OwnerBookingsSummary(counts, Map.of(BookingState.WAITING,
+                        List.of(createBookingView(booking)))));
+
+        var summary = assertDoesNotThrow(() -> bookingService.getOwnerBookingsSummary(itemOwner.getId(), 3));
+
+        assertEquals(BookingState.values().length, summary.size());
+        assertEquals(7, summary.get(BookingState.ALL).getCount());
+        assertTrue(summary.get(BookingState.ALL).getBookings().isEmpty());
+        assertEquals(0, summary.get(BookingState.PAST).getCount());
+        assertEquals(1, summary.get(BookingState.WAITING).getCount());
+        assertEquals(booking.getId(), summary.get(BookingState.WAITING).getBookings().get(0).getId());
+        assertEquals(booking.getItem().getName(),
+                summary.get(BookingState.WAITING).getBookings().get(0).getItem().getName());
+    }
+
+    @Test
+    void getAllBookingsByUserAndStateDoNotReadArchiveWhenPageEndsAfterArchiveHorizon() {
+        var bookingAuthor = createUser();
+        var now = LocalDateTime.now();
+        var bookingOne = createBooking(bookingAuthor, createItem(createUser()), now.minusDays(2));
+        var bookingTwo = createBooking(bookingAuthor, createItem(createUser()), now.minusDays(3));
+
+        Mockito.when(userRepository.findById(bookingAuthor.getId()))
+                .thenReturn(Optional.of(bookingAuthor));
+
+        Mockito.when(bookingRepository.findAllByUserAndStateIsPast(Mockito.eq(bookingAuthor),
+                        Mockito.any(Pageable.class)))
+                .thenReturn(List.of(createBookingView(bookingOne), createBookingView(bookingTwo)));
+
+        Mockito.when(bookingRepository.findArchivedUntil())
+                .thenReturn(Optional.of(now.minusDays(10)));
+
+        var bookings = bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(), BookingState.PAST, 0, 2,
+                Fieldset.ALL);
+
+        assertEquals(2, bookings.size());
+        Mockito.verify(bookingRepository, Mockito.never()).findAllViewsWithArchive(Mockito.any(), Mockito.anyBoolean(),
+                Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void getAllBookingsByOwnerAndStateReadArchiveWhenPageIsNotFilledByLiveBookings() {
+        var itemOwner = createUser();
+        var now = LocalDateTime.now();
+        var liveBooking = createBooking(createUser(), createItem(itemOwner), now.minusDays(2));
+        var archivedBooking = createBooking(createUser(), createItem(itemOwner), now.minusDays(30));
+
+        Mockito.when(userRepository.findById(itemOwner.getId()))
+                .thenReturn(Optional.of(itemOwner));
+
+        Mockito.when(bookingRepository.findAllByItemOwner(Mockito.eq(itemOwner), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(createBookingView(liveBooking)));
+
+        Mockito.when(bookingRepository.findArchivedUntil())
+                .thenReturn(Optional.of(now.minusDays(10)));
+
+        Mockito.when(bookingRepository.findAllViewsWithArchive(Mockito.eq(itemOwner), Mockito.eq(true),
+                        Mockito.eq(BookingState.ALL), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(createBookingView(liveBooking), createBookingView(archivedBooking)));
+
+        var bookings = List.copyOf(bookingService.getAllBookingsByOwnerAndState(itemOwner.getId(), BookingState.ALL,
+                0, 2, Fieldset.ALL));
+
+        assertEquals(2, bookings.size());
+        assertEquals(liveBooking.getId(), bookings.get(0).getId());
+        assertEquals(archivedBooking.getId(), bookings.get(1).getId());
+    }
+
+    @Test
+    void getBookingByIdReturnArchivedBookingWhenItIsNotInLiveTable() {
+        var bookingAuthor = createUser();
+        var booking = createBooking(bookingAuthor, createItem(createUser()), LocalDateTime.now().minusYears(2));
+
+        Mockito.when(userRepository.findById(bookingAuthor.getId()))
+                .thenReturn(Optional.of(bookingAuthor));
+
+        Mockito.when(bookingRepository.findByIdAndUserOrOwner(booking.getId(), bookingAuthor))
+                .thenReturn(Optional.empty());
+
+        Mockito.when(bookingRepository.findArchivedViewByIdAndUserOrOwner(booking.getId(), bookingAuthor))
+                .thenReturn(Optional.of(createBookingView(booking)));
+
+        var bookingDto = bookingService.getBookingById(bookingAuthor.getId(), booking.getId());
+
+        assertEquals(booking.getId(), bookingDto.getId());
+        assertEquals(booking.getItem().getName(), bookingDto.getItem().getName());
+    }
+
     @Test
     void getAllBookingsByUserAndStateReturnItemWithStateEqualsPast() {
         var itemOwner = createUser();
@@ -164,10 +326,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByUserAndStateIsPast(Mockito.eq(bookingAuthor),
                         Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(),
-                BookingState.PAST, 0, 2).toArray(new BookingDto[1]));
+                BookingState.PAST, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -176,7 +338,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -201,10 +363,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByUserAndStateIsFuture(Mockito.eq(bookingAuthor),
                         Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(),
-                BookingState.FUTURE, 0, 2).toArray(new BookingDto[1]));
+                BookingState.FUTURE, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -213,7 +375,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -238,10 +400,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByUserAndStateIsCurrent(Mockito.eq(bookingAuthor),
                         Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(),
-                BookingState.CURRENT, 0, 2).toArray(new BookingDto[1]));
+                BookingState.CURRENT, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -250,7 +412,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -275,10 +437,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByUserAndStatus(Mockito.eq(bookingAuthor),
                         Mockito.eq(BookingStatus.WAITING), Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(),
-                BookingState.WAITING, 0, 2).toArray(new BookingDto[1]));
+                BookingState.WAITING, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -287,7 +449,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -312,10 +474,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByUserAndStatus(Mockito.eq(bookingAuthor),
                         Mockito.eq(BookingStatus.REJECTED), Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByUserAndState(bookingAuthor.getId(),
-                BookingState.REJECTED, 0, 2).toArray(new BookingDto[1]));
+                BookingState.REJECTED, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -324,7 +486,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -344,7 +506,7 @@ class BookingServiceImplUnitTest {
                 .thenReturn(Optional.empty());
 
         var ex = assertThrows(UserNotFoundException.class,
-                () -> bookingService.getAllBookingsByUserAndState(10, BookingState.ALL, 0, 2));
+                () -> bookingService.getAllBookingsByUserAndState(10, BookingState.ALL, 0, 2, Fieldset.ALL));
         assertEquals(errMsg, ex.getMessage());
     }
 
@@ -360,10 +522,10 @@ class BookingServiceImplUnitTest {
                 .thenReturn(Optional.of(bookingAuthor));
 
         Mockito.when(bookingRepository.findAllByItemOwner(Mockito.eq(bookingAuthor), Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByOwnerAndState(bookingAuthor.getId(),
-                BookingState.ALL, 0, 2).toArray(new BookingDto[1]));
+                BookingState.ALL, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -372,7 +534,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -397,10 +559,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByOwnerAndStateIsPast(Mockito.eq(bookingAuthor),
                         Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByOwnerAndState(bookingAuthor.getId(),
-                BookingState.PAST, 0, 2).toArray(new BookingDto[1]));
+                BookingState.PAST, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -409,7 +571,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -434,10 +596,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByOwnerAndStateIsFuture(Mockito.eq(bookingAuthor),
                         Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByOwnerAndState(bookingAuthor.getId(),
-                BookingState.FUTURE, 0, 2).toArray(new BookingDto[1]));
+                BookingState.FUTURE, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -446,7 +608,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -471,10 +633,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByOwnerAndStateIsCurrent(Mockito.eq(bookingAuthor),
                         Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByOwnerAndState(bookingAuthor.getId(),
-                BookingState.CURRENT, 0, 2).toArray(new BookingDto[1]));
+                BookingState.CURRENT, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -483,7 +645,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -508,10 +670,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByItemOwnerAndStatus(Mockito.eq(bookingAuthor),
                         Mockito.eq(BookingStatus.WAITING), Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByOwnerAndState(bookingAuthor.getId(),
-                BookingState.WAITING, 0, 2).toArray(new BookingDto[1]));
+                BookingState.WAITING, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -520,7 +682,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -545,10 +707,10 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findAllByItemOwnerAndStatus(Mockito.eq(bookingAuthor),
                         Mockito.eq(BookingStatus.REJECTED), Mockito.any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(createBookingView(booking)));
 
         var bookingDto = assertDoesNotThrow(() -> bookingService.getAllBookingsByOwnerAndState(bookingAuthor.getId(),
-                BookingState.REJECTED, 0, 2).toArray(new BookingDto[1]));
+                BookingState.REJECTED, 0, 2, Fieldset.ALL).toArray(new BookingDto[1]));
 
         assertEquals(booking.getId(), bookingDto[0].getId());
         assertEquals(item.getId(), bookingDto[0].getItem().getId());
@@ -557,7 +719,7 @@ class BookingServiceImplUnitTest {
         assertEquals(item.getAvailable(), bookingDto[0].getItem().getAvailable());
         assertNull(bookingDto[0].getItem().getLastBooking());
         assertNull(bookingDto[0].getItem().getNextBooking());
-        assertNull(bookingDto[0].getItem().getComments());
+        assertTrue(bookingDto[0].getItem().getComments().isEmpty());
         assertNull(bookingDto[0].getItem().getRequestId());
         assertEquals(bookingAuthor.getId(), bookingDto[0].getBooker().getId());
         assertEquals(bookingAuthor.getName(), bookingDto[0].getBooker().getName());
@@ -577,7 +739,7 @@ class BookingServiceImplUnitTest {
                 .thenReturn(Optional.empty());
 
         var ex = assertThrows(UserNotFoundException.class,
-                () -> bookingService.getAllBookingsByOwnerAndState(10, BookingState.ALL, 0, 2));
+                () -> bookingService.getAllBookingsByOwnerAndState(10, BookingState.ALL, 0, 2, Fieldset.ALL));
 
         assertEquals(errMsg, ex.getMessage());
     }
@@ -698,6 +860,10 @@ class BookingServiceImplUnitTest {
         assertEquals(bookingDto.getStart(), outgoingBookingDto.getStart());
         assertEquals(bookingDto.getEnd(), outgoingBookingDto.getEnd());
         assertEquals(BookingStatus.WAITING, outgoingBookingDto.getStatus());
+        Mockito.verify(availabilityIndex, Mockito.times(1)).registerBooking(Mockito.any(Booking.class));
+        Mockito.verify(eventHub, Mockito.times(1)).publish(Mockito.any(Booking.class),
+                Mockito.eq(BookingEventType.CREATED));
+        Mockito.verify(summaryUpdater, Mockito.times(1)).refresh(item.getId());
     }
 
     @Test
@@ -725,6 +891,32 @@ class BookingServiceImplUnitTest {
         Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any(Booking.class));
     }
 
+    @Test
+    void createBookingThrowsExceptionWhenAvailabilityIndexHasTimeConflict() {
+        var bookingAuthor = createUser();
+        var itemOwner = createUser();
+        var item = createItem(itemOwner);
+        var bookingDto = createIncomingBookingDto(item.getId(), LocalDateTime.now());
+        var errMsg = String.format("Конфликт времени начала/окончания для элемента с id = %d", item.getId());
+
+        Mockito.when(userRepository.findById(bookingAuthor.getId()))
+                .thenReturn(Optional.of(bookingAuthor));
+
+        Mockito.when(itemRepository.findById(bookingDto.getItemId()))
+                .thenReturn(Optional.of(item));
+
+        Mockito.when(availabilityIndex.hasConflicts(item, bookingDto.getStart(), bookingDto.getEnd()))
+                .thenReturn(true);
+
+        var ex = assertThrows(BookingTimeConflictsException.class,
+                () -> bookingService.createBooking(bookingAuthor.getId(), bookingDto));
+
+        assertEquals(errMsg, ex.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never()).findAllByItemAndTimeConflicts(Mockito.any(Item.class),
+                Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class));
+        Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any(Booking.class));
+    }
+
     @Test
     void setBookingStatusThrowsExceptionWhenUserIdIsInvalid() {
         var errMsg = "Пользователь с id = 10 не найден";
@@ -809,6 +1001,17 @@ class BookingServiceImplUnitTest {
         assertEquals(booking.getStartTime(), bookingDto.getStart());
         assertEquals(booking.getEndTime(), bookingDto.getEnd());
         assertEquals(BookingStatus.APPROVED, bookingDto.getStatus());
+        Mockito.verify(availabilityIndex, Mockito.times(1)).registerBooking(booking);
+        Mockito.verify(eventHub, Mockito.times(1)).publish(booking, BookingEventType.STATUS_CHANGED);
+    }
+
+    @Test
+    void subscribeToBookingEventsThrowsExceptionWhenUserIdIsInvalid() {
+        Mockito.when(userRepository.findById(10L))
+                .thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.subscribeToBookingEvents(10, null));
+        Mockito.verifyNoInteractions(eventHub);
     }
 
     @Test
@@ -883,6 +1086,15 @@ class BookingServiceImplUnitTest {
         return booking;
     }
 
+    private BookingView createBookingView(Booking booking) {
+        var item = booking.getItem();
+        var booker = booking.getUser();
+
+        return new BookingView(booking.getId(), booking.getStartTime(), booking.getEndTime(), booking.getStatus(),
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), null, booker.getId(),
+                booker.getName(), booker.getEmail());
+    }
+
     private BookingRequestDto createIncomingBookingDto(long itemId, LocalDateTime startTime) {
         var bookingDto = new BookingRequestDto();
 
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiverTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void archiveFinishedBookingsMoveBatchesUntilBatchIsNotFull() {
+        var archiver = new BookingArchiver(bookingRepository, new TransactionTemplate(transactionManager),
+                Duration.ofDays(30), 2);
+
+        Mockito.when(bookingRepository.findIdsFinishedBefore(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        archiver.archiveFinishedBookings();
+
+        Mockito.verify(bookingRepository).copyToArchive(List.of(1L, 2L));
+        Mockito.verify(bookingRepository).deleteAllByIdIn(List.of(1L, 2L));
+        Mockito.verify(bookingRepository).copyToArchive(List.of(3L));
+        Mockito.verify(bookingRepository).deleteAllByIdIn(List.of(3L));
+        Mockito.verify(transactionManager, Mockito.times(2)).commit(Mockito.any());
+    }
+
+    @Test
+    void archiveFinishedBookingsDoNothingWhenNoBookingIsOlderThanHorizon() {
+        var archiver = new BookingArchiver(bookingRepository, new TransactionTemplate(transactionManager),
+                Duration.ofDays(30), 2);
+
+        Mockito.when(bookingRepository.findIdsFinishedBefore(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(List.of());
+
+        archiver.archiveFinishedBookings();
+
+        Mockito.verify(bookingRepository, Mockito.never()).copyToArchive(Mockito.any());
+        Mockito.verify(bookingRepository, Mockito.never()).deleteAllByIdIn(Mockito.any());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionManagerTest {
+    private static final String RELKIND_QUERY = "SELECT relkind FROM pg_class WHERE oid = to_regclass('bookings')";
+    private static final String EXISTS_QUERY = "SELECT to_regclass(?) IS NOT NULL";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void getPartitionNameReturnNameWithYearAndMonth() {
+        assertEquals("bookings_p2026_03", BookingPartitionManager.getPartitionName(YearMonth.of(2026, 3)));
+    }
+
+    @Test
+    void maintainPartitionsConvertPlainTableAndCreateMissingPartitions() {
+        var manager = new BookingPartitionManager(jdbcTemplate, new TransactionTemplate(transactionManager), 1);
+        var statements = ArgumentCaptor.forClass(String.class);
+
+        Mockito.when(jdbcTemplate.queryForObject(RELKIND_QUERY, String.class))
+                .thenReturn("r");
+        Mockito.when(jdbcTemplate.queryForObject(EXISTS_QUERY, Boolean.class, "bookings_p2026_12"))
+                .thenReturn(false);
+        Mockito.when(jdbcTemplate.queryForObject(EXISTS_QUERY, Boolean.class, "bookings_p2027_01"))
+                .thenReturn(true);
+
+        manager.maintainPartitions(YearMonth.of(2026, 12));
+
+        Mockito.verify(jdbcTemplate, Mockito.atLeastOnce()).execute(statements.capture());
+        assertTrue(statements.getAllValues().contains("ALTER TABLE bookings ATTACH PARTITION bookings_default DEFAULT"));
+        assertTrue(statements.getAllValues().contains("ALTER TABLE bookings ATTACH PARTITION bookings_p2026_12 " +
+                "FOR VALUES FROM ('2026-12-01 00:00:00') TO ('2027-01-01 00:00:00')"));
+        assertTrue(statements.getAllValues().contains("DELETE FROM bookings_default WHERE start_time >= " +
+                "'2026-12-01 00:00:00' AND start_time < '2027-01-01 00:00:00'"));
+        assertTrue(statements.getAllValues().stream().noneMatch(sql -> sql.contains("bookings_p2027_01")));
+        Mockito.verify(transactionManager).commit(Mockito.any());
+    }
+
+    @Test
+    void maintainPartitionsDoNotConvertPartitionedTable() {
+        var manager = new BookingPartitionManager(jdbcTemplate, new TransactionTemplate(transactionManager), 0);
+
+        Mockito.when(jdbcTemplate.queryForObject(RELKIND_QUERY, String.class))
+                .thenReturn("p");
+        Mockito.when(jdbcTemplate.queryForObject(EXISTS_QUERY, Boolean.class, "bookings_p2026_12"))
+                .thenReturn(true);
+
+        manager.maintainPartitions(YearMonth.of(2026, 12));
+
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute(Mockito.anyString());
+    }
+}
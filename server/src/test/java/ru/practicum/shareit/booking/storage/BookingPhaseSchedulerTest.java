@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPhaseSchedulerTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void advancePhasesRunBatchesUntilBatchIsNotFullAndCountTransitions() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var scheduler = new BookingPhaseScheduler(bookingRepository, new TransactionTemplate(transactionManager), 2);
+
+        scheduler.bindTo(meterRegistry);
+        Mockito.when(bookingRepository.findOldestOverduePhaseChange(Mockito.any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        Mockito.when(bookingRepository.advanceFinishedBookings(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(2, 2, 1);
+        Mockito.when(bookingRepository.advanceStartedBookings(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(1);
+
+        scheduler.advancePhases();
+
+        Mockito.verify(bookingRepository, Mockito.times(3)).advanceFinishedBookings(Mockito.any(LocalDateTime.class),
+                Mockito.eq(2));
+        Mockito.verify(transactionManager, Mockito.times(4)).commit(Mockito.any());
+        assertEquals(5.0, meterRegistry.get("shareit.booking.phase.transitions").tag("phase", "PAST").counter()
+                .count());
+        assertEquals(1.0, meterRegistry.get("shareit.booking.phase.transitions").tag("phase", "CURRENT").counter()
+                .count());
+        assertEquals(0.0, meterRegistry.get("shareit.booking.phase.lag").gauge().value());
+    }
+
+    @Test
+    void advancePhasesReportAgeOfOldestOverduePhaseChangeAsLag() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var scheduler = new BookingPhaseScheduler(bookingRepository, new TransactionTemplate(transactionManager), 2);
+
+        scheduler.bindTo(meterRegistry);
+        Mockito.when(bookingRepository.findOldestOverduePhaseChange(Mockito.any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Optional.of(invocation.<LocalDateTime>getArgument(0).minusSeconds(30)));
+
+        scheduler.advancePhases();
+
+        assertEquals(30.0, meterRegistry.get("shareit.booking.phase.lag").gauge().value());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.service.ItemBookingSummaryUpdater;
+
+import java.time.LocalDateTime;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummarySchedulerTest {
+    @Mock
+    private ItemBookingSummaryUpdater summaryUpdater;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void refreshExpiredSummariesRunBatchesUntilBatchIsNotFull() {
+        var scheduler = new ItemBookingSummaryScheduler(summaryUpdater, new TransactionTemplate(transactionManager),
+                2);
+
+        Mockito.when(summaryUpdater.refreshExpired(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(2, 2, 0);
+
+        scheduler.refreshExpiredSummaries();
+
+        Mockito.verify(summaryUpdater, Mockito.times(3)).refreshExpired(Mockito.any(LocalDateTime.class),
+                Mockito.eq(2));
+        Mockito.verify(transactionManager, Mockito.times(3)).commit(Mockito.any());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicaDataSourceConfigurationTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(DataSourcePropertiesConfiguration.class, ReadReplicaDataSourceConfiguration.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:primary",
+                    "shareit.datasource.read-replicas.enabled=true",
+                    "spring.datasource.hikari.maximum-pool-size=7",
+                    "spring.datasource.hikari.connection-timeout=2500");
+
+    @Test
+    void primaryDataSourceBindHikariProperties() {
+        contextRunner.run(context -> {
+            var primary = context.getBean("primaryDataSource", HikariDataSource.class);
+
+            assertEquals(7, primary.getMaximumPoolSize());
+            assertEquals(2500, primary.getConnectionTimeout());
+            assertEquals("jdbc:h2:mem:primary", primary.getJdbcUrl());
+        });
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfiguration {
+    }
+}
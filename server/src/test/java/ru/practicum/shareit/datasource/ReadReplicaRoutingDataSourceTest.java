@@ -0,0 +1,110 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicaRoutingDataSourceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void resetReadOnlyFlag() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnectionReturnPrimaryConnectionOutsideReadOnlyTransaction() {
+        var routing = createRoutingDataSource(createDatabase("primary"),
+                List.of(new ReplicaPool("replica-1", createDatabase("replica-1"))));
+
+        assertEquals("primary", readDatabaseName(routing));
+        assertEquals(1, routedConnectionsCount("primary"));
+    }
+
+    @Test
+    void getConnectionReturnReplicasConnectionsInReadOnlyTransaction() {
+        var routing = createRoutingDataSource(createDatabase("primary"),
+                List.of(new ReplicaPool("replica-1", createDatabase("replica-1")),
+                        new ReplicaPool("replica-2", createDatabase("replica-2"))));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-1", readDatabaseName(routing));
+        assertEquals("replica-2", readDatabaseName(routing));
+        assertEquals("replica-1", readDatabaseName(routing));
+        assertEquals(2, routedConnectionsCount("replica-1"));
+        assertEquals(1, routedConnectionsCount("replica-2"));
+    }
+
+    @Test
+    void getConnectionSkipUnhealthyReplica() {
+        var unhealthyReplica = new ReplicaPool("replica-1", createDatabase("replica-1"));
+        var routing = createRoutingDataSource(createDatabase("primary"),
+                List.of(unhealthyReplica, new ReplicaPool("replica-2", createDatabase("replica-2"))));
+
+        unhealthyReplica.markUnhealthy();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-2", readDatabaseName(routing));
+        assertEquals("replica-2", readDatabaseName(routing));
+    }
+
+    @Test
+    void getConnectionFallBackToPrimaryAndMarkReplicaUnhealthyWhenReplicaIsUnavailable() throws SQLException {
+        var brokenDataSource = Mockito.mock(DataSource.class);
+        var replica = new ReplicaPool("replica-1", brokenDataSource);
+        var routing = createRoutingDataSource(createDatabase("primary"), List.of(replica));
+
+        Mockito.when(brokenDataSource.getConnection())
+                .thenThrow(new SQLException("connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", readDatabaseName(routing));
+        assertFalse(replica.isHealthy());
+    }
+
+    @Test
+    void getConnectionWithCredentialsReturnPrimaryConnection() throws SQLException {
+        var primary = Mockito.mock(DataSource.class);
+        var routing = createRoutingDataSource(primary, List.of());
+
+        routing.getConnection("user", "password");
+
+        Mockito.verify(primary, Mockito.times(1)).getConnection("user", "password");
+    }
+
+    private ReadReplicaRoutingDataSource createRoutingDataSource(DataSource primary, List<ReplicaPool> replicas) {
+        var routing = new ReadReplicaRoutingDataSource(primary, replicas);
+
+        routing.bindTo(meterRegistry);
+        return routing;
+    }
+
+    private DataSource createDatabase(String name) {
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "test", "test");
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS database_name(name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM database_name");
+        jdbcTemplate.update("INSERT INTO database_name VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String readDatabaseName(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM database_name", String.class);
+    }
+
+    private double routedConnectionsCount(String poolName) {
+        return meterRegistry.get("shareit.datasource.routed.connections").tag("pool", poolName).functionCounter().count();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaHealthCheckerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void checkReplicasMarkReplicaHealthyWhenLagIsAcceptable() {
+        var replica = new ReplicaPool("replica-1", createDatabase());
+        var checker = new ReplicaHealthChecker(List.of(replica), createProperties("SELECT 2"));
+
+        checker.bindTo(meterRegistry);
+        replica.markUnhealthy();
+        checker.checkReplicas();
+
+        assertTrue(replica.isHealthy());
+        assertEquals(2.0, replica.getReplicationLagSeconds());
+        assertEquals(2.0, meterRegistry.get("shareit.datasource.replica.lag").tag("pool", "replica-1").gauge()
+                .value());
+        assertEquals(1.0, meterRegistry.get("shareit.datasource.replica.healthy").tag("pool", "replica-1").gauge()
+                .value());
+    }
+
+    @Test
+    void checkReplicasMarkReplicaUnhealthyWhenLagIsTooBig() {
+        var replica = new ReplicaPool("replica-1", createDatabase());
+        var checker = new ReplicaHealthChecker(List.of(replica), createProperties("SELECT 10"));
+
+        checker.checkReplicas();
+
+        assertFalse(replica.isHealthy());
+    }
+
+    @Test
+    void checkReplicasMarkReplicaUnhealthyWhenReplicaIsUnavailable() throws SQLException {
+        var dataSource = Mockito.mock(DataSource.class);
+        var replica = new ReplicaPool("replica-1", dataSource);
+        var checker = new ReplicaHealthChecker(List.of(replica), createProperties("SELECT 0"));
+
+        Mockito.when(dataSource.getConnection())
+                .thenThrow(new SQLException("connection refused"));
+
+        checker.checkReplicas();
+
+        assertFalse(replica.isHealthy());
+    }
+
+    private ReadReplicaProperties createProperties(String lagQuery) {
+        var properties = new ReadReplicaProperties();
+
+        properties.setMaxReplicationLag(Duration.ofSeconds(5));
+        properties.setReplicationLagQuery(lagQuery);
+        return properties;
+    }
+
+    private DataSource createDatabase() {
+        return new DriverManagerDataSource("jdbc:h2:mem:replica-health;DB_CLOSE_DELAY=-1", "test", "test");
+    }
+}
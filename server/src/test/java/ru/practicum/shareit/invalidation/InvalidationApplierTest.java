@@ -0,0 +1,106 @@
+package ru.practicum.shareit.invalidation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvalidationApplierTest {
+    @Mock
+    private ItemSearchCache searchCache;
+
+    @Mock
+    private ItemSuggestIndex suggestIndex;
+
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemOccupancyIndex occupancyIndex;
+
+    private final List<Runnable> rebuildTasks = new ArrayList<>();
+
+    private InvalidationApplier applier;
+
+    @BeforeEach
+    void setUp() {
+        applier = new InvalidationApplier(searchCache, suggestIndex, availabilityIndex, occupancyIndex,
+                rebuildTasks::add);
+    }
+
+    @Test
+    void applyItemChangedEvictSearchPagesAndUpdateSuggestions() {
+        applier.apply(InvalidationEvent.itemChanged(1L, List.of("drill", "description"), "drill description"));
+
+        Mockito.verify(searchCache).evictMatching(List.of("drill", "description"));
+        Mockito.verify(suggestIndex).update(1L, "drill description");
+        Mockito.verifyNoInteractions(availabilityIndex, occupancyIndex);
+    }
+
+    @Test
+    void applyItemBookedInvalidateBookingIndexesOfItem() {
+        applier.apply(InvalidationEvent.itemBooked(1L));
+
+        Mockito.verify(availabilityIndex).invalidateItem(1L);
+        Mockito.verify(occupancyIndex).invalidateItem(1L);
+        Mockito.verifyNoInteractions(searchCache, suggestIndex);
+    }
+
+    @Test
+    void applyUserDeletedDropItemsOfUserAndResetSearchAndBookingIndexes() {
+        applier.apply(InvalidationEvent.userDeleted(2L, List.of(3L, 5L)));
+
+        Mockito.verify(searchCache).evictAll();
+        Mockito.verify(suggestIndex).remove(List.of(3L, 5L));
+        Mockito.verify(availabilityIndex).invalidateAll();
+        Mockito.verify(occupancyIndex).invalidateAll();
+        assertTrue(rebuildTasks.isEmpty());
+    }
+
+    @Test
+    void applyUserDeletedWithoutItemIdsQueueSuggestRebuild() {
+        applier.apply(new InvalidationEvent(InvalidationEventType.USER_DELETED, 2L, null, null, null));
+
+        Mockito.verify(searchCache).evictAll();
+        Mockito.verify(suggestIndex, Mockito.never()).remove(Mockito.any());
+        assertEquals(1, rebuildTasks.size());
+    }
+
+    @Test
+    void applyAllResetEveryCache() {
+        applier.apply(InvalidationEvent.all());
+        rebuildTasks.forEach(Runnable::run);
+
+        Mockito.verify(searchCache).evictAll();
+        Mockito.verify(suggestIndex).rebuild();
+        Mockito.verify(availabilityIndex).invalidateAll();
+        Mockito.verify(occupancyIndex).invalidateAll();
+    }
+
+    @Test
+    void applyAllQueueOneSuggestRebuildUntilItStarts() {
+        applier.apply(InvalidationEvent.all());
+        applier.apply(InvalidationEvent.all());
+
+        Mockito.verifyNoInteractions(suggestIndex);
+        assertEquals(1, rebuildTasks.size());
+
+        rebuildTasks.get(0).run();
+        applier.apply(InvalidationEvent.all());
+
+        Mockito.verify(suggestIndex).rebuild();
+        assertEquals(2, rebuildTasks.size());
+    }
+}
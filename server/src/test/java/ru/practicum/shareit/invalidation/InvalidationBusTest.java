@@ -0,0 +1,180 @@
+package ru.practicum.shareit.invalidation;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationBusTest {
+    private final InMemoryTransport transport = new InMemoryTransport();
+
+    @Test
+    void flushDeliverEventsToOtherNodesOnly() {
+        var senderApplier = Mockito.mock(InvalidationApplier.class);
+        var receiverApplier = Mockito.mock(InvalidationApplier.class);
+        var sender = createBus(senderApplier, 7900, 1000);
+
+        createBus(receiverApplier, 7900, 1000);
+        sender.publish(InvalidationEvent.itemBooked(1L));
+        sender.publish(InvalidationEvent.userDeleted(2L, List.of(3L)));
+        sender.flush();
+
+        Mockito.verify(receiverApplier).apply(InvalidationEvent.itemBooked(1L));
+        Mockito.verify(receiverApplier).apply(InvalidationEvent.userDeleted(2L, List.of(3L)));
+        Mockito.verifyNoInteractions(senderApplier);
+        assertEquals(1, transport.sentMessages.size());
+    }
+
+    @Test
+    void publishCoalesceEventsOfSameItem() {
+        var bus = createBus(Mockito.mock(InvalidationApplier.class), 7900, 1000);
+
+        bus.publish(InvalidationEvent.itemChanged(1L, List.of("drill", "old"), "drill old"));
+        bus.publish(InvalidationEvent.itemChanged(1L, List.of("drill", "new"), "drill new"));
+        bus.publish(InvalidationEvent.itemBooked(1L));
+        bus.publish(InvalidationEvent.itemBooked(1L));
+
+        assertEquals(List.of(InvalidationEvent.itemChanged(1L, List.of("drill", "old", "new"), "drill new"),
+                InvalidationEvent.itemBooked(1L)), bus.getPendingEvents());
+    }
+
+    @Test
+    void publishReplaceEventsWithAllWhenQueueOverflows() {
+        var bus = createBus(Mockito.mock(InvalidationApplier.class), 7900, 2);
+
+        bus.publish(InvalidationEvent.itemBooked(1L));
+        bus.publish(InvalidationEvent.itemBooked(2L));
+        bus.publish(InvalidationEvent.itemBooked(3L));
+        bus.publish(InvalidationEvent.itemBooked(4L));
+
+        assertEquals(List.of(InvalidationEvent.all()), bus.getPendingEvents());
+    }
+
+    @Test
+    void flushSplitEventsIntoMessagesOfAtMostMaxSize() {
+        var receiverApplier = Mockito.mock(InvalidationApplier.class);
+        var sender = createBus(Mockito.mock(InvalidationApplier.class), 150, 1000);
+
+        createBus(receiverApplier, 150, 1000);
+        for (long itemId = 1; itemId <= 5; itemId++) {
+            sender.publish(InvalidationEvent.itemBooked(itemId));
+        }
+        sender.flush();
+
+        assertTrue(transport.sentMessages.size() > 1);
+        assertTrue(transport.sentMessages.stream().allMatch(message -> message.length() <= 150));
+        Mockito.verify(receiverApplier, Mockito.times(5)).apply(Mockito.any());
+    }
+
+    @Test
+    void flushSendAllInsteadOfEventTooLargeForMessage() {
+        var receiverApplier = Mockito.mock(InvalidationApplier.class);
+        var sender = createBus(Mockito.mock(InvalidationApplier.class), 150, 1000);
+
+        createBus(receiverApplier, 150, 1000);
+        sender.publish(InvalidationEvent.itemChanged(1L, List.of("a".repeat(200)), "a"));
+        sender.flush();
+
+        Mockito.verify(receiverApplier).apply(InvalidationEvent.all());
+        Mockito.verifyNoMoreInteractions(receiverApplier);
+    }
+
+    @Test
+    void flushKeepEventsWhenSendFails() {
+        var bus = createBus(Mockito.mock(InvalidationApplier.class), 7900, 1000);
+
+        transport.failing = true;
+        bus.publish(InvalidationEvent.itemBooked(1L));
+        bus.flush();
+
+        assertEquals(List.of(InvalidationEvent.itemBooked(1L)), bus.getPendingEvents());
+    }
+
+    @Test
+    void receiveResetCachesOnUnreadableMessageAndReset() {
+        var applier = Mockito.mock(InvalidationApplier.class);
+        var bus = createBus(applier, 7900, 1000);
+
+        bus.receive("not json");
+        transport.reset();
+
+        Mockito.verify(applier, Mockito.times(2)).apply(InvalidationEvent.all());
+    }
+
+    @Test
+    void subscribeFlushPendingEventsPeriodically() throws InterruptedException {
+        var bus = createBus(Mockito.mock(InvalidationApplier.class), 7900, 1000, Duration.ofMillis(10));
+
+        try {
+            bus.publish(InvalidationEvent.itemBooked(1L));
+
+            for (int i = 0; i < 100 && transport.sentMessages.isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+
+            assertTrue(bus.getPendingEvents().isEmpty());
+            assertEquals(1, transport.sentMessages.size());
+        } finally {
+            bus.shutdown();
+        }
+    }
+
+    private InvalidationBus createBus(InvalidationApplier applier, int maxMessageSize, int maxPendingEvents) {
+        return createBus(applier, maxMessageSize, maxPendingEvents, Duration.ofHours(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private InvalidationBus createBus(InvalidationApplier applier, int maxMessageSize, int maxPendingEvents,
+                                     Duration flushInterval) {
+        var transportProvider = (ObjectProvider<InvalidationTransport>) Mockito.mock(ObjectProvider.class);
+        var properties = new InvalidationProperties();
+
+        properties.setFlushInterval(flushInterval);
+        properties.setMaxMessageSize(maxMessageSize);
+        properties.setMaxPendingEvents(maxPendingEvents);
+        Mockito.when(transportProvider.getIfAvailable()).thenReturn(transport);
+
+        var bus = new InvalidationBus(transportProvider, applier, properties);
+
+        bus.subscribe();
+        return bus;
+    }
+
+    private static class InMemoryTransport implements InvalidationTransport {
+        private final List<Consumer<String>> subscribers = new ArrayList<>();
+        private final List<Runnable> resets = new ArrayList<>();
+        private final List<String> sentMessages = new CopyOnWriteArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(String message) {
+            if (failing) {
+                throw new IllegalStateException("connection refused");
+            }
+            sentMessages.add(message);
+            subscribers.forEach(subscriber -> subscriber.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> onMessage, Runnable onReset) {
+            subscribers.add(onMessage);
+            resets.add(onReset);
+        }
+
+        @Override
+        public void close() {
+            subscribers.clear();
+        }
+
+        void reset() {
+            resets.forEach(Runnable::run);
+        }
+    }
+}
@@ -15,19 +15,32 @@ class BookingInfoMapperTest {
     private LocalDateTime nextDateTime = LocalDateTime.of(2022, 8, 25, 10, 23, 0);
 
     @Test
-    void mapBookingToBookingInfoDtoReturnNullWhenArgumentIsNull() {
-        assertNull(BookingInfoMapper.mapBookingToBookingInfoDto(null));
+    void mapLastAndNextBookingToBookingInfoDtoReturnNullWhenArgumentIsNull() {
+        assertNull(BookingInfoMapper.mapLastBookingToBookingInfoDto(null));
+        assertNull(BookingInfoMapper.mapNextBookingToBookingInfoDto(null));
     }
 
     @Test
-    void mapBookingToBookingInfoDtoReturnDto() {
-        var user = createUser();
-        var booking = createBooking(user, getNextDateTime());
+    void mapLastAndNextBookingToBookingInfoDtoReturnNullWhenSummaryHasNoBookings() {
+        var summary = ItemBookingSummary.of(1, null, null, null);
 
-        var bookingInfoDto = BookingInfoMapper.mapBookingToBookingInfoDto(booking);
+        assertNull(BookingInfoMapper.mapLastBookingToBookingInfoDto(summary));
+        assertNull(BookingInfoMapper.mapNextBookingToBookingInfoDto(summary));
+    }
+
+    @Test
+    void mapLastAndNextBookingToBookingInfoDtoReturnDto() {
+        var lastBooking = createBooking(createUser(), getNextDateTime());
+        var nextBooking = createBooking(createUser(), getNextDateTime());
+        var summary = ItemBookingSummary.of(1, lastBooking, nextBooking, nextBooking.getStartTime());
+
+        var lastBookingDto = BookingInfoMapper.mapLastBookingToBookingInfoDto(summary);
+        var nextBookingDto = BookingInfoMapper.mapNextBookingToBookingInfoDto(summary);
 
-        assertEquals(booking.getId(), bookingInfoDto.getId());
-        assertEquals(booking.getUser().getId(), bookingInfoDto.getBookerId());
+        assertEquals(lastBooking.getId(), lastBookingDto.getId());
+        assertEquals(lastBooking.getUser().getId(), lastBookingDto.getBookerId());
+        assertEquals(nextBooking.getId(), nextBookingDto.getId());
+        assertEquals(nextBooking.getUser().getId(), nextBookingDto.getBookerId());
     }
 
     private User createUser() {
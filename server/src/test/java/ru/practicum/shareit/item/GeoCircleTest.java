@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoCircleTest {
+    @Test
+    void cellOfReturnSameCellForNearPointsAndDifferentCellsForDistantOnes() {
+        assertEquals(GeoCircle.cellOf(55.751, 37.617), GeoCircle.cellOf(55.759, 37.619));
+        assertNotEquals(GeoCircle.cellOf(55.751, 37.617), GeoCircle.cellOf(59.939, 30.315));
+        assertEquals(GeoCircle.cellOf(10, -180), GeoCircle.cellOf(10, 180));
+    }
+
+    @Test
+    void cellsContainCellsOfPointsWithinRadius() {
+        var circle = new GeoCircle(55.751, 37.617, 10);
+
+        assertTrue(circle.getCells().contains(GeoCircle.cellOf(55.751, 37.617)));
+        assertTrue(circle.getCells().contains(GeoCircle.cellOf(55.841, 37.617)));
+        assertTrue(circle.getCells().contains(GeoCircle.cellOf(55.751, 37.775)));
+        assertFalse(circle.getCells().contains(GeoCircle.cellOf(55.751, 38.1)));
+    }
+
+    @Test
+    void cellsWrapAroundAntimeridian() {
+        var circle = new GeoCircle(0, 179.99, 5);
+
+        assertTrue(circle.getCells().contains(GeoCircle.cellOf(0, 179.99)));
+        assertTrue(circle.getCells().contains(GeoCircle.cellOf(0, -179.99)));
+    }
+
+    @Test
+    void radiusSquareAndLongitudeScaleMatchDegreesAtLatitude() {
+        var circle = new GeoCircle(60, 30, GeoCircle.KM_PER_DEGREE);
+
+        assertEquals(1.0, circle.getRadiusSquare(), 1e-9);
+        assertEquals(0.25, circle.getLongitudeScale(), 1e-9);
+    }
+}
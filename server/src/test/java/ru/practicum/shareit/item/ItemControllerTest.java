@@ -8,11 +8,16 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.fieldset.FieldsetConfiguration;
 import ru.practicum.shareit.item.dto.BookingInfoDto;
+import ru.practicum.shareit.item.dto.CalendarSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exceptions.BookingToCreateCommentNotFoundException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
@@ -20,6 +25,7 @@ import ru.practicum.shareit.item.exceptions.UserIsNotItemOwnerException;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -29,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
+@Import(FieldsetConfiguration.class)
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 class ItemControllerTest {
     private final MockMvc mvc;
@@ -98,14 +105,15 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.nextBooking.id").value(nextBookingDto.getId()))
                 .andExpect(jsonPath("$.nextBooking.bookerId").value(nextBookingDto.getBookerId()))
                 .andExpect(jsonPath("$.comments").isArray())
-                .andExpect(jsonPath("$.comments").isEmpty());
+                .andExpect(jsonPath("$.comments").isEmpty())
+                .andExpect(jsonPath("$.commentsCount").value(0));
     }
 
     @Test
     void getItemsByUserIdReturnStatus404WhenUserIdIsInvalid() throws Exception {
         var errMsg = "Пользователь с id = 10 не найден";
 
-        Mockito.when(itemService.getAllItemsForUser(10, 0, 3))
+        Mockito.when(itemService.getAllItemsForUser(10, 0, 3, Fieldset.ALL))
                 .thenThrow(new UserNotFoundException(errMsg));
 
         mvc.perform(get("/items?from=0&size=3")
@@ -126,7 +134,7 @@ class ItemControllerTest {
         itemDto.setLastBooking(lastBookingDto);
         itemDto.setNextBooking(nextBookingDto);
 
-        Mockito.when(itemService.getAllItemsForUser(1, 0, 2))
+        Mockito.when(itemService.getAllItemsForUser(1, 0, 2, Fieldset.ALL))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items?from=0&size=2")
@@ -257,7 +265,7 @@ class ItemControllerTest {
     void findItemsByNameAndDescriptionReturnStatus200AndItem() throws Exception {
         var itemDto = createItemDto("Item", "description");
 
-        Mockito.when(itemService.findItemsByNameAndDescription("Tem", 0, 2))
+        Mockito.when(itemService.findItemsByNameAndDescription("Tem", 0, 2, Fieldset.ALL))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search?text=Tem&from=0&size=2")
@@ -277,6 +285,111 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].comments").isEmpty());
     }
 
+    @Test
+    void findItemsByNameAndDescriptionReturnStatus200AndFreeItemsWhenWindowIsSet() throws Exception {
+        var itemDto = createItemDto("Item", "description");
+        var start = LocalDateTime.of(2030, 1, 10, 12, 0, 0);
+        var end = LocalDateTime.of(2030, 1, 12, 12, 0, 0);
+
+        Mockito.when(itemService.findFreeItemsByNameAndDescription("Tem", start, end, 0, 2, Fieldset.ALL))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items/search?text=Tem&from=0&size=2&start=2030-01-10T12:00:00&end=2030-01-12T12:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemDto.getId()));
+
+        Mockito.verify(itemService, Mockito.never()).findItemsByNameAndDescription(Mockito.anyString(),
+                Mockito.anyLong(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void findItemsByNameAndDescriptionReturnStatus200AndNearItemsWhenNearIsSet() throws Exception {
+        var itemDto = createItemDto("Item", "description");
+
+        Mockito.when(itemService.findItemsByNameAndDescriptionNear(Mockito.eq("Tem"), Mockito.any(GeoCircle.class),
+                        Mockito.isNull(), Mockito.isNull(), Mockito.eq(0L), Mockito.eq(2), Mockito.eq(Fieldset.ALL)))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items/search?text=Tem&from=0&size=2&near=55.751,37.617&radius=5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemDto.getId()));
+
+        Mockito.verify(itemService).findItemsByNameAndDescriptionNear(Mockito.eq("Tem"),
+                Mockito.argThat(near -> near.getLatitude() == 55.751 && near.getLongitude() == 37.617
+                        && near.getRadiusKm() == 5), Mockito.isNull(), Mockito.isNull(), Mockito.eq(0L),
+                Mockito.eq(2), Mockito.eq(Fieldset.ALL));
+    }
+
+    @Test
+    void getItemCalendarReturnStatus200AndSlots() throws Exception {
+        var from = LocalDate.of(2030, 1, 10);
+        var to = LocalDate.of(2030, 1, 20);
+        var calendar = new ItemCalendarDto(1, List.of(new CalendarSlotDto(from, from.plusDays(2), true),
+                new CalendarSlotDto(from.plusDays(3), to, false)));
+
+        Mockito.when(itemService.getItemCalendar(1, from, to))
+                .thenReturn(calendar);
+
+        mvc.perform(get("/items/1/calendar?from=2030-01-10&to=2030-01-20")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.slots[0].start").value("2030-01-10"))
+                .andExpect(jsonPath("$.slots[0].end").value("2030-01-12"))
+                .andExpect(jsonPath("$.slots[0].free").value(true))
+                .andExpect(jsonPath("$.slots[1].free").value(false));
+    }
+
+    @Test
+    void getItemsCalendarsReturnStatus200AndCalendarOfEachItem() throws Exception {
+        var from = LocalDate.of(2030, 1, 10);
+        var to = LocalDate.of(2030, 1, 20);
+
+        Mockito.when(itemService.getItemsCalendars(List.of(1L, 2L), from, to))
+                .thenReturn(List.of(new ItemCalendarDto(1, List.of(new CalendarSlotDto(from, to, true))),
+                        new ItemCalendarDto(2, List.of(new CalendarSlotDto(from, to, false)))));
+
+        mvc.perform(get("/items/calendar?ids=1,2&from=2030-01-10&to=2030-01-20")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(1))
+                .andExpect(jsonPath("$[1].itemId").value(2))
+                .andExpect(jsonPath("$[1].slots[0].free").value(false));
+    }
+
+    @Test
+    void suggestReturnStatus200AndCompletions() throws Exception {
+        Mockito.when(itemService.suggest("cordless dr", 5))
+                .thenReturn(List.of("drill", "driver"));
+
+        mvc.perform(get("/items/suggest?prefix=cordless dr&size=5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0]").value("drill"))
+                .andExpect(jsonPath("$[1]").value("driver"));
+    }
+
+    @Test
+    void findItemsByNameAndDescriptionReturnOnlyRequestedFields() throws Exception {
+        var itemDto = createItemDto("Item", "description");
+        var fieldset = ItemFieldset.parse("id,name,comments", "bookings");
+
+        Mockito.when(itemService.findItemsByNameAndDescription("Tem", 0, 2, fieldset))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items/search?text=Tem&from=0&size=2&fields=id,name,comments&embed=bookings")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemDto.getId()))
+                .andExpect(jsonPath("$[0].name").value(itemDto.getName()))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].available").doesNotExist())
+                .andExpect(jsonPath("$[0].comments").doesNotExist());
+    }
+
     @Test
     void createCommentReturnStatus400WhenCreateCommentWithoutBooking() throws Exception {
         var creationTime = LocalDateTime.now();
@@ -320,6 +433,35 @@ class ItemControllerTest {
                         .format(formatter)));
     }
 
+    @Test
+    void getItemCommentsReturnStatus404WhenItemIdIsInvalid() throws Exception {
+        var errMsg = "Элемент с id = 10 не найден";
+
+        Mockito.when(itemService.getItemComments(10L, null, 2))
+                .thenThrow(new ItemNotFoundException(errMsg));
+
+        mvc.perform(get("/items/10/comments?size=2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value(errMsg));
+    }
+
+    @Test
+    void getItemCommentsReturnStatus200AndComments() throws Exception {
+        var commentDto = createCommentDto("comment", LocalDateTime.now());
+
+        Mockito.when(itemService.getItemComments(1L, 5L, 2))
+                .thenReturn(List.of(commentDto));
+
+        mvc.perform(get("/items/1/comments?before=5&size=2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(commentDto.getId()))
+                .andExpect(jsonPath("$[0].text").value(commentDto.getText()));
+    }
+
     private long getNextItemId() {
         return nextItemId++;
     }
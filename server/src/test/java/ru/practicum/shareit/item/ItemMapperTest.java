@@ -6,6 +6,7 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.LocationDto;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.user.User;
 
@@ -38,15 +39,16 @@ class ItemMapperTest {
         assertEquals(item.getName(), itemDto.getName());
         assertEquals(item.getDescription(), itemDto.getDescription());
         assertEquals(item.getAvailable(), itemDto.getAvailable());
-        assertEquals(item.getLastBooking().getId(), itemDto.getLastBooking().getId());
-        assertEquals(item.getLastBooking().getUser().getId(), itemDto.getLastBooking().getBookerId());
-        assertEquals(item.getNextBooking().getId(), itemDto.getNextBooking().getId());
-        assertEquals(item.getNextBooking().getUser().getId(), itemDto.getNextBooking().getBookerId());
+        assertEquals(item.getBookingSummary().getLastBookingId(), itemDto.getLastBooking().getId());
+        assertEquals(item.getBookingSummary().getLastBookerId(), itemDto.getLastBooking().getBookerId());
+        assertEquals(item.getBookingSummary().getNextBookingId(), itemDto.getNextBooking().getId());
+        assertEquals(item.getBookingSummary().getNextBookerId(), itemDto.getNextBooking().getBookerId());
         assertEquals(1, commentsDto.length);
-        assertEquals(item.getComments().get(0).getId(), commentsDto[0].getId());
-        assertEquals(item.getComments().get(0).getUser().getName(), commentsDto[0].getAuthorName());
-        assertEquals(item.getComments().get(0).getText(), commentsDto[0].getText());
-        assertEquals(item.getComments().get(0).getCreationDate(), commentsDto[0].getCreated());
+        assertEquals(item.getCommentsCount(), itemDto.getCommentsCount());
+        assertEquals(item.getLatestComments().get(0).getId(), commentsDto[0].getId());
+        assertEquals(item.getLatestComments().get(0).getAuthorName(), commentsDto[0].getAuthorName());
+        assertEquals(item.getLatestComments().get(0).getText(), commentsDto[0].getText());
+        assertEquals(item.getLatestComments().get(0).getCreationDate(), commentsDto[0].getCreated());
         assertNull(itemDto.getRequestId());
     }
 
@@ -67,6 +69,23 @@ class ItemMapperTest {
         assertEquals(itemDto.getAvailable(), item.getAvailable());
     }
 
+    @Test
+    void mapItemDtoToItemAndBackKeepLocation() {
+        var itemDto = createIncomingItemDto();
+
+        itemDto.setLocation(new LocationDto(55.751, 37.617));
+
+        var item = ItemMapper.mapItemDtoToItem(itemDto, createUser());
+        var mappedDto = ItemMapper.mapItemToItemDto(item);
+
+        assertEquals(55.751, item.getLatitude());
+        assertEquals(37.617, item.getLongitude());
+        assertEquals(55.751, mappedDto.getLocation().getLatitude());
+        assertEquals(37.617, mappedDto.getLocation().getLongitude());
+        assertNull(ItemMapper.mapItemToItemDto(ItemMapper.mapItemDtoToItem(createIncomingItemDto(), createUser()))
+                .getLocation());
+    }
+
     @Test
     void mapItemDtoToItemOverloadedReturnNullWhenItemDtoArgumentIsNull() {
         var user = createUser();
@@ -113,15 +132,15 @@ class ItemMapperTest {
         assertEquals(itemOne.getName(), itemsDto[0].getName());
         assertEquals(itemOne.getDescription(), itemsDto[0].getDescription());
         assertEquals(itemOne.getAvailable(), itemsDto[0].getAvailable());
-        assertEquals(itemOne.getLastBooking().getId(), itemsDto[0].getLastBooking().getId());
-        assertEquals(itemOne.getLastBooking().getUser().getId(), itemsDto[0].getLastBooking().getBookerId());
-        assertEquals(itemOne.getNextBooking().getId(), itemsDto[0].getNextBooking().getId());
-        assertEquals(itemOne.getNextBooking().getUser().getId(), itemsDto[0].getNextBooking().getBookerId());
+        assertEquals(itemOne.getBookingSummary().getLastBookingId(), itemsDto[0].getLastBooking().getId());
+        assertEquals(itemOne.getBookingSummary().getLastBookerId(), itemsDto[0].getLastBooking().getBookerId());
+        assertEquals(itemOne.getBookingSummary().getNextBookingId(), itemsDto[0].getNextBooking().getId());
+        assertEquals(itemOne.getBookingSummary().getNextBookerId(), itemsDto[0].getNextBooking().getBookerId());
         assertEquals(1, commentsDto.length);
-        assertEquals(itemOne.getComments().get(0).getId(), commentsDto[0].getId());
-        assertEquals(itemOne.getComments().get(0).getUser().getName(), commentsDto[0].getAuthorName());
-        assertEquals(itemOne.getComments().get(0).getText(), commentsDto[0].getText());
-        assertEquals(itemOne.getComments().get(0).getCreationDate(), commentsDto[0].getCreated());
+        assertEquals(itemOne.getLatestComments().get(0).getId(), commentsDto[0].getId());
+        assertEquals(itemOne.getLatestComments().get(0).getAuthorName(), commentsDto[0].getAuthorName());
+        assertEquals(itemOne.getLatestComments().get(0).getText(), commentsDto[0].getText());
+        assertEquals(itemOne.getLatestComments().get(0).getCreationDate(), commentsDto[0].getCreated());
         assertNull(itemsDto[0].getRequestId());
 
         commentsDto = itemsDto[1].getComments().toArray(new CommentDto[1]);
@@ -130,15 +149,15 @@ class ItemMapperTest {
         assertEquals(itemTwo.getName(), itemsDto[1].getName());
         assertEquals(itemTwo.getDescription(), itemsDto[1].getDescription());
         assertEquals(itemTwo.getAvailable(), itemsDto[1].getAvailable());
-        assertEquals(itemTwo.getLastBooking().getId(), itemsDto[1].getLastBooking().getId());
-        assertEquals(itemTwo.getLastBooking().getUser().getId(), itemsDto[1].getLastBooking().getBookerId());
-        assertEquals(itemTwo.getNextBooking().getId(), itemsDto[1].getNextBooking().getId());
-        assertEquals(itemTwo.getNextBooking().getUser().getId(), itemsDto[1].getNextBooking().getBookerId());
+        assertEquals(itemTwo.getBookingSummary().getLastBookingId(), itemsDto[1].getLastBooking().getId());
+        assertEquals(itemTwo.getBookingSummary().getLastBookerId(), itemsDto[1].getLastBooking().getBookerId());
+        assertEquals(itemTwo.getBookingSummary().getNextBookingId(), itemsDto[1].getNextBooking().getId());
+        assertEquals(itemTwo.getBookingSummary().getNextBookerId(), itemsDto[1].getNextBooking().getBookerId());
         assertEquals(1, commentsDto.length);
-        assertEquals(itemTwo.getComments().get(0).getId(), commentsDto[0].getId());
-        assertEquals(itemTwo.getComments().get(0).getUser().getName(), commentsDto[0].getAuthorName());
-        assertEquals(itemTwo.getComments().get(0).getText(), commentsDto[0].getText());
-        assertEquals(itemTwo.getComments().get(0).getCreationDate(), commentsDto[0].getCreated());
+        assertEquals(itemTwo.getLatestComments().get(0).getId(), commentsDto[0].getId());
+        assertEquals(itemTwo.getLatestComments().get(0).getAuthorName(), commentsDto[0].getAuthorName());
+        assertEquals(itemTwo.getLatestComments().get(0).getText(), commentsDto[0].getText());
+        assertEquals(itemTwo.getLatestComments().get(0).getCreationDate(), commentsDto[0].getCreated());
         assertNull(itemsDto[1].getRequestId());
     }
 
@@ -174,9 +193,11 @@ class ItemMapperTest {
         var nextBooking = createBooking(createUser(), item, getNextDateTime());
         var comment = createComment(bookerOne, item, getNextDateTime(), "Text");
 
-        item.setLastBooking(lastBooking);
-        item.setNextBooking(nextBooking);
-        item.setComments(List.of(comment));
+        item.setBookingSummary(ItemBookingSummary.of(item.getId(), lastBooking, nextBooking,
+                nextBooking.getStartTime()));
+        item.setLatestComments(List.of(new CommentView(item.getId(), comment.getId(), bookerOne.getName(),
+                comment.getCreationDate(), comment.getText())));
+        item.setCommentsCount(3);
         return item;
     }
 
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.PageableByOffsetAndSize;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentView;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserDao;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class CommentRepositoryTest {
+    private long nextUserId = 1;
+    private final CommentRepository commentRepository;
+    private final ItemDao itemRepository;
+    private final UserDao userRepository;
+
+    @Test
+    void findLatestIdsByItemIdsReturnLatestCommentsOfEachItem() {
+        var author = userRepository.save(createUser());
+        var itemOne = itemRepository.save(createItem(author));
+        var itemTwo = itemRepository.save(createItem(author));
+
+        commentRepository.save(createComment(author, itemOne, "One"));
+        var commentTwo = commentRepository.save(createComment(author, itemOne, "Two"));
+        var commentThree = commentRepository.save(createComment(author, itemTwo, "Three"));
+        var commentFour = commentRepository.save(createComment(author, itemOne, "Four"));
+
+        var ids = commentRepository.findLatestIdsByItemIds(List.of(itemOne.getId(), itemTwo.getId()), 2).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of(commentTwo.getId(), commentThree.getId(), commentFour.getId()), ids);
+    }
+
+    @Test
+    void findAllViewsByIdsReturnCommentViews() {
+        var author = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(author));
+        var comment = commentRepository.save(createComment(author, item, "One"));
+
+        var views = commentRepository.findAllViewsByIds(List.of(comment.getId()));
+
+        assertEquals(1, views.size());
+        assertEquals(item.getId(), views.get(0).getItemId());
+        assertEquals(comment.getId(), views.get(0).getId());
+        assertEquals(author.getName(), views.get(0).getAuthorName());
+        assertEquals(comment.getText(), views.get(0).getText());
+    }
+
+    @Test
+    void findAllViewsByItemIdBeforeReturnPageOlderThanBeforeId() {
+        var author = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(author));
+        var commentOne = commentRepository.save(createComment(author, item, "One"));
+        var commentTwo = commentRepository.save(createComment(author, item, "Two"));
+        var commentThree = commentRepository.save(createComment(author, item, "Three"));
+        var pageable = new PageableByOffsetAndSize(0, 2, Sort.unsorted());
+
+        var firstPage = commentRepository.findAllViewsByItemIdBefore(item.getId(), Long.MAX_VALUE, pageable);
+        var secondPage = commentRepository.findAllViewsByItemIdBefore(item.getId(),
+                firstPage.get(firstPage.size() - 1).getId(), pageable);
+
+        assertEquals(List.of(commentThree.getId(), commentTwo.getId()),
+                firstPage.stream().map(CommentView::getId).collect(Collectors.toList()));
+        assertEquals(List.of(commentOne.getId()),
+                secondPage.stream().map(CommentView::getId).collect(Collectors.toList()));
+    }
+
+    private long getNextUserId() {
+        return nextUserId++;
+    }
+
+    private Comment createComment(User author, Item item, String text) {
+        var comment = new Comment();
+
+        comment.setUser(author);
+        comment.setItem(item);
+        comment.setText(text);
+        return comment;
+    }
+
+    private Item createItem(User owner) {
+        var item = new Item();
+
+        item.setName("name");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private User createUser() {
+        var user = new User();
+        var userId = getNextUserId();
+
+        user.setName("user " + userId);
+        user.setEmail(String.format("user%d@email.ru", userId));
+        return user;
+    }
+}
@@ -4,12 +4,27 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.PageableByOffsetAndSize;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentsCount;
+import ru.practicum.shareit.item.GeoCircle;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.ItemText;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserDao;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -18,6 +33,9 @@ class ItemDaoTest {
     private long nextUserId = 1;
     private final ItemDao itemRepository;
     private final UserDao userRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
 
     @Test
     void findByNameOrDescriptionLikeAndIsAvailableTrueReturnFirstItem() {
@@ -114,6 +132,80 @@ class ItemDaoTest {
         assertEquals(itemOne.getOwner(), items.get(0).getOwner());
     }
 
+    @Test
+    void findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetweenSkipItemsWithOverlappingBookings() {
+        var owner = userRepository.save(createUser());
+        var booker = userRepository.save(createUser());
+        var freeItem = itemRepository.save(createItem(owner, "drill one", "description"));
+        var bookedItem = itemRepository.save(createItem(owner, "drill two", "description"));
+        var coveredItem = itemRepository.save(createItem(owner, "drill three", "description"));
+        var touchedItem = itemRepository.save(createItem(owner, "drill four", "description"));
+        var start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        var end = start.plusDays(2);
+        var pageable = new PageableByOffsetAndSize(0, 10, Sort.unsorted());
+
+        bookingRepository.save(createBooking(booker, freeItem, start.minusDays(5), start.minusDays(1)));
+        bookingRepository.save(createBooking(booker, freeItem, end.plusSeconds(1), end.plusDays(1)));
+        bookingRepository.save(createBooking(booker, bookedItem, start.plusHours(1), start.plusHours(2)));
+        bookingRepository.save(createBooking(booker, coveredItem, start.minusDays(1), end.plusDays(1)));
+        bookingRepository.save(createBooking(booker, touchedItem, end, end.plusDays(1)));
+
+        var items = itemRepository.findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetween("DRILL", start, end,
+                pageable);
+
+        assertEquals(List.of(freeItem.getId()), items.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findByNameOrDescriptionLikeAndIsAvailableTrueAndNearReturnItemsWithinRadiusNearestFirst() {
+        var owner = userRepository.save(createUser());
+        var farItem = itemRepository.save(createItem(owner, "drill far", "description", 55.80, 37.617));
+        var nearItem = itemRepository.save(createItem(owner, "drill near", "description", 55.752, 37.618));
+        var pageable = new PageableByOffsetAndSize(0, 10, Sort.unsorted());
+
+        itemRepository.save(createItem(owner, "drill out", "description", 55.751, 38.5));
+        itemRepository.save(createItem(owner, "drill", "description"));
+
+        var items = itemRepository.findByNameOrDescriptionLikeAndIsAvailableTrueAndNear("drill",
+                new GeoCircle(55.751, 37.617, 10), pageable);
+
+        assertEquals(List.of(nearItem.getId(), farItem.getId()),
+                items.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetweenAndNearSkipBookedItems() {
+        var owner = userRepository.save(createUser());
+        var booker = userRepository.save(createUser());
+        var freeItem = itemRepository.save(createItem(owner, "drill one", "description", 55.752, 37.618));
+        var bookedItem = itemRepository.save(createItem(owner, "drill two", "description", 55.752, 37.618));
+        var start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        var pageable = new PageableByOffsetAndSize(0, 10, Sort.unsorted());
+
+        bookingRepository.save(createBooking(booker, bookedItem, start, start.plusDays(1)));
+
+        var items = itemRepository.findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetweenAndNear("drill",
+                start, start.plusDays(2), new GeoCircle(55.751, 37.617, 10), pageable);
+
+        assertEquals(List.of(freeItem.getId()), items.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void saveUpdateGeoCellWhenLocationChanges() {
+        var owner = userRepository.save(createUser());
+        var item = itemRepository.saveAndFlush(createItem(owner, "drill", "description", 55.751, 37.617));
+
+        assertEquals(GeoCircle.cellOf(55.751, 37.617), item.getGeoCell());
+
+        item.setLatitude(59.939);
+        item.setLongitude(30.315);
+        itemRepository.saveAndFlush(item);
+
+        assertEquals(GeoCircle.cellOf(59.939, 30.315), item.getGeoCell());
+        assertEquals(1, itemRepository.findByNameOrDescriptionLikeAndIsAvailableTrueAndNear("drill",
+                new GeoCircle(59.94, 30.31, 1), new PageableByOffsetAndSize(0, 10, Sort.unsorted())).size());
+    }
+
     @Test
     void findAllByOwnerReturnFirstItemOfUserOne() {
         var userOne = userRepository.save(createUser());
@@ -213,10 +305,147 @@ class ItemDaoTest {
         assertEquals(itemTwo.getOwner(), items.get(1).getOwner());
     }
 
+    @Test
+    void findAllWithBookingSummaryByOwnerReturnItemsOfOwnerJoinedWithSummaries() {
+        var userOne = userRepository.save(createUser());
+        var userTwo = userRepository.save(createUser());
+        var itemOne = itemRepository.save(createItem(userOne, "name", "description"));
+        var itemTwo = itemRepository.save(createItem(userOne, "name", "description"));
+        var validUntil = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        var pageable = new PageableByOffsetAndSize(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+
+        itemRepository.save(createItem(userTwo, "name", "description"));
+        summaryRepository.save(ItemBookingSummary.of(itemOne.getId(), null, null, validUntil));
+
+        var items = itemRepository.findAllWithBookingSummaryByOwner(userOne, pageable);
+
+        assertEquals(2, items.size());
+        assertEquals(itemOne.getId(), items.get(0).getItem().getId());
+        assertEquals(validUntil, items.get(0).getBookingSummary().getValidUntil());
+        assertEquals(itemTwo.getId(), items.get(1).getItem().getId());
+        assertNull(items.get(1).getBookingSummary());
+    }
+
+    @Test
+    void findWithBookingSummaryByIdReturnItemJoinedWithSummary() {
+        var user = userRepository.save(createUser());
+        var item = itemRepository.save(createItem(user, "name", "description"));
+
+        summaryRepository.save(ItemBookingSummary.of(item.getId(), null, null, null));
+
+        var itemWithSummary = itemRepository.findWithBookingSummaryById(item.getId()).orElseThrow();
+
+        assertEquals(item.getId(), itemWithSummary.getItem().getId());
+        assertEquals(item.getId(), itemWithSummary.getBookingSummary().getItemId());
+        assertTrue(itemRepository.findWithBookingSummaryById(item.getId() + 100).isEmpty());
+    }
+
+    @Test
+    void findAvailableTextsAfterReturnTextsOfAvailableItemsAfterIdInIdOrder() {
+        var user = userRepository.save(createUser());
+        var itemOne = itemRepository.save(createItem(user, "one", "description one"));
+        var itemTwo = itemRepository.save(createItem(user, "two", "description two"));
+        var unavailableItem = createItem(user, "three", "description three");
+        var itemFour = itemRepository.save(createItem(user, "four", "description four"));
+
+        unavailableItem.setAvailable(false);
+        itemRepository.save(unavailableItem);
+
+        var texts = itemRepository.findAvailableTextsAfter(itemOne.getId(), PageRequest.ofSize(10));
+
+        assertEquals(List.of(itemTwo.getId(), itemFour.getId()),
+                texts.stream().map(ItemText::getId).collect(Collectors.toList()));
+        assertEquals(itemTwo.getName(), texts.get(0).getName());
+        assertEquals(itemTwo.getDescription(), texts.get(0).getDescription());
+    }
+
+    @Test
+    void incrementCommentsCountKeepCountWhenItemIsSaved() {
+        var user = userRepository.save(createUser());
+        var itemOne = itemRepository.saveAndFlush(createItem(user, "one", "description one"));
+        var itemTwo = itemRepository.saveAndFlush(createItem(user, "two", "description two"));
+
+        itemRepository.incrementCommentsCount(itemOne.getId());
+        itemRepository.incrementCommentsCount(itemOne.getId());
+        itemOne.setName("renamed");
+        itemRepository.saveAndFlush(itemOne);
+
+        var counts = itemRepository.findCommentsCountsByIds(List.of(itemOne.getId(), itemTwo.getId())).stream()
+                .collect(Collectors.toMap(CommentsCount::getItemId, CommentsCount::getCount));
+
+        assertEquals(Map.of(itemOne.getId(), 2L, itemTwo.getId(), 0L), counts);
+    }
+
+    @Test
+    void findIdsByOwnerIdReturnOnlyItemsOfOwner() {
+        var owner = userRepository.save(createUser());
+        var other = userRepository.save(createUser());
+        var itemOne = itemRepository.save(createItem(owner, "one", "description one"));
+        var itemTwo = itemRepository.save(createItem(owner, "two", "description two"));
+
+        itemRepository.save(createItem(other, "three", "description three"));
+
+        assertEquals(Set.of(itemOne.getId(), itemTwo.getId()),
+                Set.copyOf(itemRepository.findIdsByOwnerId(owner.getId())));
+    }
+
+    @Test
+    void decrementCommentsCountsByAuthorTakeOnlyCommentsOfAuthor() {
+        var owner = userRepository.save(createUser());
+        var author = userRepository.save(createUser());
+        var other = userRepository.save(createUser());
+        var itemOne = itemRepository.saveAndFlush(createItem(owner, "one", "description one"));
+        var itemTwo = itemRepository.saveAndFlush(createItem(owner, "two", "description two"));
+
+        commentRepository.save(createComment(author, itemOne));
+        commentRepository.save(createComment(author, itemOne));
+        commentRepository.save(createComment(other, itemOne));
+        commentRepository.save(createComment(other, itemTwo));
+        commentRepository.flush();
+        itemRepository.incrementCommentsCount(itemOne.getId());
+        itemRepository.incrementCommentsCount(itemOne.getId());
+        itemRepository.incrementCommentsCount(itemOne.getId());
+        itemRepository.incrementCommentsCount(itemTwo.getId());
+
+        assertEquals(1, itemRepository.decrementCommentsCountsByAuthor(author.getId()));
+
+        var counts = itemRepository.findCommentsCountsByIds(List.of(itemOne.getId(), itemTwo.getId())).stream()
+                .collect(Collectors.toMap(CommentsCount::getItemId, CommentsCount::getCount));
+
+        assertEquals(Map.of(itemOne.getId(), 1L, itemTwo.getId(), 1L), counts);
+    }
+
     private long getNextUserId() {
         return nextUserId++;
     }
 
+    private Booking createBooking(User booker, Item item, LocalDateTime start, LocalDateTime end) {
+        var booking = new Booking();
+
+        booking.setUser(booker);
+        booking.setItem(item);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        return booking;
+    }
+
+    private Comment createComment(User author, Item item) {
+        var comment = new Comment();
+
+        comment.setUser(author);
+        comment.setItem(item);
+        comment.setText("comment");
+        return comment;
+    }
+
+    private Item createItem(User owner, String name, String description, double latitude, double longitude) {
+        var item = createItem(owner, name, description);
+
+        item.setLatitude(latitude);
+        item.setLongitude(longitude);
+        return item;
+    }
+
     private Item createItem(User owner, String name, String description) {
         var item = new Item();
 
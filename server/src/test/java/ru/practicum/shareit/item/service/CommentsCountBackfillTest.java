@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserDao;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CommentsCountBackfill.class)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class CommentsCountBackfillTest {
+    private long nextUserId = 1;
+    private final CommentsCountBackfill backfill;
+    private final CommentRepository commentRepository;
+    private final ItemDao itemRepository;
+    private final UserDao userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void forgetBackfill() {
+        jdbcTemplate.update("DELETE FROM data_migrations WHERE name = ?", CommentsCountBackfill.MIGRATION_NAME);
+    }
+
+    @Test
+    void backfillSetCountsFromComments() {
+        var user = userRepository.save(createUser());
+        var itemOne = itemRepository.save(createItem(user));
+        var itemTwo = itemRepository.save(createItem(user));
+
+        commentRepository.save(createComment(user, itemOne));
+        commentRepository.save(createComment(user, itemOne));
+        commentRepository.flush();
+        setCommentsCount(itemTwo, 5);
+
+        backfill.backfill();
+
+        assertEquals(2, getCommentsCount(itemOne));
+        assertEquals(0, getCommentsCount(itemTwo));
+    }
+
+    @Test
+    void backfillRunOnlyOnce() {
+        var user = userRepository.save(createUser());
+        var item = itemRepository.saveAndFlush(createItem(user));
+
+        backfill.backfill();
+        setCommentsCount(item, 5);
+        backfill.backfill();
+
+        assertEquals(5, getCommentsCount(item));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM data_migrations WHERE name = ?",
+                Integer.class, CommentsCountBackfill.MIGRATION_NAME));
+    }
+
+    private void setCommentsCount(Item item, long count) {
+        jdbcTemplate.update("UPDATE items SET comments_count = ? WHERE id = ?", count, item.getId());
+    }
+
+    private long getCommentsCount(Item item) {
+        return jdbcTemplate.queryForObject("SELECT comments_count FROM items WHERE id = ?", Long.class,
+                item.getId());
+    }
+
+    private Comment createComment(User author, Item item) {
+        var comment = new Comment();
+
+        comment.setUser(author);
+        comment.setItem(item);
+        comment.setText("comment");
+        return comment;
+    }
+
+    private Item createItem(User owner) {
+        var item = new Item();
+
+        item.setName("name");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private User createUser() {
+        var user = new User();
+        var userId = nextUserId++;
+
+        user.setName("user " + userId);
+        user.setEmail(String.format("user%d@email.ru", userId));
+        return user;
+    }
+}
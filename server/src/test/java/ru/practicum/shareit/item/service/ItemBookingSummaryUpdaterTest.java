@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserDao;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ItemBookingSummaryUpdater.class)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class ItemBookingSummaryUpdaterTest {
+    private long nextUserId = 1;
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemDao itemRepository;
+    private final UserDao userRepository;
+    private final TestEntityManager entityManager;
+
+    @Test
+    void computeReturnLastAndNextBookingValidUntilNextChange() {
+        var item = itemRepository.save(createItem(userRepository.save(createUser())));
+        var booker = userRepository.save(createUser());
+        var refTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var olderBooking = bookingRepository.save(createBooking(booker, item, refTime.minusDays(10), 1));
+        var lastBooking = bookingRepository.save(createBooking(booker, item, refTime.minusDays(5), 1));
+        var currentBooking = bookingRepository.save(createBooking(booker, item, refTime.minusDays(1), 2));
+        var nextBooking = bookingRepository.save(createBooking(booker, item, refTime.plusDays(3), 1));
+
+        bookingRepository.save(createBooking(booker, item, refTime.plusDays(7), 1));
+
+        var summary = summaryUpdater.compute(item.getId(), refTime);
+
+        assertNotEquals(olderBooking.getId(), summary.getLastBookingId());
+        assertEquals(lastBooking.getId(), summary.getLastBookingId());
+        assertEquals(booker.getId(), summary.getLastBookerId());
+        assertEquals(lastBooking.getEndTime(), summary.getLastEndTime());
+        assertEquals(nextBooking.getId(), summary.getNextBookingId());
+        assertEquals(nextBooking.getStartTime(), summary.getNextStartTime());
+        assertEquals(currentBooking.getEndTime(), summary.getValidUntil());
+    }
+
+    @Test
+    void computeReturnSummaryWhichNeverExpiresWhenItemHasNoUnfinishedBookings() {
+        var item = itemRepository.save(createItem(userRepository.save(createUser())));
+        var refTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var booking = bookingRepository.save(createBooking(userRepository.save(createUser()), item,
+                refTime.minusDays(5), 1));
+
+        var summary = summaryUpdater.compute(item.getId(), refTime);
+
+        assertEquals(booking.getId(), summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        assertNull(summary.getValidUntil());
+        assertTrue(summary.isValidAt(LocalDateTime.MAX));
+    }
+
+    @Test
+    void computeTakeLastBookingFromArchiveWhenNoLiveBookingHasFinished() {
+        var item = itemRepository.save(createItem(userRepository.save(createUser())));
+        var booker = userRepository.save(createUser());
+        var refTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var olderBooking = bookingRepository.save(createBooking(booker, item, refTime.minusDays(20), 1));
+        var archivedBooking = bookingRepository.save(createBooking(booker, item, refTime.minusDays(10), 1));
+        var nextBooking = bookingRepository.save(createBooking(booker, item, refTime.plusDays(3), 1));
+
+        bookingRepository.copyToArchive(List.of(olderBooking.getId(), archivedBooking.getId()));
+        bookingRepository.deleteAllByIdIn(List.of(olderBooking.getId(), archivedBooking.getId()));
+
+        var summary = summaryUpdater.compute(item.getId(), refTime);
+
+        assertEquals(archivedBooking.getId(), summary.getLastBookingId());
+        assertEquals(booker.getId(), summary.getLastBookerId());
+        assertEquals(archivedBooking.getEndTime(), summary.getLastEndTime());
+        assertEquals(nextBooking.getId(), summary.getNextBookingId());
+    }
+
+    @Test
+    void refreshExpiredRefreshExpiredSummariesOnly() {
+        var owner = userRepository.save(createUser());
+        var expiredItem = itemRepository.save(createItem(owner));
+        var validItem = itemRepository.save(createItem(owner));
+        var refTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var booking = bookingRepository.save(createBooking(userRepository.save(createUser()), expiredItem,
+                refTime.minusDays(2), 1));
+
+        summaryRepository.save(ItemBookingSummary.of(expiredItem.getId(), null, booking, booking.getStartTime()));
+        summaryRepository.save(ItemBookingSummary.of(validItem.getId(), null, null, refTime.plusDays(1)));
+
+        assertEquals(1, summaryUpdater.refreshExpired(refTime, 10));
+        assertEquals(0, summaryUpdater.refreshExpired(refTime, 10));
+
+        var expiredItemSummary = summaryRepository.findById(expiredItem.getId()).orElseThrow();
+
+        assertEquals(booking.getId(), expiredItemSummary.getLastBookingId());
+        assertNull(expiredItemSummary.getNextBookingId());
+        assertEquals(refTime.plusDays(1), summaryRepository.findById(validItem.getId()).orElseThrow()
+                .getValidUntil());
+    }
+
+    @Test
+    void refreshCreateMissingSummaryAndUpdateExistingOne() {
+        var item = itemRepository.save(createItem(userRepository.save(createUser())));
+        var booker = userRepository.save(createUser());
+        var refTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var lastBooking = bookingRepository.save(createBooking(booker, item, refTime.minusDays(5), 1));
+
+        summaryUpdater.refresh(item.getId());
+
+        assertEquals(lastBooking.getId(), summaryRepository.findById(item.getId()).orElseThrow().getLastBookingId());
+
+        var nextBooking = bookingRepository.save(createBooking(booker, item, refTime.plusDays(3), 1));
+
+        summaryUpdater.refresh(item.getId());
+
+        assertEquals(nextBooking.getId(), summaryRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+        assertEquals(1, summaryRepository.count());
+    }
+
+    @Test
+    void expireBookedByExpireSummariesOfUserAndKeepThemWhenUserIsDeleted() {
+        var owner = userRepository.save(createUser());
+        var booker = userRepository.save(createUser());
+        var bookedItem = itemRepository.save(createItem(owner));
+        var otherItem = itemRepository.save(createItem(owner));
+        var refTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var booking = bookingRepository.save(createBooking(booker, bookedItem, refTime.minusDays(5), 1));
+
+        summaryRepository.save(ItemBookingSummary.of(bookedItem.getId(), booking, null, null));
+        summaryRepository.save(ItemBookingSummary.of(otherItem.getId(), null, null, null));
+
+        summaryUpdater.expireBookedBy(booker.getId());
+        userRepository.delete(booker);
+        entityManager.flush();
+        entityManager.clear();
+
+        var bookedItemSummary = summaryRepository.findById(bookedItem.getId()).orElseThrow();
+
+        assertFalse(bookedItemSummary.isValidAt(LocalDateTime.now()));
+        assertNull(summaryRepository.findById(otherItem.getId()).orElseThrow().getValidUntil());
+        assertNull(summaryUpdater.compute(bookedItem.getId(), LocalDateTime.now()).getLastBookingId());
+    }
+
+    private long getNextUserId() {
+        return nextUserId++;
+    }
+
+    private Booking createBooking(User booker, Item item, LocalDateTime start, int days) {
+        var booking = new Booking();
+
+        booking.setUser(booker);
+        booking.setItem(item);
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusDays(days));
+        return booking;
+    }
+
+    private Item createItem(User owner) {
+        var item = new Item();
+
+        item.setName("name");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private User createUser() {
+        var user = new User();
+        var userId = getNextUserId();
+
+        user.setName("user " + userId);
+        user.setEmail(String.format("user%d@email.ru", userId));
+        return user;
+    }
+}
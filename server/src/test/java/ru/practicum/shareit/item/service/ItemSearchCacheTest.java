@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+    @Test
+    void getReturnCachedPageOfSameTextIgnoringCase() {
+        var cache = new ItemSearchCache(true, 100, DataSize.ofMegabytes(1));
+
+        cache.put("Drill", 0, 10, List.of(3L, 1L), cache.getVersion());
+
+        assertEquals(List.of(3L, 1L), cache.get("dRILL", 0, 10).orElseThrow());
+        assertTrue(cache.get("drill", 10, 10).isEmpty());
+        assertTrue(cache.get("drill ", 0, 10).isEmpty());
+    }
+
+    @Test
+    void evictMatchingEvictAllPagesOfTextsFoundInContents() {
+        var cache = new ItemSearchCache(true, 100, DataSize.ofMegabytes(1));
+
+        cache.put("dri", 0, 10, List.of(1L), cache.getVersion());
+        cache.put("dri", 10, 10, List.of(2L), cache.getVersion());
+        cache.put("saw", 0, 10, List.of(3L), cache.getVersion());
+
+        cache.evictMatching(List.of("Cordless DRILL", "description"));
+
+        assertTrue(cache.get("dri", 0, 10).isEmpty());
+        assertTrue(cache.get("dri", 10, 10).isEmpty());
+        assertEquals(List.of(3L), cache.get("saw", 0, 10).orElseThrow());
+        assertEquals(1, cache.getEntriesCount());
+    }
+
+    @Test
+    void evictMatchingFindTextsShorterAndLongerThanPrefixAnywhereInContents() {
+        var cache = new ItemSearchCache(true, 100, DataSize.ofMegabytes(1));
+
+        cache.put("l", 0, 10, List.of(1L), cache.getVersion());
+        cache.put("ll", 0, 10, List.of(2L), cache.getVersion());
+        cache.put("less drill", 0, 10, List.of(3L), cache.getVersion());
+        cache.put("lesson", 0, 10, List.of(4L), cache.getVersion());
+        cache.put("saw", 0, 10, List.of(5L), cache.getVersion());
+
+        cache.evictMatching(List.of("Cordless DRILL"));
+
+        assertTrue(cache.get("l", 0, 10).isEmpty());
+        assertTrue(cache.get("ll", 0, 10).isEmpty());
+        assertTrue(cache.get("less drill", 0, 10).isEmpty());
+        assertEquals(List.of(4L), cache.get("lesson", 0, 10).orElseThrow());
+        assertEquals(List.of(5L), cache.get("saw", 0, 10).orElseThrow());
+
+        cache.put("less drill", 0, 10, List.of(6L), cache.getVersion());
+        cache.evictMatching(List.of("cordless drill"));
+
+        assertTrue(cache.get("less drill", 0, 10).isEmpty());
+    }
+
+    @Test
+    void evictAllEvictEveryPageAndIgnorePagesReadBefore() {
+        var cache = new ItemSearchCache(true, 100, DataSize.ofMegabytes(1));
+
+        cache.put("dri", 0, 10, List.of(1L), cache.getVersion());
+        cache.put("saw", 0, 10, List.of(3L), cache.getVersion());
+        var readVersion = cache.getVersion();
+
+        cache.evictAll();
+        cache.put("saw", 10, 10, List.of(4L), readVersion);
+
+        assertEquals(0, cache.getEntriesCount());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void putIgnorePageReadBeforeEviction() {
+        var cache = new ItemSearchCache(true, 100, DataSize.ofMegabytes(1));
+        var readVersion = cache.getVersion();
+
+        cache.evictMatching(List.of("drill"));
+        cache.put("drill", 0, 10, List.of(1L), readVersion);
+
+        assertTrue(cache.get("drill", 0, 10).isEmpty());
+    }
+
+    @Test
+    void putEvictLeastRecentlyUsedEntriesOverCapacity() {
+        var cache = new ItemSearchCache(true, 2, DataSize.ofMegabytes(1));
+
+        cache.put("one", 0, 10, List.of(1L), cache.getVersion());
+        cache.put("two", 0, 10, List.of(2L), cache.getVersion());
+        cache.get("one", 0, 10);
+        cache.put("three", 0, 10, List.of(3L), cache.getVersion());
+
+        assertTrue(cache.get("one", 0, 10).isPresent());
+        assertTrue(cache.get("two", 0, 10).isEmpty());
+        assertTrue(cache.get("three", 0, 10).isPresent());
+    }
+
+    @Test
+    void putKeepUsedMemoryUnderMaxSize() {
+        var cache = new ItemSearchCache(true, 100, DataSize.ofBytes(1000));
+
+        for (long i = 0; i < 10; i++) {
+            cache.put("text " + i, 0, 20, List.of(i, i + 1, i + 2, i + 3, i + 4, i + 5, i + 6, i + 7, i + 8, i + 9),
+                    cache.getVersion());
+        }
+
+        assertTrue(cache.getUsedBytes() <= 1000);
+        assertTrue(cache.getEntriesCount() < 10);
+        assertTrue(cache.get("text 9", 0, 20).isPresent());
+    }
+
+    @Test
+    void getAndPutSkipTextsWithLikeWildcardsAndDisabledCache() {
+        var cache = new ItemSearchCache(true, 100, DataSize.ofMegabytes(1));
+        var disabledCache = new ItemSearchCache(false, 100, DataSize.ofMegabytes(1));
+
+        cache.put("dr_ll", 0, 10, List.of(1L), cache.getVersion());
+        disabledCache.put("drill", 0, 10, List.of(1L), disabledCache.getVersion());
+
+        assertTrue(cache.get("dr_ll", 0, 10).isEmpty());
+        assertTrue(disabledCache.get("drill", 0, 10).isEmpty());
+        assertEquals(0, cache.getEntriesCount());
+    }
+
+    @Test
+    void bindToReportHitRatio() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var cache = new ItemSearchCache(true, 100, DataSize.ofMegabytes(1));
+
+        cache.bindTo(meterRegistry);
+        cache.get("drill", 0, 10);
+        cache.put("drill", 0, 10, List.of(1L), cache.getVersion());
+        cache.get("drill", 0, 10);
+        cache.get("drill", 0, 10);
+        cache.get("drill", 0, 10);
+
+        assertEquals(0.75, meterRegistry.get("shareit.item.search.cache.hit.ratio").gauge().value());
+        assertEquals(3.0, meterRegistry.get("shareit.item.search.cache.requests").tag("result", "hit")
+                .functionCounter().count());
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.fieldset.Fieldset;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -55,7 +56,7 @@ class ItemServiceImplTest {
 
         itemRepository.save(createItem(userTwo, "Item 2", "description 2"));
 
-        var items = assertDoesNotThrow(() -> itemService.getAllItemsForUser(userOne.getId(), 0, 2)
+        var items = assertDoesNotThrow(() -> itemService.getAllItemsForUser(userOne.getId(), 0, 2, Fieldset.ALL)
                 .toArray(new ItemDto[1]));
 
 
@@ -127,7 +128,7 @@ class ItemServiceImplTest {
 
         itemRepository.save(createItem(userOne, "name", "description of name"));
 
-        var items = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("TeM", 0, 4)
+        var items = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("TeM", 0, 4, Fieldset.ALL)
                 .toArray(new ItemDto[1]));
 
         assertEquals(1, items.length);
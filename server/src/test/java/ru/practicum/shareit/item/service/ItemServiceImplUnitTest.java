@@ -10,18 +10,28 @@ import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.PageableByOffsetAndSize;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.fieldset.Fieldset;
+import ru.practicum.shareit.invalidation.InvalidationBus;
 import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentView;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.ItemFieldset;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemWithBookingSummary;
+import ru.practicum.shareit.item.dto.CalendarSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exceptions.BookingToCreateCommentNotFoundException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.exceptions.UserIsNotItemOwnerException;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.requests.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.requests.repository.ItemRequestRepository;
@@ -29,9 +39,12 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.repository.UserDao;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,6 +71,24 @@ class ItemServiceImplUnitTest {
     @Mock
     private ItemRequestRepository requestRepository;
 
+    @Mock
+    private ItemCommentsLoader commentsLoader;
+
+    @Mock
+    private ItemBookingSummaryUpdater summaryUpdater;
+
+    @Mock
+    private ItemSearchCache searchCache;
+
+    @Mock
+    private ItemSuggestIndex suggestIndex;
+
+    @Mock
+    private ItemOccupancyIndex occupancyIndex;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -69,7 +100,7 @@ class ItemServiceImplUnitTest {
                 .thenReturn(Optional.empty());
 
         var ex = assertThrows(UserNotFoundException.class,
-                () -> itemService.getAllItemsForUser(10, 0, 1));
+                () -> itemService.getAllItemsForUser(10, 0, 1, Fieldset.ALL));
 
         assertEquals(errMsg, ex.getMessage());
     }
@@ -87,13 +118,11 @@ class ItemServiceImplUnitTest {
         Mockito.when(userRepository.findById(itemOwner.getId()))
                 .thenReturn(Optional.of(itemOwner));
 
-        Mockito.when(itemRepository.findAllByOwner(itemOwner, pageable))
-                .thenReturn(List.of(item));
-
-        Mockito.when(bookingRepository.findAllByItem(item))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        Mockito.when(itemRepository.findAllWithBookingSummaryByOwner(itemOwner, pageable))
+                .thenReturn(List.of(new ItemWithBookingSummary(item, ItemBookingSummary.of(item.getId(), lastBooking,
+                        nextBooking, nextBooking.getStartTime()))));
 
-        var itemDto = assertDoesNotThrow(() -> itemService.getAllItemsForUser(itemOwner.getId(), 0, 1))
+        var itemDto = assertDoesNotThrow(() -> itemService.getAllItemsForUser(itemOwner.getId(), 0, 1, Fieldset.ALL))
                 .toArray(new ItemDto[1]);
 
         assertEquals(1, itemDto.length);
@@ -107,6 +136,62 @@ class ItemServiceImplUnitTest {
         assertEquals(nextBooking.getUser().getId(), itemDto[0].getNextBooking().getBookerId());
         assertNull(itemDto[0].getRequestId());
         assertNull(itemDto[0].getComments());
+
+        Mockito.verify(summaryUpdater, Mockito.never()).compute(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void getAllItemsForUserComputeBookingSummaryWhenStoredOneIsMissingOrExpired() {
+        var itemOwner = createUser();
+        var expiredItem = createItem(itemOwner);
+        var newItem = createItem(itemOwner);
+        var booking = createBooking(createUser(), expiredItem, LocalDateTime.now().minusDays(5));
+        var pageable = new PageableByOffsetAndSize(0, 2, Sort.by(Sort.Direction.ASC, "id"));
+
+        Mockito.when(userRepository.findById(itemOwner.getId()))
+                .thenReturn(Optional.of(itemOwner));
+
+        Mockito.when(itemRepository.findAllWithBookingSummaryByOwner(itemOwner, pageable))
+                .thenReturn(List.of(new ItemWithBookingSummary(expiredItem, ItemBookingSummary.of(expiredItem.getId(),
+                        null, booking, booking.getStartTime())), new ItemWithBookingSummary(newItem, null)));
+
+        Mockito.when(summaryUpdater.compute(Mockito.eq(expiredItem.getId()), Mockito.any(LocalDateTime.class)))
+                .thenReturn(ItemBookingSummary.of(expiredItem.getId(), booking, null, null));
+
+        Mockito.when(summaryUpdater.compute(Mockito.eq(newItem.getId()), Mockito.any(LocalDateTime.class)))
+                .thenReturn(ItemBookingSummary.of(newItem.getId(), null, null, null));
+
+        var itemDto = assertDoesNotThrow(() -> itemService.getAllItemsForUser(itemOwner.getId(), 0, 2, Fieldset.ALL))
+                .toArray(new ItemDto[2]);
+
+        assertEquals(2, itemDto.length);
+        assertEquals(booking.getId(), itemDto[0].getLastBooking().getId());
+        assertNull(itemDto[0].getNextBooking());
+        assertNull(itemDto[1].getLastBooking());
+        assertNull(itemDto[1].getNextBooking());
+    }
+
+    @Test
+    void getAllItemsForUserSkipBookingsAndCommentsWhenNotRequested() {
+        var itemOwner = createUser();
+        var item = createItem(itemOwner);
+        var pageable = new PageableByOffsetAndSize(0, 1, Sort.by(Sort.Direction.ASC, "id"));
+
+        Mockito.when(userRepository.findById(itemOwner.getId()))
+                .thenReturn(Optional.of(itemOwner));
+
+        Mockito.when(itemRepository.findAllByOwner(itemOwner, pageable))
+                .thenReturn(List.of(item));
+
+        var itemDto = assertDoesNotThrow(() -> itemService.getAllItemsForUser(itemOwner.getId(), 0, 1,
+                ItemFieldset.parse("id,name,lastBooking", "comments"))).toArray(new ItemDto[1]);
+
+        assertEquals(1, itemDto.length);
+        assertEquals(item.getId(), itemDto[0].getId());
+        assertNull(itemDto[0].getLastBooking());
+
+        Mockito.verify(itemRepository, Mockito.never()).findAllWithBookingSummaryByOwner(Mockito.any(), Mockito.any());
+        Mockito.verify(commentsLoader, Mockito.never()).addLatestComments(Mockito.any());
     }
 
     @Test
@@ -149,6 +234,8 @@ class ItemServiceImplUnitTest {
         assertNull(outputItemDto.getNextBooking());
 
         Mockito.verify(requestRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(summaryUpdater, Mockito.times(1)).create(outputItemDto.getId());
+        Mockito.verify(suggestIndex, Mockito.times(1)).update(Mockito.any(Item.class));
     }
 
     @Test
@@ -257,6 +344,8 @@ class ItemServiceImplUnitTest {
 
         var resultingItemDto = assertDoesNotThrow(() -> itemService.updateItem(newItemDto, itemOwner.getId()));
 
+        Mockito.verify(searchCache, Mockito.times(1)).evictMatching(List.of(itemDto.getName(),
+                itemDto.getDescription(), newItemDto.getName(), itemDto.getDescription()));
         assertEquals(itemDto.getId(), resultingItemDto.getId());
         assertEquals(newItemDto.getName(), resultingItemDto.getName());
         assertEquals(itemDto.getDescription(), resultingItemDto.getDescription());
@@ -327,7 +416,7 @@ class ItemServiceImplUnitTest {
 
     @Test
     void findItemsByNameAndDescriptionReturnEmptyCollectionWhenTextIsBlank() {
-        var result = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("  ", 0, 1));
+        var result = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("  ", 0, 1, Fieldset.ALL));
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -343,7 +432,7 @@ class ItemServiceImplUnitTest {
                         Mockito.eq(pageable)))
                 .thenReturn(List.of(item));
 
-        var result = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("Item", 0, 1))
+        var result = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("Item", 0, 1, Fieldset.ALL))
                 .toArray(new ItemDto[1]);
 
         assertEquals(1, result.length);
@@ -351,13 +440,113 @@ class ItemServiceImplUnitTest {
         assertEquals(item.getName(),result[0].getName());
         assertEquals(item.getDescription(),result[0].getDescription());
         assertEquals(item.getAvailable(),result[0].getAvailable());
+        Mockito.verify(searchCache, Mockito.times(1)).put(Mockito.eq("Item"), Mockito.eq(0L), Mockito.eq(1),
+                Mockito.eq(List.of(item.getId())), Mockito.anyLong());
     }
 
     @Test
-    void getItemByIdAndUserThrowsExceptionWhenItemIdIsIllegal() {
+    void findItemsByNameAndDescriptionReturnCachedItemsInPageOrder() {
+        var itemOwner = createUser();
+        var itemOne = createItem(itemOwner);
+        var itemTwo = createItem(itemOwner);
+
+        Mockito.when(searchCache.get("Item", 0, 2))
+                .thenReturn(Optional.of(List.of(itemTwo.getId(), itemOne.getId())));
+
+        Mockito.when(itemRepository.findAllById(List.of(itemTwo.getId(), itemOne.getId())))
+                .thenReturn(List.of(itemOne, itemTwo));
+
+        var result = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("Item", 0, 2, Fieldset.ALL))
+                .toArray(new ItemDto[2]);
+
+        assertEquals(itemTwo.getId(), result[0].getId());
+        assertEquals(itemOne.getId(), result[1].getId());
+        Mockito.verify(itemRepository, Mockito.never()).findByNameOrDescriptionLikeAndIsAvailableTrue(Mockito.any(),
+                Mockito.any());
+    }
+
+    @Test
+    void findItemsByNameAndDescriptionSearchAgainWhenCachedItemWasDeleted() {
+        var pageable = new PageableByOffsetAndSize(0, 2, Sort.unsorted());
+        var itemOwner = createUser();
+        var item = createItem(itemOwner);
+
+        Mockito.when(searchCache.get("Item", 0, 2))
+                .thenReturn(Optional.of(List.of(item.getId(), item.getId() + 100)));
+
+        Mockito.when(itemRepository.findAllById(List.of(item.getId(), item.getId() + 100)))
+                .thenReturn(List.of(item));
+
+        Mockito.when(itemRepository.findByNameOrDescriptionLikeAndIsAvailableTrue("Item", pageable))
+                .thenReturn(List.of(item));
+
+        var result = assertDoesNotThrow(() -> itemService.findItemsByNameAndDescription("Item", 0, 2, Fieldset.ALL));
+
+        assertEquals(1, result.size());
+        Mockito.verify(searchCache, Mockito.times(1)).put(Mockito.eq("Item"), Mockito.eq(0L), Mockito.eq(2),
+                Mockito.eq(List.of(item.getId())), Mockito.anyLong());
+    }
+
+    @Test
+    void findFreeItemsByNameAndDescriptionReturnItemsFreeInWindowBypassingCache() {
+        var pageable = new PageableByOffsetAndSize(0, 2, Sort.unsorted());
+        var item = createItem(createUser());
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(2);
+
+        Mockito.when(itemRepository.findByNameOrDescriptionLikeAndIsAvailableTrueAndFreeBetween("Item", start, end,
+                        pageable))
+                .thenReturn(List.of(item));
+
+        var result = assertDoesNotThrow(() -> itemService.findFreeItemsByNameAndDescription("Item", start, end, 0, 2,
+                Fieldset.ALL));
+
+        assertEquals(1, result.size());
+        assertEquals(item.getId(), result.iterator().next().getId());
+        Mockito.verifyNoInteractions(searchCache);
+    }
+
+    @Test
+    void getItemCalendarThrowsExceptionWhenItemIdIsIllegal() {
         Mockito.when(itemRepository.findById(10L))
                 .thenReturn(Optional.empty());
 
+        assertThrows(ItemNotFoundException.class, () -> itemService.getItemCalendar(10, LocalDate.now(),
+                LocalDate.now().plusDays(1)));
+        Mockito.verifyNoInteractions(occupancyIndex);
+    }
+
+    @Test
+    void getItemsCalendarsSkipUnknownItemsAndKeepRequestedOrder() {
+        var itemOwner = createUser();
+        var itemOne = createItem(itemOwner);
+        var itemTwo = createItem(itemOwner);
+        var from = LocalDate.now();
+        var to = from.plusDays(1);
+        var requestedIds = List.of(itemTwo.getId(), itemTwo.getId() + 100, itemOne.getId());
+        var slots = List.of(new CalendarSlotDto(from, to, true));
+        var calendars = new LinkedHashMap<Long, List<CalendarSlotDto>>();
+
+        calendars.put(itemTwo.getId(), slots);
+        calendars.put(itemOne.getId(), slots);
+
+        Mockito.when(itemRepository.findAllById(requestedIds))
+                .thenReturn(List.of(itemOne, itemTwo));
+
+        Mockito.when(occupancyIndex.getCalendars(List.of(itemTwo.getId(), itemOne.getId()), from, to))
+                .thenReturn(calendars);
+
+        var result = itemService.getItemsCalendars(requestedIds, from, to);
+
+        assertEquals(List.of(itemTwo.getId(), itemOne.getId()),
+                result.stream().map(ItemCalendarDto::getItemId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void getItemByIdAndUserThrowsExceptionWhenItemIdIsIllegal() {
+        Mockito.when(itemRepository.findWithBookingSummaryById(10L))
+                .thenReturn(Optional.empty());
+
         var ex = assertThrows(ItemNotFoundException.class,
                 () -> itemService.getItemByIdAndUser(1, 10));
 
@@ -373,11 +562,9 @@ class ItemServiceImplUnitTest {
         var lastBooking = createBooking(lastBookingAuthor, item, LocalDateTime.now().minusDays(5));
         var nextBooking = createBooking(nextBookingAuthor, item, LocalDateTime.now().plusDays(5));
 
-        Mockito.when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.of(item));
-
-        Mockito.when(bookingRepository.findAllByItem(item))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        Mockito.when(itemRepository.findWithBookingSummaryById(item.getId()))
+                .thenReturn(Optional.of(new ItemWithBookingSummary(item, ItemBookingSummary.of(item.getId(),
+                        lastBooking, nextBooking, nextBooking.getStartTime()))));
 
         var itemDto = assertDoesNotThrow(() -> itemService.getItemByIdAndUser(itemOwner.getId(), item.getId()));
 
@@ -392,7 +579,7 @@ class ItemServiceImplUnitTest {
         assertNull(itemDto.getRequestId());
         assertNull(itemDto.getComments());
 
-        Mockito.verify(bookingRepository, Mockito.times(1)).findAllByItem(Mockito.any());
+        Mockito.verify(summaryUpdater, Mockito.never()).compute(Mockito.anyLong(), Mockito.any());
     }
 
     @Test
@@ -400,8 +587,8 @@ class ItemServiceImplUnitTest {
         var itemOwner = createUser();
         var item = createItem(itemOwner);
 
-        Mockito.when(itemRepository.findById(item.getId()))
-                .thenReturn(Optional.of(item));
+        Mockito.when(itemRepository.findWithBookingSummaryById(item.getId()))
+                .thenReturn(Optional.of(new ItemWithBookingSummary(item, null)));
 
         var itemDto = assertDoesNotThrow(() -> itemService.getItemByIdAndUser(itemOwner.getId() + 100,
                 item.getId()));
@@ -415,7 +602,7 @@ class ItemServiceImplUnitTest {
         assertNull(itemDto.getLastBooking());
         assertNull(itemDto.getNextBooking());
 
-        Mockito.verify(bookingRepository, Mockito.never()).findAllByItem(Mockito.any());
+        Mockito.verify(summaryUpdater, Mockito.never()).compute(Mockito.anyLong(), Mockito.any());
     }
 
     @Test
@@ -509,6 +696,52 @@ class ItemServiceImplUnitTest {
         assertEquals(commentAuthor.getName(), outputCommentDto.getAuthorName());
         assertNotNull(outputCommentDto.getCreated());
         assertNotEquals(0, outputCommentDto.getId());
+
+        Mockito.verify(itemRepository, Mockito.times(1)).incrementCommentsCount(item.getId());
+    }
+
+    @Test
+    void getItemCommentsThrowsExceptionWhenItemIdIsIllegal() {
+        Mockito.when(itemRepository.findById(10L))
+                .thenReturn(Optional.empty());
+
+        var ex = assertThrows(ItemNotFoundException.class,
+                () -> itemService.getItemComments(10, null, 10));
+
+        assertEquals("Элемент с id = 10 не найден", ex.getMessage());
+    }
+
+    @Test
+    void getItemCommentsReturnCommentsBeforeId() {
+        var item = createItem(createUser());
+        var comment = new CommentView(item.getId(), 4L, "Author", LocalDateTime.now(), "Comment");
+
+        Mockito.when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+
+        Mockito.when(commentRepository.findAllViewsByItemIdBefore(item.getId(), 5L,
+                        new PageableByOffsetAndSize(0, 2, Sort.unsorted())))
+                .thenReturn(List.of(comment));
+
+        var comments = assertDoesNotThrow(() -> itemService.getItemComments(item.getId(), 5L, 2))
+                .toArray(new CommentDto[0]);
+
+        assertEquals(1, comments.length);
+        assertEquals(comment.getId(), comments[0].getId());
+        assertEquals(comment.getAuthorName(), comments[0].getAuthorName());
+    }
+
+    @Test
+    void getItemCommentsStartFromLatestWhenBeforeIsNull() {
+        var item = createItem(createUser());
+
+        Mockito.when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+
+        itemService.getItemComments(item.getId(), null, 2);
+
+        Mockito.verify(commentRepository, Mockito.times(1)).findAllViewsByItemIdBefore(Mockito.eq(item.getId()),
+                Mockito.eq(Long.MAX_VALUE), Mockito.any());
     }
 
     private long getNextUserId() {
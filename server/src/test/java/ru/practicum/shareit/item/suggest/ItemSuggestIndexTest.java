@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.suggest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemText;
+import ru.practicum.shareit.item.repository.ItemDao;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSuggestIndexTest {
+    @Mock
+    private ItemDao itemDao;
+
+    @Test
+    void rebuildIndexAvailableItemsInBatches() {
+        var index = new ItemSuggestIndex(itemDao, 10, 2);
+
+        Mockito.when(itemDao.findAvailableTextsAfter(0, PageRequest.ofSize(2)))
+                .thenReturn(List.of(new ItemText(1L, "Drill", "Cordless drill"),
+                        new ItemText(2L, "Driver", "Screw driver, drill bits")));
+        Mockito.when(itemDao.findAvailableTextsAfter(2, PageRequest.ofSize(2)))
+                .thenReturn(List.of(new ItemText(5L, "Saw", "Hand saw")));
+
+        index.rebuild();
+
+        assertEquals(List.of("drill", "driver"), index.complete("Dr", 10));
+        assertEquals(List.of("drill"), index.complete("cordless DRI", 1));
+        assertEquals(List.of("saw", "screw"), index.complete("s", 10));
+        assertEquals(List.of(), index.complete("drill ", 10));
+    }
+
+    @Test
+    void updateReplaceTokensOfItemAndRemoveUnavailableItem() {
+        var index = new ItemSuggestIndex(itemDao, 10, 100);
+        var item = createItem(1L, "Drill", "Cordless drill");
+
+        index.update(item);
+        index.update(createItem(2L, "Drum", "Drum kit"));
+
+        assertEquals(List.of("drill", "drum"), index.complete("dr", 10));
+
+        item.setName("Hammer");
+        item.setDescription("Claw hammer");
+        index.update(item);
+
+        assertEquals(List.of("drum"), index.complete("dr", 10));
+        assertEquals(List.of("hammer"), index.complete("ha", 10));
+
+        item.setAvailable(false);
+        index.update(item);
+
+        assertEquals(List.of(), index.complete("ha", 10));
+        assertEquals(2, index.getTokensCount());
+    }
+
+    @Test
+    void removeDropTokensOfItems() {
+        var index = new ItemSuggestIndex(itemDao, 10, 100);
+
+        index.update(createItem(1L, "Drill", "Cordless drill"));
+        index.update(createItem(2L, "Drum", "Drum kit"));
+        index.update(createItem(3L, "Driver", "Screw driver"));
+        index.remove(List.of(1L, 3L, 4L));
+
+        assertEquals(List.of("drum"), index.complete("dr", 10));
+        assertEquals(List.of(), index.complete("cord", 10));
+        assertEquals(2, index.getTokensCount());
+    }
+
+    @Test
+    void tokenizeSplitLowercasedTextAndSkipSingleCharacters() {
+        assertEquals(List.of("дрель", "bosch", "gsb", "13"), ItemSuggestIndex.tokenize("Дрель Bosch-GSB 13 в"));
+    }
+
+    private Item createItem(long id, String name, String description) {
+        var item = new Item();
+
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return item;
+    }
+}
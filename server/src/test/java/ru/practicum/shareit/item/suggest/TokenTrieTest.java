@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenTrieTest {
+    @Test
+    void completeReturnHeaviestTokensWithPrefix() {
+        var trie = new TokenTrie(3);
+
+        trie.add("drill", 3);
+        trie.add("driver", 1);
+        trie.add("drum", 2);
+        trie.add("dress", 2);
+        trie.add("saw", 5);
+
+        assertEquals(List.of("drill", "dress", "drum"), trie.complete("dr", 10));
+        assertEquals(List.of("drill"), trie.complete("dr", 1));
+        assertEquals(List.of("drill", "driver"), trie.complete("dri", 10));
+        assertEquals(List.of("saw", "drill", "dress"), trie.complete("", 10));
+        assertEquals(List.of(), trie.complete("x", 10));
+    }
+
+    @Test
+    void addRerankTokensWhenWeightChangesAndDropTokensWithoutWeight() {
+        var trie = new TokenTrie(2);
+
+        trie.add("drill", 2);
+        trie.add("driver", 1);
+        trie.add("drum", 1);
+        trie.add("driver", 2);
+        trie.add("drill", -2);
+
+        assertEquals(List.of("driver", "drum"), trie.complete("dr", 10));
+        assertEquals(List.of(), trie.complete("dril", 10));
+        assertEquals(2, trie.getTokensCount());
+    }
+
+    @Test
+    void rankAllRankTokensAddedUnranked() {
+        var trie = new TokenTrie(2);
+
+        trie.addUnranked("drill", 1);
+        trie.addUnranked("drum", 3);
+        trie.addUnranked("dress", 2);
+
+        assertEquals(List.of(), trie.complete("dr", 10));
+
+        trie.rankAll();
+
+        assertEquals(List.of("drum", "dress"), trie.complete("dr", 10));
+    }
+
+    @Test
+    void completeFindTokensWhenPrefixEndsInsideEdge() {
+        var trie = new TokenTrie(3);
+
+        trie.add("screwdriver", 1);
+        trie.add("screw", 2);
+        trie.add("scraper", 3);
+
+        assertEquals(List.of("scraper", "screw", "screwdriver"), trie.complete("sc", 10));
+        assertEquals(List.of("screw", "screwdriver"), trie.complete("scre", 10));
+        assertEquals(List.of("screwdriver"), trie.complete("screwd", 10));
+        assertEquals(List.of("screwdriver"), trie.complete("screwdriver", 10));
+        assertEquals(List.of(), trie.complete("screwdrivers", 10));
+        assertEquals(List.of(), trie.complete("scru", 10));
+    }
+
+    @Test
+    void addFoldEdgesBackWhenTokensAreRemoved() {
+        var trie = new TokenTrie(3);
+
+        trie.add("drill", 1);
+        trie.add("drum", 1);
+        trie.add("dr", 1);
+        trie.add("drum", -1);
+        trie.add("dr", -1);
+
+        assertEquals(List.of("drill"), trie.complete("d", 10));
+        assertEquals(List.of("drill"), trie.complete("dri", 10));
+        assertEquals(List.of(), trie.complete("dru", 10));
+
+        trie.add("drum", 1);
+
+        assertEquals(List.of("drill", "drum"), trie.complete("dr", 10));
+        assertEquals(2, trie.getTokensCount());
+    }
+
+    @Test
+    void addIgnoreNegativeWeightOfMissingToken() {
+        var trie = new TokenTrie(3);
+
+        trie.add("drill", 1);
+        trie.add("drum", -1);
+        trie.add("dri", -1);
+        trie.addUnranked("saw", -1);
+        trie.rankAll();
+
+        assertEquals(List.of("drill"), trie.complete("", 10));
+        assertEquals(1, trie.getTokensCount());
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -76,6 +78,20 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.error").value(errMsg));
     }
 
+    @Test
+    void getUserByIdReturnUnknownUserIdHeaderWhenUserIsNotFound() throws Exception {
+        var errMsg = "Пользователь с id = 10 не найден";
+
+        Mockito.when(userService.getUserById(10))
+                .thenThrow(new UserNotFoundException(errMsg, 10L));
+
+        mvc.perform(get("/users/10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("X-Unknown-User-Id", "10"))
+                .andExpect(jsonPath("$.error").value(errMsg));
+    }
+
     @Test
     void createNewUserReturnStatus200AndUserDto() throws Exception {
         var userDto = createUserDtoObj();
@@ -133,6 +149,28 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.error").value(errMsg));
     }
 
+    @Test
+    void createNewUserReadAndReturnSmileWhenRequested() throws Exception {
+        var userDto = createUserDtoObj();
+        var smileMapper = new ObjectMapper(new SmileFactory());
+        var smile = new MediaType("application", "x-jackson-smile");
+
+        Mockito.when(userService.createUser(Mockito.any(UserDto.class)))
+                .thenReturn(userDto);
+
+        var response = mvc.perform(post("/users")
+                        .contentType(smile)
+                        .accept(smile)
+                        .content(smileMapper.writeValueAsBytes(userDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn()
+                .getResponse();
+        var returnedUser = smileMapper.readValue(response.getContentAsByteArray(), UserDto.class);
+
+        assertEquals(userDto, returnedUser);
+    }
+
     private long getNextId() {
         return nextId++;
     }
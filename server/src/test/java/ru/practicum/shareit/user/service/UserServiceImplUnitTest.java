@@ -6,6 +6,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemOccupancyIndex;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationEvent;
+import ru.practicum.shareit.item.repository.ItemDao;
+import ru.practicum.shareit.item.service.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.suggest.ItemSuggestIndex;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
@@ -23,6 +31,27 @@ class UserServiceImplUnitTest {
     @Mock
     private UserDao userRepository;
 
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemOccupancyIndex occupancyIndex;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private ItemBookingSummaryUpdater summaryUpdater;
+
+    @Mock
+    private ItemDao itemRepository;
+
+    @Mock
+    private ItemSuggestIndex suggestIndex;
+
+    @Mock
+    private ItemSearchCache searchCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -145,9 +174,18 @@ class UserServiceImplUnitTest {
 
         Mockito.when(userRepository.findById(user.getId()))
                 .thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findIdsByOwnerId(user.getId()))
+                .thenReturn(List.of(3L, 5L));
 
         assertDoesNotThrow(() -> userService.deleteUser(user.getId()));
+        Mockito.verify(summaryUpdater, Mockito.times(1)).expireBookedBy(user.getId());
+        Mockito.verify(itemRepository, Mockito.times(1)).decrementCommentsCountsByAuthor(user.getId());
         Mockito.verify(userRepository, Mockito.times(1)).delete(user);
+        Mockito.verify(suggestIndex, Mockito.times(1)).remove(List.of(3L, 5L));
+        Mockito.verify(searchCache, Mockito.times(1)).evictAll();
+        Mockito.verify(availabilityIndex, Mockito.times(1)).invalidateAll();
+        Mockito.verify(invalidationBus, Mockito.times(1))
+                .publish(InvalidationEvent.userDeleted(user.getId(), List.of(3L, 5L)));
     }
 
     @Test
@@ -46,4 +46,91 @@ CREATE TABLE IF NOT EXISTS comments(
   create_time TIMESTAMP WITH TIME ZONE NOT NULL,
   CONSTRAINT fk_comments_users_id FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
   CONSTRAINT fk_comments_items_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id_id ON comments (item_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_end_time ON bookings (end_time);
+
+CREATE TABLE IF NOT EXISTS bookings_archive(
+  id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  start_time TIMESTAMP WITH TIME ZONE NOT NULL,
+  end_time TIMESTAMP WITH TIME ZONE NOT NULL,
+  status VARCHAR(10) NOT NULL,
+  CONSTRAINT pk_bookings_archive_id PRIMARY KEY (id),
+  CONSTRAINT fk_bookings_archive_items_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+  CONSTRAINT fk_bookings_archive_users_id FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_end_time ON bookings_archive (end_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_user_id_start_time ON bookings_archive (user_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_id ON bookings_archive (item_id);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10) DEFAULT 'FUTURE' NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_user_id_phase_start_time ON bookings (user_id, phase, start_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_phase_start_time ON bookings (item_id, phase, start_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_start_time ON bookings (phase, start_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_end_time ON bookings (phase, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_start_time ON bookings (item_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_end_time ON bookings (item_id, end_time);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary(
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  last_start_time TIMESTAMP WITH TIME ZONE,
+  last_end_time TIMESTAMP WITH TIME ZONE,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  next_start_time TIMESTAMP WITH TIME ZONE,
+  next_end_time TIMESTAMP WITH TIME ZONE,
+  valid_until TIMESTAMP WITH TIME ZONE,
+  CONSTRAINT pk_item_booking_summary_item_id PRIMARY KEY (item_id),
+  CONSTRAINT fk_item_booking_summary_items_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until ON item_booking_summary (valid_until);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION CHECK (latitude BETWEEN -90 AND 90);
+ALTER TABLE items ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION CHECK (longitude BETWEEN -180 AND 180);
+ALTER TABLE items ADD COLUMN IF NOT EXISTS geo_cell BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_items_geo_cell ON items (geo_cell);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comments_count BIGINT DEFAULT 0 NOT NULL;
+
+INSERT INTO item_booking_summary (item_id, valid_until)
+  SELECT i.id, CURRENT_TIMESTAMP FROM items i
+  WHERE NOT EXISTS (SELECT 1 FROM item_booking_summary s WHERE s.item_id = i.id);
+
+CREATE TABLE IF NOT EXISTS booking_events(
+  id BIGINT GENERATED ALWAYS AS IDENTITY,
+  type VARCHAR(20) NOT NULL,
+  booking_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
+  status VARCHAR(10) NOT NULL,
+  CONSTRAINT pk_booking_events_id PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_events_booker_id_id ON booking_events (booker_id, id);
+CREATE INDEX IF NOT EXISTS idx_booking_events_owner_id_id ON booking_events (owner_id, id);
+
+ALTER TABLE item_booking_summary DROP CONSTRAINT IF EXISTS fk_item_booking_summary_last_booker_id;
+ALTER TABLE item_booking_summary DROP CONSTRAINT IF EXISTS fk_item_booking_summary_next_booker_id;
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_last_booker_id ON item_booking_summary (last_booker_id);
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_booker_id ON item_booking_summary (next_booker_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_user_id ON comments (user_id);
+
+CREATE TABLE IF NOT EXISTS data_migrations(
+  name VARCHAR(100) NOT NULL,
+  applied_at TIMESTAMP WITH TIME ZONE NOT NULL,
+  CONSTRAINT pk_data_migrations_name PRIMARY KEY (name)
 );
\ No newline at end of file